@@ -12,6 +12,7 @@ module net.javacrumbs.shedlock.micronaut4 {
     requires io.micronaut.micronaut_core;
     requires io.micronaut.micronaut_inject;
     requires static org.jspecify;
+    requires static org.reactivestreams;
 
     // Export public packages
     exports net.javacrumbs.shedlock.micronaut;
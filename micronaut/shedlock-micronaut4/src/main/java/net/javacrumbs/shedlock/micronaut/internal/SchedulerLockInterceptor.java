@@ -13,6 +13,7 @@
  */
 package net.javacrumbs.shedlock.micronaut.internal;
 
+import io.micronaut.aop.InterceptedMethod;
 import io.micronaut.aop.MethodInterceptor;
 import io.micronaut.aop.MethodInvocationContext;
 import io.micronaut.context.annotation.Value;
@@ -20,15 +21,21 @@ import io.micronaut.core.convert.ConversionService;
 import jakarta.inject.Singleton;
 import java.time.Duration;
 import java.util.Optional;
+import java.util.concurrent.CompletionStage;
+import net.javacrumbs.shedlock.core.AsyncLockingTaskExecutor;
 import net.javacrumbs.shedlock.core.DefaultLockingTaskExecutor;
 import net.javacrumbs.shedlock.core.LockConfiguration;
 import net.javacrumbs.shedlock.core.LockProvider;
 import net.javacrumbs.shedlock.core.LockingTaskExecutor;
+import net.javacrumbs.shedlock.core.LockingTaskExecutor.TaskResult;
+import net.javacrumbs.shedlock.util.LockingPublisher;
 import org.jspecify.annotations.Nullable;
 
 @Singleton
 public class SchedulerLockInterceptor implements MethodInterceptor<Object, Object> {
     private final LockingTaskExecutor lockingTaskExecutor;
+    private final AsyncLockingTaskExecutor asyncLockingTaskExecutor;
+    private final ConversionService conversionService;
     private final MicronautLockConfigurationExtractor micronautLockConfigurationExtractor;
 
     public SchedulerLockInterceptor(
@@ -43,7 +50,9 @@ public class SchedulerLockInterceptor implements MethodInterceptor<Object, Objec
          */
         ConversionService resolvedConversionService = conversionService.orElse(ConversionService.SHARED);
 
+        this.conversionService = resolvedConversionService;
         lockingTaskExecutor = new DefaultLockingTaskExecutor(lockProvider);
+        asyncLockingTaskExecutor = new AsyncLockingTaskExecutor(lockProvider);
 
         micronautLockConfigurationExtractor = new MicronautLockConfigurationExtractor(
                 convert(resolvedConversionService, defaultLockAtMostFor, "defaultLockAtMostFor"),
@@ -60,18 +69,43 @@ public class SchedulerLockInterceptor implements MethodInterceptor<Object, Objec
 
     @Override
     public @Nullable Object intercept(MethodInvocationContext<Object, Object> context) {
-        Class<?> returnType = context.getReturnType().getType();
-        if (!void.class.equals(returnType) && !Void.class.equals(returnType)) {
-            throw new LockingNotSupportedException();
-        }
-
         Optional<LockConfiguration> lockConfiguration =
                 micronautLockConfigurationExtractor.getLockConfiguration(context.getExecutableMethod());
-        if (lockConfiguration.isPresent()) {
-            lockingTaskExecutor.executeWithLock((Runnable) context::proceed, lockConfiguration.get());
-            return null;
-        } else {
+        if (lockConfiguration.isEmpty()) {
             return context.proceed();
         }
+
+        InterceptedMethod interceptedMethod = InterceptedMethod.of(context, conversionService);
+        if (interceptedMethod.resultType() == InterceptedMethod.ResultType.SYNCHRONOUS) {
+            return executeSynchronously(context, lockConfiguration.get());
+        }
+        try {
+            return switch (interceptedMethod.resultType()) {
+                // the lock is held until the returned CompletionStage completes
+                case COMPLETION_STAGE ->
+                    interceptedMethod.handleResult(asyncLockingTaskExecutor
+                            .executeWithLock(interceptedMethod::interceptResultAsCompletionStage, lockConfiguration.get())
+                            .thenApply(TaskResult::getResult));
+                // the method is invoked after subscription, the lock is held until the publisher terminates
+                case PUBLISHER ->
+                    interceptedMethod.handleResult(LockingPublisher.<Object>defer(
+                            interceptedMethod::interceptResultAsPublisher,
+                            lockConfiguration.get(),
+                            asyncLockingTaskExecutor));
+                default -> throw new LockingNotSupportedException();
+            };
+        } catch (Exception e) {
+            return interceptedMethod.handleException(e);
+        }
+    }
+
+    private @Nullable Object executeSynchronously(
+            MethodInvocationContext<Object, Object> context, LockConfiguration lockConfiguration) {
+        Class<?> returnType = context.getReturnType().getType();
+        if (!void.class.equals(returnType) && !Void.class.equals(returnType)) {
+            throw new LockingNotSupportedException();
+        }
+        lockingTaskExecutor.executeWithLock((Runnable) context::proceed, lockConfiguration);
+        return null;
     }
 }
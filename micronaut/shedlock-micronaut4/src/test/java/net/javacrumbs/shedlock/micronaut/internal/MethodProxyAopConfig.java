@@ -19,8 +19,12 @@ import static org.mockito.Mockito.mock;
 import io.micronaut.context.annotation.Factory;
 import jakarta.inject.Singleton;
 import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
 import net.javacrumbs.shedlock.core.LockProvider;
 import net.javacrumbs.shedlock.micronaut.SchedulerLock;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscription;
 
 @Factory
 public class MethodProxyAopConfig {
@@ -32,6 +36,21 @@ public class MethodProxyAopConfig {
 
     @Singleton
     static class TestBean {
+        private final AtomicBoolean called = new AtomicBoolean(false);
+        private volatile CompletableFuture<String> pendingResult = new CompletableFuture<>();
+
+        void reset() {
+            called.set(false);
+            pendingResult = new CompletableFuture<>();
+        }
+
+        boolean wasMethodCalled() {
+            return called.get();
+        }
+
+        void completePendingResult(String result) {
+            pendingResult.complete(result);
+        }
 
         public void noAnnotation() {
             assertLocked();
@@ -57,6 +76,33 @@ public class MethodProxyAopConfig {
             return 0;
         }
 
+        @SchedulerLock(name = "returnsCompletableFuture")
+        public CompletableFuture<String> returnsCompletableFuture() {
+            called.set(true);
+            assertLocked();
+            return pendingResult;
+        }
+
+        @SchedulerLock(name = "returnsPublisher")
+        public Publisher<String> returnsPublisher() {
+            called.set(true);
+            assertLocked();
+            CompletableFuture<String> result = pendingResult;
+            return subscriber -> {
+                subscriber.onSubscribe(new Subscription() {
+                    @Override
+                    public void request(long n) {}
+
+                    @Override
+                    public void cancel() {}
+                });
+                result.thenAccept(value -> {
+                    subscriber.onNext(value);
+                    subscriber.onComplete();
+                });
+            };
+        }
+
         @SchedulerLock(name = "${property.value}", lockAtLeastFor = "${property.lock-at-least-for}")
         public void property() {}
     }
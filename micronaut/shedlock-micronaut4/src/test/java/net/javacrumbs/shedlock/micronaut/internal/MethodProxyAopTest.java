@@ -13,7 +13,7 @@
  */
 package net.javacrumbs.shedlock.micronaut.internal;
 
-import static net.javacrumbs.shedlock.micronaut.internal.TestUtils.hasParams;
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
@@ -25,16 +25,20 @@ import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
 import jakarta.inject.Inject;
 import java.io.IOException;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import net.javacrumbs.shedlock.core.LockConfiguration;
 import net.javacrumbs.shedlock.core.LockProvider;
 import net.javacrumbs.shedlock.core.SimpleLock;
 import net.javacrumbs.shedlock.micronaut.internal.MethodProxyAopConfig.AnotherTestBean;
 import net.javacrumbs.shedlock.micronaut.internal.MethodProxyAopConfig.TestBean;
+import net.javacrumbs.shedlock.test.support.AbstractAsyncLockingAopTest;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
+import org.reactivestreams.Publisher;
 
 @MicronautTest
-class MethodProxyAopTest {
+class MethodProxyAopTest extends AbstractAsyncLockingAopTest {
     @Inject
     private LockProvider lockProvider;
 
@@ -50,6 +54,42 @@ class MethodProxyAopTest {
     void prepareMocks() {
         Mockito.reset(lockProvider, simpleLock);
         when(lockProvider.lock(any())).thenReturn(Optional.of(simpleLock));
+        testBean.reset();
+    }
+
+    @Override
+    protected LockProvider getLockProvider() {
+        return lockProvider;
+    }
+
+    @Override
+    protected SimpleLock getSimpleLock() {
+        return simpleLock;
+    }
+
+    @Override
+    protected LockConfiguration hasParams(String name, long lockAtMostFor, long lockAtLeastFor) {
+        return TestUtils.hasParams(name, lockAtMostFor, lockAtLeastFor);
+    }
+
+    @Override
+    protected CompletableFuture<String> returnsCompletableFuture() {
+        return testBean.returnsCompletableFuture();
+    }
+
+    @Override
+    protected Publisher<String> returnsPublisher() {
+        return testBean.returnsPublisher();
+    }
+
+    @Override
+    protected boolean wasMethodCalled() {
+        return testBean.wasMethodCalled();
+    }
+
+    @Override
+    protected void completePendingResult(String result) {
+        testBean.completePendingResult(result);
     }
 
     @Test
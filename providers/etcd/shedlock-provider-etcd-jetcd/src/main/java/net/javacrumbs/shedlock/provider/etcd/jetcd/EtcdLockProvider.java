@@ -31,7 +31,12 @@ import io.etcd.jetcd.options.PutOption;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import net.javacrumbs.shedlock.core.AbstractAsyncSimpleLock;
 import net.javacrumbs.shedlock.core.AbstractSimpleLock;
+import net.javacrumbs.shedlock.core.AsyncLockProvider;
+import net.javacrumbs.shedlock.core.AsyncSimpleLock;
 import net.javacrumbs.shedlock.core.ClockProvider;
 import net.javacrumbs.shedlock.core.LockConfiguration;
 import net.javacrumbs.shedlock.core.LockProvider;
@@ -47,8 +52,12 @@ import net.javacrumbs.shedlock.support.LockException;
  * <p>
  * The timeout is implemented with the lease concept of etcd, which grants a TTL
  * for key value pairs.
+ *
+ * <p>
+ * Implements {@link AsyncLockProvider} on top of jetcd futures, so the lock can
+ * be obtained and released without blocking the calling thread.
  */
-public class EtcdLockProvider implements LockProvider {
+public class EtcdLockProvider implements LockProvider, AsyncLockProvider {
     private static final double MILLIS_IN_SECOND = 1000;
 
     private static final String KEY_PREFIX = "shedlock";
@@ -77,6 +86,17 @@ public class EtcdLockProvider implements LockProvider {
         return leaseIdOpt.map(leaseId -> new EtcdLock(key, value, leaseId, etcdTemplate, lockConfiguration));
     }
 
+    @Override
+    public CompletionStage<Optional<AsyncSimpleLock>> lockAsync(LockConfiguration lockConfiguration) {
+        String key = buildKey(lockConfiguration.getName());
+        String value = buildValue();
+
+        return etcdTemplate
+                .tryToLockAsync(key, value, lockConfiguration.getLockAtMostUntil())
+                .thenApply(leaseIdOpt -> leaseIdOpt.map(
+                        leaseId -> new AsyncEtcdLock(key, value, leaseId, etcdTemplate, lockConfiguration)));
+    }
+
     private static long getSecondsUntil(Instant instant) {
         return (long) Math.ceil(getMsUntil(instant) / MILLIS_IN_SECOND);
     }
@@ -135,6 +155,41 @@ public class EtcdLockProvider implements LockProvider {
         }
     }
 
+    private static final class AsyncEtcdLock extends AbstractAsyncSimpleLock {
+        private final String key;
+        private final String value;
+        private final Long successLeaseId;
+        private final EtcdTemplate etcdTemplate;
+
+        private AsyncEtcdLock(
+                String key,
+                String value,
+                Long successLeaseId,
+                EtcdTemplate etcdTemplate,
+                LockConfiguration lockConfiguration) {
+            super(lockConfiguration);
+            this.key = key;
+            this.value = value;
+            this.successLeaseId = successLeaseId;
+            this.etcdTemplate = etcdTemplate;
+        }
+
+        @Override
+        protected CompletionStage<Void> doUnlockAsync() {
+            long keepLockFor = getSecondsUntil(lockConfiguration.getLockAtLeastUntil());
+
+            // see EtcdLock.doUnlock
+            if (keepLockFor <= 0) {
+                return etcdTemplate.revokeAsync(successLeaseId);
+            } else {
+                return etcdTemplate
+                        .createLeaseAsync(keepLockFor)
+                        .thenCompose(leaseId -> etcdTemplate.putWithLeaseIdAsync(key, value, leaseId))
+                        .thenCompose(ignored -> etcdTemplate.revokeAsync(successLeaseId));
+            }
+        }
+    }
+
     private static class EtcdTemplate {
         private final KV kvClient;
         private final Lease leaseClient;
@@ -180,6 +235,60 @@ public class EtcdLockProvider implements LockProvider {
             }
         }
 
+        private CompletionStage<Long> createLeaseAsync(long lockUntilInSeconds) {
+            return leaseClient
+                    .grant(lockUntilInSeconds)
+                    .handle((response, e) -> {
+                        if (e != null) {
+                            throw new LockException("Failed create lease", e);
+                        }
+                        return response.getID();
+                    });
+        }
+
+        private CompletionStage<Optional<Long>> tryToLockAsync(String key, String value, Instant lockAtMostUntil) {
+            return createLeaseAsync(getSecondsUntil(lockAtMostUntil)).thenCompose(leaseId -> {
+                ByteSequence lockKey = toByteSequence(key);
+                PutOption putOption = putOptionWithLeaseId(leaseId);
+
+                // see tryToLock
+                CompletableFuture<TxnResponse> commit = kvClient.txn()
+                        .If(new Cmp(lockKey, Cmp.Op.EQUAL, CmpTarget.version(0)))
+                        .Then(Op.put(lockKey, toByteSequence(value), putOption))
+                        .Else(Op.get(lockKey, DEFAULT))
+                        .commit();
+                CompletionStage<Optional<Long>> result = commit.thenCompose(tr -> {
+                    if (tr.isSucceeded()) {
+                        return CompletableFuture.completedFuture(Optional.of(leaseId));
+                    } else {
+                        return revokeAsync(leaseId).thenApply(ignored -> Optional.empty());
+                    }
+                });
+                return result.exceptionallyCompose(e -> revokeAsync(leaseId).thenApply(ignored -> {
+                    throw new LockException("Failed to set lock " + key, e);
+                }));
+            });
+        }
+
+        private CompletionStage<Void> revokeAsync(Long leaseId) {
+            return leaseClient.revoke(leaseId).handle((response, e) -> {
+                if (e != null) {
+                    throw new LockException("Failed to revoke lease " + leaseId, e);
+                }
+                return null;
+            });
+        }
+
+        private CompletionStage<Void> putWithLeaseIdAsync(String key, String value, Long leaseId) {
+            return kvClient.put(toByteSequence(key), toByteSequence(value), putOptionWithLeaseId(leaseId))
+                    .handle((response, e) -> {
+                        if (e != null) {
+                            throw new LockException("Can not unlock " + leaseId, e);
+                        }
+                        return null;
+                    });
+        }
+
         private void revoke(Long leaseId) {
             try {
                 leaseClient.revoke(leaseId).get();
@@ -16,6 +16,7 @@ package net.javacrumbs.shedlock.provider.etcd.jetcd;
 import static java.nio.charset.StandardCharsets.UTF_8;
 import static java.time.Duration.ofSeconds;
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+import static org.assertj.core.api.AssertionsForClassTypes.assertThatThrownBy;
 import static org.awaitility.Awaitility.await;
 import static org.junit.jupiter.api.Assertions.fail;
 
@@ -24,8 +25,14 @@ import io.etcd.jetcd.Client;
 import io.etcd.jetcd.KV;
 import io.etcd.jetcd.launcher.Etcd;
 import io.etcd.jetcd.launcher.EtcdCluster;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import net.javacrumbs.shedlock.core.AsyncSimpleLock;
 import net.javacrumbs.shedlock.core.LockProvider;
+import net.javacrumbs.shedlock.support.LockException;
 import net.javacrumbs.shedlock.test.support.AbstractLockProviderIntegrationTest;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.AfterEach;
@@ -38,6 +45,7 @@ public class EtcdLockProviderIntegrationTest extends AbstractLockProviderIntegra
     private static final EtcdCluster cluster = new Etcd.Builder().withNodes(1).build();
 
     private EtcdLockProvider lockProvider;
+    private Client client;
     private KV kvClient;
 
     @BeforeAll
@@ -52,7 +60,7 @@ public class EtcdLockProviderIntegrationTest extends AbstractLockProviderIntegra
 
     @BeforeEach
     public void createLockProvider() {
-        Client client = buildClient();
+        client = buildClient();
         // the first call is very slow, so we do this warm up before the actual tests
         warmUpLeaseClient(client);
         kvClient = client.getKVClient();
@@ -86,6 +94,75 @@ public class EtcdLockProviderIntegrationTest extends AbstractLockProviderIntegra
         doTestShouldLockAtLeastFor(2000);
     }
 
+    @Test
+    void shouldLockAsync() {
+        AsyncSimpleLock lock = join(lockProvider.lockAsync(lockConfig(LOCK_NAME1))).orElseThrow();
+        assertLocked(LOCK_NAME1);
+        assertThat(join(lockProvider.lockAsync(lockConfig(LOCK_NAME1)))).isEmpty();
+
+        // etcd does not support extend, the lock is kept until the lease expires
+        assertCompletedExceptionally(
+                lock.extendAsync(ofSeconds(30), Duration.ZERO), UnsupportedOperationException.class);
+        assertLocked(LOCK_NAME1);
+    }
+
+    @Test
+    void shouldUnlockAsync() {
+        AsyncSimpleLock lock = join(lockProvider.lockAsync(lockConfig(LOCK_NAME1))).orElseThrow();
+        join(lock.unlockAsync());
+        assertUnlocked(LOCK_NAME1);
+
+        AsyncSimpleLock relocked = join(lockProvider.lockAsync(lockConfig(LOCK_NAME1))).orElseThrow();
+        join(relocked.unlockAsync());
+        assertUnlocked(LOCK_NAME1);
+    }
+
+    @Test
+    void shouldLockAtLeastForAsync() {
+        AsyncSimpleLock lock = join(lockProvider.lockAsync(lockConfig(LOCK_NAME1, ofSeconds(30), ofSeconds(2))))
+                .orElseThrow();
+        join(lock.unlockAsync());
+
+        // the key is kept with a shorter lease until lockAtLeastFor passes
+        assertLocked(LOCK_NAME1);
+        assertThat(join(lockProvider.lockAsync(lockConfig(LOCK_NAME1)))).isEmpty();
+        await().timeout(ofSeconds(4)).untilAsserted(() -> assertKeysFound(LOCK_NAME1, 0));
+    }
+
+    @Test
+    void shouldCompleteLockExceptionallyIfLeaseCanNotBeCreated() {
+        // etcd rejects leases longer than its maximum TTL
+        CompletionStage<Optional<AsyncSimpleLock>> lock =
+                lockProvider.lockAsync(lockConfig(LOCK_NAME1, Duration.ofDays(365_000), Duration.ZERO));
+
+        assertCompletedExceptionally(lock, LockException.class);
+        assertUnlocked(LOCK_NAME1);
+    }
+
+    @Test
+    void shouldCompleteUnlockExceptionallyIfLeaseIsRevoked() throws Exception {
+        AsyncSimpleLock lock = join(lockProvider.lockAsync(lockConfig(LOCK_NAME1))).orElseThrow();
+        long leaseId = kvClient.get(buildKey(LOCK_NAME1)).get().getKvs().get(0).getLease();
+        client.getLeaseClient().revoke(leaseId).get();
+
+        assertCompletedExceptionally(lock.unlockAsync(), LockException.class);
+    }
+
+    private static void assertCompletedExceptionally(
+            CompletionStage<?> stage, Class<? extends Throwable> expectedCause) {
+        assertThatThrownBy(() -> stage.toCompletableFuture().get(10, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(expectedCause);
+    }
+
+    private static <T> T join(CompletionStage<T> stage) {
+        try {
+            return stage.toCompletableFuture().get(10, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
     @Override
     protected void assertUnlocked(String lockName) {
         await().timeout(ofSeconds(1)).untilAsserted(() -> assertKeysFound(lockName, 0));
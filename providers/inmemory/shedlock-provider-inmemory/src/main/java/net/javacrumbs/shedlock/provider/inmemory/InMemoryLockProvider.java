@@ -2,69 +2,122 @@ package net.javacrumbs.shedlock.provider.inmemory;
 
 import static net.javacrumbs.shedlock.core.ClockProvider.now;
 
-import java.time.Instant;
-import java.util.HashMap;
-import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 import net.javacrumbs.shedlock.core.AbstractSimpleLock;
 import net.javacrumbs.shedlock.core.ExtensibleLockProvider;
 import net.javacrumbs.shedlock.core.LockConfiguration;
 import net.javacrumbs.shedlock.core.SimpleLock;
+import org.jspecify.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
  * In memory lock that is suitable only for tests and running application
  * locally.
+ *
+ * <p>
+ * Each lock record is only modified in {@link ConcurrentHashMap#compute}, so
+ * operations on different lock names do not contend. Expired records are
+ * evicted at most once per minute so the map does not grow with dynamic lock
+ * names. The eviction is done by the thread that happens to lock first after
+ * the interval elapses.
  */
 public class InMemoryLockProvider implements ExtensibleLockProvider {
-    private final Map<String, LockRecord> locks = new HashMap<>();
+    private static final long EVICTION_INTERVAL_MILLIS = 60_000;
+
+    private final ConcurrentHashMap<String, LockRecord> locks = new ConcurrentHashMap<>();
+    private final AtomicLong nextEviction = new AtomicLong();
 
     private final Logger logger = LoggerFactory.getLogger(getClass());
 
     @Override
     public Optional<SimpleLock> lock(LockConfiguration lockConfiguration) {
-        synchronized (locks) {
-            String lockName = lockConfiguration.getName();
-            if (isLocked(lockName)) {
-                return Optional.empty();
-            } else {
-                LockRecord lockRecord = new LockRecord(lockConfiguration.getLockAtMostUntil());
-                locks.put(lockName, lockRecord);
-                logger.debug("Locked {}", lockConfiguration);
-                return Optional.of(new InMemoryLock(lockConfiguration));
+        long now = now().toEpochMilli();
+        long lockedUntil = lockConfiguration.getLockAtMostUntil().toEpochMilli();
+        InMemoryLock lock = new InMemoryLock(lockConfiguration);
+        LockRecord lockRecord = locks.compute(lockConfiguration.getName(), (name, existing) -> {
+            if (existing == null) {
+                return new LockRecord(lockedUntil, lock);
+            }
+            if (existing.lockedUntil <= now) {
+                existing.lockedUntil = lockedUntil;
+                existing.holder = lock;
             }
+            return existing;
+        });
+        long nextEvictionTime = nextEviction.get();
+        // only one thread wins the CAS, the others do not wait for the eviction
+        if (now >= nextEvictionTime && nextEviction.compareAndSet(nextEvictionTime, now + EVICTION_INTERVAL_MILLIS)) {
+            evictExpired(now);
+        }
+        if (lockRecord.holder == lock) {
+            logger.debug("Locked {}", lockConfiguration);
+            return Optional.of(lock);
+        } else {
+            return Optional.empty();
         }
     }
 
     boolean isLocked(String lockName) {
-        synchronized (locks) {
-            LockRecord lockRecord = locks.get(lockName);
-            return lockRecord != null && lockRecord.lockedUntil.isAfter(now());
-        }
+        LockRecord lockRecord = locks.get(lockName);
+        return lockRecord != null && lockRecord.lockedUntil > now().toEpochMilli();
     }
 
-    private void doUnlock(LockConfiguration lockConfiguration) {
-        synchronized (locks) {
-            locks.put(lockConfiguration.getName(), new LockRecord(lockConfiguration.getLockAtLeastUntil()));
-            logger.debug("Unlocked {}", lockConfiguration);
+    int size() {
+        return locks.size();
+    }
+
+    /** Removes records that are not locked anymore. */
+    void evictExpired(long now) {
+        for (String lockName : locks.keySet()) {
+            locks.computeIfPresent(lockName, (name, lockRecord) -> lockRecord.lockedUntil <= now ? null : lockRecord);
         }
     }
 
-    private Optional<SimpleLock> doExtend(LockConfiguration newConfiguration) {
-        synchronized (locks) {
-            String lockName = newConfiguration.getName();
-            if (isLocked(lockName)) {
-                locks.put(lockName, new LockRecord(newConfiguration.getLockAtMostUntil()));
-                logger.debug("Extended {}", newConfiguration);
-                return Optional.of(new InMemoryLock(newConfiguration));
-            } else {
-                return Optional.empty();
+    private void doUnlock(InMemoryLock lock) {
+        long lockedUntil = lock.configuration().getLockAtLeastUntil().toEpochMilli();
+        locks.computeIfPresent(lock.configuration().getName(), (name, lockRecord) -> {
+            // the lock may have expired and be held by someone else
+            if (lockRecord.holder == lock) {
+                lockRecord.lockedUntil = lockedUntil;
+                lockRecord.holder = null;
+            }
+            return lockRecord;
+        });
+        logger.debug("Unlocked {}", lock.configuration());
+    }
+
+    private Optional<SimpleLock> doExtend(InMemoryLock lock, LockConfiguration newConfiguration) {
+        long now = now().toEpochMilli();
+        long lockedUntil = newConfiguration.getLockAtMostUntil().toEpochMilli();
+        InMemoryLock newLock = new InMemoryLock(newConfiguration);
+        LockRecord lockRecord = locks.computeIfPresent(newConfiguration.getName(), (name, existing) -> {
+            if (existing.holder == lock && existing.lockedUntil > now) {
+                existing.lockedUntil = lockedUntil;
+                existing.holder = newLock;
             }
+            return existing;
+        });
+        if (lockRecord != null && lockRecord.holder == newLock) {
+            logger.debug("Extended {}", newConfiguration);
+            return Optional.of(newLock);
+        } else {
+            return Optional.empty();
         }
     }
 
-    private record LockRecord(Instant lockedUntil) {}
+    /** Mutated only inside ConcurrentHashMap.compute, volatile so that it can be read outside of it. */
+    private static final class LockRecord {
+        private volatile long lockedUntil;
+        private volatile @Nullable InMemoryLock holder;
+
+        private LockRecord(long lockedUntil, InMemoryLock holder) {
+            this.lockedUntil = lockedUntil;
+            this.holder = holder;
+        }
+    }
 
     private class InMemoryLock extends AbstractSimpleLock {
 
@@ -72,14 +125,18 @@ public class InMemoryLockProvider implements ExtensibleLockProvider {
             super(lockConfiguration);
         }
 
+        private LockConfiguration configuration() {
+            return lockConfiguration;
+        }
+
         @Override
         protected void doUnlock() {
-            InMemoryLockProvider.this.doUnlock(lockConfiguration);
+            InMemoryLockProvider.this.doUnlock(this);
         }
 
         @Override
         protected Optional<SimpleLock> doExtend(LockConfiguration newConfiguration) {
-            return InMemoryLockProvider.this.doExtend(newConfiguration);
+            return InMemoryLockProvider.this.doExtend(this, newConfiguration);
         }
     }
 }
@@ -1,9 +1,14 @@
 package net.javacrumbs.shedlock.provider.inmemory;
 
+import static net.javacrumbs.shedlock.core.ClockProvider.now;
 import static org.assertj.core.api.Assertions.assertThat;
 
+import java.time.Duration;
+import java.util.Optional;
 import net.javacrumbs.shedlock.core.ExtensibleLockProvider;
+import net.javacrumbs.shedlock.core.SimpleLock;
 import net.javacrumbs.shedlock.test.support.AbstractExtensibleLockProviderIntegrationTest;
+import org.junit.jupiter.api.Test;
 
 public class InMemoryLockProviderIntegrationTest extends AbstractExtensibleLockProviderIntegrationTest {
 
@@ -23,4 +28,42 @@ public class InMemoryLockProviderIntegrationTest extends AbstractExtensibleLockP
     protected void assertLocked(String lockName) {
         assertThat(inMemoryLockProvider.isLocked(lockName)).isTrue();
     }
+
+    @Test
+    void shouldEvictOnlyExpiredRecords() {
+        Optional<SimpleLock> heldLock = inMemoryLockProvider.lock(lockConfig(LOCK_NAME1));
+        inMemoryLockProvider.lock(lockConfig("released")).orElseThrow().unlock();
+        assertThat(inMemoryLockProvider.size()).isEqualTo(2);
+
+        inMemoryLockProvider.evictExpired(now().toEpochMilli());
+
+        assertThat(inMemoryLockProvider.size()).isEqualTo(1);
+        assertLocked(LOCK_NAME1);
+        heldLock.orElseThrow().unlock();
+    }
+
+    @Test
+    void shouldNotEvictOnEachLockAttempt() {
+        // the first attempt evicts, the next eviction is a minute later
+        inMemoryLockProvider.lock(lockConfig("first")).orElseThrow().unlock();
+        inMemoryLockProvider.lock(lockConfig("second")).orElseThrow().unlock();
+        inMemoryLockProvider.lock(lockConfig("third")).orElseThrow().unlock();
+
+        assertThat(inMemoryLockProvider.size()).isEqualTo(3);
+    }
+
+    @Test
+    void shouldNotUnlockLockHeldBySomebodyElse() throws InterruptedException {
+        SimpleLock expiredLock = inMemoryLockProvider
+                .lock(lockConfig(LOCK_NAME1, Duration.ofMillis(1), Duration.ZERO))
+                .orElseThrow();
+        Thread.sleep(5);
+        SimpleLock newLock = inMemoryLockProvider.lock(lockConfig(LOCK_NAME1)).orElseThrow();
+
+        expiredLock.unlock();
+        assertLocked(LOCK_NAME1);
+
+        newLock.unlock();
+        assertUnlocked(LOCK_NAME1);
+    }
 }
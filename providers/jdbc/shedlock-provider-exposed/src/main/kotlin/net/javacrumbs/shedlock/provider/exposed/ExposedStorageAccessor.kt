@@ -3,7 +3,10 @@ package net.javacrumbs.shedlock.provider.exposed
 import java.sql.SQLException
 import java.sql.SQLIntegrityConstraintViolationException
 import java.time.Duration
+import java.time.Instant
 import java.time.LocalDateTime
+import java.util.Optional
+import net.javacrumbs.shedlock.core.ClockProvider
 import net.javacrumbs.shedlock.core.LockConfiguration
 import net.javacrumbs.shedlock.provider.exposed.Shedlock.lockUntil
 import net.javacrumbs.shedlock.provider.exposed.Shedlock.lockedAt
@@ -13,6 +16,7 @@ import net.javacrumbs.shedlock.support.AbstractStorageAccessor
 import net.javacrumbs.shedlock.support.LockException
 import org.jetbrains.exposed.v1.core.Case
 import org.jetbrains.exposed.v1.core.Expression
+import org.jetbrains.exposed.v1.core.Function
 import org.jetbrains.exposed.v1.core.QueryBuilder
 import org.jetbrains.exposed.v1.core.and
 import org.jetbrains.exposed.v1.core.eq
@@ -25,6 +29,7 @@ import org.jetbrains.exposed.v1.core.vendors.currentDialect
 import org.jetbrains.exposed.v1.exceptions.ExposedSQLException
 import org.jetbrains.exposed.v1.jdbc.Database
 import org.jetbrains.exposed.v1.jdbc.insert
+import org.jetbrains.exposed.v1.jdbc.select
 import org.jetbrains.exposed.v1.jdbc.transactions.inTopLevelTransaction
 import org.jetbrains.exposed.v1.jdbc.update
 import org.jetbrains.exposed.v1.jdbc.upsert
@@ -123,12 +128,28 @@ internal class ExposedStorageAccessor(private val database: Database) : Abstract
             }
         }
 
+    /**
+     * lock_until is in DB time, so we compute how long the lock is still held according to the DB and add it to the
+     * local time.
+     */
+    override fun getLockUntil(lockName: String): Optional<Instant> =
+        inTopLevelTransaction(database) {
+            try {
+                val row = Shedlock.select(lockUntil, now).where { name eq lockName }.firstOrNull()
+                Optional.ofNullable(row).map { ClockProvider.now().plus(Duration.between(it[now], it[lockUntil])) }
+            } catch (e: Exception) {
+                logger.debug("Can not read lock_until", e)
+                Optional.empty()
+            }
+        }
+
     private fun nowPlus(duration: Duration): Expression<LocalDateTime> = now.plus(duration)
 }
 
 // Support for exact current timestamp in MsSQL server. Exposed's CurrentDateTime uses CURRENT_TIMESTAMP which has lower
-// precission. Inspired by Exposed's CurrentDateTime implementation.
-private object CurrentTimestampExact : Expression<LocalDateTime>() {
+// precission. Inspired by Exposed's CurrentDateTime implementation. Has the column type of lock_until, so it can be
+// read from a result row the same way as the column.
+private object CurrentTimestampExact : Function<LocalDateTime>(Shedlock.lockUntil.columnType) {
     override fun toQueryBuilder(queryBuilder: QueryBuilder) = queryBuilder {
         +when {
             (currentDialect as? MysqlDialect)?.isFractionDateTimeSupported() == true -> "CURRENT_TIMESTAMP(6)"
@@ -14,19 +14,36 @@
 package net.javacrumbs.shedlock.provider.jdbc.internal;
 
 import static java.util.Objects.requireNonNull;
-import static net.javacrumbs.shedlock.provider.jdbc.internal.NamedSqlTranslator.translate;
 import static net.javacrumbs.shedlock.provider.sql.internal.ErrorCodeUtils.isConstraintViolation;
+import static net.javacrumbs.shedlock.provider.sql.internal.NamedSqlTranslator.translate;
 
+import java.sql.BatchUpdateException;
+import java.sql.CallableStatement;
 import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.SQLIntegrityConstraintViolationException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TimeZone;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.function.BiFunction;
+import java.util.function.Function;
+import net.javacrumbs.shedlock.core.ClockProvider;
 import net.javacrumbs.shedlock.core.LockConfiguration;
-import net.javacrumbs.shedlock.provider.jdbc.internal.NamedSqlTranslator.SqlStatement;
 import net.javacrumbs.shedlock.provider.sql.SqlConfiguration;
 import net.javacrumbs.shedlock.provider.sql.SqlStatementsSource;
+import net.javacrumbs.shedlock.provider.sql.internal.NamedSqlTranslator;
+import net.javacrumbs.shedlock.provider.sql.internal.NamedSqlTranslator.SqlStatement;
+import net.javacrumbs.shedlock.provider.sql.internal.NamedSqlTranslator.SqlTemplate;
 import net.javacrumbs.shedlock.support.AbstractStorageAccessor;
 import net.javacrumbs.shedlock.support.LockException;
 import org.jspecify.annotations.Nullable;
@@ -36,10 +53,26 @@ import org.jspecify.annotations.Nullable;
  */
 public abstract class AbstractJdbcStorageAccessor extends AbstractStorageAccessor {
     private final SqlConfiguration configuration;
-    private @Nullable SqlStatementsSource sqlStatementsSource;
+    private final boolean useTryLockProcedure;
+    // one per partition, created lazily, the DB does not have to be available when the application starts
+    private volatile Statements @Nullable [] statements;
+    // lock_until returned by unsuccessful try lock procedure calls, so it does not have to be read again.
+    // Removed when read, when the lock is obtained, extended or released, so it is never stale for long.
+    private final ConcurrentMap<String, Instant> lockUntilOfFailedAttempts = new ConcurrentHashMap<>();
 
     public AbstractJdbcStorageAccessor(SqlConfiguration configuration) {
+        this(configuration, false);
+    }
+
+    /**
+     * @param useTryLockProcedure
+     *            obtain locks by calling the stored procedure from
+     *            {@link SqlStatementsSource#getTryLockProcedureDefinition()}, the
+     *            subclass has to implement executeCall
+     */
+    protected AbstractJdbcStorageAccessor(SqlConfiguration configuration, boolean useTryLockProcedure) {
         this.configuration = requireNonNull(configuration, "Configuration is null");
+        this.useTryLockProcedure = useTryLockProcedure;
     }
 
     @Override
@@ -47,46 +80,145 @@ public abstract class AbstractJdbcStorageAccessor extends AbstractStorageAccesso
         // Try to insert if the record does not exist (not optimal, but the simplest
         // platform agnostic
         // way)
-        SqlStatementsSource sqlStatementsSource = sqlStatementsSource();
-        String sql = sqlStatementsSource.getInsertStatement();
-        SqlStatement sqlStatement = translate(sql, sqlStatementsSource.params(lockConfiguration));
+        SqlTemplate insert = statements(lockConfiguration).insert();
         return executeCommand(
-                sqlStatement.sql(),
+                insert.sql(),
                 statement -> {
-                    setParameters(statement, sqlStatement.parameters());
+                    bindParameters(statement, insert, lockConfiguration);
                     int insertedRows = statement.executeUpdate();
                     return insertedRows > 0;
                 },
                 this::handleInsertionException);
     }
 
+    @Override
+    public boolean supportsUpsert() {
+        // the same for all partitions
+        Statements statements = statements()[0];
+        return statements.tryLock() != null || statements.upsert() != null;
+    }
+
+    @Override
+    public boolean upsertRecord(LockConfiguration lockConfiguration) {
+        Statements statements = statements(lockConfiguration);
+        String tryLock = statements.tryLock();
+        if (tryLock != null) {
+            return callTryLock(tryLock, lockConfiguration);
+        }
+        SqlTemplate upsert = requireNonNull(statements.upsert());
+        return executeCommand(
+                upsert.sql(),
+                statement -> {
+                    bindParameters(statement, upsert, lockConfiguration);
+                    return statement.executeUpdate() > 0;
+                },
+                // concurrent insert of the same record can still fail on the primary key
+                this::handleInsertionException);
+    }
+
     @Override
     public boolean updateRecord(LockConfiguration lockConfiguration) {
-        SqlStatementsSource sqlStatementsSource = sqlStatementsSource();
-        String sql = sqlStatementsSource.getUpdateStatement();
-        SqlStatement sqlStatement = translate(sql, sqlStatementsSource.params(lockConfiguration));
+        Statements statements = statements(lockConfiguration);
+        String tryLock = statements.tryLock();
+        if (tryLock != null) {
+            return callTryLock(tryLock, lockConfiguration);
+        }
+        SqlTemplate update = statements.update();
         return executeCommand(
-                sqlStatement.sql(),
+                update.sql(),
                 statement -> {
-                    setParameters(statement, sqlStatement.parameters());
+                    bindParameters(statement, update, lockConfiguration);
                     int updatedRows = statement.executeUpdate();
                     return updatedRows > 0;
                 },
                 this::handleUpdateException);
     }
 
+    /**
+     * Executes the updates as a JDBC batch, so they are sent in one round-trip if
+     * the driver supports it. Partitioned records are updated in one batch per
+     * partition. Each batch is executed by executeCommand, in auto-commit with
+     * plain JDBC. If a batch fails, the locks obtained before the failure, by the
+     * previous batches or by the committed statements of the failed one, are
+     * released, so they do not stay locked until lockAtMostFor.
+     */
+    @Override
+    public boolean[] updateRecords(List<LockConfiguration> lockConfigurations) {
+        boolean[] updated = new boolean[lockConfigurations.size()];
+        int partitions = configuration.getPartitions();
+        List<List<Integer>> indexesByPartition = new ArrayList<>(partitions);
+        for (int i = 0; i < partitions; i++) {
+            indexesByPartition.add(new ArrayList<>());
+        }
+        for (int i = 0; i < lockConfigurations.size(); i++) {
+            indexesByPartition.get(configuration.getPartition(lockConfigurations.get(i).getName())).add(i);
+        }
+        try {
+            for (int partition = 0; partition < partitions; partition++) {
+                List<Integer> indexes = indexesByPartition.get(partition);
+                if (!indexes.isEmpty()) {
+                    updateRecords(statements()[partition].update(), lockConfigurations, indexes, updated);
+                }
+            }
+            return updated;
+        } catch (RuntimeException e) {
+            for (int i = 0; i < updated.length; i++) {
+                if (updated[i]) {
+                    try {
+                        unlock(lockConfigurations.get(i));
+                    } catch (RuntimeException unlockException) {
+                        e.addSuppressed(unlockException);
+                    }
+                }
+            }
+            throw e;
+        }
+    }
+
+    /** Sets updated[index] for each index of lockConfigurations updated by the batch. */
+    private void updateRecords(
+            SqlTemplate update, List<LockConfiguration> lockConfigurations, List<Integer> indexes, boolean[] updated) {
+        executeCommand(
+                update.sql(),
+                statement -> {
+                    for (int index : indexes) {
+                        bindParameters(statement, update, lockConfigurations.get(index));
+                        statement.addBatch();
+                    }
+                    int[] updateCounts;
+                    try {
+                        updateCounts = statement.executeBatch();
+                    } catch (BatchUpdateException e) {
+                        // statements executed before the failure are committed
+                        int[] partialCounts = e.getUpdateCounts() != null ? e.getUpdateCounts() : new int[0];
+                        for (int i = 0; i < partialCounts.length && i < indexes.size(); i++) {
+                            updated[indexes.get(i)] = partialCounts[i] > 0;
+                        }
+                        throw e;
+                    }
+                    for (int i = 0; i < updateCounts.length; i++) {
+                        if (updateCounts[i] == Statement.SUCCESS_NO_INFO) {
+                            throw new LockException(
+                                    "JDBC driver does not return update counts for batches, can not use lockAll");
+                        }
+                        updated[indexes.get(i)] = updateCounts[i] > 0;
+                    }
+                    return updated;
+                },
+                this::handleBatchUpdateException);
+    }
+
     @Override
     public boolean extend(LockConfiguration lockConfiguration) {
-        SqlStatementsSource sqlStatementsSource = sqlStatementsSource();
-        String sql = sqlStatementsSource.getExtendStatement();
-        SqlStatement sqlStatement = translate(sql, sqlStatementsSource.params(lockConfiguration));
+        SqlTemplate extend = statements(lockConfiguration).extend();
+        lockUntilOfFailedAttempts.remove(lockConfiguration.getName());
 
         logger.debug("Extending lock={} until={}", lockConfiguration.getName(), lockConfiguration.getLockAtMostUntil());
 
         return executeCommand(
-                sqlStatement.sql(),
+                extend.sql(),
                 statement -> {
-                    setParameters(statement, sqlStatement.parameters());
+                    bindParameters(statement, extend, lockConfiguration);
                     return statement.executeUpdate() > 0;
                 },
                 this::handleUnlockException);
@@ -94,22 +226,96 @@ public abstract class AbstractJdbcStorageAccessor extends AbstractStorageAccesso
 
     @Override
     public void unlock(LockConfiguration lockConfiguration) {
-        SqlStatementsSource sqlStatementsSource = sqlStatementsSource();
-        String sql = sqlStatementsSource.getUnlockStatement();
-        SqlStatement sqlStatement = translate(sql, sqlStatementsSource.params(lockConfiguration));
+        SqlTemplate unlock = statements(lockConfiguration).unlock();
+        lockUntilOfFailedAttempts.remove(lockConfiguration.getName());
 
         executeCommand(
-                sqlStatement.sql(),
+                unlock.sql(),
                 statement -> {
-                    setParameters(statement, sqlStatement.parameters());
+                    bindParameters(statement, unlock, lockConfiguration);
                     return statement.executeUpdate();
                 },
                 this::handleUnlockException);
     }
 
+    @Override
+    public Optional<Instant> getLockUntil(String lockName) {
+        Instant lockUntilOfFailedAttempt = lockUntilOfFailedAttempts.remove(lockName);
+        if (lockUntilOfFailedAttempt != null) {
+            return Optional.of(lockUntilOfFailedAttempt);
+        }
+        String sql = statements()[configuration.getPartition(lockName)].lockUntil();
+        SqlStatement sqlStatement = translate(sql, Map.of("name", lockName));
+        return executeCommand(
+                sqlStatement.sql(),
+                statement -> {
+                    setParameters(statement, sqlStatement.parameters());
+                    try (ResultSet resultSet = statement.executeQuery()) {
+                        if (!resultSet.next()) {
+                            return Optional.empty();
+                        }
+                        Timestamp lockUntil = getTimestamp(resultSet, 1);
+                        if (lockUntil == null) {
+                            return Optional.empty();
+                        } else if (configuration.getUseDbTime()) {
+                            Timestamp dbNow = requireNonNull(getTimestamp(resultSet, 2));
+                            return Optional.of(
+                                    SqlStatementsSource.toLocalTime(lockUntil.toInstant(), dbNow.toInstant()));
+                        } else {
+                            return Optional.of(lockUntil.toInstant());
+                        }
+                    }
+                },
+                this::handleGetLockUntilException);
+    }
+
+    private @Nullable Timestamp getTimestamp(ResultSet resultSet, int column) throws SQLException {
+        TimeZone timeZone = configuration.getTimeZone();
+        return timeZone != null
+                ? resultSet.getTimestamp(column, Calendar.getInstance(timeZone))
+                : resultSet.getTimestamp(column);
+    }
+
     protected abstract <T> T executeCommand(
             String sql, SqlFunction<PreparedStatement, T> body, BiFunction<String, SQLException, T> exceptionHandler);
 
+    /** Same as executeCommand, but for stored procedure calls. */
+    protected <T> T executeCall(
+            String sql,
+            SqlFunction<CallableStatement, T> body,
+            BiFunction<String, SQLException, T> exceptionHandler) {
+        throw new UnsupportedOperationException("Stored procedures are not supported");
+    }
+
+    private boolean callTryLock(String sql, LockConfiguration lockConfiguration) {
+        String name = lockConfiguration.getName();
+        return executeCall(
+                sql,
+                statement -> {
+                    statement.setString(1, name);
+                    setTimestamp(statement, 2, lockConfiguration.getLockAtMostUntil());
+                    setTimestamp(statement, 3, ClockProvider.now());
+                    statement.setString(4, configuration.getLockedByValue());
+                    statement.registerOutParameter(5, Types.INTEGER);
+                    statement.registerOutParameter(6, Types.TIMESTAMP);
+                    statement.execute();
+                    boolean locked = statement.getInt(5) > 0;
+                    if (locked) {
+                        lockUntilOfFailedAttempts.remove(name);
+                    } else {
+                        TimeZone timeZone = configuration.getTimeZone();
+                        Timestamp lockUntil = timeZone != null
+                                ? statement.getTimestamp(6, Calendar.getInstance(timeZone))
+                                : statement.getTimestamp(6);
+                        if (lockUntil != null) {
+                            lockUntilOfFailedAttempts.put(name, lockUntil.toInstant());
+                        }
+                    }
+                    return locked;
+                },
+                this::handleUpdateException);
+    }
+
     boolean handleInsertionException(String sql, SQLException e) {
 
         if ((e instanceof SQLIntegrityConstraintViolationException) || isConstraintViolation(e.getSQLState())) {
@@ -120,12 +326,54 @@ public abstract class AbstractJdbcStorageAccessor extends AbstractStorageAccesso
         }
     }
 
-    private SqlStatementsSource sqlStatementsSource() {
-        synchronized (configuration) {
-            if (sqlStatementsSource == null) {
-                sqlStatementsSource = SqlStatementsSource.create(configuration);
+    private Statements statements(LockConfiguration lockConfiguration) {
+        return statements()[configuration.getPartition(lockConfiguration.getName())];
+    }
+
+    private Statements[] statements() {
+        Statements[] result = statements;
+        if (result == null) {
+            synchronized (configuration) {
+                result = statements;
+                if (result == null) {
+                    result = new Statements[configuration.getPartitions()];
+                    for (int partition = 0; partition < result.length; partition++) {
+                        result[partition] = Statements.compile(
+                                SqlStatementsSource.create(configuration.forPartition(partition)),
+                                useTryLockProcedure);
+                    }
+                    statements = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    private void bindParameters(PreparedStatement statement, SqlTemplate template, LockConfiguration lockConfiguration)
+            throws SQLException {
+        List<Function<LockConfiguration, Object>> parameters = template.parameters();
+        Object[] values = new Object[parameters.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = parameters.get(i).apply(lockConfiguration);
+        }
+        int[] positions = template.positions();
+        for (int i = 0; i < positions.length; i++) {
+            Object value = values[positions[i]];
+            int paramIndex = i + 1;
+            if (value instanceof Instant instant) {
+                setTimestamp(statement, paramIndex, instant);
+            } else {
+                statement.setObject(paramIndex, value);
             }
-            return sqlStatementsSource;
+        }
+    }
+
+    private void setTimestamp(PreparedStatement statement, int paramIndex, Instant instant) throws SQLException {
+        TimeZone timeZone = configuration.getTimeZone();
+        if (timeZone != null) {
+            statement.setTimestamp(paramIndex, Timestamp.from(instant), Calendar.getInstance(timeZone));
+        } else {
+            statement.setTimestamp(paramIndex, Timestamp.from(instant));
         }
     }
 
@@ -146,10 +394,49 @@ public abstract class AbstractJdbcStorageAccessor extends AbstractStorageAccesso
         throw new LockException("Unexpected exception when locking", e);
     }
 
+    boolean[] handleBatchUpdateException(String sql, SQLException e) {
+        logger.debug("Unexpected exception when updating lock records", e);
+        throw new LockException("Unexpected exception when locking", e);
+    }
+
+    Optional<Instant> handleGetLockUntilException(String sql, SQLException e) {
+        logger.debug("Can not read lock_until", e);
+        return Optional.empty();
+    }
+
     boolean handleUnlockException(String sql, SQLException e) {
         throw new LockException("Unexpected exception when unlocking", e);
     }
 
+    /** Statements compiled once, so the SQL is stable and can be cached by the driver. */
+    private record Statements(
+            SqlTemplate insert,
+            @Nullable SqlTemplate upsert,
+            SqlTemplate update,
+            SqlTemplate extend,
+            SqlTemplate unlock,
+            String lockUntil,
+            @Nullable String tryLock) {
+        static Statements compile(SqlStatementsSource sqlStatementsSource, boolean useTryLockProcedure) {
+            String upsert = sqlStatementsSource.getUpsertStatement();
+            String tryLock = null;
+            if (useTryLockProcedure) {
+                tryLock = sqlStatementsSource.getTryLockProcedureCall();
+                if (tryLock == null) {
+                    throw new LockException("Stored procedure is not supported for this database or with DB time");
+                }
+            }
+            return new Statements(
+                    NamedSqlTranslator.compile(sqlStatementsSource.getInsertStatement(), sqlStatementsSource),
+                    upsert != null ? NamedSqlTranslator.compile(upsert, sqlStatementsSource) : null,
+                    NamedSqlTranslator.compile(sqlStatementsSource.getUpdateStatement(), sqlStatementsSource),
+                    NamedSqlTranslator.compile(sqlStatementsSource.getExtendStatement(), sqlStatementsSource),
+                    NamedSqlTranslator.compile(sqlStatementsSource.getUnlockStatement(), sqlStatementsSource),
+                    sqlStatementsSource.getLockUntilStatement(),
+                    tryLock);
+        }
+    }
+
     @FunctionalInterface
     public interface SqlFunction<T, R> {
         R apply(T t) throws SQLException;
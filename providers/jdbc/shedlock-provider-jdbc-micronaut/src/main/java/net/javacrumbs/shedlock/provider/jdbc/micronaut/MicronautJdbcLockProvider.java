@@ -72,9 +72,10 @@ public class MicronautJdbcLockProvider extends StorageBasedLockProvider {
                 String tableName,
                 ColumnNames columnNames,
                 String lockedByValue,
-                boolean useDbTime) {
+                boolean useDbTime,
+                int partitions) {
 
-            super(databaseProduct, dbUpperCase, tableName, null, columnNames, lockedByValue, useDbTime);
+            super(databaseProduct, dbUpperCase, tableName, null, columnNames, lockedByValue, useDbTime, partitions);
             this.transactionOperations = requireNonNull(transactionOperations, "transactionOperations can not be null");
         }
 
@@ -119,7 +120,8 @@ public class MicronautJdbcLockProvider extends StorageBasedLockProvider {
                         tableName,
                         columnNames,
                         lockedByValue,
-                        useDbTime);
+                        useDbTime,
+                        partitions);
             }
         }
     }
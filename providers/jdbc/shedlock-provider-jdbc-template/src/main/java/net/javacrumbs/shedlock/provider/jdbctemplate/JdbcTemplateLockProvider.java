@@ -88,6 +88,8 @@ public class JdbcTemplateLockProvider extends StorageBasedLockProvider {
 
         private final @Nullable Integer isolationLevel;
 
+        private final boolean useAutoCommit;
+
         private static final Logger logger = LoggerFactory.getLogger(Configuration.class);
 
         Configuration(
@@ -100,12 +102,27 @@ public class JdbcTemplateLockProvider extends StorageBasedLockProvider {
                 ColumnNames columnNames,
                 String lockedByValue,
                 boolean useDbTime,
-                @Nullable Integer isolationLevel) {
-
-            super(databaseProduct, dbUpperCase, tableName, timeZone, columnNames, lockedByValue, useDbTime);
+                @Nullable Integer isolationLevel,
+                boolean useAutoCommit,
+                int partitions) {
+
+            super(
+                    databaseProduct,
+                    dbUpperCase,
+                    tableName,
+                    timeZone,
+                    columnNames,
+                    lockedByValue,
+                    useDbTime,
+                    partitions);
             this.jdbcTemplate = requireNonNull(jdbcTemplate, "jdbcTemplate can not be null");
             this.transactionManager = transactionManager;
             this.isolationLevel = isolationLevel;
+            if (useAutoCommit && (transactionManager != null || isolationLevel != null)) {
+                throw new IllegalArgumentException(
+                        "Can not set transactionManager or isolationLevel when using auto-commit");
+            }
+            this.useAutoCommit = useAutoCommit;
         }
 
         public JdbcTemplate getJdbcTemplate() {
@@ -120,6 +137,10 @@ public class JdbcTemplateLockProvider extends StorageBasedLockProvider {
             return isolationLevel;
         }
 
+        public boolean getUseAutoCommit() {
+            return useAutoCommit;
+        }
+
         @Override
         public DatabaseProduct getDatabaseProduct() {
             if (super.getDatabaseProduct() != null) {
@@ -149,6 +170,8 @@ public class JdbcTemplateLockProvider extends StorageBasedLockProvider {
 
             private @Nullable Integer isolationLevel;
 
+            private boolean useAutoCommit = false;
+
             public Builder withJdbcTemplate(JdbcTemplate jdbcTemplate) {
                 this.jdbcTemplate = jdbcTemplate;
                 return this;
@@ -187,6 +210,22 @@ public class JdbcTemplateLockProvider extends StorageBasedLockProvider {
                 return getThis();
             }
 
+            /**
+             * Executes the statements directly in auto-commit mode instead of in a new
+             * transaction. Saves the transaction manager overhead, but can be used only if
+             * ShedLock is never called from a thread with an active transaction, the lock
+             * would be otherwise written in that transaction. The DataSource has to return
+             * connections with auto-commit enabled.
+             *
+             * <p>
+             * The batch update used by {@code lockAll} is still executed in a new
+             * transaction, so it either obtains all the updated locks or none.
+             */
+            public Builder usingAutoCommit() {
+                this.useAutoCommit = true;
+                return getThis();
+            }
+
             public JdbcTemplateLockProvider.Configuration build() {
                 return new JdbcTemplateLockProvider.Configuration(
                         requireNonNull(jdbcTemplate, "jdbcTemplate can not be null"),
@@ -198,7 +237,9 @@ public class JdbcTemplateLockProvider extends StorageBasedLockProvider {
                         columnNames,
                         lockedByValue,
                         useDbTime,
-                        isolationLevel);
+                        isolationLevel,
+                        useAutoCommit,
+                        partitions);
             }
         }
     }
@@ -14,10 +14,22 @@
 package net.javacrumbs.shedlock.provider.jdbctemplate;
 
 import static java.util.Objects.requireNonNull;
-import static java.util.stream.Collectors.toUnmodifiableMap;
 import static net.javacrumbs.shedlock.provider.sql.internal.CalendarUtils.toCalendar;
 
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.TimeZone;
+import java.util.function.Supplier;
 import net.javacrumbs.shedlock.core.LockConfiguration;
 import net.javacrumbs.shedlock.provider.jdbctemplate.JdbcTemplateLockProvider.Configuration;
 import net.javacrumbs.shedlock.provider.sql.SqlStatementsSource;
@@ -42,7 +54,8 @@ class JdbcTemplateStorageAccessor extends AbstractStorageAccessor {
     private final Configuration configuration;
 
     private final Object sqlStatementsSourceLock = new Object();
-    private @Nullable SqlStatementsSource sqlStatementsSource;
+    // one per partition, created lazily, the DB does not have to be available when the application starts
+    private volatile SqlStatementsSource @Nullable [] sqlStatementsSources;
 
     JdbcTemplateStorageAccessor(Configuration configuration) {
         requireNonNull(configuration, "configuration can not be null");
@@ -64,7 +77,7 @@ class JdbcTemplateStorageAccessor extends AbstractStorageAccessor {
     @Override
     public boolean insertRecord(LockConfiguration lockConfiguration) {
         try {
-            String sql = sqlStatementsSource().getInsertStatement();
+            String sql = sqlStatementsSource(lockConfiguration).getInsertStatement();
             return execute(sql, lockConfiguration);
         } catch (DuplicateKeyException | ConcurrencyFailureException | TransactionSystemException e) {
             logger.debug("Duplicate key", e);
@@ -75,9 +88,30 @@ class JdbcTemplateStorageAccessor extends AbstractStorageAccessor {
         }
     }
 
+    @Override
+    public boolean supportsUpsert() {
+        // the same for all partitions
+        return sqlStatementsSources()[0].getUpsertStatement() != null;
+    }
+
+    @Override
+    public boolean upsertRecord(LockConfiguration lockConfiguration) {
+        String sql = requireNonNull(sqlStatementsSource(lockConfiguration).getUpsertStatement());
+        try {
+            return execute(sql, lockConfiguration);
+        } catch (DuplicateKeyException | ConcurrencyFailureException | TransactionSystemException e) {
+            // concurrent insert of the same record
+            logger.debug("Duplicate key", e);
+            return false;
+        } catch (DataAccessException e) {
+            logger.error("Unexpected exception", e);
+            throw new LockException(e);
+        }
+    }
+
     @Override
     public boolean updateRecord(LockConfiguration lockConfiguration) {
-        String sql = sqlStatementsSource().getUpdateStatement();
+        String sql = sqlStatementsSource(lockConfiguration).getUpdateStatement();
         try {
             return execute(sql, lockConfiguration);
         } catch (DuplicateKeyException | ConcurrencyFailureException | TransactionSystemException e) {
@@ -89,9 +123,65 @@ class JdbcTemplateStorageAccessor extends AbstractStorageAccessor {
         }
     }
 
+    @Override
+    @SuppressWarnings("ConstantConditions")
+    public boolean[] updateRecords(List<LockConfiguration> lockConfigurations) {
+        if (lockConfigurations.isEmpty()) {
+            return new boolean[0];
+        }
+        try {
+            // always in a transaction, with auto-commit a failed batch would leave a part of the locks committed
+            int[] updateCounts = transactionTemplate.execute(status -> batchUpdate(lockConfigurations));
+            boolean[] updated = new boolean[updateCounts.length];
+            for (int i = 0; i < updateCounts.length; i++) {
+                if (updateCounts[i] == Statement.SUCCESS_NO_INFO) {
+                    throw new LockException(
+                            "JDBC driver does not return update counts for batches, can not use lockAll");
+                }
+                updated[i] = updateCounts[i] > 0;
+            }
+            return updated;
+        } catch (DuplicateKeyException | ConcurrencyFailureException | TransactionSystemException e) {
+            logger.debug("Serialization exception", e);
+            return new boolean[lockConfigurations.size()];
+        } catch (DataAccessException e) {
+            logger.error("Unexpected exception", e);
+            throw new LockException(e);
+        }
+    }
+
+    /** One batch per partition, the update counts are in the order of lockConfigurations. */
+    @SuppressWarnings("unchecked")
+    private int[] batchUpdate(List<LockConfiguration> lockConfigurations) {
+        int partitions = configuration.getPartitions();
+        if (partitions == 1) {
+            String sql = sqlStatementsSources()[0].getUpdateStatement();
+            return jdbcTemplate.batchUpdate(sql, lockConfigurations.stream().map(this::params).toArray(Map[]::new));
+        }
+        int[] updateCounts = new int[lockConfigurations.size()];
+        for (int partition = 0; partition < partitions; partition++) {
+            List<Integer> indexes = new ArrayList<>();
+            for (int i = 0; i < lockConfigurations.size(); i++) {
+                if (configuration.getPartition(lockConfigurations.get(i).getName()) == partition) {
+                    indexes.add(i);
+                }
+            }
+            if (indexes.isEmpty()) {
+                continue;
+            }
+            String sql = sqlStatementsSources()[partition].getUpdateStatement();
+            int[] partitionCounts = jdbcTemplate.batchUpdate(
+                    sql, indexes.stream().map(i -> params(lockConfigurations.get(i))).toArray(Map[]::new));
+            for (int i = 0; i < partitionCounts.length; i++) {
+                updateCounts[indexes.get(i)] = partitionCounts[i];
+            }
+        }
+        return updateCounts;
+    }
+
     @Override
     public boolean extend(LockConfiguration lockConfiguration) {
-        String sql = sqlStatementsSource().getExtendStatement();
+        String sql = sqlStatementsSource(lockConfiguration).getExtendStatement();
 
         logger.debug("Extending lock={} until={}", lockConfiguration.getName(), lockConfiguration.getLockAtMostUntil());
         return execute(sql, lockConfiguration);
@@ -110,35 +200,74 @@ class JdbcTemplateStorageAccessor extends AbstractStorageAccessor {
         logger.error("Unlock failed after 10 attempts");
     }
 
+    @Override
+    public Optional<Instant> getLockUntil(String lockName) {
+        String sql = sqlStatementsSources()[configuration.getPartition(lockName)].getLockUntilStatement();
+        try {
+            List<Optional<Instant>> result = jdbcTemplate.query(sql, Map.of("name", lockName), (rs, rowNum) -> {
+                Timestamp lockUntil = getTimestamp(rs, 1);
+                if (lockUntil == null) {
+                    return Optional.empty();
+                } else if (configuration.getUseDbTime()) {
+                    Timestamp dbNow = requireNonNull(getTimestamp(rs, 2));
+                    return Optional.of(SqlStatementsSource.toLocalTime(lockUntil.toInstant(), dbNow.toInstant()));
+                } else {
+                    return Optional.of(lockUntil.toInstant());
+                }
+            });
+            return result.stream().flatMap(Optional::stream).findFirst();
+        } catch (DataAccessException e) {
+            logger.debug("Can not read lock_until", e);
+            return Optional.empty();
+        }
+    }
+
+    private @Nullable Timestamp getTimestamp(ResultSet rs, int column) throws SQLException {
+        TimeZone timeZone = configuration.getTimeZone();
+        return timeZone != null ? rs.getTimestamp(column, Calendar.getInstance(timeZone)) : rs.getTimestamp(column);
+    }
+
     private void doUnlock(LockConfiguration lockConfiguration) {
-        String sql = sqlStatementsSource().getUnlockStatement();
+        String sql = sqlStatementsSource(lockConfiguration).getUnlockStatement();
         execute(sql, lockConfiguration);
     }
 
-    @SuppressWarnings("ConstantConditions")
     private boolean execute(String sql, LockConfiguration lockConfiguration) throws TransactionException {
-        return transactionTemplate.execute(status -> jdbcTemplate.update(sql, params(lockConfiguration)) > 0);
+        return execute(() -> jdbcTemplate.update(sql, params(lockConfiguration)) > 0);
+    }
+
+    @SuppressWarnings("ConstantConditions")
+    private <T> T execute(Supplier<T> statement) throws TransactionException {
+        if (configuration.getUseAutoCommit()) {
+            return statement.get();
+        }
+        return transactionTemplate.execute(status -> statement.get());
     }
 
     private Map<String, Object> params(LockConfiguration lockConfiguration) {
-        return sqlStatementsSource().params(lockConfiguration).entrySet().stream()
-                .map(e -> {
-                    Object value = e.getValue();
-                    if (value instanceof java.time.ZonedDateTime zdt) {
-                        return Map.entry(e.getKey(), toCalendar(zdt));
-                    } else {
-                        return e;
-                    }
-                })
-                .collect(toUnmodifiableMap(Map.Entry::getKey, Map.Entry::getValue));
+        Map<String, Object> params = new HashMap<>(sqlStatementsSource(lockConfiguration).params(lockConfiguration));
+        params.replaceAll((key, value) -> value instanceof ZonedDateTime zdt ? toCalendar(zdt) : value);
+        return params;
     }
 
-    private SqlStatementsSource sqlStatementsSource() {
-        synchronized (sqlStatementsSourceLock) {
-            if (sqlStatementsSource == null) {
-                sqlStatementsSource = SqlStatementsSource.create(configuration);
+    private SqlStatementsSource sqlStatementsSource(LockConfiguration lockConfiguration) {
+        return sqlStatementsSources()[configuration.getPartition(lockConfiguration.getName())];
+    }
+
+    private SqlStatementsSource[] sqlStatementsSources() {
+        SqlStatementsSource[] result = sqlStatementsSources;
+        if (result == null) {
+            synchronized (sqlStatementsSourceLock) {
+                result = sqlStatementsSources;
+                if (result == null) {
+                    result = new SqlStatementsSource[configuration.getPartitions()];
+                    for (int partition = 0; partition < result.length; partition++) {
+                        result[partition] = SqlStatementsSource.create(configuration.forPartition(partition));
+                    }
+                    sqlStatementsSources = result;
+                }
             }
-            return sqlStatementsSource;
         }
+        return result;
     }
 }
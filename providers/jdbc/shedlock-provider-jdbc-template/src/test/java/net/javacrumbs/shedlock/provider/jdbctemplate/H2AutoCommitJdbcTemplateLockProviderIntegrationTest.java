@@ -0,0 +1,56 @@
+/**
+ * Copyright 2009 the original author or authors.
+ *
+ * <p>Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * <p>http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * <p>Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.javacrumbs.shedlock.provider.jdbctemplate;
+
+import static net.javacrumbs.shedlock.provider.jdbctemplate.JdbcTemplateLockProvider.Configuration.builder;
+
+import net.javacrumbs.shedlock.support.StorageBasedLockProvider;
+import net.javacrumbs.shedlock.test.support.jdbc.AbstractJdbcLockProviderIntegrationTest;
+import net.javacrumbs.shedlock.test.support.jdbc.DbConfig;
+import net.javacrumbs.shedlock.test.support.jdbc.H2Config;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+public class H2AutoCommitJdbcTemplateLockProviderIntegrationTest extends AbstractJdbcLockProviderIntegrationTest {
+    private static final H2Config dbConfig = new H2Config();
+
+    @BeforeAll
+    public static void startDb() {
+        dbConfig.startDb();
+    }
+
+    @AfterAll
+    public static void shutdownDb() {
+        dbConfig.shutdownDb();
+    }
+
+    @Override
+    protected DbConfig getDbConfig() {
+        return dbConfig;
+    }
+
+    @Override
+    protected boolean useDbTime() {
+        return false;
+    }
+
+    @Override
+    protected StorageBasedLockProvider getLockProvider() {
+        return new JdbcTemplateLockProvider(builder()
+                .withJdbcTemplate(new JdbcTemplate(getDatasource()))
+                .usingAutoCommit()
+                .build());
+    }
+}
@@ -20,6 +20,7 @@ import static org.mockito.Mockito.mock;
 import java.util.TimeZone;
 import org.junit.jupiter.api.Test;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
 
 class JdbcTemplateLockProviderTest {
     @SuppressWarnings("removal")
@@ -33,6 +34,16 @@ class JdbcTemplateLockProviderTest {
                 .isInstanceOf(IllegalArgumentException.class);
     }
 
+    @Test
+    void shouldNotEnableBothAutoCommitAndTransactionManager() {
+        assertThatThrownBy(() -> JdbcTemplateLockProvider.Configuration.builder()
+                        .withJdbcTemplate(mock(JdbcTemplate.class))
+                        .withTransactionManager(mock(PlatformTransactionManager.class))
+                        .usingAutoCommit()
+                        .build())
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
     @Test
     void shouldTableAndColumNamesUpperCase() {
         final var config = JdbcTemplateLockProvider.Configuration.builder()
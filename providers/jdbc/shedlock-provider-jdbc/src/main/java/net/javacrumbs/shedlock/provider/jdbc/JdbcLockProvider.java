@@ -57,6 +57,7 @@ public class JdbcLockProvider extends StorageBasedLockProvider {
 
     public static final class Configuration extends SqlConfiguration {
         private final DataSource dataSource;
+        private final boolean useStoredProcedure;
 
         private static final Logger logger = LoggerFactory.getLogger(Configuration.class);
 
@@ -68,7 +69,9 @@ public class JdbcLockProvider extends StorageBasedLockProvider {
                 boolean forceUtcTimeZone,
                 ColumnNames columnNames,
                 String lockedByValue,
-                boolean useDbTime) {
+                boolean useDbTime,
+                boolean useStoredProcedure,
+                int partitions) {
 
             super(
                     databaseProduct,
@@ -77,14 +80,27 @@ public class JdbcLockProvider extends StorageBasedLockProvider {
                     forceUtcTimeZone ? TimeZone.getTimeZone("UTC") : null,
                     columnNames,
                     lockedByValue,
-                    useDbTime);
+                    useDbTime,
+                    partitions);
             this.dataSource = requireNonNull(dataSource, "dataSource can not be null");
+            if (useStoredProcedure && useDbTime) {
+                throw new IllegalArgumentException("Can not use stored procedure together with DB time");
+            }
+            if (useStoredProcedure && partitions > 1) {
+                // the procedure is named after the table, it would have to be created for each partition
+                throw new IllegalArgumentException("Can not use stored procedure together with partitions");
+            }
+            this.useStoredProcedure = useStoredProcedure;
         }
 
         public DataSource getDataSource() {
             return dataSource;
         }
 
+        public boolean getUseStoredProcedure() {
+            return useStoredProcedure;
+        }
+
         @Override
         public DatabaseProduct getDatabaseProduct() {
             if (super.getDatabaseProduct() != null) {
@@ -108,6 +124,7 @@ public class JdbcLockProvider extends StorageBasedLockProvider {
             private final DataSource dataSource;
 
             private boolean forceUtcTimeZone;
+            private boolean useStoredProcedure;
 
             public Builder(DataSource dataSource) {
                 this.dataSource = dataSource;
@@ -122,7 +139,9 @@ public class JdbcLockProvider extends StorageBasedLockProvider {
                         forceUtcTimeZone,
                         columnNames,
                         lockedByValue,
-                        useDbTime);
+                        useDbTime,
+                        useStoredProcedure,
+                        partitions);
             }
 
             /**
@@ -134,6 +153,20 @@ public class JdbcLockProvider extends StorageBasedLockProvider {
                 this.forceUtcTimeZone = true;
                 return this;
             }
+
+            /**
+             * Obtains locks by calling a stored procedure that inserts or conditionally updates
+             * the lock record in one round-trip. If the lock is held by somebody else, the procedure
+             * returns its lock_until, so no other query is needed to find out when to try again.
+             * The procedure has to be created upfront, its definition can be obtained from
+             * {@link net.javacrumbs.shedlock.provider.sql.SqlStatementsSource#getTryLockProcedureDefinition()}.
+             * Supported for Postgres, MySQL, MariaDB, MS SQL and Oracle. Can not be combined with useDbTime()
+             * or withPartitions().
+             */
+            public Builder usingStoredProcedure() {
+                this.useStoredProcedure = true;
+                return this;
+            }
         }
     }
 }
@@ -13,6 +13,7 @@
  */
 package net.javacrumbs.shedlock.provider.jdbc;
 
+import java.sql.CallableStatement;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
@@ -24,19 +25,35 @@ class JdbcStorageAccessor extends AbstractJdbcStorageAccessor {
     private final DataSource dataSource;
 
     JdbcStorageAccessor(JdbcLockProvider.Configuration configuration) {
-        super(configuration);
+        super(configuration, configuration.getUseStoredProcedure());
         dataSource = configuration.getDataSource();
     }
 
     @Override
     protected <T> T executeCommand(
             String sql, SqlFunction<PreparedStatement, T> body, BiFunction<String, SQLException, T> exceptionHandler) {
+        return execute(sql, connection -> connection.prepareStatement(sql), body, exceptionHandler);
+    }
+
+    @Override
+    protected <T> T executeCall(
+            String sql,
+            SqlFunction<CallableStatement, T> body,
+            BiFunction<String, SQLException, T> exceptionHandler) {
+        return execute(sql, connection -> connection.prepareCall(sql), body, exceptionHandler);
+    }
+
+    private <S extends PreparedStatement, T> T execute(
+            String sql,
+            SqlFunction<Connection, S> statementFactory,
+            SqlFunction<S, T> body,
+            BiFunction<String, SQLException, T> exceptionHandler) {
         try (Connection connection = dataSource.getConnection()) {
             boolean originalAutocommit = connection.getAutoCommit();
             if (!originalAutocommit) {
                 connection.setAutoCommit(true);
             }
-            try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            try (S statement = statementFactory.apply(connection)) {
                 return body.apply(statement);
             } catch (SQLException e) {
                 return exceptionHandler.apply(sql, e);
@@ -0,0 +1,312 @@
+/**
+ * Copyright 2009 the original author or authors.
+ *
+ * <p>Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * <p>http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * <p>Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.javacrumbs.shedlock.provider.jdbc;
+
+import static java.util.Objects.requireNonNull;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Calendar;
+import java.util.Optional;
+import java.util.TimeZone;
+import javax.sql.DataSource;
+import net.javacrumbs.shedlock.core.AbstractSimpleLock;
+import net.javacrumbs.shedlock.core.ClockProvider;
+import net.javacrumbs.shedlock.core.ExtensibleLockProvider;
+import net.javacrumbs.shedlock.core.LockConfiguration;
+import net.javacrumbs.shedlock.core.SimpleLock;
+import net.javacrumbs.shedlock.provider.sql.DatabaseProduct;
+import net.javacrumbs.shedlock.provider.sql.SqlConfiguration.ColumnNames;
+import net.javacrumbs.shedlock.support.LockException;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Lock provider based on PostgreSQL advisory locks. The lock is obtained using
+ * pg_try_advisory_lock(hashtext(name)) (or pg_try_advisory_xact_lock in
+ * {@link Scope#TRANSACTION} scope), so obtaining and releasing the lock does not
+ * write to the lock table.
+ *
+ * <ol>
+ * <li>Borrows a connection and tries to obtain the advisory lock. The connection
+ * is held until the lock is released.
+ * <li>If the advisory lock is obtained, checks that lock_until in the lock table
+ * is not in the future. Only then we have the lock.
+ * <li>When unlocking, if lockAtLeastFor did not pass yet, lock_until is set to
+ * the end of lockAtLeastFor. This is the only case when the lock table is
+ * written to.
+ * <li>The advisory lock is released and the connection is returned.
+ * </ol>
+ *
+ * <p>
+ * The advisory lock is released when the lock is unlocked or when the session
+ * ends (for example when the application dies). lockAtMostFor is not enforced
+ * while the session is alive. Each held lock uses one connection. If the
+ * advisory lock can not be released, the connection is aborted instead of being
+ * returned to the pool.
+ *
+ * <p>
+ * Different lock names may have the same hash, such locks exclude each other.
+ * Only client time is supported, usingDbTime() is not.
+ */
+public class PostgresAdvisoryLockProvider implements ExtensibleLockProvider {
+    private static final Logger logger = LoggerFactory.getLogger(PostgresAdvisoryLockProvider.class);
+
+    private final JdbcLockProvider.Configuration configuration;
+    private final DataSource dataSource;
+    private final Scope scope;
+    private final String lockUntilSql;
+    private final String updateLockUntilSql;
+
+    private volatile boolean databaseProductVerified;
+
+    public PostgresAdvisoryLockProvider(DataSource dataSource) {
+        this(JdbcLockProvider.Configuration.builder(dataSource).build());
+    }
+
+    public PostgresAdvisoryLockProvider(JdbcLockProvider.Configuration configuration) {
+        this(configuration, Scope.SESSION);
+    }
+
+    public PostgresAdvisoryLockProvider(JdbcLockProvider.Configuration configuration, Scope scope) {
+        this.configuration = requireNonNull(configuration, "configuration can not be null");
+        this.scope = requireNonNull(scope, "scope can not be null");
+        if (configuration.getUseDbTime()) {
+            throw new IllegalArgumentException("PostgresAdvisoryLockProvider does not support usingDbTime()");
+        }
+        if (configuration.getPartitions() > 1) {
+            throw new IllegalArgumentException("PostgresAdvisoryLockProvider does not support partitions");
+        }
+        this.dataSource = configuration.getDataSource();
+        String tableName = configuration.getTableName();
+        ColumnNames columnNames = configuration.getColumnNames();
+        this.lockUntilSql = "SELECT " + columnNames.getLockUntil() + " FROM " + tableName + " WHERE "
+                + columnNames.getName() + " = ?";
+        this.updateLockUntilSql = "INSERT INTO " + tableName + "(" + columnNames.getName() + ", "
+                + columnNames.getLockUntil() + ", " + columnNames.getLockedAt() + ", " + columnNames.getLockedBy()
+                + ") VALUES(?, ?, ?, ?) ON CONFLICT (" + columnNames.getName() + ") DO UPDATE SET "
+                + columnNames.getLockUntil() + " = EXCLUDED." + columnNames.getLockUntil() + ", "
+                + columnNames.getLockedAt() + " = EXCLUDED." + columnNames.getLockedAt() + ", "
+                + columnNames.getLockedBy() + " = EXCLUDED." + columnNames.getLockedBy();
+    }
+
+    @Override
+    public Optional<SimpleLock> lock(LockConfiguration lockConfiguration) {
+        verifyDatabaseProduct();
+        String name = lockConfiguration.getName();
+        Connection connection;
+        try {
+            connection = dataSource.getConnection();
+        } catch (SQLException e) {
+            throw new LockException("Can not obtain connection", e);
+        }
+        @Nullable AdvisoryLock lock = null;
+        try {
+            boolean originalAutoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(scope == Scope.SESSION);
+            AdvisoryLock candidate = new AdvisoryLock(lockConfiguration, connection, originalAutoCommit);
+            if (!tryAdvisoryLock(connection, name)) {
+                candidate.close(false);
+                return Optional.empty();
+            }
+            lock = candidate;
+            if (isLockedAtLeastUntilInFuture(connection, name)) {
+                logger.debug("Lock '{}' can not be obtained, lockAtLeastFor did not pass yet", name);
+                lock.release(false);
+                return Optional.empty();
+            }
+            return Optional.of(lock);
+        } catch (SQLException e) {
+            if (lock != null) {
+                lock.release(false);
+            } else {
+                closeQuietly(connection);
+            }
+            throw new LockException("Unexpected exception when locking", e);
+        }
+    }
+
+    private void verifyDatabaseProduct() {
+        if (!databaseProductVerified) {
+            DatabaseProduct databaseProduct = configuration.getDatabaseProduct();
+            if (databaseProduct != DatabaseProduct.POSTGRES_SQL) {
+                // not cached, the product may not be detected if the DB is not available
+                throw new LockException("PostgresAdvisoryLockProvider requires PostgreSQL, database product is "
+                        + databaseProduct);
+            }
+            databaseProductVerified = true;
+        }
+    }
+
+    private boolean tryAdvisoryLock(Connection connection, String name) throws SQLException {
+        String function = scope == Scope.SESSION ? "pg_try_advisory_lock" : "pg_try_advisory_xact_lock";
+        try (PreparedStatement statement = connection.prepareStatement("SELECT " + function + "(hashtext(?))")) {
+            statement.setString(1, name);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next() && resultSet.getBoolean(1);
+            }
+        }
+    }
+
+    private boolean isLockedAtLeastUntilInFuture(Connection connection, String name) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(lockUntilSql)) {
+            statement.setString(1, name);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                if (resultSet.next()) {
+                    TimeZone timeZone = configuration.getTimeZone();
+                    Timestamp lockUntil = timeZone != null
+                            ? resultSet.getTimestamp(1, Calendar.getInstance(timeZone))
+                            : resultSet.getTimestamp(1);
+                    return lockUntil != null && lockUntil.toInstant().isAfter(ClockProvider.now());
+                }
+                return false;
+            }
+        }
+    }
+
+    private void updateLockUntil(Connection connection, LockConfiguration lockConfiguration) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(updateLockUntilSql)) {
+            statement.setString(1, lockConfiguration.getName());
+            setTimestamp(statement, 2, lockConfiguration.getUnlockTime());
+            setTimestamp(statement, 3, ClockProvider.now());
+            statement.setString(4, configuration.getLockedByValue());
+            statement.executeUpdate();
+        }
+    }
+
+    private void setTimestamp(PreparedStatement statement, int index, Instant value) throws SQLException {
+        TimeZone timeZone = configuration.getTimeZone();
+        if (timeZone != null) {
+            statement.setTimestamp(index, Timestamp.from(value), Calendar.getInstance(timeZone));
+        } else {
+            statement.setTimestamp(index, Timestamp.from(value));
+        }
+    }
+
+    private static void closeQuietly(Connection connection) {
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            logger.debug("Can not close connection", e);
+        }
+    }
+
+    /** Lifetime of the advisory lock. */
+    public enum Scope {
+        /**
+         * The lock is obtained by pg_try_advisory_lock and released by
+         * pg_advisory_unlock, the connection is in auto-commit mode.
+         */
+        SESSION,
+        /**
+         * The lock is obtained by pg_try_advisory_xact_lock in a transaction that is
+         * committed when the lock is released. The lock can not outlive the
+         * transaction even if pg_advisory_unlock is never called, for example when a
+         * pooled connection is reused.
+         */
+        TRANSACTION
+    }
+
+    private class AdvisoryLock extends AbstractSimpleLock {
+        private final Connection connection;
+        private final boolean originalAutoCommit;
+
+        private AdvisoryLock(LockConfiguration lockConfiguration, Connection connection, boolean originalAutoCommit) {
+            super(lockConfiguration);
+            this.connection = connection;
+            this.originalAutoCommit = originalAutoCommit;
+        }
+
+        @Override
+        protected void doUnlock() {
+            boolean success = false;
+            try {
+                if (lockConfiguration.getUnlockTime().isAfter(ClockProvider.now())) {
+                    updateLockUntil(connection, lockConfiguration);
+                }
+                success = true;
+            } catch (SQLException e) {
+                throw new LockException("Unexpected exception when unlocking", e);
+            } finally {
+                release(success);
+            }
+        }
+
+        @Override
+        protected Optional<SimpleLock> doExtend(LockConfiguration newConfiguration) {
+            // the advisory lock is held until released, we just need to remember the new lockAtLeastFor
+            return Optional.of(new AdvisoryLock(newConfiguration, connection, originalAutoCommit));
+        }
+
+        /** Releases the advisory lock and returns the connection. */
+        private void release(boolean commit) {
+            if (scope == Scope.SESSION) {
+                try (PreparedStatement statement =
+                        connection.prepareStatement("SELECT pg_advisory_unlock(hashtext(?))")) {
+                    statement.setString(1, lockConfiguration.getName());
+                    statement.executeQuery().close();
+                } catch (SQLException e) {
+                    logger.warn(
+                            "Can not release advisory lock '{}', aborting connection",
+                            lockConfiguration.getName(),
+                            e);
+                    abort();
+                    return;
+                }
+            }
+            close(commit);
+        }
+
+        /**
+         * Ends the transaction in TRANSACTION scope, which releases the advisory lock,
+         * and returns the connection.
+         */
+        private void close(boolean commit) {
+            try {
+                if (scope == Scope.TRANSACTION) {
+                    if (commit) {
+                        connection.commit();
+                    } else {
+                        connection.rollback();
+                    }
+                }
+                connection.setAutoCommit(originalAutoCommit);
+            } catch (SQLException e) {
+                logger.warn("Can not release advisory lock '{}', aborting connection", lockConfiguration.getName(), e);
+                abort();
+                return;
+            }
+            closeQuietly(connection);
+        }
+
+        /**
+         * Terminates the session, so the advisory lock is released by the DB, and the
+         * connection is not handed out by the pool with the lock still held.
+         */
+        private void abort() {
+            try {
+                connection.abort(Runnable::run);
+            } catch (SQLException | RuntimeException e) {
+                logger.warn("Can not abort connection", e);
+            } finally {
+                closeQuietly(connection);
+            }
+        }
+    }
+}
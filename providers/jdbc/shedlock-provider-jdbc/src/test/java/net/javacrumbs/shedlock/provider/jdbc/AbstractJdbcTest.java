@@ -1,11 +1,26 @@
 package net.javacrumbs.shedlock.provider.jdbc;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Optional;
+import net.javacrumbs.shedlock.core.LockConfiguration;
+import net.javacrumbs.shedlock.core.SimpleLock;
+import net.javacrumbs.shedlock.provider.sql.DatabaseProduct;
+import net.javacrumbs.shedlock.provider.sql.SqlStatementsSource;
 import net.javacrumbs.shedlock.support.StorageBasedLockProvider;
 import net.javacrumbs.shedlock.test.support.jdbc.AbstractJdbcLockProviderIntegrationTest;
 import net.javacrumbs.shedlock.test.support.jdbc.DbConfig;
+import net.javacrumbs.shedlock.test.support.jdbc.JdbcTestUtils;
 import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestInstance;
 
 @TestInstance(TestInstance.Lifecycle.PER_CLASS)
@@ -55,6 +70,72 @@ abstract class AbstractJdbcTest {
         }
     }
 
+    @Nested
+    class StoredProcedure {
+        private JdbcLockProvider.Configuration configuration;
+        private JdbcTestUtils testUtils;
+        private boolean created;
+
+        @BeforeEach
+        void createProcedure() {
+            configuration = JdbcLockProvider.Configuration.builder(dbConfig.getDataSource())
+                    .usingStoredProcedure()
+                    .build();
+            testUtils = new JdbcTestUtils(dbConfig);
+            String definition = SqlStatementsSource.create(configuration).getTryLockProcedureDefinition();
+            assumeTrue(definition != null, "Stored procedure is not supported");
+            dropProcedure();
+            testUtils.getJdbcTemplate().execute(definition);
+            created = true;
+        }
+
+        @AfterEach
+        void cleanup() {
+            if (created) {
+                dropProcedure();
+                testUtils.clean();
+            }
+        }
+
+        private void dropProcedure() {
+            String type = configuration.getDatabaseProduct() == DatabaseProduct.POSTGRES_SQL ? "FUNCTION" : "PROCEDURE";
+            testUtils.getJdbcTemplate().execute("DROP " + type + " IF EXISTS shedlock_try_lock");
+        }
+
+        @Test
+        void shouldLockUsingStoredProcedure() {
+            JdbcLockProvider provider = new JdbcLockProvider(configuration);
+            Instant lockUntil = Instant.now().plusSeconds(30).truncatedTo(ChronoUnit.MILLIS);
+            LockConfiguration lockConfiguration =
+                    new LockConfiguration(Instant.now(), "procedure_test", Duration.ofSeconds(30), Duration.ZERO);
+
+            Optional<SimpleLock> lock = provider.lock(lockConfiguration);
+            assertThat(lock).isPresent();
+            assertThat(provider.lock(lockConfiguration)).isEmpty();
+            assertThat(provider.getLockUntil("procedure_test"))
+                    .hasValueSatisfying(
+                            until -> assertThat(until).isBetween(lockUntil.minusSeconds(1), lockUntil.plusSeconds(1)));
+
+            lock.get().unlock();
+            assertThat(provider.lock(lockConfiguration)).isPresent();
+        }
+
+        @Test
+        void shouldNotReturnLockUntilOfFailedAttemptAfterUnlock() {
+            JdbcLockProvider provider = new JdbcLockProvider(configuration);
+            LockConfiguration lockConfiguration =
+                    new LockConfiguration(Instant.now(), "procedure_test", Duration.ofSeconds(30), Duration.ZERO);
+
+            Optional<SimpleLock> lock = provider.lock(lockConfiguration);
+            assertThat(lock).isPresent();
+            assertThat(provider.lock(lockConfiguration)).isEmpty();
+            lock.get().unlock();
+
+            assertThat(provider.getLockUntil("procedure_test"))
+                    .hasValueSatisfying(until -> assertThat(until).isBeforeOrEqualTo(Instant.now()));
+        }
+    }
+
     @BeforeAll
     public void startDb() {
         dbConfig.startDb();
@@ -13,7 +13,27 @@
  */
 package net.javacrumbs.shedlock.provider.jdbc;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.BatchUpdateException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+import javax.sql.DataSource;
+import net.javacrumbs.shedlock.core.LockConfiguration;
+import net.javacrumbs.shedlock.provider.sql.SqlSchemaGenerator;
+import net.javacrumbs.shedlock.support.LockException;
 import net.javacrumbs.shedlock.test.support.jdbc.HsqlConfig;
+import net.javacrumbs.shedlock.test.support.jdbc.JdbcTestUtils;
+import org.junit.jupiter.api.Test;
 
 public class HsqlJdbcLockProviderIntegrationTest extends AbstractJdbcTest {
     private static final HsqlConfig dbConfig = new HsqlConfig();
@@ -21,4 +41,163 @@ public class HsqlJdbcLockProviderIntegrationTest extends AbstractJdbcTest {
     public HsqlJdbcLockProviderIntegrationTest() {
         super(dbConfig);
     }
+
+    @Test
+    void shouldNotCombineStoredProcedureWithPartitions() {
+        JdbcLockProvider.Configuration.Builder builder = JdbcLockProvider.Configuration.builder(
+                        dbConfig.getDataSource())
+                .usingStoredProcedure()
+                .withPartitions(3);
+
+        assertThatThrownBy(builder::build).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void shouldReleaseLocksCommittedBeforeBatchUpdateException() {
+        JdbcLockProvider provider = new JdbcLockProvider(
+                JdbcLockProvider.Configuration.builder(failingBatchDataSource(dbConfig.getDataSource()))
+                        .build());
+        List<LockConfiguration> lockConfigurations = IntStream.range(0, 3)
+                .mapToObj(i ->
+                        new LockConfiguration(Instant.now(), "batch-" + i, Duration.ofSeconds(30), Duration.ZERO))
+                .toList();
+        // create the records, so lockAll updates them in one batch
+        lockConfigurations.forEach(lockConfiguration -> provider.lock(lockConfiguration).orElseThrow().unlock());
+
+        assertThatThrownBy(() -> provider.lockAll(lockConfigurations))
+                .isInstanceOf(LockException.class)
+                .hasCauseInstanceOf(BatchUpdateException.class);
+
+        // the first update has been committed before the failure and released afterwards
+        lockConfigurations.forEach(lockConfiguration -> assertThat(provider.lock(lockConfiguration)).isPresent());
+    }
+
+    /**
+     * Update batches execute only their first statement and then fail, like a
+     * driver that stops at the first failing statement of a batch.
+     */
+    private static DataSource failingBatchDataSource(DataSource dataSource) {
+        return proxy(DataSource.class, (method, args) -> {
+            Object result = method.invoke(dataSource, args);
+            if (!method.getName().equals("getConnection")) {
+                return result;
+            }
+            Connection connection = (Connection) result;
+            return proxy(Connection.class, (connectionMethod, connectionArgs) -> {
+                Object statement = connectionMethod.invoke(connection, connectionArgs);
+                if (connectionMethod.getName().equals("prepareStatement")
+                        && ((String) connectionArgs[0]).startsWith("UPDATE")) {
+                    return failingBatchStatement((PreparedStatement) statement);
+                }
+                return statement;
+            });
+        });
+    }
+
+    private static PreparedStatement failingBatchStatement(PreparedStatement statement) {
+        List<List<Object[]>> batch = new ArrayList<>();
+        List<Object[]> parameters = new ArrayList<>();
+        return proxy(PreparedStatement.class, (method, args) -> {
+            switch (method.getName()) {
+                case "addBatch" -> {
+                    batch.add(List.copyOf(parameters));
+                    parameters.clear();
+                    return null;
+                }
+                case "executeBatch" -> {
+                    for (Object[] parameter : batch.get(0)) {
+                        ((Method) parameter[0]).invoke(statement, (Object[]) parameter[1]);
+                    }
+                    int updated = statement.executeUpdate();
+                    throw new BatchUpdateException("Simulated failure", new int[] {updated});
+                }
+                default -> {
+                    if (method.getName().startsWith("set")) {
+                        parameters.add(new Object[] {method, args});
+                    }
+                    return method.invoke(statement, args);
+                }
+            }
+        });
+    }
+
+    private static <T> T proxy(Class<T> type, Invocation invocation) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type}, (p, method, args) -> {
+            try {
+                return invocation.invoke(method, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }));
+    }
+
+    private interface Invocation {
+        Object invoke(Method method, Object[] args) throws Throwable;
+    }
+
+    @Test
+    void shouldLockInPartitionTables() {
+        var testUtils = new JdbcTestUtils(dbConfig);
+        JdbcLockProvider.Configuration configuration = JdbcLockProvider.Configuration.builder(dbConfig.getDataSource())
+                .withPartitions(3)
+                .build();
+        List<String> createStatements = SqlSchemaGenerator.builder(configuration).build().getCreateTableStatements();
+        try {
+            createStatements.forEach(testUtils.getJdbcTemplate()::execute);
+            JdbcLockProvider provider = new JdbcLockProvider(configuration);
+            List<LockConfiguration> lockConfigurations = IntStream.range(0, 10)
+                    .mapToObj(i -> new LockConfiguration(
+                            Instant.now(), "partitioned-" + i, Duration.ofSeconds(30), Duration.ZERO))
+                    .toList();
+
+            lockConfigurations.forEach(lockConfiguration -> assertThat(provider.lock(lockConfiguration)).isPresent());
+            assertThat(provider.lockAll(lockConfigurations)).isEmpty();
+            lockConfigurations.forEach(lockConfiguration -> {
+                String tableName = configuration.getTableName(configuration.getPartition(lockConfiguration.getName()));
+                assertThat(testUtils.getJdbcTemplate()
+                                .queryForObject(
+                                        "SELECT COUNT(*) FROM " + tableName + " WHERE name = ?",
+                                        Integer.class,
+                                        lockConfiguration.getName()))
+                        .isEqualTo(1);
+            });
+        } finally {
+            for (int partition = 0; partition < configuration.getPartitions(); partition++) {
+                testUtils.getJdbcTemplate().execute("DROP TABLE " + configuration.getTableName(partition));
+            }
+        }
+    }
+
+    @Test
+    void shouldReleaseLocksOfPreviousPartitionsIfLockAllFails() {
+        var testUtils = new JdbcTestUtils(dbConfig);
+        JdbcLockProvider.Configuration configuration = JdbcLockProvider.Configuration.builder(dbConfig.getDataSource())
+                .withPartitions(3)
+                .build();
+        List<String> createStatements = SqlSchemaGenerator.builder(configuration).build().getCreateTableStatements();
+        try {
+            createStatements.forEach(testUtils.getJdbcTemplate()::execute);
+            JdbcLockProvider provider = new JdbcLockProvider(configuration);
+            List<LockConfiguration> lockConfigurations = IntStream.range(0, 10)
+                    .mapToObj(i -> new LockConfiguration(
+                            Instant.now(), "failing-" + i, Duration.ofSeconds(30), Duration.ZERO))
+                    .toList();
+            // create the records, so lockAll updates them in one batch per partition
+            lockConfigurations.forEach(lockConfiguration -> provider.lock(lockConfiguration).orElseThrow().unlock());
+
+            // the last partition fails after the previous ones have been updated
+            testUtils.getJdbcTemplate().execute("DROP TABLE " + configuration.getTableName(2));
+            assertThatThrownBy(() -> provider.lockAll(lockConfigurations)).isInstanceOf(LockException.class);
+
+            lockConfigurations.stream()
+                    .filter(lockConfiguration -> configuration.getPartition(lockConfiguration.getName()) != 2)
+                    .forEach(lockConfiguration -> assertThat(provider.lock(lockConfiguration)).isPresent());
+        } finally {
+            for (int partition = 0; partition < configuration.getPartitions(); partition++) {
+                testUtils
+                        .getJdbcTemplate()
+                        .execute("DROP TABLE " + configuration.getTableName(partition) + " IF EXISTS");
+            }
+        }
+    }
 }
@@ -0,0 +1,197 @@
+/**
+ * Copyright 2009 the original author or authors.
+ *
+ * <p>Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * <p>http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * <p>Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.javacrumbs.shedlock.provider.jdbc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Optional;
+import javax.sql.DataSource;
+import net.javacrumbs.shedlock.core.LockProvider;
+import net.javacrumbs.shedlock.core.SimpleLock;
+import net.javacrumbs.shedlock.provider.jdbc.PostgresAdvisoryLockProvider.Scope;
+import net.javacrumbs.shedlock.test.support.AbstractLockProviderIntegrationTest;
+import net.javacrumbs.shedlock.test.support.jdbc.JdbcTestUtils;
+import net.javacrumbs.shedlock.test.support.jdbc.PostgresConfig;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class PostgresAdvisoryLockProviderIntegrationTest {
+    private static final PostgresConfig dbConfig = new PostgresConfig();
+
+    @BeforeAll
+    public void startDb() {
+        dbConfig.startDb();
+    }
+
+    @AfterAll
+    public void shutDownDb() {
+        dbConfig.shutdownDb();
+    }
+
+    @Nested
+    class SessionScope extends AbstractAdvisoryLockTest {
+        @Override
+        protected LockProvider getLockProvider() {
+            return new PostgresAdvisoryLockProvider(
+                    JdbcLockProvider.Configuration.builder(dbConfig.getDataSource()).build(), Scope.SESSION);
+        }
+
+        @Test
+        void shouldAbortConnectionIfAdvisoryLockCanNotBeReleased() {
+            LockProvider lockProvider = new PostgresAdvisoryLockProvider(
+                    JdbcLockProvider.Configuration.builder(failingUnlockDataSource(dbConfig.getDataSource()))
+                            .build(),
+                    Scope.SESSION);
+            Optional<SimpleLock> lock = lockProvider.lock(lockConfig(LOCK_NAME1));
+            assertThat(lock).isNotEmpty();
+
+            lock.get().unlock();
+
+            // the session is ended by the DB asynchronously
+            for (int i = 0; i < 50 && isAdvisoryLockHeld(LOCK_NAME1); i++) {
+                sleepFor(Duration.ofMillis(100));
+            }
+            assertUnlocked(LOCK_NAME1);
+        }
+
+        private static DataSource failingUnlockDataSource(DataSource dataSource) {
+            return proxy(DataSource.class, (method, args) -> {
+                if (method.getName().equals("getConnection")) {
+                    Connection connection = (Connection) method.invoke(dataSource, args);
+                    return proxy(Connection.class, (connectionMethod, connectionArgs) -> {
+                        if (connectionMethod.getName().equals("prepareStatement")
+                                && ((String) connectionArgs[0]).contains("pg_advisory_unlock")) {
+                            throw new SQLException("Simulated failure");
+                        }
+                        return connectionMethod.invoke(connection, connectionArgs);
+                    });
+                }
+                return method.invoke(dataSource, args);
+            });
+        }
+
+        private static <T> T proxy(Class<T> type, Invocation invocation) {
+            return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type}, (p, method, args) -> {
+                try {
+                    return invocation.invoke(method, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+            }));
+        }
+
+        private interface Invocation {
+            Object invoke(Method method, Object[] args) throws Throwable;
+        }
+    }
+
+    @Nested
+    class TransactionScope extends AbstractAdvisoryLockTest {
+        @Override
+        protected LockProvider getLockProvider() {
+            return new PostgresAdvisoryLockProvider(
+                    JdbcLockProvider.Configuration.builder(dbConfig.getDataSource()).build(), Scope.TRANSACTION);
+        }
+    }
+
+    abstract static class AbstractAdvisoryLockTest extends AbstractLockProviderIntegrationTest {
+        private JdbcTestUtils testUtils;
+
+        @BeforeEach
+        public void initTestUtils() {
+            testUtils = new JdbcTestUtils(dbConfig);
+        }
+
+        @AfterEach
+        public void cleanup() {
+            testUtils.clean();
+        }
+
+        /** Advisory locks are held until unlocked or until the session ends, lockAtMostFor is not applied. */
+        @Test
+        @Override
+        public void shouldTimeout() {
+            Optional<SimpleLock> lock =
+                    getLockProvider().lock(lockConfig(LOCK_NAME1, Duration.ofMillis(50), Duration.ZERO));
+            assertThat(lock).isNotEmpty();
+
+            sleepFor(Duration.ofMillis(100));
+            assertLocked(LOCK_NAME1);
+
+            lock.get().unlock();
+            assertUnlocked(LOCK_NAME1);
+        }
+
+        @Test
+        public void shouldNotWriteLockTableIfLockAtLeastForPassed() {
+            Optional<SimpleLock> lock = getLockProvider().lock(lockConfig(LOCK_NAME1));
+            assertThat(lock).isNotEmpty();
+            lock.get().unlock();
+
+            assertThat(countLockRecords()).isZero();
+        }
+
+        @Test
+        public void shouldRecordLockAtLeastFor() {
+            Optional<SimpleLock> lock =
+                    getLockProvider().lock(lockConfig(LOCK_NAME1, Duration.ofMinutes(1), Duration.ofMinutes(1)));
+            assertThat(lock).isNotEmpty();
+            lock.get().unlock();
+
+            assertThat(countLockRecords()).isOne();
+            assertThat(getLockProvider().lock(lockConfig(LOCK_NAME1))).isEmpty();
+        }
+
+        @Override
+        protected void assertLocked(String lockName) {
+            assertThat(isAdvisoryLockHeld(lockName)).describedAs("is locked").isTrue();
+        }
+
+        @Override
+        protected void assertUnlocked(String lockName) {
+            assertThat(isAdvisoryLockHeld(lockName)).describedAs("is unlocked").isFalse();
+        }
+
+        protected boolean isAdvisoryLockHeld(String lockName) {
+            // bigint advisory lock key is split to classid (high bits) and objid (low bits)
+            Integer count = testUtils
+                    .getJdbcTemplate()
+                    .queryForObject(
+                            "SELECT count(*) FROM pg_locks WHERE locktype = 'advisory' AND objsubid = 1 AND granted"
+                                    + " AND ((classid::bigint << 32) | objid::bigint) = hashtext(?)::bigint",
+                            Integer.class,
+                            lockName);
+            return count != null && count > 0;
+        }
+
+        private int countLockRecords() {
+            Integer count = testUtils
+                    .getJdbcTemplate()
+                    .queryForObject("SELECT count(*) FROM shedlock WHERE name = ?", Integer.class, LOCK_NAME1);
+            return count != null ? count : 0;
+        }
+    }
+}
@@ -15,12 +15,17 @@ package net.javacrumbs.shedlock.provider.jdbc;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import java.sql.Connection;
+import java.sql.SQLException;
 import java.sql.Timestamp;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.List;
 import java.util.TimeZone;
 import javax.sql.DataSource;
 import net.javacrumbs.shedlock.core.LockConfiguration;
+import net.javacrumbs.shedlock.provider.sql.SqlSchemaGenerator;
+import net.javacrumbs.shedlock.provider.sql.SqlSchemaValidator;
 import net.javacrumbs.shedlock.test.support.jdbc.JdbcTestUtils;
 import net.javacrumbs.shedlock.test.support.jdbc.PostgresConfig;
 import org.junit.jupiter.api.Test;
@@ -69,4 +74,40 @@ public class PostgresJdbcLockProviderIntegrationTest extends AbstractJdbcTest {
             testUtils.clean();
         }
     }
+
+    @Test
+    void shouldWarnAboutUntunedTable() throws SQLException {
+        var testUtils = new JdbcTestUtils(dbConfig);
+        try (Connection connection = dbConfig.getDataSource().getConnection()) {
+            testUtils.getJdbcTemplate().execute("CREATE INDEX shedlock_lock_until ON shedlock(lock_until)");
+
+            List<String> problems = new SqlSchemaValidator(configuration()).validate(connection);
+
+            assertThat(problems).hasSize(2);
+            assertThat(problems.get(0)).contains("shedlock_lock_until");
+            assertThat(problems.get(1)).contains("fillfactor");
+        } finally {
+            testUtils.clean();
+        }
+    }
+
+    @Test
+    void shouldNotWarnAboutGeneratedTable() throws SQLException {
+        var testUtils = new JdbcTestUtils(dbConfig);
+        try (Connection connection = dbConfig.getDataSource().getConnection()) {
+            JdbcLockProvider.Configuration configuration = configuration();
+            testUtils.getJdbcTemplate().execute("DROP TABLE shedlock");
+            testUtils
+                    .getJdbcTemplate()
+                    .execute(SqlSchemaGenerator.builder(configuration).build().getCreateTableStatement());
+
+            assertThat(new SqlSchemaValidator(configuration).validate(connection)).isEmpty();
+        } finally {
+            testUtils.clean();
+        }
+    }
+
+    private static JdbcLockProvider.Configuration configuration() {
+        return JdbcLockProvider.Configuration.builder(dbConfig.getDataSource()).build();
+    }
 }
@@ -9,8 +9,11 @@ import static org.jooq.impl.DSL.when;
 
 import java.io.Serializable;
 import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDateTime;
 import java.util.Map;
+import java.util.Optional;
+import net.javacrumbs.shedlock.core.ClockProvider;
 import net.javacrumbs.shedlock.core.LockConfiguration;
 import net.javacrumbs.shedlock.support.AbstractStorageAccessor;
 import net.javacrumbs.shedlock.support.LockException;
@@ -82,6 +85,20 @@ class JooqStorageAccessor extends AbstractStorageAccessor {
                 > 0);
     }
 
+    /**
+     * lock_until is in DB time, so we compute how long the lock is still held
+     * according to the DB and add it to the local time.
+     */
+    @Override
+    public Optional<Instant> getLockUntil(String lockName) {
+        return dslContext
+                .select(t.LOCK_UNTIL, now())
+                .from(t)
+                .where(t.NAME.eq(lockName))
+                .fetchOptional()
+                .map(row -> ClockProvider.now().plus(Duration.between(row.value2(), row.value1())));
+    }
+
     private <T> T runInTransaction(TransactionalCallable<T> txCallable) {
         try {
             @SuppressWarnings("unchecked")
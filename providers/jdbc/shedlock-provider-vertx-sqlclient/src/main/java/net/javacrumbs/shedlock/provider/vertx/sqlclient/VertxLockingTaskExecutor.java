@@ -0,0 +1,45 @@
+package net.javacrumbs.shedlock.provider.vertx.sqlclient;
+
+import static java.util.Objects.requireNonNull;
+import static net.javacrumbs.shedlock.provider.vertx.sqlclient.VertxSqlClientLockProvider.toFuture;
+
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import java.util.function.Supplier;
+import net.javacrumbs.shedlock.core.AsyncLockingTaskExecutor;
+import net.javacrumbs.shedlock.core.LockConfiguration;
+import net.javacrumbs.shedlock.core.LockProvider;
+import net.javacrumbs.shedlock.core.LockingTaskExecutor.TaskResult;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * {@link AsyncLockingTaskExecutor} for Vert.x {@link Future}s. The lock is held
+ * until the future returned by the task completes, so it covers the whole
+ * handler chain, not only the code that creates it.
+ *
+ * Use it with {@link VertxSqlClientLockProvider} (or other
+ * {@link net.javacrumbs.shedlock.core.AsyncLockProvider}) to stay on the event
+ * loop, the lock is then obtained and released without blocking.
+ */
+public class VertxLockingTaskExecutor {
+    private final AsyncLockingTaskExecutor executor;
+
+    public VertxLockingTaskExecutor(LockProvider lockProvider) {
+        this(new AsyncLockingTaskExecutor(lockProvider));
+    }
+
+    public VertxLockingTaskExecutor(AsyncLockingTaskExecutor executor) {
+        this.executor = requireNonNull(executor);
+    }
+
+    /**
+     * Executes the task if the lock can be obtained. The returned future is
+     * completed after the future returned by the task completes and the lock is
+     * released. If called on a Vert.x context, it is completed on that context.
+     */
+    public <T> Future<TaskResult<T>> executeWithLock(Supplier<Future<T>> task, LockConfiguration lockConfig) {
+        @Nullable Context context = Vertx.currentContext();
+        return toFuture(executor.executeWithLock(() -> task.get().toCompletionStage(), lockConfig), context);
+    }
+}
@@ -2,22 +2,51 @@ package net.javacrumbs.shedlock.provider.vertx.sqlclient;
 
 import static java.util.Objects.requireNonNull;
 
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
 import io.vertx.sqlclient.SqlClient;
+import java.util.Optional;
 import java.util.TimeZone;
+import java.util.concurrent.CompletionStage;
+import net.javacrumbs.shedlock.core.AsyncSimpleLock;
+import net.javacrumbs.shedlock.core.LockConfiguration;
 import net.javacrumbs.shedlock.provider.sql.DatabaseProduct;
 import net.javacrumbs.shedlock.provider.sql.SqlConfiguration;
-import net.javacrumbs.shedlock.support.StorageBasedLockProvider;
+import net.javacrumbs.shedlock.support.AsyncStorageBasedLockProvider;
+import org.jspecify.annotations.Nullable;
 
 /**
  * Lock provider using Vert.x SQL Client (io.vertx.sqlclient.Pool).
  *
  * It reuses shedlock-sql-support for SQL generation and parameter handling.
+ *
+ * The blocking LockProvider API must not be called from the event loop, use
+ * {@link #lockFuture(LockConfiguration)} or lockAsync from
+ * {@link net.javacrumbs.shedlock.core.AsyncLockProvider} instead. Both only
+ * chain callbacks on the queries, nothing is offloaded to a worker thread.
+ *
+ * Statements are parsed once, enable prepared statement caching in the
+ * connect options (setCachePreparedStatements(true)) to prepare them only once
+ * per connection.
  */
-public class VertxSqlClientLockProvider extends StorageBasedLockProvider {
+public class VertxSqlClientLockProvider extends AsyncStorageBasedLockProvider {
     public VertxSqlClientLockProvider(Configuration configuration) {
         super(new VertxSqlClientStorageAccessor(configuration));
     }
 
+    /**
+     * Vert.x variant of lockAsync. If called on a Vert.x context, the returned
+     * future is completed on that context.
+     */
+    public Future<Optional<AsyncSimpleLock>> lockFuture(LockConfiguration lockConfiguration) {
+        return toFuture(lockAsync(lockConfiguration), Vertx.currentContext());
+    }
+
+    static <T> Future<T> toFuture(CompletionStage<T> stage, @Nullable Context context) {
+        return context != null ? Future.fromCompletionStage(stage, context) : Future.fromCompletionStage(stage);
+    }
+
     public static final class Configuration extends SqlConfiguration {
         private final SqlClient sqlClient;
 
@@ -56,6 +85,9 @@ public class VertxSqlClientLockProvider extends StorageBasedLockProvider {
             }
 
             public Configuration build() {
+                if (partitions != 1) {
+                    throw new IllegalArgumentException("VertxSqlClientLockProvider does not support partitions");
+                }
                 return new Configuration(
                         sqlClient,
                         dbUpperCase,
@@ -1,40 +1,66 @@
 package net.javacrumbs.shedlock.provider.vertx.sqlclient;
 
-import static java.util.stream.Collectors.toUnmodifiableMap;
 import static net.javacrumbs.shedlock.provider.sql.internal.ErrorCodeUtils.isConstraintViolation;
 
 import io.vertx.sqlclient.DatabaseException;
+import io.vertx.sqlclient.Row;
 import io.vertx.sqlclient.RowSet;
 import io.vertx.sqlclient.SqlClient;
 import io.vertx.sqlclient.templates.SqlTemplate;
-import java.time.ZonedDateTime;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.TimeZone;
 import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
-import java.util.regex.Pattern;
+import java.util.function.Function;
 import net.javacrumbs.shedlock.core.LockConfiguration;
 import net.javacrumbs.shedlock.provider.sql.SqlStatementsSource;
+import net.javacrumbs.shedlock.provider.sql.internal.NamedSqlTranslator;
 import net.javacrumbs.shedlock.support.AbstractStorageAccessor;
+import net.javacrumbs.shedlock.support.AsyncStorageAccessor;
 import net.javacrumbs.shedlock.support.LockException;
 
-class VertxSqlClientStorageAccessor extends AbstractStorageAccessor {
-    private static final Pattern NAMED_PARAMETER_PATTERN = Pattern.compile(":[a-zA-Z]+");
+class VertxSqlClientStorageAccessor extends AbstractStorageAccessor implements AsyncStorageAccessor {
     private final SqlClient sqlClient;
 
     private final SqlStatementsSource sqlStatementsSource;
+    private final ZoneId zoneId;
+    private final boolean useDbTime;
+
+    // Templates are parsed once, the SQL they send is the same for each execution, so
+    // connections with prepared statement cache enabled prepare each statement only once
+    private final Statement insertStatement;
+    private final Statement updateStatement;
+    private final Statement extendStatement;
+    private final Statement unlockStatement;
+    private final SqlTemplate<Map<String, Object>, RowSet<Row>> lockUntilTemplate;
 
     VertxSqlClientStorageAccessor(VertxSqlClientLockProvider.Configuration configuration) {
         this.sqlClient = configuration.getSqlClient();
+        TimeZone timeZone = configuration.getTimeZone();
+        this.zoneId = timeZone != null ? timeZone.toZoneId() : ZoneId.systemDefault();
+        this.useDbTime = configuration.getUseDbTime();
         this.sqlStatementsSource = SqlStatementsSource.create(configuration);
+        this.insertStatement = compile(sqlStatementsSource.getInsertStatement());
+        this.updateStatement = compile(sqlStatementsSource.getUpdateStatement());
+        this.extendStatement = compile(sqlStatementsSource.getExtendStatement());
+        this.unlockStatement = compile(sqlStatementsSource.getUnlockStatement());
+        this.lockUntilTemplate =
+                SqlTemplate.forQuery(sqlClient, translate(sqlStatementsSource.getLockUntilStatement()));
     }
 
     @Override
     public boolean insertRecord(LockConfiguration lockConfiguration) {
-        String stmt = translate(sqlStatementsSource().getInsertStatement());
         try {
-            int updated = executeUpdate(stmt, lockConfiguration);
+            int updated = executeUpdate(insertStatement, lockConfiguration);
             return updated > 0;
         } catch (Exception e) {
             Throwable cause = unwrap(e);
@@ -51,9 +77,8 @@ class VertxSqlClientStorageAccessor extends AbstractStorageAccessor {
 
     @Override
     public boolean updateRecord(LockConfiguration lockConfiguration) {
-        String stmt = translate(sqlStatementsSource().getUpdateStatement());
         try {
-            int updated = executeUpdate(stmt, lockConfiguration);
+            int updated = executeUpdate(updateStatement, lockConfiguration);
             return updated > 0;
         } catch (Exception e) {
             logger.debug("Unexpected exception when updating lock record", e);
@@ -63,10 +88,9 @@ class VertxSqlClientStorageAccessor extends AbstractStorageAccessor {
 
     @Override
     public boolean extend(LockConfiguration lockConfiguration) {
-        String stmt = translate(sqlStatementsSource().getExtendStatement());
         logger.debug("Extending lock={} until={}", lockConfiguration.getName(), lockConfiguration.getLockAtMostUntil());
         try {
-            int updated = executeUpdate(stmt, lockConfiguration);
+            int updated = executeUpdate(extendStatement, lockConfiguration);
             return updated > 0;
         } catch (Exception e) {
             throw new LockException("Unexpected exception when unlocking", unwrap(e));
@@ -75,45 +99,117 @@ class VertxSqlClientStorageAccessor extends AbstractStorageAccessor {
 
     @Override
     public void unlock(LockConfiguration lockConfiguration) {
-        String stmt = translate(sqlStatementsSource().getUnlockStatement());
         try {
-            executeUpdate(stmt, lockConfiguration);
+            executeUpdate(unlockStatement, lockConfiguration);
         } catch (Exception e) {
             throw new LockException("Unexpected exception when unlocking", unwrap(e));
         }
     }
 
-    private String translate(String statement) {
-        return NAMED_PARAMETER_PATTERN
-                .matcher(statement)
-                .replaceAll(result -> "#{" + result.group().substring(1) + "}");
+    @Override
+    public Optional<Instant> getLockUntil(String lockName) {
+        try {
+            RowSet<Row> rows = lockUntilTemplate
+                    .execute(Map.of("name", lockName))
+                    .toCompletionStage()
+                    .toCompletableFuture()
+                    .get(30, TimeUnit.SECONDS);
+            for (Row row : rows) {
+                LocalDateTime lockUntil = row.getLocalDateTime(0);
+                if (lockUntil == null) {
+                    return Optional.empty();
+                } else if (useDbTime) {
+                    // lock_until is in DB time, the second column is the current DB time
+                    Instant dbNow = row.getLocalDateTime(1).atZone(zoneId).toInstant();
+                    return Optional.of(SqlStatementsSource.toLocalTime(lockUntil.atZone(zoneId).toInstant(), dbNow));
+                } else {
+                    return Optional.of(lockUntil.atZone(zoneId).toInstant());
+                }
+            }
+            return Optional.empty();
+        } catch (Exception e) {
+            logger.debug("Can not read lock_until", unwrap(e));
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public CompletionStage<Boolean> insertRecordAsync(LockConfiguration lockConfiguration) {
+        return executeUpdateAsync(insertStatement, lockConfiguration).handle((updated, e) -> {
+            if (e == null) {
+                return updated > 0;
+            }
+            Throwable cause = unwrap(e);
+            if (cause instanceof DatabaseException dbException && isConstraintViolation(dbException.getSqlState())) {
+                logger.debug("Constraint violation, duplicate key error is expected here {}", cause.getMessage());
+                return false;
+            }
+            logger.debug("Exception thrown when inserting record", cause);
+            throw new LockException("Unexpected exception when locking", cause);
+        });
+    }
+
+    @Override
+    public CompletionStage<Boolean> updateRecordAsync(LockConfiguration lockConfiguration) {
+        return executeUpdateAsync(updateStatement, lockConfiguration).handle((updated, e) -> {
+            if (e == null) {
+                return updated > 0;
+            }
+            logger.debug("Unexpected exception when updating lock record", e);
+            throw new LockException("Unexpected exception when locking", unwrap(e));
+        });
+    }
+
+    @Override
+    public CompletionStage<Boolean> extendAsync(LockConfiguration lockConfiguration) {
+        logger.debug("Extending lock={} until={}", lockConfiguration.getName(), lockConfiguration.getLockAtMostUntil());
+        return executeUpdateAsync(extendStatement, lockConfiguration).handle((updated, e) -> {
+            if (e == null) {
+                return updated > 0;
+            }
+            throw new LockException("Unexpected exception when unlocking", unwrap(e));
+        });
+    }
+
+    @Override
+    public CompletionStage<Void> unlockAsync(LockConfiguration lockConfiguration) {
+        return executeUpdateAsync(unlockStatement, lockConfiguration).handle((updated, e) -> {
+            if (e == null) {
+                return null;
+            }
+            throw new LockException("Unexpected exception when unlocking", unwrap(e));
+        });
     }
 
-    private SqlStatementsSource sqlStatementsSource() {
-        return sqlStatementsSource;
+    private static String translate(String statement) {
+        return NamedSqlTranslator.translate(statement, (position, name) -> "#{" + name + "}");
     }
 
-    private int executeUpdate(String sql, LockConfiguration lockConfiguration)
+    private Statement compile(String statement) {
+        return new Statement(
+                SqlTemplate.forQuery(sqlClient, translate(statement)),
+                NamedSqlTranslator.compile(statement, sqlStatementsSource));
+    }
+
+    private int executeUpdate(Statement statement, LockConfiguration lockConfiguration)
             throws ExecutionException, InterruptedException, TimeoutException {
-        Map<String, Object> params = translateParams(sqlStatementsSource().params(lockConfiguration));
         // block to keep compatibility with synchronous ShedLock contracts
-        RowSet<?> rs = SqlTemplate.forQuery(sqlClient, sql)
-                .execute(params)
-                .toCompletionStage()
-                .toCompletableFuture()
-                .get(30, TimeUnit.SECONDS);
-        return rs.rowCount();
+        return executeUpdateAsync(statement, lockConfiguration).toCompletableFuture().get(30, TimeUnit.SECONDS);
     }
 
-    private Map<String, Object> translateParams(Map<String, Object> params) {
-        return params.entrySet().stream()
-                .map(entry -> Map.entry(entry.getKey(), translate(entry.getValue())))
-                .collect(toUnmodifiableMap(Map.Entry::getKey, Map.Entry::getValue));
+    private CompletionStage<Integer> executeUpdateAsync(Statement statement, LockConfiguration lockConfiguration) {
+        List<String> names = statement.parameters().names();
+        List<Function<LockConfiguration, Object>> parameters = statement.parameters().parameters();
+        Map<String, Object> params = new HashMap<>();
+        for (int i = 0; i < names.size(); i++) {
+            params.put(names.get(i), toDbValue(parameters.get(i).apply(lockConfiguration)));
+        }
+        return statement.template().execute(params).toCompletionStage().thenApply(RowSet::rowCount);
     }
 
-    private static Object translate(Object value) {
-        if (value instanceof ZonedDateTime cal) {
-            return cal.toLocalDateTime();
+    private Object toDbValue(Object value) {
+        if (value instanceof Instant instant) {
+            return LocalDateTime.ofInstant(instant, zoneId);
         } else {
             return value;
         }
@@ -125,4 +221,11 @@ class VertxSqlClientStorageAccessor extends AbstractStorageAccessor {
         }
         return e;
     }
+
+    /**
+     * Vert.x template with named parameters and the functions that compute them,
+     * the positions of the compiled parameters are not used.
+     */
+    private record Statement(
+            SqlTemplate<Map<String, Object>, RowSet<Row>> template, NamedSqlTranslator.SqlTemplate parameters) {}
 }
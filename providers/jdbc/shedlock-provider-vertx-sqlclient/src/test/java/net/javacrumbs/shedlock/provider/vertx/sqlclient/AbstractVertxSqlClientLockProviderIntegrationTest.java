@@ -1,11 +1,17 @@
 package net.javacrumbs.shedlock.provider.vertx.sqlclient;
 
 import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
 
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
 import io.vertx.sqlclient.Row;
 import io.vertx.sqlclient.RowSet;
 import io.vertx.sqlclient.SqlClient;
 import java.time.ZoneOffset;
+import java.util.concurrent.CompletableFuture;
+import net.javacrumbs.shedlock.core.AsyncSimpleLock;
+import net.javacrumbs.shedlock.core.LockingTaskExecutor.TaskResult;
 import net.javacrumbs.shedlock.provider.sql.DatabaseProduct;
 import net.javacrumbs.shedlock.provider.vertx.sqlclient.VertxSqlClientLockProvider.Configuration;
 import net.javacrumbs.shedlock.support.StorageBasedLockProvider;
@@ -15,6 +21,7 @@ import net.javacrumbs.shedlock.test.support.jdbc.JdbcTestUtils;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestInstance;
 
 @TestInstance(TestInstance.Lifecycle.PER_CLASS)
@@ -48,11 +55,43 @@ public abstract class AbstractVertxSqlClientLockProviderIntegrationTest {
         }
 
         @Override
-        protected StorageBasedLockProvider getLockProvider() {
+        protected VertxSqlClientLockProvider getLockProvider() {
             return new VertxSqlClientLockProvider(
                     Configuration.builder(sqlClient, databaseProduct()).build());
         }
 
+        @Test
+        void shouldLockUsingFuture() throws Exception {
+            VertxSqlClientLockProvider lockProvider = getLockProvider();
+            AsyncSimpleLock lock = await(lockProvider.lockFuture(lockConfig(LOCK_NAME1))).orElseThrow();
+            assertThat(await(lockProvider.lockFuture(lockConfig(LOCK_NAME1)))).isEmpty();
+            assertLocked(LOCK_NAME1);
+
+            lock.unlockAsync().toCompletableFuture().get(10, SECONDS);
+            assertUnlocked(LOCK_NAME1);
+        }
+
+        @Test
+        void shouldHoldLockUntilTaskFutureCompletes() throws Exception {
+            VertxLockingTaskExecutor executor = new VertxLockingTaskExecutor(getLockProvider());
+            Promise<String> taskResult = Promise.promise();
+            CompletableFuture<Void> taskStarted = new CompletableFuture<>();
+
+            Future<TaskResult<String>> result = executor.executeWithLock(
+                    () -> {
+                        taskStarted.complete(null);
+                        return taskResult.future();
+                    },
+                    lockConfig(LOCK_NAME1));
+
+            taskStarted.get(10, SECONDS);
+            assertLocked(LOCK_NAME1);
+
+            taskResult.complete("done");
+            assertThat(await(result).getResult()).isEqualTo("done");
+            assertUnlocked(LOCK_NAME1);
+        }
+
         @Override
         protected boolean useDbTime() {
             return false;
@@ -81,6 +120,10 @@ public abstract class AbstractVertxSqlClientLockProviderIntegrationTest {
         }
     }
 
+    private static <T> T await(Future<T> future) throws Exception {
+        return future.toCompletionStage().toCompletableFuture().get(10, SECONDS);
+    }
+
     protected abstract DatabaseProduct databaseProduct();
 
     @Nested
@@ -15,14 +15,17 @@ package net.javacrumbs.shedlock.test.support.jdbc;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
 
 import java.sql.Timestamp;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.Optional;
 import java.util.concurrent.ExecutionException;
 import javax.sql.DataSource;
 import net.javacrumbs.shedlock.core.ClockProvider;
 import net.javacrumbs.shedlock.core.LockConfiguration;
+import net.javacrumbs.shedlock.core.SimpleLock;
 import net.javacrumbs.shedlock.support.LockException;
 import net.javacrumbs.shedlock.test.support.AbstractStorageBasedLockProviderIntegrationTest;
 import org.junit.jupiter.api.AfterEach;
@@ -81,6 +84,19 @@ public abstract class AbstractJdbcLockProviderIntegrationTest extends AbstractSt
         assertSimpleLock();
     }
 
+    @Test
+    public void shouldReturnLockUntil() {
+        assertThat(getLockProvider().getLockUntil(LOCK_NAME1)).isEmpty();
+
+        Optional<SimpleLock> lock = getLockProvider().lock(lockConfig(LOCK_NAME1));
+        assertThat(lock).isNotEmpty();
+
+        Instant lockUntil = getLockInfo(LOCK_NAME1).getLockUntil();
+        assertThat(getLockProvider().getLockUntil(LOCK_NAME1))
+                .hasValueSatisfying(value -> assertThat(value).isCloseTo(lockUntil, within(1, ChronoUnit.SECONDS)));
+        lock.get().unlock();
+    }
+
     @Test
     public void fuzzTestShouldWorkWithTransaction() throws ExecutionException, InterruptedException {
         TransactionalFuzzTester.fuzzTestShouldWorkWithTransaction(getLockProvider(), getDatasource());
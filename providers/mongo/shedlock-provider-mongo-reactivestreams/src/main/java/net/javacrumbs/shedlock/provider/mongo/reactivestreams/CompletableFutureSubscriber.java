@@ -0,0 +1,54 @@
+/**
+ * Copyright 2009 the original author or authors.
+ *
+ * <p>Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * <p>http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * <p>Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.javacrumbs.shedlock.provider.mongo.reactivestreams;
+
+import java.util.concurrent.CompletableFuture;
+import org.jspecify.annotations.Nullable;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+/** Non-blocking counterpart of {@link SingleLockableSubscriber} */
+class CompletableFutureSubscriber<T> implements Subscriber<T> {
+
+    private final CompletableFuture<@Nullable T> future = new CompletableFuture<>();
+
+    private @Nullable T value;
+
+    static <T> CompletableFuture<@Nullable T> toFuture(Publisher<T> publisher) {
+        CompletableFutureSubscriber<T> subscriber = new CompletableFutureSubscriber<>();
+        publisher.subscribe(subscriber);
+        return subscriber.future;
+    }
+
+    @Override
+    public void onSubscribe(Subscription subscription) {
+        subscription.request(1);
+    }
+
+    @Override
+    public void onNext(T document) {
+        value = document;
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        future.completeExceptionally(throwable);
+    }
+
+    @Override
+    public void onComplete() {
+        future.complete(value);
+    }
+}
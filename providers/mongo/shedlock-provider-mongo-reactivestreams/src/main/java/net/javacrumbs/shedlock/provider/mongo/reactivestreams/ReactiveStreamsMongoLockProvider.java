@@ -28,7 +28,12 @@ import com.mongodb.reactivestreams.client.MongoCollection;
 import com.mongodb.reactivestreams.client.MongoDatabase;
 import java.time.Instant;
 import java.util.Optional;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import net.javacrumbs.shedlock.core.AbstractAsyncSimpleLock;
 import net.javacrumbs.shedlock.core.AbstractSimpleLock;
+import net.javacrumbs.shedlock.core.AsyncLockProvider;
+import net.javacrumbs.shedlock.core.AsyncSimpleLock;
 import net.javacrumbs.shedlock.core.ClockProvider;
 import net.javacrumbs.shedlock.core.ExtensibleLockProvider;
 import net.javacrumbs.shedlock.core.LockConfiguration;
@@ -70,7 +75,7 @@ import org.reactivestreams.Publisher;
  * <li>When unlocking, lock_until is set to now.
  * </ol>
  */
-public class ReactiveStreamsMongoLockProvider implements ExtensibleLockProvider {
+public class ReactiveStreamsMongoLockProvider implements ExtensibleLockProvider, AsyncLockProvider {
     static final String LOCK_UNTIL = "lockUntil";
     static final String LOCKED_AT = "lockedAt";
     static final String LOCKED_BY = "lockedBy";
@@ -101,9 +106,6 @@ public class ReactiveStreamsMongoLockProvider implements ExtensibleLockProvider
 
     @Override
     public Optional<SimpleLock> lock(LockConfiguration lockConfiguration) {
-        Instant now = now();
-        Bson update = combine(
-                set(LOCK_UNTIL, lockConfiguration.getLockAtMostUntil()), set(LOCKED_AT, now), set(LOCKED_BY, hostname));
         try {
             // There are three possible situations:
             // 1. The lock document does not exist yet - it is inserted - we have the lock
@@ -111,14 +113,10 @@ public class ReactiveStreamsMongoLockProvider implements ExtensibleLockProvider
             // lock
             // 3. The lock document exists and lockUtil > now - Duplicate key exception is
             // thrown
-            execute(getCollection()
-                    .findOneAndUpdate(
-                            and(eq(ID, lockConfiguration.getName()), lte(LOCK_UNTIL, now)),
-                            update,
-                            new FindOneAndUpdateOptions().upsert(true)));
+            execute(lockCommand(lockConfiguration));
             return Optional.of(new ReactiveMongoLock(lockConfiguration, this));
         } catch (MongoServerException e) {
-            if (e.getCode() == 11000) { // duplicate key
+            if (isDuplicateKey(e)) {
                 // Upsert attempts to insert when there were no filter matches.
                 // This means there was a lock with matching ID with lockUntil > now.
                 return Optional.empty();
@@ -128,14 +126,40 @@ public class ReactiveStreamsMongoLockProvider implements ExtensibleLockProvider
         }
     }
 
-    private Optional<SimpleLock> extend(LockConfiguration lockConfiguration) {
-        Instant now = now();
-        Bson update = set(LOCK_UNTIL, lockConfiguration.getLockAtMostUntil());
+    @Override
+    public CompletionStage<Optional<AsyncSimpleLock>> lockAsync(LockConfiguration lockConfiguration) {
+        // see lock() for explanation
+        return CompletableFutureSubscriber.toFuture(lockCommand(lockConfiguration))
+                .handle((document, e) -> {
+                    if (e == null) {
+                        return Optional.of(new AsyncReactiveMongoLock(lockConfiguration, this));
+                    } else if (e instanceof MongoServerException mongoException && isDuplicateKey(mongoException)) {
+                        return Optional.empty();
+                    } else {
+                        throw e instanceof CompletionException completionException
+                                ? completionException
+                                : new CompletionException(e);
+                    }
+                });
+    }
 
-        Document updatedDocument = execute(getCollection()
+    private Publisher<Document> lockCommand(LockConfiguration lockConfiguration) {
+        Instant now = now();
+        Bson update = combine(
+                set(LOCK_UNTIL, lockConfiguration.getLockAtMostUntil()), set(LOCKED_AT, now), set(LOCKED_BY, hostname));
+        return getCollection()
                 .findOneAndUpdate(
-                        and(eq(ID, lockConfiguration.getName()), gt(LOCK_UNTIL, now), eq(LOCKED_BY, hostname)),
-                        update));
+                        and(eq(ID, lockConfiguration.getName()), lte(LOCK_UNTIL, now)),
+                        update,
+                        new FindOneAndUpdateOptions().upsert(true));
+    }
+
+    private static boolean isDuplicateKey(MongoServerException e) {
+        return e.getCode() == 11000;
+    }
+
+    private Optional<SimpleLock> extend(LockConfiguration lockConfiguration) {
+        Document updatedDocument = execute(extendCommand(lockConfiguration));
 
         if (updatedDocument != null) {
             return Optional.of(new ReactiveMongoLock(lockConfiguration, this));
@@ -144,12 +168,36 @@ public class ReactiveStreamsMongoLockProvider implements ExtensibleLockProvider
         }
     }
 
+    private CompletionStage<Optional<AsyncSimpleLock>> extendAsync(LockConfiguration lockConfiguration) {
+        return CompletableFutureSubscriber.toFuture(extendCommand(lockConfiguration))
+                .thenApply(updatedDocument -> updatedDocument != null
+                        ? Optional.of(new AsyncReactiveMongoLock(lockConfiguration, this))
+                        : Optional.empty());
+    }
+
+    private Publisher<Document> extendCommand(LockConfiguration lockConfiguration) {
+        Instant now = now();
+        Bson update = set(LOCK_UNTIL, lockConfiguration.getLockAtMostUntil());
+        return getCollection()
+                .findOneAndUpdate(
+                        and(eq(ID, lockConfiguration.getName()), gt(LOCK_UNTIL, now), eq(LOCKED_BY, hostname)),
+                        update);
+    }
+
     private void unlock(LockConfiguration lockConfiguration) {
+        execute(unlockCommand(lockConfiguration));
+    }
+
+    private CompletionStage<Void> unlockAsync(LockConfiguration lockConfiguration) {
+        return CompletableFutureSubscriber.toFuture(unlockCommand(lockConfiguration)).thenApply(document -> null);
+    }
+
+    private Publisher<Document> unlockCommand(LockConfiguration lockConfiguration) {
         // Set lockUtil to now or lockAtLeastUntil whichever is later
-        execute(getCollection()
+        return getCollection()
                 .findOneAndUpdate(
                         eq(ID, lockConfiguration.getName()),
-                        combine(set(LOCK_UNTIL, lockConfiguration.getUnlockTime()))));
+                        combine(set(LOCK_UNTIL, lockConfiguration.getUnlockTime())));
     }
 
     static <T> @Nullable T execute(Publisher<T> command) {
@@ -195,4 +243,24 @@ public class ReactiveStreamsMongoLockProvider implements ExtensibleLockProvider
             return mongoLockProvider.extend(newLockConfiguration);
         }
     }
+
+    private static final class AsyncReactiveMongoLock extends AbstractAsyncSimpleLock {
+        private final ReactiveStreamsMongoLockProvider mongoLockProvider;
+
+        private AsyncReactiveMongoLock(
+                LockConfiguration lockConfiguration, ReactiveStreamsMongoLockProvider mongoLockProvider) {
+            super(lockConfiguration);
+            this.mongoLockProvider = mongoLockProvider;
+        }
+
+        @Override
+        protected CompletionStage<Void> doUnlockAsync() {
+            return mongoLockProvider.unlockAsync(lockConfiguration);
+        }
+
+        @Override
+        protected CompletionStage<Optional<AsyncSimpleLock>> doExtendAsync(LockConfiguration newLockConfiguration) {
+            return mongoLockProvider.extendAsync(newLockConfiguration);
+        }
+    }
 }
@@ -22,14 +22,25 @@ import static net.javacrumbs.shedlock.provider.mongo.reactivestreams.ReactiveStr
 import static net.javacrumbs.shedlock.provider.mongo.reactivestreams.ReactiveStreamsMongoLockProvider.LOCK_UNTIL;
 import static net.javacrumbs.shedlock.provider.mongo.reactivestreams.ReactiveStreamsMongoLockProvider.execute;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.assertj.core.api.Assumptions.assumeThat;
 
+import com.mongodb.MongoServerException;
+import com.mongodb.client.model.CreateCollectionOptions;
+import com.mongodb.client.model.ValidationOptions;
 import com.mongodb.client.result.DeleteResult;
 import com.mongodb.reactivestreams.client.MongoClient;
 import com.mongodb.reactivestreams.client.MongoClients;
 import com.mongodb.reactivestreams.client.MongoCollection;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Date;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import net.javacrumbs.shedlock.core.AsyncSimpleLock;
 import net.javacrumbs.shedlock.core.ExtensibleLockProvider;
+import net.javacrumbs.shedlock.core.LockConfiguration;
 import net.javacrumbs.shedlock.core.LockProvider;
 import net.javacrumbs.shedlock.test.support.AbstractExtensibleLockProviderIntegrationTest;
 import org.bson.Document;
@@ -112,4 +123,83 @@ public class ReactiveStreamsMongoLockProviderIntegrationTest extends AbstractExt
         assertThat(provider.lock(lockConfig(LOCK_NAME1))).isNotEmpty();
         assertLocked(LOCK_NAME1);
     }
+
+    @Test
+    public void shouldLockExtendAndUnlockAsync() {
+        ReactiveStreamsMongoLockProvider provider = new ReactiveStreamsMongoLockProvider(mongo.getDatabase(DB_NAME));
+
+        AsyncSimpleLock lock = join(provider.lockAsync(lockConfig(LOCK_NAME1))).orElseThrow();
+        assertLocked(LOCK_NAME1);
+        assertThat(join(provider.lockAsync(lockConfig(LOCK_NAME1)))).isEmpty();
+
+        AsyncSimpleLock extended = join(lock.extendAsync(Duration.ofMinutes(10), Duration.ZERO)).orElseThrow();
+        assertThat((Date) getLockDocument(LOCK_NAME1).get(LOCK_UNTIL))
+                .isAfter(Date.from(Instant.now().plus(Duration.ofMinutes(9))));
+        assertThat(join(provider.lockAsync(lockConfig(LOCK_NAME1)))).isEmpty();
+
+        join(extended.unlockAsync());
+        assertUnlocked(LOCK_NAME1);
+        AsyncSimpleLock relocked = join(provider.lockAsync(lockConfig(LOCK_NAME1))).orElseThrow();
+        join(relocked.unlockAsync());
+    }
+
+    @Test
+    public void shouldLockAtLeastForAsync() {
+        ReactiveStreamsMongoLockProvider provider = new ReactiveStreamsMongoLockProvider(mongo.getDatabase(DB_NAME));
+
+        LockConfiguration configuration = lockConfig(LOCK_NAME1, Duration.ofMinutes(5), LOCK_AT_LEAST_FOR);
+
+        AsyncSimpleLock lock = join(provider.lockAsync(configuration)).orElseThrow();
+        join(lock.unlockAsync());
+        assertLocked(LOCK_NAME1);
+        assertThat(join(provider.lockAsync(lockConfig(LOCK_NAME1)))).isEmpty();
+
+        sleepFor(LOCK_AT_LEAST_FOR);
+        assertUnlocked(LOCK_NAME1);
+        AsyncSimpleLock relocked = join(provider.lockAsync(lockConfig(LOCK_NAME1))).orElseThrow();
+        join(relocked.unlockAsync());
+    }
+
+    @Test
+    public void shouldCompleteLockExceptionallyIfUpdateFails() {
+        // documents with a date in lockUntil are rejected by the validator
+        execute(mongo.getDatabase(DB_NAME)
+                .createCollection(
+                        DEFAULT_SHEDLOCK_COLLECTION_NAME,
+                        new CreateCollectionOptions()
+                                .validationOptions(new ValidationOptions().validator(stringLockUntil()))));
+        ReactiveStreamsMongoLockProvider provider = new ReactiveStreamsMongoLockProvider(mongo.getDatabase(DB_NAME));
+
+        assertCompletedExceptionally(provider.lockAsync(lockConfig(LOCK_NAME1)));
+    }
+
+    @Test
+    public void shouldCompleteUnlockExceptionallyIfUpdateFails() {
+        ReactiveStreamsMongoLockProvider provider = new ReactiveStreamsMongoLockProvider(mongo.getDatabase(DB_NAME));
+        AsyncSimpleLock lock = join(provider.lockAsync(lockConfig(LOCK_NAME1))).orElseThrow();
+
+        execute(mongo.getDatabase(DB_NAME)
+                .runCommand(new Document("collMod", DEFAULT_SHEDLOCK_COLLECTION_NAME)
+                        .append("validator", stringLockUntil())));
+
+        assertCompletedExceptionally(lock.unlockAsync());
+    }
+
+    private static Document stringLockUntil() {
+        return new Document(LOCK_UNTIL, new Document("$type", "string"));
+    }
+
+    private static void assertCompletedExceptionally(CompletionStage<?> stage) {
+        assertThatThrownBy(() -> stage.toCompletableFuture().get(10, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(MongoServerException.class);
+    }
+
+    private static <T> T join(CompletionStage<T> stage) {
+        try {
+            return stage.toCompletableFuture().get(10, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
 }
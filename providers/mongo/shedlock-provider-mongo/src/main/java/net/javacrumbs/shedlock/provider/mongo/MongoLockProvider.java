@@ -20,14 +20,26 @@ import static com.mongodb.client.model.Filters.lte;
 import static com.mongodb.client.model.Updates.combine;
 import static com.mongodb.client.model.Updates.set;
 
+import com.mongodb.MongoBulkWriteException;
 import com.mongodb.MongoServerException;
 import com.mongodb.ReadConcern;
 import com.mongodb.WriteConcern;
 import com.mongodb.client.MongoCollection;
 import com.mongodb.client.MongoDatabase;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.client.model.BulkWriteOptions;
 import com.mongodb.client.model.FindOneAndUpdateOptions;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.UpdateOptions;
+import com.mongodb.client.model.WriteModel;
 import java.time.Instant;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import net.javacrumbs.shedlock.core.AbstractSimpleLock;
 import net.javacrumbs.shedlock.core.ClockProvider;
 import net.javacrumbs.shedlock.core.ExtensibleLockProvider;
@@ -37,6 +49,7 @@ import net.javacrumbs.shedlock.support.LockException;
 import net.javacrumbs.shedlock.support.Utils;
 import org.bson.Document;
 import org.bson.conversions.Bson;
+import org.jspecify.annotations.Nullable;
 
 /**
  * Distributed lock using MongoDB &gt;= 2.6. Requires mongo-java-driver &gt;
@@ -74,6 +87,7 @@ public class MongoLockProvider implements ExtensibleLockProvider {
     static final String LOCKED_BY = "lockedBy";
     static final String ID = "_id";
     static final String DEFAULT_SHEDLOCK_COLLECTION_NAME = "shedLock";
+    private static final int DUPLICATE_KEY = 11000;
 
     private final String hostname;
     private final MongoCollection<Document> collection;
@@ -100,8 +114,6 @@ public class MongoLockProvider implements ExtensibleLockProvider {
     @Override
     public Optional<SimpleLock> lock(LockConfiguration lockConfiguration) {
         Instant now = now();
-        Bson update = combine(
-                set(LOCK_UNTIL, lockConfiguration.getLockAtMostUntil()), set(LOCKED_AT, now), set(LOCKED_BY, hostname));
         try {
             // There are three possible situations:
             // 1. The lock document does not exist yet - it is inserted - we have the lock
@@ -111,12 +123,12 @@ public class MongoLockProvider implements ExtensibleLockProvider {
             // thrown
             getCollection()
                     .findOneAndUpdate(
-                            and(eq(ID, lockConfiguration.getName()), lte(LOCK_UNTIL, now)),
-                            update,
+                            lockFilter(lockConfiguration, now),
+                            lockUpdate(lockConfiguration, now),
                             new FindOneAndUpdateOptions().upsert(true));
             return Optional.of(new MongoLock(lockConfiguration, this));
         } catch (MongoServerException e) {
-            if (e.getCode() == 11000) { // duplicate key
+            if (e.getCode() == DUPLICATE_KEY) {
                 // Upsert attempts to insert when there were no filter matches.
                 // This means there was a lock with matching ID with lockUntil > now.
                 return Optional.empty();
@@ -126,6 +138,67 @@ public class MongoLockProvider implements ExtensibleLockProvider {
         }
     }
 
+    /**
+     * Sends all the upserts in one unordered bulkWrite. Same as in
+     * {@link #lock(LockConfiguration)}, duplicate key error means that the lock is
+     * held by someone else.
+     */
+    @Override
+    public Map<String, SimpleLock> lockAll(Collection<LockConfiguration> lockConfigurations) {
+        if (lockConfigurations.isEmpty()) {
+            return Map.of();
+        }
+        List<LockConfiguration> configurations = List.copyOf(lockConfigurations);
+        Instant now = now();
+        List<WriteModel<Document>> requests = configurations.stream()
+                .<WriteModel<Document>>map(lockConfiguration -> new UpdateOneModel<>(
+                        lockFilter(lockConfiguration, now),
+                        lockUpdate(lockConfiguration, now),
+                        new UpdateOptions().upsert(true)))
+                .toList();
+
+        Set<Integer> notLocked = new HashSet<>();
+        @Nullable LockException exception = null;
+        try {
+            getCollection().bulkWrite(requests, new BulkWriteOptions().ordered(false));
+        } catch (MongoBulkWriteException e) {
+            for (BulkWriteError error : e.getWriteErrors()) {
+                notLocked.add(error.getIndex());
+                if (error.getCode() != DUPLICATE_KEY) {
+                    exception = new LockException(e);
+                }
+            }
+            if (e.getWriteConcernError() != null) {
+                exception = new LockException(e);
+            }
+        } catch (MongoServerException e) {
+            throw new LockException(e);
+        }
+
+        Map<String, SimpleLock> locks = new LinkedHashMap<>();
+        for (int i = 0; i < configurations.size(); i++) {
+            if (!notLocked.contains(i)) {
+                LockConfiguration lockConfiguration = configurations.get(i);
+                locks.put(lockConfiguration.getName(), new MongoLock(lockConfiguration, this));
+            }
+        }
+        if (exception != null) {
+            // release the locks we got before failing
+            locks.values().forEach(SimpleLock::unlock);
+            throw exception;
+        }
+        return locks;
+    }
+
+    private static Bson lockFilter(LockConfiguration lockConfiguration, Instant now) {
+        return and(eq(ID, lockConfiguration.getName()), lte(LOCK_UNTIL, now));
+    }
+
+    private Bson lockUpdate(LockConfiguration lockConfiguration, Instant now) {
+        return combine(
+                set(LOCK_UNTIL, lockConfiguration.getLockAtMostUntil()), set(LOCKED_AT, now), set(LOCKED_BY, hostname));
+    }
+
     private Optional<SimpleLock> extend(LockConfiguration lockConfiguration) {
         Instant now = now();
         Bson update = set(LOCK_UNTIL, lockConfiguration.getLockAtMostUntil());
@@ -18,11 +18,14 @@ package net.javacrumbs.shedlock.provider.r2dbc;
 import static java.util.Objects.requireNonNull;
 
 import io.r2dbc.spi.ConnectionFactory;
+import java.util.Optional;
 import java.util.TimeZone;
+import net.javacrumbs.shedlock.core.LockConfiguration;
 import net.javacrumbs.shedlock.provider.sql.DatabaseProduct;
 import net.javacrumbs.shedlock.provider.sql.SqlConfiguration;
-import net.javacrumbs.shedlock.support.StorageBasedLockProvider;
+import net.javacrumbs.shedlock.support.AsyncStorageBasedLockProvider;
 import org.jspecify.annotations.Nullable;
+import reactor.core.publisher.Mono;
 
 /**
  * Lock provided by plain R2DBC SPI. It uses a table that contains lock_name and
@@ -40,8 +43,21 @@ import org.jspecify.annotations.Nullable;
  * failed (0 updated rows) somebody else holds the lock
  * <li>When unlocking, lock_until is set to now.
  * </ol>
+ *
+ * <p>
+ * Besides the blocking API, the provider implements
+ * {@link net.javacrumbs.shedlock.core.AsyncLockProvider} which does not block
+ * the calling thread, and {@link #lockReactive(LockConfiguration)} for
+ * Reactor based applications.
+ *
+ * <p>
+ * By default, each operation borrows a connection from the
+ * {@link ConnectionFactory}. If you do not use a connection pool, consider
+ * {@link Configuration.Builder#usingSharedConnection()}.
  */
-public class R2dbcLockProvider extends StorageBasedLockProvider {
+public class R2dbcLockProvider extends AsyncStorageBasedLockProvider implements AutoCloseable {
+    private final R2dbcStorageAccessor storageAccessor;
+
     public R2dbcLockProvider(ConnectionFactory connectionFactory) {
         this(Configuration.builder(connectionFactory).build());
     }
@@ -51,11 +67,35 @@ public class R2dbcLockProvider extends StorageBasedLockProvider {
     }
 
     public R2dbcLockProvider(Configuration configuration) {
-        super(new R2dbcStorageAccessor(configuration));
+        this(new R2dbcStorageAccessor(configuration));
+    }
+
+    private R2dbcLockProvider(R2dbcStorageAccessor storageAccessor) {
+        super(storageAccessor);
+        this.storageAccessor = storageAccessor;
+    }
+
+    /**
+     * Reactive variant of {@link #lock(LockConfiguration)}. The lock is attempted
+     * on subscription.
+     */
+    public Mono<Optional<ReactiveSimpleLock>> lockReactive(LockConfiguration lockConfiguration) {
+        return Mono.defer(() -> Mono.fromCompletionStage(lockAsync(lockConfiguration)))
+                .map(lock -> lock.map(ReactiveSimpleLock::of));
+    }
+
+    /**
+     * Closes the shared connection if {@link Configuration.Builder#usingSharedConnection()}
+     * is configured. Does nothing otherwise.
+     */
+    @Override
+    public void close() {
+        storageAccessor.close();
     }
 
     public static final class Configuration extends SqlConfiguration {
         private final ConnectionFactory connectionFactory;
+        private final boolean useSharedConnection;
 
         Configuration(
                 ConnectionFactory connectionFactory,
@@ -65,7 +105,8 @@ public class R2dbcLockProvider extends StorageBasedLockProvider {
                 ColumnNames columnNames,
                 String lockedByValue,
                 boolean useDbTime,
-                boolean forceUtcTimeZone) {
+                boolean forceUtcTimeZone,
+                boolean useSharedConnection) {
             super(
                     databaseProduct,
                     dbUpperCase,
@@ -75,12 +116,17 @@ public class R2dbcLockProvider extends StorageBasedLockProvider {
                     lockedByValue,
                     useDbTime);
             this.connectionFactory = requireNonNull(connectionFactory, "connectionFactory can not be null");
+            this.useSharedConnection = useSharedConnection;
         }
 
         public ConnectionFactory getConnectionFactory() {
             return connectionFactory;
         }
 
+        public boolean getUseSharedConnection() {
+            return useSharedConnection;
+        }
+
         @Override
         public DatabaseProduct getDatabaseProduct() {
             if (super.getDatabaseProduct() != null) {
@@ -105,6 +151,7 @@ public class R2dbcLockProvider extends StorageBasedLockProvider {
         public static final class Builder extends SqlConfigurationBuilder<Builder> {
             private final ConnectionFactory connectionFactory;
             private boolean forceUtcTimeZone;
+            private boolean useSharedConnection;
 
             Builder(ConnectionFactory connectionFactory) {
                 this.connectionFactory = connectionFactory;
@@ -120,7 +167,26 @@ public class R2dbcLockProvider extends StorageBasedLockProvider {
                 return this;
             }
 
+            /**
+             * Executes all lock operations on a single long-lived connection instead of
+             * opening a new one for each operation. The connection is never used
+             * concurrently, operations are executed one after another, unlock and
+             * extend are not pipelined. A slow operation therefore delays all the
+             * others. Operations that do not finish in 30 seconds are cancelled. Meant
+             * for setups where the ConnectionFactory is not pooled, prefer r2dbc-pool
+             * if you can use it. If an operation fails, times out or is cancelled, the
+             * connection is closed and a new one is opened for the next operation. Call
+             * {@link R2dbcLockProvider#close()} to close the connection on shutdown.
+             */
+            public Builder usingSharedConnection() {
+                this.useSharedConnection = true;
+                return this;
+            }
+
             public Configuration build() {
+                if (partitions != 1) {
+                    throw new IllegalArgumentException("R2dbcLockProvider does not support partitions");
+                }
                 return new Configuration(
                         connectionFactory,
                         dbUpperCase,
@@ -129,7 +195,8 @@ public class R2dbcLockProvider extends StorageBasedLockProvider {
                         columnNames,
                         lockedByValue,
                         useDbTime,
-                        forceUtcTimeZone);
+                        forceUtcTimeZone,
+                        useSharedConnection);
             }
         }
     }
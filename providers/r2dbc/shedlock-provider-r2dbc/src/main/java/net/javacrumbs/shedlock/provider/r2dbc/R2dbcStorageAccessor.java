@@ -15,39 +15,79 @@
  */
 package net.javacrumbs.shedlock.provider.r2dbc;
 
-import static java.util.regex.Matcher.quoteReplacement;
+import static java.util.Objects.requireNonNull;
+import static net.javacrumbs.shedlock.provider.sql.internal.NamedSqlTranslator.translate;
 
 import io.r2dbc.spi.Connection;
 import io.r2dbc.spi.ConnectionFactory;
 import io.r2dbc.spi.R2dbcDataIntegrityViolationException;
+import io.r2dbc.spi.Row;
 import io.r2dbc.spi.Statement;
-import java.util.ArrayList;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
 import java.util.List;
-import java.util.Map;
+import java.util.Optional;
+import java.util.TimeZone;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.BiFunction;
-import java.util.regex.Pattern;
+import java.util.function.Function;
 import net.javacrumbs.shedlock.core.LockConfiguration;
 import net.javacrumbs.shedlock.provider.sql.SqlStatementsSource;
+import net.javacrumbs.shedlock.provider.sql.internal.NamedSqlTranslator;
+import net.javacrumbs.shedlock.provider.sql.internal.NamedSqlTranslator.SqlTemplate;
 import net.javacrumbs.shedlock.support.AbstractStorageAccessor;
+import net.javacrumbs.shedlock.support.AsyncStorageAccessor;
 import net.javacrumbs.shedlock.support.LockException;
 import org.jspecify.annotations.Nullable;
+import reactor.core.Disposable;
 import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
 
-class R2dbcStorageAccessor extends AbstractStorageAccessor {
-    private static final Pattern NAMED_PARAMETER_PATTERN = Pattern.compile(":[a-zA-Z]+");
+class R2dbcStorageAccessor extends AbstractStorageAccessor implements AsyncStorageAccessor {
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
 
     private final ConnectionFactory connectionFactory;
     private final SqlStatementsSource sqlStatementsSource;
     private final R2dbcAdapter adapter;
+    private final ZoneId zoneId;
+    private final boolean useSharedConnection;
+    private final boolean useDbTime;
+    private final AtomicReference<@Nullable Mono<Connection>> sharedConnection = new AtomicReference<>();
+    private final AtomicReference<Mono<Void>> lastSharedOperation = new AtomicReference<>(Mono.empty());
+
+    // translated once, so the driver gets the same SQL every time
+    private final SqlTemplate insertStatement;
+    private final SqlTemplate updateStatement;
+    private final SqlTemplate extendStatement;
+    private final SqlTemplate unlockStatement;
+    private final String lockUntilStatement;
 
     R2dbcStorageAccessor(R2dbcLockProvider.Configuration configuration) {
         this.connectionFactory = configuration.getConnectionFactory();
         this.sqlStatementsSource = SqlStatementsSource.create(configuration);
         this.adapter = R2dbcAdapter.create(configuration.getDatabaseProduct());
+        TimeZone timeZone = configuration.getTimeZone();
+        this.zoneId = timeZone != null ? timeZone.toZoneId() : ZoneId.systemDefault();
+        this.useSharedConnection = configuration.getUseSharedConnection();
+        this.useDbTime = configuration.getUseDbTime();
+        this.insertStatement = compile(sqlStatementsSource.getInsertStatement());
+        this.updateStatement = compile(sqlStatementsSource.getUpdateStatement());
+        this.extendStatement = compile(sqlStatementsSource.getExtendStatement());
+        this.unlockStatement = compile(sqlStatementsSource.getUnlockStatement());
+        this.lockUntilStatement = translate(sqlStatementsSource.getLockUntilStatement(), this::toParameter);
+    }
+
+    private SqlTemplate compile(String statement) {
+        return NamedSqlTranslator.compile(statement, sqlStatementsSource, this::toParameter);
     }
 
     protected String toParameter(int index, String name) {
@@ -78,16 +118,51 @@ class R2dbcStorageAccessor extends AbstractStorageAccessor {
         block(unlockReactive(lockConfiguration));
     }
 
+    @Override
+    public Optional<Instant> getLockUntil(String lockName) {
+        try {
+            return Optional.ofNullable(block(getLockUntilReactive(lockName)));
+        } catch (LockException e) {
+            logger.debug("Can not read lock_until", e);
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public CompletionStage<Boolean> insertRecordAsync(LockConfiguration lockConfiguration) {
+        return toStage(insertRecordReactive(lockConfiguration));
+    }
+
+    @Override
+    public CompletionStage<Boolean> updateRecordAsync(LockConfiguration lockConfiguration) {
+        return toStage(updateRecordReactive(lockConfiguration));
+    }
+
+    @Override
+    public CompletionStage<Boolean> extendAsync(LockConfiguration lockConfiguration) {
+        return toStage(extendReactive(lockConfiguration));
+    }
+
+    @Override
+    public CompletionStage<Void> unlockAsync(LockConfiguration lockConfiguration) {
+        return unlockReactive(lockConfiguration).then().toFuture();
+    }
+
+    private static CompletionStage<Boolean> toStage(Mono<Boolean> mono) {
+        return mono.defaultIfEmpty(false).toFuture();
+    }
+
     private <T> @Nullable T block(Mono<T> mono) {
         // Do not use mono.block() because it triggers errors on thread reactor-http-nio-2
         CompletableFuture<@Nullable T> future = new CompletableFuture<>();
 
         // If Mono.empty() is passed as an argument,
         // OnComplete is invoked without OnNext, so a completeConsumer is required.
-        mono.subscribe(future::complete, future::completeExceptionally, null);
+        Disposable subscription =
+                mono.subscribe(future::complete, future::completeExceptionally, () -> future.complete(null));
 
         try {
-            return future.get(30, java.util.concurrent.TimeUnit.SECONDS);
+            return future.get(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
         } catch (ExecutionException e) {
             Throwable cause = e.getCause();
             if (cause instanceof LockException lockException) {
@@ -95,8 +170,11 @@ class R2dbcStorageAccessor extends AbstractStorageAccessor {
             }
             throw new LockException("Unexpected exception when executing r2dbc operation", cause != null ? cause : e);
         } catch (TimeoutException e) {
+            // cancels the statement, the shared connection is closed and replaced
+            subscription.dispose();
             throw new LockException("Operation timed out", e);
         } catch (InterruptedException e) {
+            subscription.dispose();
             Thread.currentThread().interrupt();
             throw new LockException("Operation interrupted", e);
         }
@@ -106,53 +184,158 @@ class R2dbcStorageAccessor extends AbstractStorageAccessor {
         // Try to insert if the record does not exist (not optimal, but the simplest
         // platform agnostic
         // way)
-        var sqlStatement =
-                translate(sqlStatementsSource.getInsertStatement(), sqlStatementsSource.params(lockConfiguration));
-        return executeCommand(sqlStatement, this::handleInsertionException);
+        return executeCommand(insertStatement, lockConfiguration, this::handleInsertionException);
     }
 
     Mono<Boolean> updateRecordReactive(LockConfiguration lockConfiguration) {
-        var sqlStatement =
-                translate(sqlStatementsSource.getUpdateStatement(), sqlStatementsSource.params(lockConfiguration));
-        return executeCommand(sqlStatement, this::handleUpdateException);
+        return executeCommand(updateStatement, lockConfiguration, this::handleUpdateException);
     }
 
     Mono<Boolean> extendReactive(LockConfiguration lockConfiguration) {
-        var sqlStatement =
-                translate(sqlStatementsSource.getExtendStatement(), sqlStatementsSource.params(lockConfiguration));
-
         logger.debug("Extending lock={} until={}", lockConfiguration.getName(), lockConfiguration.getLockAtMostUntil());
 
-        return executeCommand(sqlStatement, this::handleUnlockException);
+        return executeCommand(extendStatement, lockConfiguration, this::handleUnlockException);
     }
 
     Mono<Boolean> unlockReactive(LockConfiguration lockConfiguration) {
-        var sqlStatement =
-                translate(sqlStatementsSource.getUnlockStatement(), sqlStatementsSource.params(lockConfiguration));
-        return executeCommand(sqlStatement, this::handleUnlockException);
+        return executeCommand(unlockStatement, lockConfiguration, this::handleUnlockException);
+    }
+
+    Mono<Instant> getLockUntilReactive(String lockName) {
+        return withConnection(conn -> {
+            Statement statement = conn.createStatement(lockUntilStatement);
+            bind(statement, 0, "name", lockName);
+            return Mono.from(statement.execute())
+                    .flatMap(result -> Mono.from(result.map((row, metadata) -> lockUntil(row))))
+                    .flatMap(Mono::justOrEmpty);
+        });
+    }
+
+    private Optional<Instant> lockUntil(Row row) {
+        Object lockUntil = row.get(0);
+        if (lockUntil == null) {
+            return Optional.empty();
+        } else if (useDbTime) {
+            // lock_until is in DB time, the second column is the current DB time
+            Instant dbNow = toInstant(requireNonNull(row.get(1)));
+            return Optional.of(SqlStatementsSource.toLocalTime(toInstant(lockUntil), dbNow));
+        } else {
+            return Optional.of(toInstant(lockUntil));
+        }
+    }
+
+    private Instant toInstant(Object value) {
+        if (value instanceof LocalDateTime localDateTime) {
+            return localDateTime.atZone(zoneId).toInstant();
+        } else if (value instanceof OffsetDateTime offsetDateTime) {
+            return offsetDateTime.toInstant();
+        } else if (value instanceof ZonedDateTime zonedDateTime) {
+            return zonedDateTime.toInstant();
+        } else if (value instanceof Instant instant) {
+            return instant;
+        }
+        throw new LockException("Unsupported lock_until type " + value.getClass());
     }
 
     private Mono<Boolean> executeCommand(
-            SqlStatement sqlStatement, BiFunction<String, Throwable, Mono<Boolean>> exceptionHandler) {
-        return Mono.usingWhen(
-                Mono.from(connectionFactory.create())
-                        .flatMap(it -> Mono.from(it.setAutoCommit(true)).then(Mono.just(it))),
-                conn -> {
-                    Statement statement = conn.createStatement(sqlStatement.sql);
-                    for (int i = 0; i < sqlStatement.parameters.size(); i++) {
-                        SqlParam param = sqlStatement.parameters.get(i);
-                        bind(statement, i, param.name(), param.value());
-                    }
+            SqlTemplate template,
+            LockConfiguration lockConfiguration,
+            BiFunction<String, Throwable, Mono<Boolean>> exceptionHandler) {
+        return withConnection(conn -> {
+                    Statement statement = conn.createStatement(template.sql());
+                    bindParameters(statement, template, lockConfiguration);
                     return Mono.from(statement.execute())
                             .flatMap(it -> Mono.from(it.getRowsUpdated()))
-                            .map(it -> it > 0)
-                            .onErrorResume(throwable -> exceptionHandler.apply(sqlStatement.sql, throwable));
-                },
+                            .map(it -> it > 0);
+                })
+                .onErrorResume(throwable -> exceptionHandler.apply(template.sql(), throwable));
+    }
+
+    private void bindParameters(Statement statement, SqlTemplate template, LockConfiguration lockConfiguration) {
+        List<Function<LockConfiguration, Object>> parameters = template.parameters();
+        Object[] values = new Object[parameters.size()];
+        for (int i = 0; i < values.length; i++) {
+            Object value = parameters.get(i).apply(lockConfiguration);
+            // the adapter converts timestamps the same way as SqlStatementsSource.params
+            values[i] = value instanceof Instant instant ? instant.atZone(zoneId) : value;
+        }
+        int[] positions = template.positions();
+        for (int i = 0; i < positions.length; i++) {
+            bind(statement, i, template.names().get(positions[i]), values[positions[i]]);
+        }
+    }
+
+    private <T> Mono<T> withConnection(Function<Connection, Mono<T>> action) {
+        if (useSharedConnection) {
+            return withSharedConnection(action);
+        }
+        return Mono.usingWhen(
+                createConnection(),
+                action,
                 Connection::close,
                 (connection, throwable) -> Mono.from(connection.close()),
                 connection -> Mono.from(connection.close()).then());
     }
 
+    /**
+     * Operations on the shared connection are executed one by one, the next one
+     * is subscribed after the previous one terminated. They are not pipelined,
+     * R2DBC connections do not have to support concurrent statements. An
+     * operation that does not finish in time is cancelled, so it does not hold
+     * the following ones forever.
+     */
+    private <T> Mono<T> withSharedConnection(Function<Connection, Mono<T>> action) {
+        return Mono.defer(() -> {
+            Sinks.Empty<Void> finished = Sinks.empty();
+            Mono<Void> previous = lastSharedOperation.getAndSet(finished.asMono());
+            return previous.then(Mono.defer(() -> {
+                        Mono<Connection> connection = sharedConnection();
+                        return connection
+                                .flatMap(action)
+                                .doOnError(e -> {
+                                    if (!(e instanceof R2dbcDataIntegrityViolationException)) {
+                                        // the connection may be broken, the next operation creates a new one
+                                        closeSharedConnection(connection);
+                                    }
+                                })
+                                // the statement may still be running, we can not reuse the connection
+                                .doOnCancel(() -> closeSharedConnection(connection))
+                                .timeout(TIMEOUT);
+                    }))
+                    // if cancelled while waiting, the previous operation may still be running
+                    .doFinally(signal -> previous.doFinally(s -> finished.tryEmitEmpty()).subscribe());
+        });
+    }
+
+    private Mono<Connection> createConnection() {
+        return Mono.from(connectionFactory.create())
+                .flatMap(it -> Mono.from(it.setAutoCommit(true)).then(Mono.just(it)));
+    }
+
+    private Mono<Connection> sharedConnection() {
+        Mono<Connection> connection =
+                sharedConnection.updateAndGet(current -> current != null ? current : createConnection().cache());
+        return requireNonNull(connection);
+    }
+
+    private void closeSharedConnection(Mono<Connection> connection) {
+        sharedConnection.compareAndSet(connection, null);
+        // only closes the connection if it has been opened
+        connection
+                .flatMap(it -> Mono.from(it.close()))
+                .subscribe(null, e -> logger.debug("Can not close connection", e));
+    }
+
+    /**
+     * Closes the shared connection, if any. The next operation opens a new one.
+     */
+    void close() {
+        Mono<Connection> connection = sharedConnection.get();
+        if (connection != null) {
+            closeSharedConnection(connection);
+        }
+    }
+
     Mono<Boolean> handleInsertionException(String sql, Throwable e) {
         if (e instanceof R2dbcDataIntegrityViolationException) {
             // lock record already exists
@@ -162,20 +345,6 @@ class R2dbcStorageAccessor extends AbstractStorageAccessor {
         }
     }
 
-    private SqlStatement translate(String statement, Map<String, Object> namedParameters) {
-        List<SqlParam> parameters = new ArrayList<>();
-        AtomicInteger index = new AtomicInteger(1);
-        var translatedSql = NAMED_PARAMETER_PATTERN.matcher(statement).replaceAll(result -> {
-            String key = result.group().substring(1);
-            if (!namedParameters.containsKey(key)) {
-                throw new IllegalStateException("Parameter " + key + " not found");
-            }
-            parameters.add(new SqlParam(key, namedParameters.get(key)));
-            return quoteReplacement(toParameter(index.getAndIncrement(), key));
-        });
-        return new SqlStatement(translatedSql, parameters);
-    }
-
     Mono<Boolean> handleUpdateException(String sql, Throwable e) {
         return Mono.error(new LockException("Unexpected exception when locking", e));
     }
@@ -183,8 +352,4 @@ class R2dbcStorageAccessor extends AbstractStorageAccessor {
     Mono<Boolean> handleUnlockException(String sql, Throwable e) {
         return Mono.error(new LockException("Unexpected exception when unlocking", e));
     }
-
-    private record SqlParam(String name, Object value) {}
-
-    private record SqlStatement(String sql, List<SqlParam> parameters) {}
 }
@@ -0,0 +1,55 @@
+/*
+ * Copyright 2009 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.javacrumbs.shedlock.provider.r2dbc;
+
+import java.time.Duration;
+import java.util.Optional;
+import net.javacrumbs.shedlock.core.AsyncSimpleLock;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reactor variant of {@link net.javacrumbs.shedlock.core.SimpleLock}. Nothing
+ * happens until the returned {@link Mono} is subscribed.
+ */
+public interface ReactiveSimpleLock {
+
+    /**
+     * Unlocks the lock. Once you unlock it, you should not use for any other
+     * operation.
+     */
+    Mono<Void> unlock();
+
+    /**
+     * Extends the lock. If the lock can be extended, emits a new lock. After
+     * calling extend, no other operation can be called on current lock.
+     */
+    Mono<Optional<ReactiveSimpleLock>> extend(Duration lockAtMostFor, Duration lockAtLeastFor);
+
+    static ReactiveSimpleLock of(AsyncSimpleLock lock) {
+        return new ReactiveSimpleLock() {
+            @Override
+            public Mono<Void> unlock() {
+                return Mono.defer(() -> Mono.fromCompletionStage(lock.unlockAsync()));
+            }
+
+            @Override
+            public Mono<Optional<ReactiveSimpleLock>> extend(Duration lockAtMostFor, Duration lockAtLeastFor) {
+                return Mono.defer(() -> Mono.fromCompletionStage(lock.extendAsync(lockAtMostFor, lockAtLeastFor)))
+                        .map(extended -> extended.map(ReactiveSimpleLock::of));
+            }
+        };
+    }
+}
@@ -2,6 +2,7 @@ package net.javacrumbs.shedlock.provider.r2dbc;
 
 import static io.r2dbc.spi.ConnectionFactoryOptions.PASSWORD;
 import static io.r2dbc.spi.ConnectionFactoryOptions.USER;
+import static org.assertj.core.api.Assertions.assertThat;
 
 import io.r2dbc.pool.ConnectionPool;
 import io.r2dbc.pool.ConnectionPoolConfiguration;
@@ -9,19 +10,27 @@ import io.r2dbc.spi.ConnectionFactories;
 import io.r2dbc.spi.ConnectionFactory;
 import io.r2dbc.spi.ConnectionFactoryOptions;
 import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import net.javacrumbs.shedlock.core.LockConfiguration;
 import net.javacrumbs.shedlock.support.StorageBasedLockProvider;
 import net.javacrumbs.shedlock.test.support.jdbc.AbstractJdbcLockProviderIntegrationTest;
 import net.javacrumbs.shedlock.test.support.jdbc.DbConfig;
+import org.jspecify.annotations.Nullable;
 import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestInstance;
+import reactor.core.publisher.Flux;
 
 @TestInstance(TestInstance.Lifecycle.PER_CLASS)
 public abstract class AbstractR2dbcTest {
     private final DbConfig dbConfig;
 
     private ConnectionFactory connectionFactory;
+    private ConnectionFactory unpooledConnectionFactory;
 
     protected AbstractR2dbcTest(DbConfig dbConfig) {
         this.dbConfig = dbConfig;
@@ -43,6 +52,7 @@ public abstract class AbstractR2dbcTest {
                 .build();
 
         connectionFactory = new ConnectionPool(configuration);
+        unpooledConnectionFactory = cf;
     }
 
     @AfterAll
@@ -88,4 +98,73 @@ public abstract class AbstractR2dbcTest {
             return true;
         }
     }
+
+    @Nested
+    class SharedConnection extends AbstractJdbcLockProviderIntegrationTest {
+        // one per test, so its shared connection can be closed
+        private @Nullable R2dbcLockProvider lockProvider;
+
+        @AfterEach
+        void closeLockProvider() {
+            if (lockProvider != null) {
+                lockProvider.close();
+            }
+        }
+
+        @Override
+        protected DbConfig getDbConfig() {
+            return dbConfig;
+        }
+
+        @Override
+        protected R2dbcLockProvider getLockProvider() {
+            if (lockProvider == null) {
+                lockProvider = createLockProvider();
+            }
+            return lockProvider;
+        }
+
+        private R2dbcLockProvider createLockProvider() {
+            return new R2dbcLockProvider(R2dbcLockProvider.Configuration.builder(unpooledConnectionFactory)
+                    .usingSharedConnection()
+                    .build());
+        }
+
+        @Override
+        protected boolean useDbTime() {
+            return false;
+        }
+
+        @Test
+        void shouldLockReactively() {
+            R2dbcLockProvider lockProvider = getLockProvider();
+            LockConfiguration configuration = lockConfig("reactive", Duration.ofSeconds(30), Duration.ZERO);
+
+            ReactiveSimpleLock lock = lockProvider.lockReactive(configuration).block().orElseThrow();
+            assertThat(lockProvider.lockReactive(configuration).block()).isEmpty();
+
+            ReactiveSimpleLock extended = lock.extend(Duration.ofSeconds(60), Duration.ZERO)
+                    .block()
+                    .orElseThrow();
+            extended.unlock().block();
+
+            assertThat(lockProvider.lockReactive(configuration).block()).isPresent();
+        }
+
+        @Test
+        void shouldExecuteConcurrentOperationsOnSharedConnection() {
+            try (R2dbcLockProvider lockProvider = createLockProvider()) {
+                List<Optional<ReactiveSimpleLock>> locks = Flux.range(0, 20)
+                        .flatMap(i -> lockProvider.lockReactive(
+                                lockConfig("concurrent-" + i, Duration.ofSeconds(30), Duration.ZERO)))
+                        .collectList()
+                        .block();
+
+                assertThat(locks).hasSize(20).allMatch(Optional::isPresent);
+                Flux.fromIterable(locks)
+                        .flatMap(lock -> lock.orElseThrow().unlock())
+                        .blockLast();
+            }
+        }
+    }
 }
@@ -17,17 +17,35 @@ import static net.javacrumbs.shedlock.provider.redis.support.InternalRedisLockPr
 import static net.javacrumbs.shedlock.provider.redis.support.InternalRedisLockProvider.ENV_DEFAULT;
 import static redis.clients.jedis.params.SetParams.setParams;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiConsumer;
 import net.javacrumbs.shedlock.core.ExtensibleLockProvider;
 import net.javacrumbs.shedlock.core.LockConfiguration;
 import net.javacrumbs.shedlock.core.SimpleLock;
+import net.javacrumbs.shedlock.provider.redis.support.HashTagStrategy;
 import net.javacrumbs.shedlock.provider.redis.support.InternalRedisLockProvider;
 import net.javacrumbs.shedlock.provider.redis.support.InternalRedisLockTemplate;
+import net.javacrumbs.shedlock.provider.redis.support.LuaScript;
+import net.javacrumbs.shedlock.provider.redis.support.QuorumRedisLockProvider;
 import org.jspecify.annotations.Nullable;
 import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisCluster;
+import redis.clients.jedis.JedisPubSub;
+import redis.clients.jedis.Pipeline;
+import redis.clients.jedis.Response;
 import redis.clients.jedis.commands.JedisCommands;
+import redis.clients.jedis.commands.ScriptingKeyCommands;
+import redis.clients.jedis.exceptions.JedisDataException;
 import redis.clients.jedis.params.SetParams;
+import redis.clients.jedis.util.JedisClusterCRC16;
 import redis.clients.jedis.util.Pool;
 
 /**
@@ -37,7 +55,7 @@ import redis.clients.jedis.util.Pool;
  * <p>
  * See <a href="https://redis.io/commands/set">Set command</a>
  */
-public class JedisLockProvider implements ExtensibleLockProvider {
+public class JedisLockProvider implements ExtensibleLockProvider, AutoCloseable {
 
     private final InternalRedisLockProvider internalRedisLockProvider;
 
@@ -72,8 +90,26 @@ public class JedisLockProvider implements ExtensibleLockProvider {
      *                   is already held by somebody else, we don't release/extend the lock.
      */
     public JedisLockProvider(Pool<Jedis> jedisPool, String environment, boolean safeUpdate) {
+        this(jedisPool, environment, safeUpdate, HashTagStrategy.NONE);
+    }
+
+    /**
+     * Creates JedisLockProvider
+     *
+     * @param jedisPool
+     *            Jedis connection pool
+     * @param environment
+     *            environment is part of the key and thus makes sure there is not
+     *            key conflict between multiple ShedLock instances running on the
+     *            same Redis
+     * @param safeUpdate When set to true and the lock is held for more than lockAtMostFor, and the lock
+     *                   is already held by somebody else, we don't release/extend the lock.
+     * @param hashTagStrategy decides which part of the key is used as Redis Cluster hash tag
+     */
+    public JedisLockProvider(
+            Pool<Jedis> jedisPool, String environment, boolean safeUpdate, HashTagStrategy hashTagStrategy) {
         this.internalRedisLockProvider = new InternalRedisLockProvider(
-                new JedisPoolTemplate(jedisPool), environment, DEFAULT_KEY_PREFIX, safeUpdate);
+                new JedisPoolTemplate(jedisPool), environment, DEFAULT_KEY_PREFIX, safeUpdate, hashTagStrategy);
     }
 
     /**
@@ -103,8 +139,50 @@ public class JedisLockProvider implements ExtensibleLockProvider {
      *                   is already held by somebody else, we don't release/extend the lock.
      */
     public JedisLockProvider(JedisCommands jedisCommands, String environment, boolean safeUpdate) {
+        this(jedisCommands, environment, safeUpdate, HashTagStrategy.NONE);
+    }
+
+    /**
+     * Creates JedisLockProvider
+     *
+     * @param jedisCommands
+     *            implementation of JedisCommands.
+     * @param environment
+     *            environment is part of the key and thus makes sure there is not
+     *            key conflict between multiple ShedLock instances running on the
+     *            same Redis
+     * @param safeUpdate When set to true and the lock is held for more than lockAtMostFor, and the lock
+     *                   is already held by somebody else, we don't release/extend the lock.
+     * @param hashTagStrategy decides which part of the key is used as Redis Cluster hash tag
+     */
+    public JedisLockProvider(
+            JedisCommands jedisCommands, String environment, boolean safeUpdate, HashTagStrategy hashTagStrategy) {
         this.internalRedisLockProvider = new InternalRedisLockProvider(
-                new JedisCommandsTemplate(jedisCommands), environment, DEFAULT_KEY_PREFIX, safeUpdate);
+                new JedisCommandsTemplate(jedisCommands), environment, DEFAULT_KEY_PREFIX, safeUpdate, hashTagStrategy);
+    }
+
+    /**
+     * Creates a lock provider that acquires the lock on the majority of independent
+     * Redis masters. The nodes are called in parallel on the executor, it should have
+     * at least as many threads as there are nodes.
+     *
+     * @param jedisPools
+     *            connection pools of independent Redis masters, use an odd number of nodes
+     * @param executor
+     *            executor used to call the nodes in parallel
+     * @param environment
+     *            environment is part of the key and thus makes sure there is not
+     *            key conflict between multiple ShedLock instances running on the
+     *            same Redis
+     */
+    public static QuorumRedisLockProvider quorum(
+            List<? extends Pool<Jedis>> jedisPools, Executor executor, String environment) {
+        return QuorumRedisLockProvider.ofBlockingTemplates(
+                jedisPools.stream().map(JedisPoolTemplate::new).toList(),
+                executor,
+                environment,
+                DEFAULT_KEY_PREFIX,
+                HashTagStrategy.NONE);
     }
 
     @Override
@@ -112,7 +190,57 @@ public class JedisLockProvider implements ExtensibleLockProvider {
         return internalRedisLockProvider.lock(lockConfiguration);
     }
 
+    @Override
+    public Map<String, SimpleLock> lockAll(Collection<LockConfiguration> lockConfigurations) {
+        return internalRedisLockProvider.lockAll(lockConfigurations);
+    }
+
+    /**
+     * Releases the locks, keys in the same Redis Cluster hash slot are released by
+     * one script and the scripts are pipelined.
+     */
+    public void unlockAll(Collection<SimpleLock> locks) {
+        internalRedisLockProvider.unlockAll(locks);
+    }
+
+    /**
+     * Tries to acquire the lock, waiting at most maxWait for it to be released.
+     * When created with a connection pool, waiters are woken up by Redis keyspace
+     * notifications, they have to be enabled on the server
+     * ({@code notify-keyspace-events Kgx}). Otherwise, the lock is attempted again
+     * when its TTL expires, at most one second after the previous attempt.
+     *
+     * <p>
+     * The first call subscribes to the notifications. The subscription permanently
+     * takes one connection from the pool, until {@link #close()} is called or the pool
+     * is closed. Size the pool accordingly.
+     */
+    public Optional<SimpleLock> tryLock(LockConfiguration lockConfiguration, Duration maxWait) {
+        return internalRedisLockProvider.tryLock(lockConfiguration, maxWait);
+    }
+
+    /**
+     * Returns until when the lock is held, no matter if by this instance or by
+     * somebody else. Uses the TTL returned by the last unsuccessful lock attempt if
+     * available, so no additional call to Redis is needed, reads the TTL otherwise.
+     */
+    public Optional<Instant> getLockUntil(String lockName) {
+        return internalRedisLockProvider.getLockUntil(lockName);
+    }
+
+    /**
+     * Ends the keyspace notification subscription started by
+     * {@link #tryLock(LockConfiguration, Duration)} and returns its connection to the
+     * pool. Does not close the pool.
+     */
+    @Override
+    public void close() {
+        internalRedisLockProvider.close();
+    }
+
     private record JedisPoolTemplate(Pool<Jedis> jedisPool) implements InternalRedisLockTemplate {
+        private static final long RESUBSCRIBE_DELAY_MS = 1000;
+
         @Override
         public boolean setIfAbsent(String key, String value, long expirationMs) {
             return set(key, value, setParams().nx().px(expirationMs));
@@ -130,9 +258,95 @@ public class JedisLockProvider implements ExtensibleLockProvider {
         }
 
         @Override
-        public Object eval(String script, String key, String... values) {
+        public Object eval(LuaScript script, String key, String... values) {
+            try (Jedis jedis = jedisPool.getResource()) {
+                return evalSha(jedis, script, List.of(key), List.of(values));
+            }
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public List<Long> evalMulti(LuaScript script, List<String> keys, List<String> values) {
+            try (Jedis jedis = jedisPool.getResource()) {
+                return (List<Long>) evalSha(jedis, script, keys, values);
+            }
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public List<List<Long>> evalMultiPipelined(
+                LuaScript script, List<List<String>> keys, List<List<String>> values) {
             try (Jedis jedis = jedisPool.getResource()) {
-                return jedis.eval(script, List.of(key), List.of(values));
+                List<Response<Object>> responses = new ArrayList<>(keys.size());
+                try (Pipeline pipeline = jedis.pipelined()) {
+                    for (int i = 0; i < keys.size(); i++) {
+                        responses.add(pipeline.evalsha(script.sha1(), keys.get(i), values.get(i)));
+                    }
+                    pipeline.sync();
+                }
+                List<List<Long>> result = new ArrayList<>(keys.size());
+                for (int i = 0; i < keys.size(); i++) {
+                    try {
+                        result.add((List<Long>) responses.get(i).get());
+                    } catch (JedisDataException e) {
+                        if (!isNoScript(e)) {
+                            throw e;
+                        }
+                        result.add((List<Long>) jedis.eval(script.source(), keys.get(i), values.get(i)));
+                    }
+                }
+                return result;
+            }
+        }
+
+        @Override
+        public Runnable subscribeToKeyspaceEvents(String channelPattern, BiConsumer<String, String> listener) {
+            AtomicBoolean unsubscribed = new AtomicBoolean();
+            JedisPubSub pubSub = new JedisPubSub() {
+                @Override
+                public void onPMessage(String pattern, String channel, String message) {
+                    listener.accept(channel, message);
+                }
+
+                @Override
+                public void onPSubscribe(String pattern, int subscribedChannels) {
+                    // unsubscribed before the subscription was confirmed
+                    if (unsubscribed.get()) {
+                        punsubscribe();
+                    }
+                }
+            };
+            // psubscribe blocks the connection, it's taken from the pool until unsubscribed or the pool is closed
+            Thread subscriber = new Thread(
+                    () -> {
+                        while (!unsubscribed.get() && !jedisPool.isClosed()) {
+                            try (Jedis jedis = jedisPool.getResource()) {
+                                jedis.psubscribe(pubSub, channelPattern);
+                            } catch (RuntimeException e) {
+                                try {
+                                    Thread.sleep(RESUBSCRIBE_DELAY_MS);
+                                } catch (InterruptedException interrupted) {
+                                    return;
+                                }
+                            }
+                        }
+                    },
+                    "shedlock-redis-notifications");
+            subscriber.setDaemon(true);
+            subscriber.start();
+            return () -> {
+                unsubscribed.set(true);
+                if (pubSub.isSubscribed()) {
+                    pubSub.punsubscribe();
+                }
+                subscriber.interrupt();
+            };
+        }
+
+        @Override
+        public void loadScripts(Collection<LuaScript> scripts) {
+            try (Jedis jedis = jedisPool.getResource()) {
+                scripts.forEach(script -> jedis.scriptLoad(script.source()));
             }
         }
 
@@ -160,8 +374,23 @@ public class JedisLockProvider implements ExtensibleLockProvider {
         }
 
         @Override
-        public @Nullable Object eval(String script, String key, String... values) {
-            return jedisCommands.eval(script, List.of(key), List.of(values));
+        public @Nullable Object eval(LuaScript script, String key, String... values) {
+            return evalSha(jedisCommands, script, List.of(key), List.of(values));
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public List<Long> evalMulti(LuaScript script, List<String> keys, List<String> values) {
+            if (jedisCommands instanceof JedisCluster && !inSameSlot(keys)) {
+                // JedisCluster can not dispatch the script, let the caller use single key commands
+                throw new UnsupportedOperationException("Keys have to be in the same hash slot");
+            }
+            return (List<Long>) evalSha(jedisCommands, script, keys, values);
+        }
+
+        private static boolean inSameSlot(List<String> keys) {
+            int slot = JedisClusterCRC16.getSlot(keys.get(0));
+            return keys.stream().allMatch(key -> JedisClusterCRC16.getSlot(key) == slot);
         }
 
         @Override
@@ -169,4 +398,24 @@ public class JedisLockProvider implements ExtensibleLockProvider {
             jedisCommands.del(key);
         }
     }
+
+    /**
+     * Calls the script using EVALSHA, falls back to EVAL which also adds the script
+     * to the script cache.
+     */
+    private static Object evalSha(
+            ScriptingKeyCommands commands, LuaScript script, List<String> keys, List<String> values) {
+        try {
+            return commands.evalsha(script.sha1(), keys, values);
+        } catch (JedisDataException e) {
+            if (!isNoScript(e)) {
+                throw e;
+            }
+            return commands.eval(script.source(), keys, values);
+        }
+    }
+
+    private static boolean isNoScript(JedisDataException e) {
+        return e.getMessage() != null && e.getMessage().startsWith("NOSCRIPT");
+    }
 }
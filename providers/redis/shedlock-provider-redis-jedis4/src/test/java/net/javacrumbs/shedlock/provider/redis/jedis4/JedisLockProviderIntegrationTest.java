@@ -15,13 +15,27 @@ package net.javacrumbs.shedlock.provider.redis.jedis4;
 
 import static net.javacrumbs.shedlock.provider.redis.testsupport.RedisContainer.ENV;
 import static net.javacrumbs.shedlock.provider.redis.testsupport.RedisContainer.PORT;
-
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.net.URI;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.IntStream;
 import net.javacrumbs.shedlock.core.ExtensibleLockProvider;
+import net.javacrumbs.shedlock.core.LockConfiguration;
+import net.javacrumbs.shedlock.core.SimpleLock;
+import net.javacrumbs.shedlock.provider.redis.support.QuorumRedisLockProvider;
 import net.javacrumbs.shedlock.provider.redis.testsupport.AbstractRedisIntegrationTest;
 import net.javacrumbs.shedlock.provider.redis.testsupport.AbstractRedisSafeUpdateIntegrationTest;
 import net.javacrumbs.shedlock.provider.redis.testsupport.RedisContainer;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
 import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
 import redis.clients.jedis.HostAndPort;
@@ -35,6 +49,56 @@ public class JedisLockProviderIntegrationTest {
     @Container
     public static final RedisContainer redis = new RedisContainer(PORT);
 
+    @Test
+    void shouldLockOnQuorumOfNodes() {
+        // databases of one Redis server play the role of independent nodes
+        List<JedisPool> pools = IntStream.range(1, 4)
+                .mapToObj(db -> new JedisPool(URI.create(
+                        String.format("redis://%s:%d/%d", redis.getHost(), redis.getMappedPort(PORT), db))))
+                .toList();
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            QuorumRedisLockProvider lockProvider = JedisLockProvider.quorum(pools, executor, ENV);
+            LockConfiguration lockConfiguration =
+                    new LockConfiguration(Instant.now(), "quorum-test", Duration.ofSeconds(30), Duration.ZERO);
+            String key = "job-lock:" + ENV + ":quorum-test";
+            set(pools.get(0), key, "somebody else");
+
+            Optional<SimpleLock> lock = lockProvider.lock(lockConfiguration);
+            assertThat(lock).isPresent();
+            assertThat(get(pools.get(1), key)).isNotNull();
+            assertThat(lockProvider.lock(lockConfiguration)).isEmpty();
+
+            lock.get().unlock();
+            assertThat(get(pools.get(0), key)).isEqualTo("somebody else");
+            assertThat(get(pools.get(1), key)).isNull();
+            assertThat(get(pools.get(2), key)).isNull();
+
+            set(pools.get(1), key, "somebody else");
+            assertThat(lockProvider.lock(lockConfiguration)).isEmpty();
+            pools.forEach(pool -> {
+                try (Jedis jedis = pool.getResource()) {
+                    jedis.del(key);
+                }
+            });
+        } finally {
+            executor.shutdown();
+            pools.forEach(JedisPool::close);
+        }
+    }
+
+    private static void set(JedisPool pool, String key, String value) {
+        try (Jedis jedis = pool.getResource()) {
+            jedis.set(key, value);
+        }
+    }
+
+    private static String get(JedisPool pool, String key) {
+        try (Jedis jedis = pool.getResource()) {
+            return jedis.get(key);
+        }
+    }
+
     @Nested
     class Cluster extends AbstractRedisIntegrationTest {
         private ExtensibleLockProvider lockProvider;
@@ -108,7 +172,7 @@ public class JedisLockProviderIntegrationTest {
 
     @Nested
     class PoolSafeUpdate extends AbstractRedisSafeUpdateIntegrationTest {
-        private ExtensibleLockProvider lockProvider;
+        private JedisLockProvider lockProvider;
 
         private JedisPool jedisPool;
 
@@ -125,6 +189,54 @@ public class JedisLockProviderIntegrationTest {
             }
         }
 
+        @Test
+        void shouldFallBackToEvalIfScriptsAreNotLoaded() {
+            flushScripts();
+            Optional<SimpleLock> lock = lockProvider.lock(
+                    new LockConfiguration(Instant.now(), "flush-test", Duration.ofSeconds(30), Duration.ZERO));
+            assertThat(lock).isPresent();
+            assertThat(lockProvider.getLockUntil("flush-test")).isPresent();
+
+            flushScripts();
+            lock.get().unlock();
+            assertThat(getLock("flush-test")).isNull();
+        }
+
+        @Test
+        void shouldNotReturnLockUntilOfFailedAttemptAfterUnlock() {
+            LockConfiguration lockConfiguration =
+                    new LockConfiguration(Instant.now(), "stale-test", Duration.ofSeconds(30), Duration.ZERO);
+            SimpleLock lock = lockProvider.lock(lockConfiguration).orElseThrow();
+            assertThat(lockProvider.lock(lockConfiguration)).isEmpty();
+
+            lock.unlock();
+            assertThat(lockProvider.getLockUntil("stale-test")).isEmpty();
+        }
+
+        @Test
+        void shouldLockAllInPipelineIfScriptsAreNotLoaded() {
+            List<LockConfiguration> configurations = IntStream.range(0, 5)
+                    .mapToObj(i -> new LockConfiguration(
+                            Instant.now(), "pipelined-" + i, Duration.ofSeconds(30), Duration.ZERO))
+                    .toList();
+            // the keys are in different slots, so the scripts are pipelined, EVALSHA fails with NOSCRIPT
+            flushScripts();
+            Map<String, SimpleLock> locks = lockProvider.lockAll(configurations);
+            assertThat(locks).hasSize(5);
+            configurations.forEach(configuration -> assertThat(getLock(configuration.getName())).isNotNull());
+            assertThat(lockProvider.lockAll(configurations)).isEmpty();
+
+            flushScripts();
+            lockProvider.unlockAll(locks.values());
+            configurations.forEach(configuration -> assertThat(getLock(configuration.getName())).isNull());
+        }
+
+        private void flushScripts() {
+            try (Jedis jedis = jedisPool.getResource()) {
+                jedis.scriptFlush();
+            }
+        }
+
         @Override
         protected ExtensibleLockProvider getLockProvider() {
             return lockProvider;
@@ -16,15 +16,36 @@ package net.javacrumbs.shedlock.provider.redis.lettuce;
 import static net.javacrumbs.shedlock.provider.redis.support.InternalRedisLockProvider.DEFAULT_KEY_PREFIX;
 import static net.javacrumbs.shedlock.provider.redis.support.InternalRedisLockProvider.ENV_DEFAULT;
 
+import io.lettuce.core.LettuceFutures;
+import io.lettuce.core.RedisFuture;
+import io.lettuce.core.RedisNoScriptException;
 import io.lettuce.core.ScriptOutputType;
 import io.lettuce.core.SetArgs;
 import io.lettuce.core.api.StatefulRedisConnection;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import net.javacrumbs.shedlock.core.AsyncLockProvider;
+import net.javacrumbs.shedlock.core.AsyncSimpleLock;
 import net.javacrumbs.shedlock.core.ExtensibleLockProvider;
 import net.javacrumbs.shedlock.core.LockConfiguration;
 import net.javacrumbs.shedlock.core.SimpleLock;
+import net.javacrumbs.shedlock.provider.redis.support.HashTagStrategy;
+import net.javacrumbs.shedlock.provider.redis.support.InternalRedisAsyncLockProvider;
+import net.javacrumbs.shedlock.provider.redis.support.InternalRedisAsyncLockTemplate;
 import net.javacrumbs.shedlock.provider.redis.support.InternalRedisLockProvider;
 import net.javacrumbs.shedlock.provider.redis.support.InternalRedisLockTemplate;
+import net.javacrumbs.shedlock.provider.redis.support.LuaScript;
+import net.javacrumbs.shedlock.provider.redis.support.QuorumRedisLockProvider;
 import org.jspecify.annotations.Nullable;
 
 /**
@@ -33,10 +54,15 @@ import org.jspecify.annotations.Nullable;
  *
  * <p>
  * See <a href="https://redis.io/commands/set">Set command</a>
+ *
+ * <p>
+ * Implements {@link AsyncLockProvider} using Lettuce async API, so the lock can
+ * be obtained and released without blocking the calling thread.
  */
-public class LettuceLockProvider implements ExtensibleLockProvider {
+public class LettuceLockProvider implements ExtensibleLockProvider, AsyncLockProvider {
 
     private final InternalRedisLockProvider internalRedisLockProvider;
+    private final InternalRedisAsyncLockProvider internalRedisAsyncLockProvider;
 
     public LettuceLockProvider(StatefulRedisConnection<String, String> connection) {
         this(connection, ENV_DEFAULT);
@@ -66,8 +92,71 @@ public class LettuceLockProvider implements ExtensibleLockProvider {
      */
     public LettuceLockProvider(
             StatefulRedisConnection<String, String> connection, String environment, boolean safeUpdate) {
+        this(connection, environment, safeUpdate, HashTagStrategy.NONE);
+    }
+
+    /**
+     * Creates LettuceLockProvider
+     *
+     * @param connection  StatefulRedisConnection
+     * @param environment environment is part of the key and thus makes sure there is not
+     *                    key conflict between multiple ShedLock instances running on the
+     *                    same Redis
+     * @param safeUpdate When set to true and the lock is held for more than lockAtMostFor, and the lock
+     *                   is already held by somebody else, we don't release/extend the lock.
+     * @param hashTagStrategy decides which part of the key is used as Redis Cluster hash tag
+     */
+    public LettuceLockProvider(
+            StatefulRedisConnection<String, String> connection,
+            String environment,
+            boolean safeUpdate,
+            HashTagStrategy hashTagStrategy) {
+        this(connection, environment, safeUpdate, hashTagStrategy, false);
+    }
+
+    /**
+     * Creates LettuceLockProvider
+     *
+     * @param connection  StatefulRedisConnection
+     * @param environment environment is part of the key and thus makes sure there is not
+     *                    key conflict between multiple ShedLock instances running on the
+     *                    same Redis
+     * @param safeUpdate When set to true and the lock is held for more than lockAtMostFor, and the lock
+     *                   is already held by somebody else, we don't release/extend the lock.
+     * @param hashTagStrategy decides which part of the key is used as Redis Cluster hash tag
+     * @param exclusiveConnection set to true if the connection is used only by this provider. Only then
+     *                            {@link #unlockAllAsync(Collection)} disables auto-flush of the connection,
+     *                            so the commands are sent in one network flush.
+     */
+    public LettuceLockProvider(
+            StatefulRedisConnection<String, String> connection,
+            String environment,
+            boolean safeUpdate,
+            HashTagStrategy hashTagStrategy,
+            boolean exclusiveConnection) {
         this.internalRedisLockProvider = new InternalRedisLockProvider(
-                new LettuceRedisLockTemplate(connection), environment, DEFAULT_KEY_PREFIX, safeUpdate);
+                new LettuceRedisLockTemplate(connection), environment, DEFAULT_KEY_PREFIX, safeUpdate, hashTagStrategy);
+        this.internalRedisAsyncLockProvider = new InternalRedisAsyncLockProvider(
+                new LettuceRedisAsyncLockTemplate(connection, exclusiveConnection),
+                environment,
+                DEFAULT_KEY_PREFIX,
+                safeUpdate,
+                hashTagStrategy);
+    }
+
+    /**
+     * Creates a lock provider that acquires the lock on the majority of independent
+     * Redis masters. The nodes are called in parallel using Lettuce async API.
+     *
+     * @param connections connections to independent Redis masters, use an odd number of nodes
+     * @param environment environment is part of the key and thus makes sure there is not
+     *                    key conflict between multiple ShedLock instances running on the
+     *                    same Redis
+     */
+    public static QuorumRedisLockProvider quorum(
+            List<StatefulRedisConnection<String, String>> connections, String environment) {
+        return new QuorumRedisLockProvider(
+                connections.stream().map(LettuceRedisAsyncLockTemplate::new).toList(), environment);
     }
 
     @Override
@@ -75,6 +164,52 @@ public class LettuceLockProvider implements ExtensibleLockProvider {
         return internalRedisLockProvider.lock(lockConfiguration);
     }
 
+    @Override
+    public Map<String, SimpleLock> lockAll(Collection<LockConfiguration> lockConfigurations) {
+        return internalRedisLockProvider.lockAll(lockConfigurations);
+    }
+
+    /**
+     * Releases the locks, keys in the same Redis Cluster hash slot are released by
+     * one script and the scripts are pipelined.
+     */
+    public void unlockAll(Collection<SimpleLock> locks) {
+        internalRedisLockProvider.unlockAll(locks);
+    }
+
+    /**
+     * Tries to acquire the lock, waiting at most maxWait for it to be released.
+     * The lock is attempted again when its TTL expires, at most one second after
+     * the previous attempt.
+     */
+    public Optional<SimpleLock> tryLock(LockConfiguration lockConfiguration, Duration maxWait) {
+        return internalRedisLockProvider.tryLock(lockConfiguration, maxWait);
+    }
+
+    /**
+     * Returns until when the lock is held, no matter if by this instance or by
+     * somebody else. Uses the TTL returned by the last unsuccessful lock attempt if
+     * available, so no additional call to Redis is needed, reads the TTL otherwise.
+     */
+    public Optional<Instant> getLockUntil(String lockName) {
+        return internalRedisLockProvider.getLockUntil(lockName);
+    }
+
+    @Override
+    public CompletionStage<Optional<AsyncSimpleLock>> lockAsync(LockConfiguration lockConfiguration) {
+        return internalRedisAsyncLockProvider.lockAsync(lockConfiguration);
+    }
+
+    /**
+     * Releases the locks without blocking. The commands are written without waiting
+     * for the previous replies. If the connection is exclusive, auto-flush is
+     * disabled while the commands are issued, so all of them are sent in one
+     * network flush. Shared connections are never reconfigured.
+     */
+    public CompletionStage<Void> unlockAllAsync(Collection<AsyncSimpleLock> locks) {
+        return internalRedisAsyncLockProvider.unlockAllAsync(locks);
+    }
+
     private record LettuceRedisLockTemplate(StatefulRedisConnection<String, String> connection)
             implements InternalRedisLockTemplate {
 
@@ -93,8 +228,56 @@ public class LettuceLockProvider implements ExtensibleLockProvider {
         }
 
         @Override
-        public @Nullable Object eval(String script, String key, String... values) {
-            return connection.sync().eval(script, ScriptOutputType.INTEGER, new String[] {key}, values);
+        public @Nullable Object eval(LuaScript script, String key, String... values) {
+            return evalSha(script, ScriptOutputType.INTEGER, new String[] {key}, values);
+        }
+
+        @Override
+        public List<Long> evalMulti(LuaScript script, List<String> keys, List<String> values) {
+            return evalSha(script, ScriptOutputType.MULTI, keys.toArray(new String[0]), values.toArray(new String[0]));
+        }
+
+        /**
+         * Calls the script using EVALSHA, falls back to EVAL which also adds the script
+         * to the script cache.
+         */
+        private <T> T evalSha(LuaScript script, ScriptOutputType type, String[] keys, String... values) {
+            try {
+                return connection.sync().evalsha(script.sha1(), type, keys, values);
+            } catch (RedisNoScriptException e) {
+                return connection.sync().eval(script.source(), type, keys, values);
+            }
+        }
+
+        @Override
+        public List<List<Long>> evalMultiPipelined(
+                LuaScript script, List<List<String>> keys, List<List<String>> values) {
+            // async commands are written without waiting for the previous replies
+            List<RedisFuture<List<Long>>> futures = new ArrayList<>(keys.size());
+            for (int i = 0; i < keys.size(); i++) {
+                futures.add(connection
+                        .async()
+                        .evalsha(script.sha1(), ScriptOutputType.MULTI, toArray(keys.get(i)), toArray(values.get(i))));
+            }
+            Duration timeout = connection.getTimeout();
+            List<List<Long>> result = new ArrayList<>(keys.size());
+            for (int i = 0; i < keys.size(); i++) {
+                try {
+                    result.add(LettuceFutures.awaitOrCancel(futures.get(i), timeout.toNanos(), TimeUnit.NANOSECONDS));
+                } catch (RedisNoScriptException e) {
+                    result.add(evalMulti(script, keys.get(i), values.get(i)));
+                }
+            }
+            return result;
+        }
+
+        private static String[] toArray(List<String> values) {
+            return values.toArray(new String[0]);
+        }
+
+        @Override
+        public void loadScripts(Collection<LuaScript> scripts) {
+            scripts.forEach(script -> connection.sync().scriptLoad(script.source()));
         }
 
         @Override
@@ -102,4 +285,67 @@ public class LettuceLockProvider implements ExtensibleLockProvider {
             connection.sync().del(key);
         }
     }
+
+    private record LettuceRedisAsyncLockTemplate(
+            StatefulRedisConnection<String, String> connection, boolean exclusiveConnection)
+            implements InternalRedisAsyncLockTemplate {
+
+        private LettuceRedisAsyncLockTemplate(StatefulRedisConnection<String, String> connection) {
+            this(connection, false);
+        }
+
+        @Override
+        public CompletionStage<Boolean> setIfAbsentAsync(String key, String value, long expirationMs) {
+            return set(key, value, SetArgs.Builder.nx().px(expirationMs));
+        }
+
+        @Override
+        public CompletionStage<Boolean> setIfPresentAsync(String key, String value, long expirationMs) {
+            return set(key, value, SetArgs.Builder.xx().px(expirationMs));
+        }
+
+        private CompletionStage<Boolean> set(String key, String value, SetArgs args) {
+            return connection.async().set(key, value, args).thenApply("OK"::equals);
+        }
+
+        @Override
+        public CompletionStage<@Nullable Object> evalAsync(LuaScript script, String key, String... values) {
+            String[] keys = {key};
+            return connection
+                    .async()
+                    .<Long>evalsha(script.sha1(), ScriptOutputType.INTEGER, keys, values)
+                    .exceptionallyCompose(e -> isNoScript(e)
+                            ? connection.async().<Long>eval(script.source(), ScriptOutputType.INTEGER, keys, values)
+                            : CompletableFuture.<Long>failedStage(e))
+                    .thenApply(result -> result);
+        }
+
+        private static boolean isNoScript(Throwable e) {
+            Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+            return cause instanceof RedisNoScriptException;
+        }
+
+        @Override
+        public CompletionStage<Void> deleteAsync(String key) {
+            return connection.async().del(key).thenApply(deleted -> null);
+        }
+
+        @Override
+        public <T> T pipelined(Supplier<T> commands) {
+            if (!exclusiveConnection) {
+                // auto-flush is a connection-wide setting, it belongs to the owner of a shared connection
+                return commands.get();
+            }
+            // the template is private to the provider, don't let other pipelines enable auto-flush in the meantime
+            synchronized (this) {
+                connection.setAutoFlushCommands(false);
+                try {
+                    return commands.get();
+                } finally {
+                    connection.flushCommands();
+                    connection.setAutoFlushCommands(true);
+                }
+            }
+        }
+    }
 }
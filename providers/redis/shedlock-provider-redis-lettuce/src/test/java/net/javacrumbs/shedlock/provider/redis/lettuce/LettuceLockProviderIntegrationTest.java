@@ -15,15 +15,30 @@ package net.javacrumbs.shedlock.provider.redis.lettuce;
 
 import static net.javacrumbs.shedlock.provider.redis.testsupport.RedisContainer.ENV;
 import static net.javacrumbs.shedlock.provider.redis.testsupport.RedisContainer.PORT;
+import static org.assertj.core.api.Assertions.assertThat;
 
 import io.lettuce.core.RedisClient;
+import io.lettuce.core.RedisURI;
 import io.lettuce.core.api.StatefulRedisConnection;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+import net.javacrumbs.shedlock.core.AsyncSimpleLock;
 import net.javacrumbs.shedlock.core.ExtensibleLockProvider;
+import net.javacrumbs.shedlock.core.LockConfiguration;
+import net.javacrumbs.shedlock.core.SimpleLock;
+import net.javacrumbs.shedlock.provider.redis.support.HashTagStrategy;
+import net.javacrumbs.shedlock.provider.redis.support.QuorumRedisLockProvider;
 import net.javacrumbs.shedlock.provider.redis.testsupport.AbstractRedisIntegrationTest;
 import net.javacrumbs.shedlock.provider.redis.testsupport.AbstractRedisSafeUpdateIntegrationTest;
 import net.javacrumbs.shedlock.provider.redis.testsupport.RedisContainer;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
 import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
 
@@ -38,6 +53,156 @@ public class LettuceLockProviderIntegrationTest {
         return RedisClient.create(uri);
     }
 
+    @Test
+    void shouldLockOnQuorumOfNodes() {
+        // databases of one Redis server play the role of independent nodes
+        RedisClient client = createClient();
+        List<StatefulRedisConnection<String, String>> connections = IntStream.range(1, 4)
+                .mapToObj(db -> client.connect(RedisURI.create(String.format(
+                        "redis://%s:%d/%d", redis.getHost(), redis.getFirstMappedPort(), db))))
+                .toList();
+        try {
+            QuorumRedisLockProvider lockProvider = LettuceLockProvider.quorum(connections, ENV);
+            LockConfiguration lockConfiguration =
+                    new LockConfiguration(Instant.now(), "quorum-test", Duration.ofSeconds(30), Duration.ZERO);
+            String key = "job-lock:" + ENV + ":quorum-test";
+            connections.get(0).sync().set(key, "somebody else");
+
+            Optional<SimpleLock> lock = lockProvider.lock(lockConfiguration);
+            assertThat(lock).isPresent();
+            assertThat(connections.get(1).sync().get(key)).isNotNull();
+            assertThat(lockProvider.lock(lockConfiguration)).isEmpty();
+
+            lock.get().unlock();
+            assertThat(connections.get(0).sync().get(key)).isEqualTo("somebody else");
+            assertThat(connections.get(1).sync().get(key)).isNull();
+            assertThat(connections.get(2).sync().get(key)).isNull();
+
+            connections.get(1).sync().set(key, "somebody else");
+            assertThat(lockProvider.lock(lockConfiguration)).isEmpty();
+            connections.forEach(connection -> connection.sync().del(key));
+        } finally {
+            connections.forEach(StatefulRedisConnection::close);
+        }
+    }
+
+    @Test
+    void shouldUnlockAllAsyncInOneFlush() {
+        try (StatefulRedisConnection<String, String> connection = createClient().connect()) {
+            LettuceLockProvider lockProvider =
+                    new LettuceLockProvider(connection, ENV, true, HashTagStrategy.NONE, true);
+            List<AsyncSimpleLock> locks = lockAsync(lockProvider, "async-test-");
+
+            lockProvider.unlockAllAsync(locks).toCompletableFuture().join();
+
+            assertThat(connection.sync().keys("job-lock:" + ENV + ":async-test-*")).isEmpty();
+            assertThat(connection.sync().set("auto-flush-test", "ok")).isEqualTo("OK");
+        }
+    }
+
+    @Test
+    void shouldNotChangeAutoFlushOfSharedConnection() {
+        try (StatefulRedisConnection<String, String> connection = createClient().connect()) {
+            LettuceLockProvider lockProvider = new LettuceLockProvider(connection, ENV, true);
+            List<AsyncSimpleLock> locks = lockAsync(lockProvider, "shared-test-");
+            connection.setAutoFlushCommands(false);
+
+            CompletableFuture<Void> result = lockProvider.unlockAllAsync(locks).toCompletableFuture();
+
+            // the commands wait for the application to flush them
+            assertThat(result).isNotDone();
+            connection.flushCommands();
+            result.join();
+            connection.setAutoFlushCommands(true);
+            assertThat(connection.sync().keys("job-lock:" + ENV + ":shared-test-*")).isEmpty();
+        }
+    }
+
+    private static List<AsyncSimpleLock> lockAsync(LettuceLockProvider lockProvider, String namePrefix) {
+        return IntStream.range(0, 10)
+                .mapToObj(i -> lockProvider
+                        .lockAsync(new LockConfiguration(
+                                Instant.now(), namePrefix + i, Duration.ofSeconds(30), Duration.ZERO))
+                        .toCompletableFuture()
+                        .join()
+                        .orElseThrow())
+                .toList();
+    }
+
+    @Test
+    void shouldReturnLockUntilOfHeldLock() {
+        try (StatefulRedisConnection<String, String> connection = createClient().connect()) {
+            LettuceLockProvider lockProvider = new LettuceLockProvider(connection, ENV);
+            LockConfiguration lockConfiguration =
+                    new LockConfiguration(Instant.now(), "ttl-test", Duration.ofSeconds(30), Duration.ZERO);
+
+            Optional<SimpleLock> lock = lockProvider.lock(lockConfiguration);
+            assertThat(lock).isPresent();
+            assertThat(lockProvider.lock(lockConfiguration)).isEmpty();
+            assertThat(lockProvider.getLockUntil("ttl-test"))
+                    .hasValueSatisfying(lockUntil -> assertThat(lockUntil)
+                            .isBetween(Instant.now().plusSeconds(25), Instant.now().plusSeconds(31)));
+
+            lock.get().unlock();
+            assertThat(lockProvider.getLockUntil("ttl-test")).isEmpty();
+        }
+    }
+
+    @Test
+    void shouldFallBackToEvalIfScriptsAreNotLoaded() {
+        try (StatefulRedisConnection<String, String> connection = createClient().connect()) {
+            LettuceLockProvider lockProvider = new LettuceLockProvider(connection, ENV, true);
+            Optional<SimpleLock> lock = lockProvider.lock(
+                    new LockConfiguration(Instant.now(), "flush-test", Duration.ofSeconds(30), Duration.ZERO));
+            assertThat(lock).isPresent();
+
+            connection.sync().scriptFlush();
+            lock.get().unlock();
+
+            assertThat(connection.sync().get("job-lock:" + ENV + ":flush-test")).isNull();
+        }
+    }
+
+    @Test
+    void shouldLockAndUnlockAllWithEnvironmentHashTag() {
+        try (StatefulRedisConnection<String, String> connection = createClient().connect()) {
+            LettuceLockProvider lockProvider =
+                    new LettuceLockProvider(connection, ENV, false, HashTagStrategy.ENVIRONMENT);
+            Instant now = Instant.now();
+            List<LockConfiguration> configurations = List.of(
+                    new LockConfiguration(now, "tag-test-1", Duration.ofSeconds(30), Duration.ZERO),
+                    new LockConfiguration(now, "tag-test-2", Duration.ofSeconds(30), Duration.ZERO));
+
+            Map<String, SimpleLock> locks = lockProvider.lockAll(configurations);
+            assertThat(locks).containsOnlyKeys("tag-test-1", "tag-test-2");
+            assertThat(connection.sync().get("job-lock:{" + ENV + "}:tag-test-1")).isNotNull();
+            assertThat(lockProvider.lockAll(configurations)).isEmpty();
+
+            lockProvider.unlockAll(locks.values());
+            assertThat(connection.sync().get("job-lock:{" + ENV + "}:tag-test-1")).isNull();
+            assertThat(connection.sync().get("job-lock:{" + ENV + "}:tag-test-2")).isNull();
+        }
+    }
+
+    @Test
+    void shouldNotUnlockAllLocksHeldBySomebodyElse() {
+        try (StatefulRedisConnection<String, String> connection = createClient().connect()) {
+            LettuceLockProvider lockProvider = new LettuceLockProvider(connection, ENV);
+            Instant now = Instant.now();
+            Map<String, SimpleLock> locks = lockProvider.lockAll(List.of(
+                    new LockConfiguration(now, "other-test-1", Duration.ofSeconds(30), Duration.ZERO),
+                    new LockConfiguration(now, "other-test-2", Duration.ofSeconds(30), Duration.ZERO)));
+            assertThat(locks).hasSize(2);
+
+            connection.sync().set("job-lock:" + ENV + ":other-test-2", "somebody else");
+            lockProvider.unlockAll(locks.values());
+
+            assertThat(connection.sync().get("job-lock:" + ENV + ":other-test-1")).isNull();
+            assertThat(connection.sync().get("job-lock:" + ENV + ":other-test-2")).isEqualTo("somebody else");
+            connection.sync().del("job-lock:" + ENV + ":other-test-2");
+        }
+    }
+
     @Nested
     class Cluster extends AbstractRedisIntegrationTest {
 
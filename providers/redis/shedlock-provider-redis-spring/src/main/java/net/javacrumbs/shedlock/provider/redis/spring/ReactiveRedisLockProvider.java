@@ -1,21 +1,25 @@
 package net.javacrumbs.shedlock.provider.redis.spring;
 
 import static java.lang.Boolean.TRUE;
+import static net.javacrumbs.shedlock.provider.redis.spring.RedisScripts.integerScript;
+import static net.javacrumbs.shedlock.provider.redis.spring.RedisScripts.listScript;
 import static net.javacrumbs.shedlock.provider.redis.support.InternalRedisLockProvider.DEFAULT_KEY_PREFIX;
 import static net.javacrumbs.shedlock.provider.redis.support.InternalRedisLockProvider.ENV_DEFAULT;
 
 import java.time.Duration;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import net.javacrumbs.shedlock.core.LockConfiguration;
 import net.javacrumbs.shedlock.core.LockProvider;
 import net.javacrumbs.shedlock.core.SimpleLock;
 import net.javacrumbs.shedlock.provider.redis.support.InternalRedisLockProvider;
 import net.javacrumbs.shedlock.provider.redis.support.InternalRedisLockTemplate;
+import net.javacrumbs.shedlock.provider.redis.support.LuaScript;
 import org.jspecify.annotations.Nullable;
 import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
 import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
-import org.springframework.data.redis.core.script.DefaultRedisScript;
 
 /**
  * Uses Redis's `SET resource-name anystring NX PX max-lock-ms-time` as locking
@@ -80,6 +84,11 @@ public class ReactiveRedisLockProvider implements LockProvider {
         return internalRedisLockProvider.lock(lockConfiguration);
     }
 
+    @Override
+    public Map<String, SimpleLock> lockAll(Collection<LockConfiguration> lockConfigurations) {
+        return internalRedisLockProvider.lockAll(lockConfigurations);
+    }
+
     public static class Builder {
         private final ReactiveStringRedisTemplate redisTemplate;
         private String environment = ENV_DEFAULT;
@@ -128,13 +137,23 @@ public class ReactiveRedisLockProvider implements LockProvider {
         }
 
         @Override
-        public @Nullable Object eval(String script, String key, String... values) {
+        public @Nullable Object eval(LuaScript script, String key, String... values) {
             return redisTemplate
-                    .execute(new DefaultRedisScript<>(script, Integer.class), List.of(key), List.of(values))
+                    .execute(integerScript(script), List.of(key), List.of(values))
                     .next()
                     .block();
         }
 
+        @Override
+        @SuppressWarnings("unchecked")
+        public List<Long> evalMulti(LuaScript script, List<String> keys, List<String> values) {
+            return redisTemplate
+                    .execute(listScript(script), keys, values)
+                    .next()
+                    .blockOptional()
+                    .orElseThrow();
+        }
+
         @Override
         public void delete(String key) {
             redisTemplate.delete(key).block();
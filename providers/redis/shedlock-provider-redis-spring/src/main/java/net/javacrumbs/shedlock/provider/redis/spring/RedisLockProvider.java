@@ -14,32 +14,47 @@
 package net.javacrumbs.shedlock.provider.redis.spring;
 
 import static java.lang.Boolean.TRUE;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static net.javacrumbs.shedlock.provider.redis.spring.RedisScripts.integerScript;
+import static net.javacrumbs.shedlock.provider.redis.spring.RedisScripts.listScript;
 import static net.javacrumbs.shedlock.provider.redis.support.InternalRedisLockProvider.DEFAULT_KEY_PREFIX;
 import static net.javacrumbs.shedlock.provider.redis.support.InternalRedisLockProvider.ENV_DEFAULT;
 import static org.springframework.data.redis.connection.RedisStringCommands.SetOption.SET_IF_ABSENT;
 import static org.springframework.data.redis.connection.RedisStringCommands.SetOption.SET_IF_PRESENT;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
 import net.javacrumbs.shedlock.core.ExtensibleLockProvider;
 import net.javacrumbs.shedlock.core.LockConfiguration;
 import net.javacrumbs.shedlock.core.SimpleLock;
+import net.javacrumbs.shedlock.provider.redis.support.HashTagStrategy;
 import net.javacrumbs.shedlock.provider.redis.support.InternalRedisLockProvider;
 import net.javacrumbs.shedlock.provider.redis.support.InternalRedisLockTemplate;
+import net.javacrumbs.shedlock.provider.redis.support.LuaScript;
 import org.jspecify.annotations.Nullable;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.RedisPipelineException;
 import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.StringRedisTemplate;
-import org.springframework.data.redis.core.script.DefaultRedisScript;
 import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.data.redis.listener.PatternTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.RedisSerializer;
 
 /**
  * Uses Redis's `SET resource-name anystring NX PX max-lock-ms-time` as locking
  * mechanism. See https://redis.io/commands/set
  */
-public class RedisLockProvider implements ExtensibleLockProvider {
+public class RedisLockProvider implements ExtensibleLockProvider, AutoCloseable {
     private final InternalRedisLockProvider internalRedisLockProvider;
 
     public RedisLockProvider(RedisConnectionFactory redisConn) {
@@ -93,8 +108,17 @@ public class RedisLockProvider implements ExtensibleLockProvider {
     }
 
     RedisLockProvider(StringRedisTemplate redisTemplate, String environment, String keyPrefix, boolean safeUpdate) {
+        this(redisTemplate, environment, keyPrefix, safeUpdate, HashTagStrategy.NONE);
+    }
+
+    RedisLockProvider(
+            StringRedisTemplate redisTemplate,
+            String environment,
+            String keyPrefix,
+            boolean safeUpdate,
+            HashTagStrategy hashTagStrategy) {
         this.internalRedisLockProvider = new InternalRedisLockProvider(
-                new SpringRedisLockTemplate(redisTemplate), environment, keyPrefix, safeUpdate);
+                new SpringRedisLockTemplate(redisTemplate), environment, keyPrefix, safeUpdate, hashTagStrategy);
     }
 
     @Override
@@ -102,11 +126,59 @@ public class RedisLockProvider implements ExtensibleLockProvider {
         return internalRedisLockProvider.lock(lockConfiguration);
     }
 
+    @Override
+    public Map<String, SimpleLock> lockAll(Collection<LockConfiguration> lockConfigurations) {
+        return internalRedisLockProvider.lockAll(lockConfigurations);
+    }
+
+    /**
+     * Releases the locks, keys in the same Redis Cluster hash slot are released by
+     * one script and the scripts are pipelined.
+     */
+    public void unlockAll(Collection<SimpleLock> locks) {
+        internalRedisLockProvider.unlockAll(locks);
+    }
+
+    /**
+     * Tries to acquire the lock, waiting at most maxWait for it to be released.
+     * Waiters are woken up by Redis keyspace notifications, they have to be enabled
+     * on the server ({@code notify-keyspace-events Kgx}). Otherwise, the lock is
+     * attempted again when its TTL expires, at most one second after the previous
+     * attempt.
+     *
+     * <p>
+     * The first call starts a {@link RedisMessageListenerContainer} that holds one
+     * Redis connection for the subscription until {@link #close()} is called.
+     */
+    public Optional<SimpleLock> tryLock(LockConfiguration lockConfiguration, Duration maxWait) {
+        return internalRedisLockProvider.tryLock(lockConfiguration, maxWait);
+    }
+
+    /**
+     * Returns until when the lock is held, no matter if by this instance or by
+     * somebody else. Uses the TTL returned by the last unsuccessful lock attempt if
+     * available, so no additional call to Redis is needed, reads the TTL otherwise.
+     */
+    public Optional<Instant> getLockUntil(String lockName) {
+        return internalRedisLockProvider.getLockUntil(lockName);
+    }
+
+    /**
+     * Stops the keyspace notification listener started by
+     * {@link #tryLock(LockConfiguration, Duration)}. Spring calls it on shutdown
+     * when the provider is a bean.
+     */
+    @Override
+    public void close() {
+        internalRedisLockProvider.close();
+    }
+
     public static class Builder {
         private final StringRedisTemplate redisTemplate;
         private String environment = ENV_DEFAULT;
         private String keyPrefix = DEFAULT_KEY_PREFIX;
         private boolean safeUpdate = false;
+        private HashTagStrategy hashTagStrategy = HashTagStrategy.NONE;
 
         public Builder(RedisConnectionFactory redisConnectionFactory) {
             this.redisTemplate = new StringRedisTemplate(redisConnectionFactory);
@@ -137,8 +209,17 @@ public class RedisLockProvider implements ExtensibleLockProvider {
             return this;
         }
 
+        /**
+         * Decides which part of the key is used as Redis Cluster hash tag. Locks with the same
+         * hash tag are stored in the same slot and can be locked and released by one script.
+         */
+        public Builder hashTagStrategy(HashTagStrategy hashTagStrategy) {
+            this.hashTagStrategy = hashTagStrategy;
+            return this;
+        }
+
         public RedisLockProvider build() {
-            return new RedisLockProvider(redisTemplate, environment, keyPrefix, safeUpdate);
+            return new RedisLockProvider(redisTemplate, environment, keyPrefix, safeUpdate, hashTagStrategy);
         }
     }
 
@@ -172,8 +253,83 @@ public class RedisLockProvider implements ExtensibleLockProvider {
         }
 
         @Override
-        public @Nullable Object eval(String script, String key, String... values) {
-            return template.execute(new DefaultRedisScript<>(script, Integer.class), List.of(key), (Object[]) values);
+        public @Nullable Object eval(LuaScript script, String key, String... values) {
+            return template.execute(integerScript(script), List.of(key), (Object[]) values);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public List<Long> evalMulti(LuaScript script, List<String> keys, List<String> values) {
+            return template.execute(listScript(script), keys, values.toArray());
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public List<List<Long>> evalMultiPipelined(
+                LuaScript script, List<List<String>> keys, List<List<String>> values) {
+            RedisSerializer<String> keySerializer = (RedisSerializer<String>) template.getKeySerializer();
+            RedisSerializer<String> valueSerializer = (RedisSerializer<String>) template.getValueSerializer();
+            byte[] sha1 = script.sha1().getBytes(UTF_8);
+            List<Object> results;
+            try {
+                results = template.executePipelined((RedisCallback<@Nullable Object>) connection -> {
+                    for (int i = 0; i < keys.size(); i++) {
+                        List<byte[]> keysAndArgs = new ArrayList<>();
+                        keys.get(i).forEach(key -> keysAndArgs.add(keySerializer.serialize(key)));
+                        values.get(i).forEach(value -> keysAndArgs.add(valueSerializer.serialize(value)));
+                        int numKeys = keys.get(i).size();
+                        connection
+                                .scriptingCommands()
+                                .evalSha(sha1, ReturnType.MULTI, numKeys, keysAndArgs.toArray(new byte[0][]));
+                    }
+                    return null;
+                });
+            } catch (RedisPipelineException e) {
+                // typically NOSCRIPT, failed scripts are evaluated again with EVAL fallback
+                results = e.getResults();
+            }
+            List<List<Long>> result = new ArrayList<>(keys.size());
+            for (int i = 0; i < keys.size(); i++) {
+                Object groupResult = results.get(i);
+                result.add(
+                        groupResult instanceof Exception
+                                ? evalMulti(script, keys.get(i), values.get(i))
+                                : (List<Long>) groupResult);
+            }
+            return result;
+        }
+
+        @Override
+        public Runnable subscribeToKeyspaceEvents(String channelPattern, BiConsumer<String, String> listener) {
+            RedisConnectionFactory connectionFactory = template.getConnectionFactory();
+            if (connectionFactory == null) {
+                return () -> {};
+            }
+            RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+            container.setConnectionFactory(connectionFactory);
+            container.setTaskExecutor(task -> {
+                Thread subscriber = new Thread(task, "shedlock-redis-notifications");
+                subscriber.setDaemon(true);
+                subscriber.start();
+            });
+            container.addMessageListener(
+                    (message, pattern) -> listener.accept(
+                            new String(message.getChannel(), UTF_8), new String(message.getBody(), UTF_8)),
+                    new PatternTopic(channelPattern));
+            container.afterPropertiesSet();
+            container.start();
+            return container::stop;
+        }
+
+        @Override
+        public void loadScripts(Collection<LuaScript> scripts) {
+            template.execute(
+                    (RedisCallback<@Nullable Object>) connection -> {
+                        scripts.forEach(script ->
+                                connection.scriptingCommands().scriptLoad(script.source().getBytes(UTF_8)));
+                        return null;
+                    },
+                    false);
         }
 
         @Override
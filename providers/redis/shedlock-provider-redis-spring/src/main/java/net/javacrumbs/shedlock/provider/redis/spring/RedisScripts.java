@@ -0,0 +1,27 @@
+package net.javacrumbs.shedlock.provider.redis.spring;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import net.javacrumbs.shedlock.provider.redis.support.LuaScript;
+import org.springframework.data.redis.core.script.RedisScript;
+
+/**
+ * Spring scripts are called using EVALSHA with EVAL fallback. They are cached,
+ * so the SHA1 is not computed on each call.
+ */
+@SuppressWarnings("rawtypes")
+final class RedisScripts {
+    private static final ConcurrentMap<LuaScript, RedisScript<Integer>> integerScripts = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<LuaScript, RedisScript<List>> listScripts = new ConcurrentHashMap<>();
+
+    private RedisScripts() {}
+
+    static RedisScript<Integer> integerScript(LuaScript script) {
+        return integerScripts.computeIfAbsent(script, s -> RedisScript.of(s.source(), Integer.class));
+    }
+
+    static RedisScript<List> listScript(LuaScript script) {
+        return listScripts.computeIfAbsent(script, s -> RedisScript.of(s.source(), List.class));
+    }
+}
@@ -13,9 +13,26 @@
  */
 package net.javacrumbs.shedlock.provider.redis.spring;
 
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
 import net.javacrumbs.shedlock.core.ExtensibleLockProvider;
+import net.javacrumbs.shedlock.core.LockConfiguration;
+import net.javacrumbs.shedlock.core.SimpleLock;
 import net.javacrumbs.shedlock.provider.redis.testsupport.AbstractRedisIntegrationTest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.StringRedisTemplate;
 
 public abstract class AbstractSpringRedisLockProviderIntegrationTest extends AbstractRedisIntegrationTest {
@@ -37,6 +54,97 @@ public abstract class AbstractSpringRedisLockProviderIntegrationTest extends Abs
         redisTemplate = new StringRedisTemplate(connectionFactory);
     }
 
+    @AfterEach
+    void closeLockProvider() {
+        lockProvider.close();
+    }
+
+    @Test
+    void shouldWaitForLockToBeReleased() throws Exception {
+        enableKeyspaceNotifications();
+        LockConfiguration lockConfiguration =
+                new LockConfiguration(Instant.now(), "wait-test", Duration.ofSeconds(30), Duration.ZERO);
+        SimpleLock lock = lockProvider.lock(lockConfiguration).orElseThrow();
+        assertThat(lockProvider.tryLock(lockConfiguration, Duration.ofMillis(100))).isEmpty();
+
+        ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor();
+        try {
+            AtomicLong unlockedAt = new AtomicLong();
+            executor.schedule(
+                    () -> {
+                        unlockedAt.set(System.nanoTime());
+                        lock.unlock();
+                    },
+                    200,
+                    TimeUnit.MILLISECONDS);
+            Optional<SimpleLock> acquired = lockProvider.tryLock(lockConfiguration, Duration.ofSeconds(10));
+            long acquiredAt = System.nanoTime();
+            assertThat(acquired).isPresent();
+            // woken up by the notification, not by the TTL based retry which would take a second
+            assertThat(Duration.ofNanos(acquiredAt - unlockedAt.get())).isLessThan(Duration.ofMillis(500));
+            acquired.get().unlock();
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void shouldFallBackToEvalIfScriptsAreNotLoaded() {
+        flushScripts();
+        Optional<SimpleLock> lock = lockProvider.lock(
+                new LockConfiguration(Instant.now(), "flush-test", Duration.ofSeconds(30), Duration.ZERO));
+        assertThat(lock).isPresent();
+        assertThat(lockProvider.getLockUntil("flush-test")).isPresent();
+
+        flushScripts();
+        lock.get().unlock();
+        assertThat(getLock("flush-test")).isNull();
+    }
+
+    @Test
+    void shouldNotReturnLockUntilOfFailedAttemptAfterUnlock() {
+        LockConfiguration lockConfiguration =
+                new LockConfiguration(Instant.now(), "stale-test", Duration.ofSeconds(30), Duration.ZERO);
+        SimpleLock lock = lockProvider.lock(lockConfiguration).orElseThrow();
+        assertThat(lockProvider.lock(lockConfiguration)).isEmpty();
+
+        lock.unlock();
+        assertThat(lockProvider.getLockUntil("stale-test")).isEmpty();
+    }
+
+    @Test
+    void shouldLockAllInPipelineIfScriptsAreNotLoaded() {
+        List<LockConfiguration> configurations = IntStream.range(0, 5)
+                .mapToObj(i -> new LockConfiguration(
+                        Instant.now(), "pipelined-" + i, Duration.ofSeconds(30), Duration.ZERO))
+                .toList();
+        // the keys are in different slots, so the scripts are pipelined, EVALSHA fails with
+        // RedisPipelineException and the failed scripts are evaluated again
+        flushScripts();
+        Map<String, SimpleLock> locks = lockProvider.lockAll(configurations);
+        assertThat(locks).hasSize(5);
+        configurations.forEach(configuration -> assertThat(getLock(configuration.getName())).isNotNull());
+        assertThat(lockProvider.lockAll(configurations)).isEmpty();
+
+        flushScripts();
+        lockProvider.unlockAll(locks.values());
+        configurations.forEach(configuration -> assertThat(getLock(configuration.getName())).isNull());
+    }
+
+    private void enableKeyspaceNotifications() {
+        redisTemplate.execute((RedisCallback<Object>) connection -> {
+            connection.serverCommands().setConfig("notify-keyspace-events", "Kgx");
+            return null;
+        });
+    }
+
+    private void flushScripts() {
+        redisTemplate.execute((RedisCallback<Object>) connection -> {
+            connection.scriptingCommands().scriptFlush();
+            return null;
+        });
+    }
+
     @Override
     protected ExtensibleLockProvider getLockProvider() {
         return lockProvider;
@@ -0,0 +1,49 @@
+/**
+ * Copyright 2009 the original author or authors.
+ *
+ * <p>Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * <p>http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * <p>Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.javacrumbs.shedlock.provider.redis.support;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Builds Redis keys of the locks. In Redis Cluster, only the part of the key in
+ * curly braces (hash tag) is used to determine the slot of the key. Locks with
+ * the same hash tag are stored in the same slot, so they can be acquired and
+ * released by a single script.
+ */
+@FunctionalInterface
+public interface HashTagStrategy {
+    /** {@code prefix:env:name}, keys are spread over all the slots. */
+    HashTagStrategy NONE = (keyPrefix, environment, lockName) -> keyPrefix + ":" + environment + ":" + lockName;
+
+    /** {@code prefix:{env}:name}, all the locks of the environment are in the same slot. */
+    HashTagStrategy ENVIRONMENT =
+            (keyPrefix, environment, lockName) -> keyPrefix + ":{" + environment + "}:" + lockName;
+
+    String buildKey(String keyPrefix, String environment, String lockName);
+
+    /**
+     * {@code prefix:env:{group}rest}, where group is the part of the lock name
+     * before the first separator, or the whole name if it does not contain the
+     * separator. For example, with separator "." locks "tenant1.jobA" and
+     * "tenant1.jobB" are in the same slot.
+     */
+    static HashTagStrategy lockNameGroup(String separator) {
+        requireNonNull(separator, "separator can not be null");
+        return (keyPrefix, environment, lockName) -> {
+            int index = lockName.indexOf(separator);
+            String group = index > 0 ? lockName.substring(0, index) : lockName;
+            return keyPrefix + ":" + environment + ":{" + group + "}" + lockName.substring(group.length());
+        };
+    }
+}
@@ -0,0 +1,147 @@
+/**
+ * Copyright 2009 the original author or authors.
+ *
+ * <p>Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * <p>http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * <p>Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.javacrumbs.shedlock.provider.redis.support;
+
+import static java.util.Objects.requireNonNull;
+import static net.javacrumbs.shedlock.provider.redis.support.InternalRedisLockProvider.ONE;
+import static net.javacrumbs.shedlock.provider.redis.support.InternalRedisLockProvider.buildValue;
+import static net.javacrumbs.shedlock.provider.redis.support.InternalRedisLockProvider.delLuaScript;
+import static net.javacrumbs.shedlock.provider.redis.support.InternalRedisLockProvider.getMsUntil;
+import static net.javacrumbs.shedlock.provider.redis.support.InternalRedisLockProvider.updLuaScript;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import net.javacrumbs.shedlock.core.AbstractAsyncSimpleLock;
+import net.javacrumbs.shedlock.core.AsyncLockProvider;
+import net.javacrumbs.shedlock.core.AsyncSimpleLock;
+import net.javacrumbs.shedlock.core.LockConfiguration;
+
+/**
+ * Non-blocking counterpart of {@link InternalRedisLockProvider}. Internal class, please don't use directly.
+ */
+public class InternalRedisAsyncLockProvider implements AsyncLockProvider {
+    private final InternalRedisAsyncLockTemplate redisLockTemplate;
+    private final String environment;
+    private final String keyPrefix;
+    private final boolean safeUpdate;
+    private final HashTagStrategy hashTagStrategy;
+
+    public InternalRedisAsyncLockProvider(
+            InternalRedisAsyncLockTemplate redisLockTemplate, String environment, String keyPrefix, boolean safeUpdate) {
+        this(redisLockTemplate, environment, keyPrefix, safeUpdate, HashTagStrategy.NONE);
+    }
+
+    public InternalRedisAsyncLockProvider(
+            InternalRedisAsyncLockTemplate redisLockTemplate,
+            String environment,
+            String keyPrefix,
+            boolean safeUpdate,
+            HashTagStrategy hashTagStrategy) {
+        this.redisLockTemplate = redisLockTemplate;
+        this.environment = environment;
+        this.keyPrefix = keyPrefix;
+        this.safeUpdate = safeUpdate;
+        this.hashTagStrategy = requireNonNull(hashTagStrategy, "hashTagStrategy can not be null");
+    }
+
+    @Override
+    public CompletionStage<Optional<AsyncSimpleLock>> lockAsync(LockConfiguration lockConfiguration) {
+        long expireTime = getMsUntil(lockConfiguration.getLockAtMostUntil());
+
+        String key = hashTagStrategy.buildKey(keyPrefix, environment, lockConfiguration.getName());
+        String uniqueLockValue = buildValue();
+
+        return redisLockTemplate
+                .setIfAbsentAsync(key, uniqueLockValue, expireTime)
+                .thenApply(locked -> locked
+                        ? Optional.of(new AsyncRedisLock(key, uniqueLockValue, this, lockConfiguration))
+                        : Optional.empty());
+    }
+
+    /**
+     * Releases the locks, the commands are sent in one network flush if the client
+     * supports it.
+     */
+    public CompletionStage<Void> unlockAllAsync(Collection<AsyncSimpleLock> locks) {
+        List<CompletionStage<Void>> results =
+                redisLockTemplate.pipelined(() -> locks.stream().map(AsyncSimpleLock::unlockAsync).toList());
+        return CompletableFuture.allOf(
+                results.stream().map(CompletionStage::toCompletableFuture).toArray(CompletableFuture[]::new));
+    }
+
+    private CompletionStage<Optional<AsyncSimpleLock>> extend(
+            AsyncRedisLock currentLock, LockConfiguration lockConfiguration) {
+        long expireTime = getMsUntil(lockConfiguration.getLockAtMostUntil());
+
+        return setKeyExpiration(currentLock, expireTime)
+                .thenApply(extended -> extended
+                        ? Optional.of(new AsyncRedisLock(currentLock.key, currentLock.value, this, lockConfiguration))
+                        : Optional.empty());
+    }
+
+    private CompletionStage<Boolean> setKeyExpiration(AsyncRedisLock currentLock, long expiration) {
+        if (safeUpdate) {
+            return redisLockTemplate
+                    .evalAsync(updLuaScript, currentLock.key, currentLock.value, String.valueOf(expiration))
+                    .thenApply(ONE::equals);
+        } else {
+            return redisLockTemplate.setIfPresentAsync(currentLock.key, currentLock.value, expiration);
+        }
+    }
+
+    private CompletionStage<Void> deleteLock(String key, String value) {
+        if (safeUpdate) {
+            return redisLockTemplate.evalAsync(delLuaScript, key, value).thenApply(result -> null);
+        } else {
+            return redisLockTemplate.deleteAsync(key);
+        }
+    }
+
+    private static final class AsyncRedisLock extends AbstractAsyncSimpleLock {
+        private final String key;
+        private final String value;
+        private final InternalRedisAsyncLockProvider lockProvider;
+
+        private AsyncRedisLock(
+                String key,
+                String value,
+                InternalRedisAsyncLockProvider lockProvider,
+                LockConfiguration lockConfiguration) {
+            super(lockConfiguration);
+            this.key = key;
+            this.value = value;
+            this.lockProvider = lockProvider;
+        }
+
+        @Override
+        protected CompletionStage<Void> doUnlockAsync() {
+            long keepLockFor = getMsUntil(lockConfiguration.getLockAtLeastUntil());
+
+            // lock at least until is in the past
+            if (keepLockFor <= 0) {
+                return lockProvider.deleteLock(key, value);
+            } else {
+                return lockProvider.setKeyExpiration(this, keepLockFor).thenApply(result -> null);
+            }
+        }
+
+        @Override
+        protected CompletionStage<Optional<AsyncSimpleLock>> doExtendAsync(LockConfiguration newConfiguration) {
+            return lockProvider.extend(this, newConfiguration);
+        }
+    }
+}
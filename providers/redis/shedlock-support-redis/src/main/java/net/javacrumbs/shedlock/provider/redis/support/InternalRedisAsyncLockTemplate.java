@@ -0,0 +1,30 @@
+package net.javacrumbs.shedlock.provider.redis.support;
+
+import java.util.concurrent.CompletionStage;
+import java.util.function.Supplier;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Non-blocking abstraction of Redis operations used by ShedLock. Internal class, please don't use directly.
+ */
+public interface InternalRedisAsyncLockTemplate {
+    CompletionStage<Boolean> setIfAbsentAsync(String key, String value, long expirationMs);
+
+    CompletionStage<Boolean> setIfPresentAsync(String key, String value, long expirationMs);
+
+    /**
+     * Evaluates script returning an integer. Should use EVALSHA and fall back to
+     * EVAL if the script is not in the script cache.
+     */
+    CompletionStage<@Nullable Object> evalAsync(LuaScript script, String key, String... values);
+
+    CompletionStage<Void> deleteAsync(String key);
+
+    /**
+     * Issues the commands sent by the supplier. Clients that support it should
+     * buffer the commands and send them in one network flush.
+     */
+    default <T> T pipelined(Supplier<T> commands) {
+        return commands.get();
+    }
+}
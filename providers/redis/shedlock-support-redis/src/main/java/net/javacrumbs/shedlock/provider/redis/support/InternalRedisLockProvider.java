@@ -13,79 +13,440 @@
  */
 package net.javacrumbs.shedlock.provider.redis.support;
 
+import static java.util.Objects.requireNonNull;
 import static net.javacrumbs.shedlock.support.Utils.getHostname;
 import static net.javacrumbs.shedlock.support.Utils.toIsoString;
 
 import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
 import net.javacrumbs.shedlock.core.AbstractSimpleLock;
 import net.javacrumbs.shedlock.core.ClockProvider;
 import net.javacrumbs.shedlock.core.ExtensibleLockProvider;
 import net.javacrumbs.shedlock.core.LockConfiguration;
 import net.javacrumbs.shedlock.core.SimpleLock;
 import net.javacrumbs.shedlock.support.LockException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * Common implementation of RedisLockProvider. Internal class, please don't use directly.
  */
 public class InternalRedisLockProvider implements ExtensibleLockProvider {
+    private static final Logger logger = LoggerFactory.getLogger(InternalRedisLockProvider.class);
 
     public static final String DEFAULT_KEY_PREFIX = "job-lock";
     public static final String ENV_DEFAULT = "default";
-    private static final Long ONE = 1L;
+    static final Long ONE = 1L;
+
+    // longest sleep between attempts in tryLock, keyspace notifications may be disabled on the server
+    private static final Duration MAX_WAIT_BETWEEN_ATTEMPTS = Duration.ofSeconds(1);
+    private static final Set<String> RELEASE_EVENTS = Set.of("del", "expired");
 
     private final InternalRedisLockTemplate redisLockTemplate;
     private final String environment;
     private final String keyPrefix;
     private final boolean safeUpdate;
+    private final HashTagStrategy hashTagStrategy;
+    // keys are built only once for each lock name
+    private final ConcurrentMap<String, String> keys = new ConcurrentHashMap<>();
+    // lock until returned by unsuccessful lock attempts, so it does not have to be read again,
+    // removed when read and when the lock is obtained, extended or released by this instance
+    private final ConcurrentMap<String, Instant> lockUntilOfFailedAttempts = new ConcurrentHashMap<>();
+    // completed when a keyspace notification says that the key has been released
+    private final ConcurrentMap<String, CompletableFuture<Void>> releases = new ConcurrentHashMap<>();
+    private final AtomicBoolean subscribedToReleases = new AtomicBoolean();
+    private Runnable unsubscribeFromReleases = () -> {};
 
     /*
      * https://redis.io/docs/latest/develop/use/patterns/distributed-locks/
      * */
-    private static final String delLuaScript =
+    static final LuaScript delLuaScript = LuaScript.of(
             """
         if redis.call("get",KEYS[1]) == ARGV[1] then
             return redis.call("del",KEYS[1])
         else
             return 0
         end
-        """;
+        """);
 
-    private static final String updLuaScript =
+    static final LuaScript updLuaScript = LuaScript.of(
             """
         if redis.call('get', KEYS[1]) == ARGV[1] then
            return redis.call('pexpire', KEYS[1], ARGV[2])
         else
            return 0
         end
-        """;
+        """);
+
+    /*
+     * SET NX PX, returns {1, expiration} if the lock was obtained, {0, remaining TTL in ms} otherwise
+     * */
+    static final LuaScript acquireLuaScript = LuaScript.of(
+            """
+        if redis.call('set', KEYS[1], ARGV[1], 'NX', 'PX', ARGV[2]) then
+            return {1, tonumber(ARGV[2])}
+        else
+            return {0, redis.call('pttl', KEYS[1])}
+        end
+        """);
+
+    static final LuaScript ttlLuaScript = LuaScript.of(
+            """
+        return redis.call('pttl', KEYS[1])
+        """);
+
+    /*
+     * SET NX PX for each key, ARGV[1] is the value, ARGV[i + 1] is the expiration of KEYS[i]
+     * */
+    static final LuaScript lockAllLuaScript = LuaScript.of(
+            """
+        local result = {}
+        for i, key in ipairs(KEYS) do
+            if redis.call('set', key, ARGV[1], 'NX', 'PX', ARGV[i + 1]) then
+                result[i] = 1
+            else
+                result[i] = 0
+            end
+        end
+        return result
+        """);
+
+    /*
+     * Releases locks with given values, ARGV[2 * i - 1] is the value of KEYS[i], ARGV[2 * i] is
+     * for how long the lock should be kept in ms, the key is deleted if it's 0
+     * */
+    static final LuaScript unlockAllLuaScript = LuaScript.of(
+            """
+        local result = {}
+        for i, key in ipairs(KEYS) do
+            if redis.call('get', key) == ARGV[2 * i - 1] then
+                local keepFor = tonumber(ARGV[2 * i])
+                if keepFor > 0 then
+                    result[i] = redis.call('pexpire', key, keepFor)
+                else
+                    result[i] = redis.call('del', key)
+                end
+            else
+                result[i] = 0
+            end
+        end
+        return result
+        """);
+
+    static final List<LuaScript> SCRIPTS = List.of(
+            delLuaScript, updLuaScript, acquireLuaScript, ttlLuaScript, lockAllLuaScript, unlockAllLuaScript);
 
     public InternalRedisLockProvider(
             InternalRedisLockTemplate redisLockTemplate, String environment, String keyPrefix, boolean safeUpdate) {
+        this(redisLockTemplate, environment, keyPrefix, safeUpdate, HashTagStrategy.NONE);
+    }
+
+    public InternalRedisLockProvider(
+            InternalRedisLockTemplate redisLockTemplate,
+            String environment,
+            String keyPrefix,
+            boolean safeUpdate,
+            HashTagStrategy hashTagStrategy) {
         this.redisLockTemplate = redisLockTemplate;
         this.environment = environment;
         this.keyPrefix = keyPrefix;
         this.safeUpdate = safeUpdate;
+        this.hashTagStrategy = requireNonNull(hashTagStrategy, "hashTagStrategy can not be null");
+        loadScripts(redisLockTemplate);
+    }
+
+    /**
+     * Loads the scripts to the script cache, so they can be called using EVALSHA.
+     * Redis may not be available yet, the scripts are loaded by the NOSCRIPT
+     * fallback then.
+     */
+    private static void loadScripts(InternalRedisLockTemplate redisLockTemplate) {
+        try {
+            redisLockTemplate.loadScripts(SCRIPTS);
+        } catch (RuntimeException e) {
+            logger.debug("Can not load Lua scripts", e);
+        }
     }
 
     @Override
     public Optional<SimpleLock> lock(LockConfiguration lockConfiguration) {
         long expireTime = getMsUntil(lockConfiguration.getLockAtMostUntil());
 
-        String key = buildKey(lockConfiguration.getName(), keyPrefix, this.environment);
+        String name = lockConfiguration.getName();
+        String key = key(name);
         String uniqueLockValue = buildValue();
 
-        if (createLock(key, uniqueLockValue, expireTime)) {
+        if (createLock(name, key, uniqueLockValue, expireTime)) {
             return Optional.of(new RedisLock(key, uniqueLockValue, this, lockConfiguration));
         }
 
         return Optional.empty();
     }
 
+    /**
+     * Tries to acquire the lock, waiting at most maxWait for it to be released.
+     * Waiters are woken up by keyspace notifications if the client supports them
+     * and {@code notify-keyspace-events} of the server contains {@code Kgx}. The
+     * lock is attempted again at the latest when its TTL expires, at most one
+     * second after the previous attempt.
+     */
+    public Optional<SimpleLock> tryLock(LockConfiguration lockConfiguration, Duration maxWait) {
+        subscribeToReleases();
+        String name = lockConfiguration.getName();
+        String key = key(name);
+        long deadline = System.nanoTime() + maxWait.toNanos();
+        while (true) {
+            // registered before the attempt, so a release right after the attempt is not missed
+            CompletableFuture<Void> released = releases.computeIfAbsent(key, k -> new CompletableFuture<>());
+            // the time spent waiting does not shorten the lock
+            Optional<SimpleLock> lock = lock(new LockConfiguration(
+                    ClockProvider.now(),
+                    name,
+                    lockConfiguration.getLockAtMostFor(),
+                    lockConfiguration.getLockAtLeastFor()));
+            long remaining = deadline - System.nanoTime();
+            if (lock.isPresent() || remaining <= 0) {
+                return lock;
+            }
+            try {
+                released.get(Math.min(remaining, nanosUntilNextAttempt(name)), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException | ExecutionException e) {
+                // try again
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return Optional.empty();
+            }
+        }
+    }
+
+    private long nanosUntilNextAttempt(String lockName) {
+        Instant lockUntil = lockUntilOfFailedAttempts.get(lockName);
+        Duration wait = MAX_WAIT_BETWEEN_ATTEMPTS;
+        if (lockUntil != null && lockUntil.isBefore(ClockProvider.now().plus(wait))) {
+            wait = Duration.between(ClockProvider.now(), lockUntil);
+        }
+        return Math.max(wait.toNanos(), TimeUnit.MILLISECONDS.toNanos(1));
+    }
+
+    private void subscribeToReleases() {
+        if (subscribedToReleases.compareAndSet(false, true)) {
+            // close() waits for the subscription to be started
+            synchronized (subscribedToReleases) {
+                try {
+                    unsubscribeFromReleases = redisLockTemplate.subscribeToKeyspaceEvents(
+                            "__keyspace@*__:" + keyPrefix + ":*", this::onKeyspaceEvent);
+                } catch (RuntimeException e) {
+                    logger.warn("Can not subscribe to keyspace notifications, waiting for locks using their TTL", e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Ends the keyspace notification subscription started by tryLock, if any.
+     * The following tryLock calls wait for the TTL of the lock.
+     */
+    public void close() {
+        // no new subscription after close
+        subscribedToReleases.set(true);
+        synchronized (subscribedToReleases) {
+            unsubscribeFromReleases.run();
+            unsubscribeFromReleases = () -> {};
+        }
+    }
+
+    private void onKeyspaceEvent(String channel, String event) {
+        // channel is __keyspace@<db>__:<key>
+        int keyStart = channel.indexOf("__:");
+        if (keyStart >= 0 && RELEASE_EVENTS.contains(event)) {
+            CompletableFuture<Void> released = releases.remove(channel.substring(keyStart + 3));
+            if (released != null) {
+                released.complete(null);
+            }
+        }
+    }
+
+    /**
+     * Returns until when the lock is held, no matter if by this instance or by
+     * somebody else. Uses the TTL returned by the last unsuccessful attempt to get
+     * the lock if available, reads the TTL of the key otherwise. Empty if the lock
+     * is not held.
+     */
+    public Optional<Instant> getLockUntil(String lockName) {
+        Instant lockUntilOfFailedAttempt = lockUntilOfFailedAttempts.remove(lockName);
+        if (lockUntilOfFailedAttempt != null) {
+            return Optional.of(lockUntilOfFailedAttempt);
+        }
+        Object ttl = redisLockTemplate.eval(ttlLuaScript, key(lockName));
+        return ttl instanceof Number number ? toLockUntil(number.longValue()) : Optional.empty();
+    }
+
+    private static Optional<Instant> toLockUntil(long ttl) {
+        // -2 if the key does not exist, -1 if it has no expiration
+        return ttl >= 0 ? Optional.of(ClockProvider.now().plusMillis(ttl)) : Optional.empty();
+    }
+
+    /**
+     * Acquires all the locks using one Lua script per Redis Cluster hash slot, the
+     * scripts are pipelined if the client supports it. Use {@link HashTagStrategy}
+     * to store related locks in the same slot.
+     */
+    @Override
+    public Map<String, SimpleLock> lockAll(Collection<LockConfiguration> lockConfigurations) {
+        if (lockConfigurations.size() < 2) {
+            return ExtensibleLockProvider.super.lockAll(lockConfigurations);
+        }
+        List<LockConfiguration> configurations = List.copyOf(lockConfigurations);
+        // the value does not have to be unique per key
+        String uniqueLockValue = buildValue();
+        List<String> keys = configurations.stream().map(c -> key(c.getName())).toList();
+        List<List<Integer>> groups = groupBySlot(keys);
+        List<List<String>> groupValues = new ArrayList<>(groups.size());
+        for (List<Integer> group : groups) {
+            List<String> values = new ArrayList<>(group.size() + 1);
+            values.add(uniqueLockValue);
+            for (int i : group) {
+                values.add(String.valueOf(getMsUntil(configurations.get(i).getLockAtMostUntil())));
+            }
+            groupValues.add(values);
+        }
+
+        List<List<Long>> result;
+        try {
+            result = redisLockTemplate.evalMultiPipelined(lockAllLuaScript, groupKeys(keys, groups), groupValues);
+        } catch (UnsupportedOperationException e) {
+            return ExtensibleLockProvider.super.lockAll(lockConfigurations);
+        } catch (RuntimeException e) {
+            // groups evaluated before the failure may hold their locks
+            releaseAll(keys, groups, uniqueLockValue, e);
+            throw e;
+        }
+
+        boolean[] acquired = new boolean[configurations.size()];
+        for (int g = 0; g < groups.size(); g++) {
+            List<Integer> group = groups.get(g);
+            for (int i = 0; i < group.size(); i++) {
+                acquired[group.get(i)] = ONE.equals(result.get(g).get(i));
+            }
+        }
+        Map<String, SimpleLock> locks = new LinkedHashMap<>();
+        for (int i = 0; i < configurations.size(); i++) {
+            if (acquired[i]) {
+                LockConfiguration lockConfiguration = configurations.get(i);
+                lockUntilOfFailedAttempts.remove(lockConfiguration.getName());
+                locks.put(
+                        lockConfiguration.getName(),
+                        new RedisLock(keys.get(i), uniqueLockValue, this, lockConfiguration));
+            }
+        }
+        return locks;
+    }
+
+    /**
+     * Releases the locks using one Lua script per Redis Cluster hash slot, the
+     * scripts are pipelined if the client supports it. A key is released only if
+     * it still holds the value of the lock. Locks not created by this provider are
+     * released one by one.
+     */
+    public void unlockAll(Collection<SimpleLock> locks) {
+        List<RedisLock> redisLocks = new ArrayList<>(locks.size());
+        for (SimpleLock lock : locks) {
+            if (lock instanceof RedisLock redisLock && redisLock.lockProvider == this) {
+                redisLocks.add(redisLock);
+            } else {
+                lock.unlock();
+            }
+        }
+        if (redisLocks.size() < 2) {
+            redisLocks.forEach(RedisLock::unlock);
+            return;
+        }
+        List<String> keys = redisLocks.stream().map(lock -> lock.key).toList();
+        List<List<Integer>> groups = groupBySlot(keys);
+        List<List<String>> groupValues = new ArrayList<>(groups.size());
+        for (List<Integer> group : groups) {
+            List<String> values = new ArrayList<>(group.size() * 2);
+            for (int i : group) {
+                RedisLock lock = redisLocks.get(i);
+                long keepLockFor = getMsUntil(lock.lockConfiguration().getLockAtLeastUntil());
+                values.add(lock.value);
+                values.add(String.valueOf(Math.max(keepLockFor, 0)));
+            }
+            groupValues.add(values);
+        }
+
+        try {
+            redisLockTemplate.evalMultiPipelined(unlockAllLuaScript, groupKeys(keys, groups), groupValues);
+        } catch (UnsupportedOperationException e) {
+            redisLocks.forEach(RedisLock::unlock);
+            return;
+        } catch (Exception e) {
+            throw new LockException("Can not remove nodes", e);
+        }
+        for (RedisLock lock : redisLocks) {
+            lock.released = true;
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Releases the keys that hold given value. The value is unique for each
+     * lockAll call, so only locks acquired by the failed call are released.
+     */
+    private void releaseAll(List<String> keys, List<List<Integer>> groups, String value, RuntimeException failure) {
+        List<List<String>> groupValues = new ArrayList<>(groups.size());
+        for (List<Integer> group : groups) {
+            List<String> values = new ArrayList<>(group.size() * 2);
+            for (int i = 0; i < group.size(); i++) {
+                values.add(value);
+                values.add("0");
+            }
+            groupValues.add(values);
+        }
+        try {
+            redisLockTemplate.evalMultiPipelined(unlockAllLuaScript, groupKeys(keys, groups), groupValues);
+        } catch (RuntimeException e) {
+            failure.addSuppressed(e);
+        }
+    }
+
+    /** Indexes of the keys grouped by their cluster slot. */
+    private static List<List<Integer>> groupBySlot(List<String> keys) {
+        Map<Integer, List<Integer>> groups = new LinkedHashMap<>();
+        for (int i = 0; i < keys.size(); i++) {
+            groups.computeIfAbsent(ClusterSlots.slot(keys.get(i)), slot -> new ArrayList<>()).add(i);
+        }
+        return List.copyOf(groups.values());
+    }
+
+    private static List<List<String>> groupKeys(List<String> keys, List<List<Integer>> groups) {
+        return groups.stream()
+                .map(group -> group.stream().map(keys::get).toList())
+                .toList();
+    }
+
+    private String key(String lockName) {
+        return keys.computeIfAbsent(lockName, name -> hashTagStrategy.buildKey(keyPrefix, environment, name));
+    }
+
     private Optional<SimpleLock> extend(RedisLock currentLock, LockConfiguration lockConfiguration) {
         long expireTime = getMsUntil(lockConfiguration.getLockAtMostUntil());
+        lockUntilOfFailedAttempts.remove(lockConfiguration.getName());
 
         if (setKeyExpiration(currentLock, expireTime)) {
             return Optional.of(new RedisLock(currentLock.key, currentLock.value, this, lockConfiguration));
@@ -103,8 +464,20 @@ public class InternalRedisLockProvider implements ExtensibleLockProvider {
         }
     }
 
-    private boolean createLock(String key, String value, long expirationMs) {
-        return redisLockTemplate.setIfAbsent(key, value, expirationMs);
+    private boolean createLock(String name, String key, String value, long expirationMs) {
+        List<Long> result;
+        try {
+            result = redisLockTemplate.evalMulti(
+                    acquireLuaScript, List.of(key), List.of(value, String.valueOf(expirationMs)));
+        } catch (UnsupportedOperationException e) {
+            return redisLockTemplate.setIfAbsent(key, value, expirationMs);
+        }
+        if (ONE.equals(result.get(0))) {
+            lockUntilOfFailedAttempts.remove(name);
+            return true;
+        }
+        toLockUntil(result.get(1)).ifPresent(lockUntil -> lockUntilOfFailedAttempts.put(name, lockUntil));
+        return false;
     }
 
     private void deleteLock(String key, String value) {
@@ -119,6 +492,8 @@ public class InternalRedisLockProvider implements ExtensibleLockProvider {
         private final String key;
         private final String value;
         private final InternalRedisLockProvider lockProvider;
+        // released by unlockAll
+        private volatile boolean released;
 
         private RedisLock(
                 String key, String value, InternalRedisLockProvider lockProvider, LockConfiguration lockConfiguration) {
@@ -128,8 +503,16 @@ public class InternalRedisLockProvider implements ExtensibleLockProvider {
             this.lockProvider = lockProvider;
         }
 
+        private LockConfiguration lockConfiguration() {
+            return lockConfiguration;
+        }
+
         @Override
         public void doUnlock() {
+            lockProvider.lockUntilOfFailedAttempts.remove(lockConfiguration.getName());
+            if (released) {
+                return;
+            }
             long keepLockFor = getMsUntil(lockConfiguration.getLockAtLeastUntil());
 
             // lock at least until is in the past
@@ -150,15 +533,15 @@ public class InternalRedisLockProvider implements ExtensibleLockProvider {
         }
     }
 
-    private static long getMsUntil(Instant instant) {
+    static long getMsUntil(Instant instant) {
         return Duration.between(ClockProvider.now(), instant).toMillis();
     }
 
-    private static String buildKey(String lockName, String keyPrefix, String env) {
-        return String.format("%s:%s:%s", keyPrefix, env, lockName);
+    static String buildKey(String lockName, String keyPrefix, String env) {
+        return HashTagStrategy.NONE.buildKey(keyPrefix, env, lockName);
     }
 
-    private static String buildValue() {
+    static String buildValue() {
         return String.format("ADDED:%s@%s:%s", toIsoString(ClockProvider.now()), getHostname(), UUID.randomUUID());
     }
 }
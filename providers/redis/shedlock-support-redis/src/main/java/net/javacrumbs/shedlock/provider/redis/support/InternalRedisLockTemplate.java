@@ -1,5 +1,9 @@
 package net.javacrumbs.shedlock.provider.redis.support;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.BiConsumer;
 import org.jspecify.annotations.Nullable;
 
 /**
@@ -10,8 +14,47 @@ public interface InternalRedisLockTemplate {
 
     boolean setIfPresent(String key, String value, long expirationMs);
 
+    /**
+     * Evaluates script returning an integer. Should use EVALSHA and fall back to
+     * EVAL if the script is not in the script cache.
+     */
     @Nullable
-    Object eval(String script, String key, String... values);
+    Object eval(LuaScript script, String key, String... values);
+
+    /**
+     * Evaluates script returning an array of integers.
+     */
+    default List<Long> evalMulti(LuaScript script, List<String> keys, List<String> values) {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Evaluates script returning an array of integers for each group of keys. The
+     * keys of each group are in the same cluster slot. Clients that support it
+     * should send the scripts in a pipeline.
+     */
+    default List<List<Long>> evalMultiPipelined(LuaScript script, List<List<String>> keys, List<List<String>> values) {
+        List<List<Long>> result = new ArrayList<>(keys.size());
+        for (int i = 0; i < keys.size(); i++) {
+            result.add(evalMulti(script, keys.get(i), values.get(i)));
+        }
+        return result;
+    }
+
+    /**
+     * Subscribes to keyspace notifications of keys matching the pattern, the
+     * listener receives the channel and the event. Returns an action that ends
+     * the subscription. Does nothing if the client does not support it.
+     */
+    default Runnable subscribeToKeyspaceEvents(String channelPattern, BiConsumer<String, String> listener) {
+        return () -> {};
+    }
+
+    /**
+     * Loads the scripts to the script cache using SCRIPT LOAD. Called on startup,
+     * EVALSHA falls back to EVAL if the scripts are not loaded.
+     */
+    default void loadScripts(Collection<LuaScript> scripts) {}
 
     void delete(String key);
 }
@@ -0,0 +1,45 @@
+/**
+ * Copyright 2009 the original author or authors.
+ *
+ * <p>Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * <p>http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * <p>Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.javacrumbs.shedlock.provider.redis.support;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Lua script with its SHA1 digest, so it can be called using EVALSHA. The
+ * digest is the same as the one returned by SCRIPT LOAD. Internal class, please
+ * don't use directly.
+ *
+ * @param source
+ *            script source, sent by EVAL or SCRIPT LOAD
+ * @param sha1
+ *            lower case hex SHA1 digest of the source
+ */
+public record LuaScript(String source, String sha1) {
+
+    public static LuaScript of(String source) {
+        return new LuaScript(source, sha1Hex(source));
+    }
+
+    private static String sha1Hex(String source) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-1").digest(source.getBytes(UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-1 is not supported", e);
+        }
+    }
+}
@@ -0,0 +1,275 @@
+/**
+ * Copyright 2009 the original author or authors.
+ *
+ * <p>Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * <p>http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * <p>Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.javacrumbs.shedlock.provider.redis.support;
+
+import static java.util.Objects.requireNonNull;
+import static net.javacrumbs.shedlock.provider.redis.support.InternalRedisLockProvider.DEFAULT_KEY_PREFIX;
+import static net.javacrumbs.shedlock.provider.redis.support.InternalRedisLockProvider.ONE;
+import static net.javacrumbs.shedlock.provider.redis.support.InternalRedisLockProvider.buildValue;
+import static net.javacrumbs.shedlock.provider.redis.support.InternalRedisLockProvider.delLuaScript;
+import static net.javacrumbs.shedlock.provider.redis.support.InternalRedisLockProvider.getMsUntil;
+import static net.javacrumbs.shedlock.provider.redis.support.InternalRedisLockProvider.updLuaScript;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import net.javacrumbs.shedlock.core.AbstractSimpleLock;
+import net.javacrumbs.shedlock.core.ExtensibleLockProvider;
+import net.javacrumbs.shedlock.core.LockConfiguration;
+import net.javacrumbs.shedlock.core.SimpleLock;
+import net.javacrumbs.shedlock.support.LockException;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Redlock style lock provider over multiple independent Redis masters. The lock is
+ * requested from all the nodes in parallel and it's acquired if the majority of
+ * the nodes grants it before the lock expires. Locks granted by a minority of the
+ * nodes are released asynchronously. Use an odd number of nodes, at least three,
+ * so the lock survives a failure of a node.
+ *
+ * <p>
+ * A node that does not respond within a tenth of the lock expiration counts as
+ * refusing, so an unresponsive node does not block the caller for the whole
+ * lockAtMostFor.
+ *
+ * <p>
+ * See <a href="https://redis.io/docs/latest/develop/use/patterns/distributed-locks/">Distributed Locks with Redis</a>
+ */
+public class QuorumRedisLockProvider implements ExtensibleLockProvider {
+    private static final Logger logger = LoggerFactory.getLogger(QuorumRedisLockProvider.class);
+
+    // clock drift allowance of the Redlock algorithm
+    private static final double CLOCK_DRIFT_FACTOR = 0.01;
+    private static final long MIN_CLOCK_DRIFT_MS = 2;
+    // part of the expiration a node has to respond in, Redlock recommends a timeout small compared to the TTL
+    private static final double NODE_TIMEOUT_FACTOR = 0.1;
+    private static final long MIN_NODE_TIMEOUT_MS = 1;
+
+    private final List<InternalRedisAsyncLockTemplate> nodes;
+    private final int quorum;
+    private final String environment;
+    private final String keyPrefix;
+    private final HashTagStrategy hashTagStrategy;
+
+    public QuorumRedisLockProvider(List<? extends InternalRedisAsyncLockTemplate> nodes, String environment) {
+        this(nodes, environment, DEFAULT_KEY_PREFIX, HashTagStrategy.NONE);
+    }
+
+    public QuorumRedisLockProvider(
+            List<? extends InternalRedisAsyncLockTemplate> nodes,
+            String environment,
+            String keyPrefix,
+            HashTagStrategy hashTagStrategy) {
+        if (nodes.isEmpty()) {
+            throw new IllegalArgumentException("At least one Redis node is required");
+        }
+        this.nodes = List.copyOf(nodes);
+        this.quorum = nodes.size() / 2 + 1;
+        this.environment = requireNonNull(environment, "environment can not be null");
+        this.keyPrefix = requireNonNull(keyPrefix, "keyPrefix can not be null");
+        this.hashTagStrategy = requireNonNull(hashTagStrategy, "hashTagStrategy can not be null");
+    }
+
+    /**
+     * Creates the provider from blocking templates, the nodes are called in parallel
+     * using the executor.
+     */
+    public static QuorumRedisLockProvider ofBlockingTemplates(
+            List<? extends InternalRedisLockTemplate> nodes,
+            Executor executor,
+            String environment,
+            String keyPrefix,
+            HashTagStrategy hashTagStrategy) {
+        return new QuorumRedisLockProvider(
+                nodes.stream().map(node -> new ExecutorAsyncLockTemplate(node, executor)).toList(),
+                environment,
+                keyPrefix,
+                hashTagStrategy);
+    }
+
+    @Override
+    public Optional<SimpleLock> lock(LockConfiguration lockConfiguration) {
+        String key = hashTagStrategy.buildKey(keyPrefix, environment, lockConfiguration.getName());
+        String value = buildValue();
+        long expireTime = getMsUntil(lockConfiguration.getLockAtMostUntil());
+
+        if (onQuorum(node -> node.setIfAbsentAsync(key, value, expireTime), expireTime)) {
+            return Optional.of(new QuorumRedisLock(key, value, this, lockConfiguration));
+        }
+        // the lock may have been granted by some of the nodes
+        releaseAsync(key, value);
+        return Optional.empty();
+    }
+
+    private Optional<SimpleLock> extend(QuorumRedisLock currentLock, LockConfiguration lockConfiguration) {
+        long expireTime = getMsUntil(lockConfiguration.getLockAtMostUntil());
+        String expiration = String.valueOf(expireTime);
+        Function<InternalRedisAsyncLockTemplate, CompletionStage<Boolean>> update = node ->
+                node.evalAsync(updLuaScript, currentLock.key, currentLock.value, expiration).thenApply(ONE::equals);
+        if (onQuorum(update, expireTime)) {
+            return Optional.of(new QuorumRedisLock(currentLock.key, currentLock.value, this, lockConfiguration));
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Calls the operation on all the nodes in parallel and waits until the majority
+     * of the nodes succeeds or fails. A node that does not respond within the node
+     * timeout fails. Returns true only if the majority succeeded and the lock is
+     * still valid after subtracting the time spent and clock drift.
+     */
+    private boolean onQuorum(
+            Function<InternalRedisAsyncLockTemplate, CompletionStage<Boolean>> operation, long expireTime) {
+        long start = System.nanoTime();
+        CompletableFuture<Boolean> decision = new CompletableFuture<>();
+        AtomicInteger granted = new AtomicInteger();
+        AtomicInteger refused = new AtomicInteger();
+        int refusalsToFail = nodes.size() - quorum + 1;
+        long nodeTimeout = Math.max((long) (expireTime * NODE_TIMEOUT_FACTOR), MIN_NODE_TIMEOUT_MS);
+        for (InternalRedisAsyncLockTemplate node : nodes) {
+            call(node, operation).orTimeout(nodeTimeout, TimeUnit.MILLISECONDS).whenComplete((result, e) -> {
+                if (e == null && Boolean.TRUE.equals(result)) {
+                    if (granted.incrementAndGet() == quorum) {
+                        decision.complete(true);
+                    }
+                } else if (refused.incrementAndGet() == refusalsToFail) {
+                    decision.complete(false);
+                }
+            });
+        }
+
+        boolean reached;
+        try {
+            // the nodes are called in parallel, each of them completes within the node timeout
+            reached = decision.get(nodeTimeout, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException | ExecutionException e) {
+            reached = false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            reached = false;
+        }
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        long drift = (long) (expireTime * CLOCK_DRIFT_FACTOR) + MIN_CLOCK_DRIFT_MS;
+        return reached && expireTime - elapsed - drift > 0;
+    }
+
+    private CompletableFuture<Void> releaseAsync(String key, String value) {
+        return onAll(node -> node.evalAsync(delLuaScript, key, value).thenApply(result -> true));
+    }
+
+    private void keepLock(String key, String value, long keepLockFor) {
+        String expiration = String.valueOf(keepLockFor);
+        onAll(node -> node.evalAsync(updLuaScript, key, value, expiration).thenApply(result -> true)).join();
+    }
+
+    /**
+     * Calls the operation on all the nodes in parallel, the returned future fails if
+     * the majority of the nodes failed.
+     */
+    private CompletableFuture<Void> onAll(
+            Function<InternalRedisAsyncLockTemplate, CompletionStage<Boolean>> operation) {
+        AtomicInteger failed = new AtomicInteger();
+        CompletableFuture<?>[] results = nodes.stream()
+                .map(node -> call(node, operation).handle((result, e) -> {
+                    if (e != null) {
+                        logger.debug("Redis node operation failed", e);
+                        failed.incrementAndGet();
+                    }
+                    return result;
+                }))
+                .toArray(CompletableFuture[]::new);
+        return CompletableFuture.allOf(results).thenRun(() -> {
+            if (failed.get() >= quorum) {
+                throw new LockException("Can not update the lock on the majority of Redis nodes");
+            }
+        });
+    }
+
+    private static CompletableFuture<Boolean> call(
+            InternalRedisAsyncLockTemplate node,
+            Function<InternalRedisAsyncLockTemplate, CompletionStage<Boolean>> operation) {
+        try {
+            return operation.apply(node).toCompletableFuture();
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private static final class QuorumRedisLock extends AbstractSimpleLock {
+        private final String key;
+        private final String value;
+        private final QuorumRedisLockProvider lockProvider;
+
+        private QuorumRedisLock(
+                String key, String value, QuorumRedisLockProvider lockProvider, LockConfiguration lockConfiguration) {
+            super(lockConfiguration);
+            this.key = key;
+            this.value = value;
+            this.lockProvider = lockProvider;
+        }
+
+        @Override
+        public void doUnlock() {
+            long keepLockFor = getMsUntil(lockConfiguration.getLockAtLeastUntil());
+            try {
+                // lock at least until is in the past
+                if (keepLockFor <= 0) {
+                    lockProvider.releaseAsync(key, value).join();
+                } else {
+                    lockProvider.keepLock(key, value, keepLockFor);
+                }
+            } catch (RuntimeException e) {
+                throw new LockException("Can not remove node", e);
+            }
+        }
+
+        @Override
+        protected Optional<SimpleLock> doExtend(LockConfiguration newConfiguration) {
+            return lockProvider.extend(this, newConfiguration);
+        }
+    }
+
+    private record ExecutorAsyncLockTemplate(InternalRedisLockTemplate template, Executor executor)
+            implements InternalRedisAsyncLockTemplate {
+
+        @Override
+        public CompletionStage<Boolean> setIfAbsentAsync(String key, String value, long expirationMs) {
+            return CompletableFuture.supplyAsync(() -> template.setIfAbsent(key, value, expirationMs), executor);
+        }
+
+        @Override
+        public CompletionStage<Boolean> setIfPresentAsync(String key, String value, long expirationMs) {
+            return CompletableFuture.supplyAsync(() -> template.setIfPresent(key, value, expirationMs), executor);
+        }
+
+        @Override
+        public CompletionStage<@Nullable Object> evalAsync(LuaScript script, String key, String... values) {
+            return CompletableFuture.supplyAsync(() -> template.eval(script, key, values), executor);
+        }
+
+        @Override
+        public CompletionStage<Void> deleteAsync(String key) {
+            return CompletableFuture.runAsync(() -> template.delete(key), executor);
+        }
+    }
+}
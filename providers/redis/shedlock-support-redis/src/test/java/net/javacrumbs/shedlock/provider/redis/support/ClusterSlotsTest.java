@@ -0,0 +1,38 @@
+/**
+ * Copyright 2009 the original author or authors.
+ *
+ * <p>Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * <p>http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * <p>Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.javacrumbs.shedlock.provider.redis.support;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class ClusterSlotsTest {
+    @Test
+    void shouldComputeSlotOfKey() {
+        // example from the cluster specification
+        assertThat(ClusterSlots.slot("123456789")).isEqualTo(12739);
+    }
+
+    @Test
+    void shouldUseHashTag() {
+        assertThat(ClusterSlots.slot("{123456789}.lock")).isEqualTo(12739);
+        assertThat(ClusterSlots.slot("{user1000}.following")).isEqualTo(ClusterSlots.slot("{user1000}.followers"));
+    }
+
+    @Test
+    void shouldHashWholeKeyIfHashTagIsEmpty() {
+        // only the first pair of braces is considered
+        assertThat(ClusterSlots.slot("{}{123456789}")).isNotEqualTo(12739);
+    }
+}
@@ -0,0 +1,103 @@
+/**
+ * Copyright 2009 the original author or authors.
+ *
+ * <p>Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * <p>http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * <p>Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.javacrumbs.shedlock.provider.redis.support;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+import net.javacrumbs.shedlock.core.LockConfiguration;
+import org.jspecify.annotations.Nullable;
+import org.junit.jupiter.api.Test;
+
+class InternalRedisLockProviderTest {
+    private final InMemoryRedisLockTemplate template = new InMemoryRedisLockTemplate();
+    private final InternalRedisLockProvider lockProvider =
+            new InternalRedisLockProvider(template, "test", "lock", false);
+
+    @Test
+    void shouldReleaseLocksOfPreviousSlotsIfLockAllFails() {
+        List<LockConfiguration> configurations = IntStream.range(0, 10)
+                .mapToObj(i -> new LockConfiguration(Instant.now(), "lock-" + i, Duration.ofSeconds(30), Duration.ZERO))
+                .toList();
+        template.failLockAllAfterGroups = 1;
+
+        assertThatThrownBy(() -> lockProvider.lockAll(configurations)).hasMessage("Simulated failure");
+
+        assertThat(template.values).isEmpty();
+        template.failLockAllAfterGroups = Integer.MAX_VALUE;
+        assertThat(lockProvider.lockAll(configurations)).hasSize(10);
+    }
+
+    /** Evaluates the lockAll and unlockAll scripts in memory. */
+    private static class InMemoryRedisLockTemplate implements InternalRedisLockTemplate {
+        private final Map<String, String> values = new ConcurrentHashMap<>();
+        private int failLockAllAfterGroups = Integer.MAX_VALUE;
+
+        @Override
+        public boolean setIfAbsent(String key, String value, long expirationMs) {
+            return values.putIfAbsent(key, value) == null;
+        }
+
+        @Override
+        public boolean setIfPresent(String key, String value, long expirationMs) {
+            return values.replace(key, value) != null;
+        }
+
+        @Override
+        public @Nullable Object eval(LuaScript script, String key, String... arguments) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public List<Long> evalMulti(LuaScript script, List<String> keys, List<String> arguments) {
+            List<Long> result = new ArrayList<>(keys.size());
+            for (int i = 0; i < keys.size(); i++) {
+                String key = keys.get(i);
+                if (script.equals(InternalRedisLockProvider.lockAllLuaScript)) {
+                    result.add(values.putIfAbsent(key, arguments.get(0)) == null ? 1L : 0L);
+                } else if (script.equals(InternalRedisLockProvider.unlockAllLuaScript)) {
+                    result.add(values.remove(key, arguments.get(2 * i)) ? 1L : 0L);
+                } else {
+                    throw new UnsupportedOperationException();
+                }
+            }
+            return result;
+        }
+
+        @Override
+        public List<List<Long>> evalMultiPipelined(
+                LuaScript script, List<List<String>> keys, List<List<String>> arguments) {
+            List<List<Long>> result = new ArrayList<>(keys.size());
+            for (int i = 0; i < keys.size(); i++) {
+                if (script.equals(InternalRedisLockProvider.lockAllLuaScript) && i >= failLockAllAfterGroups) {
+                    throw new IllegalStateException("Simulated failure");
+                }
+                result.add(evalMulti(script, keys.get(i), arguments.get(i)));
+            }
+            return result;
+        }
+
+        @Override
+        public void delete(String key) {
+            values.remove(key);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+/**
+ * Copyright 2009 the original author or authors.
+ *
+ * <p>Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * <p>http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * <p>Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.javacrumbs.shedlock.provider.redis.support;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import net.javacrumbs.shedlock.core.LockConfiguration;
+import net.javacrumbs.shedlock.core.SimpleLock;
+import org.jspecify.annotations.Nullable;
+import org.junit.jupiter.api.Test;
+
+class QuorumRedisLockProviderTest {
+    private static final LockConfiguration LOCK_CONFIGURATION =
+            new LockConfiguration(Instant.now(), "quorum", Duration.ofSeconds(10), Duration.ZERO);
+
+    @Test
+    void shouldLockIfMajorityResponds() {
+        QuorumRedisLockProvider lockProvider =
+                new QuorumRedisLockProvider(List.of(new Node(), new Node(), new HangingNode()), "test");
+
+        Optional<SimpleLock> lock = lockProvider.lock(LOCK_CONFIGURATION);
+
+        assertThat(lock).isPresent();
+        assertThat(lockProvider.lock(LOCK_CONFIGURATION)).isEmpty();
+    }
+
+    @Test
+    void shouldNotWaitForUnresponsiveNodesUntilLockExpires() {
+        QuorumRedisLockProvider lockProvider =
+                new QuorumRedisLockProvider(List.of(new Node(), new HangingNode(), new HangingNode()), "test");
+
+        long start = System.nanoTime();
+        Optional<SimpleLock> lock = lockProvider.lock(LOCK_CONFIGURATION);
+
+        assertThat(lock).isEmpty();
+        // the node timeout is a tenth of the 10s expiration
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(5));
+    }
+
+    private static class Node implements InternalRedisAsyncLockTemplate {
+        private final Map<String, String> values = new ConcurrentHashMap<>();
+
+        @Override
+        public CompletionStage<Boolean> setIfAbsentAsync(String key, String value, long expirationMs) {
+            return CompletableFuture.completedFuture(values.putIfAbsent(key, value) == null);
+        }
+
+        @Override
+        public CompletionStage<Boolean> setIfPresentAsync(String key, String value, long expirationMs) {
+            return CompletableFuture.completedFuture(values.replace(key, value) != null);
+        }
+
+        @Override
+        public CompletionStage<@Nullable Object> evalAsync(LuaScript script, String key, String... arguments) {
+            // only scripts that delete or update the key if it has the value are used
+            boolean matches = arguments[0].equals(values.get(key));
+            if (matches && script.equals(InternalRedisLockProvider.delLuaScript)) {
+                values.remove(key);
+            }
+            return CompletableFuture.completedFuture(matches ? 1L : 0L);
+        }
+
+        @Override
+        public CompletionStage<Void> deleteAsync(String key) {
+            values.remove(key);
+            return CompletableFuture.completedFuture(null);
+        }
+    }
+
+    private static class HangingNode implements InternalRedisAsyncLockTemplate {
+        @Override
+        public CompletionStage<Boolean> setIfAbsentAsync(String key, String value, long expirationMs) {
+            return new CompletableFuture<>();
+        }
+
+        @Override
+        public CompletionStage<Boolean> setIfPresentAsync(String key, String value, long expirationMs) {
+            return new CompletableFuture<>();
+        }
+
+        @Override
+        public CompletionStage<@Nullable Object> evalAsync(LuaScript script, String key, String... arguments) {
+            return new CompletableFuture<>();
+        }
+
+        @Override
+        public CompletionStage<Void> deleteAsync(String key) {
+            return new CompletableFuture<>();
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package net.javacrumbs.shedlock.provider.sql;
 
 import java.util.Map;
+import java.util.function.Function;
 import net.javacrumbs.shedlock.core.LockConfiguration;
 
 class H2ServerTimeStatementsSource extends SqlStatementsSource {
@@ -17,6 +18,11 @@ class H2ServerTimeStatementsSource extends SqlStatementsSource {
                 + ") VALUES(:name, " + lockAtMostFor + ", " + now + ", :lockedBy)";
     }
 
+    @Override
+    public String getUpsertStatement() {
+        return mergeStatement("(SELECT 1) source", lockAtMostFor, now);
+    }
+
     @Override
     public String getUpdateStatement() {
         return "UPDATE " + tableName() + " SET " + lockUntil() + " = " + lockAtMostFor + ", " + lockedAt() + " = " + now
@@ -31,6 +37,11 @@ class H2ServerTimeStatementsSource extends SqlStatementsSource {
                 + " = :lockedBy";
     }
 
+    @Override
+    public String getLockUntilStatement() {
+        return lockUntilStatement(now);
+    }
+
     @Override
     public String getExtendStatement() {
         return "UPDATE " + tableName() + " SET " + lockUntil() + " = " + lockAtMostFor + " WHERE " + name()
@@ -49,4 +60,13 @@ class H2ServerTimeStatementsSource extends SqlStatementsSource {
                 "lockAtLeastForMicros",
                 lockConfiguration.getLockAtLeastFor().toNanos() / 1_000);
     }
+
+    @Override
+    public Function<LockConfiguration, Object> parameter(String name) {
+        return switch (name) {
+            case "lockAtMostForMicros" -> lockConfiguration -> lockConfiguration.getLockAtMostFor().toNanos() / 1_000;
+            case "lockAtLeastForMicros" -> lockConfiguration -> lockConfiguration.getLockAtLeastFor().toNanos() / 1_000;
+            default -> super.parameter(name);
+        };
+    }
 }
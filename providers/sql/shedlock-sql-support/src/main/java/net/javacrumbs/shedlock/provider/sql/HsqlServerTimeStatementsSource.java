@@ -1,6 +1,7 @@
 package net.javacrumbs.shedlock.provider.sql;
 
 import java.util.Map;
+import java.util.function.Function;
 import net.javacrumbs.shedlock.core.LockConfiguration;
 
 class HsqlServerTimeStatementsSource extends SqlStatementsSource {
@@ -31,6 +32,11 @@ class HsqlServerTimeStatementsSource extends SqlStatementsSource {
                 + " = :lockedBy";
     }
 
+    @Override
+    public String getLockUntilStatement() {
+        return lockUntilStatement(now);
+    }
+
     @Override
     public String getExtendStatement() {
         return "UPDATE " + tableName() + " SET " + lockUntil() + " = " + lockAtMostFor + " WHERE " + name()
@@ -49,4 +55,13 @@ class HsqlServerTimeStatementsSource extends SqlStatementsSource {
                 "lockAtLeastForMicros",
                 lockConfiguration.getLockAtLeastFor().toNanos() / 1_000);
     }
+
+    @Override
+    public Function<LockConfiguration, Object> parameter(String name) {
+        return switch (name) {
+            case "lockAtMostForMicros" -> lockConfiguration -> lockConfiguration.getLockAtMostFor().toNanos() / 1_000;
+            case "lockAtLeastForMicros" -> lockConfiguration -> lockConfiguration.getLockAtLeastFor().toNanos() / 1_000;
+            default -> super.parameter(name);
+        };
+    }
 }
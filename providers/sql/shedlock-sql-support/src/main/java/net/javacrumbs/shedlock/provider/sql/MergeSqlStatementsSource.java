@@ -0,0 +1,42 @@
+package net.javacrumbs.shedlock.provider.sql;
+
+import java.util.EnumSet;
+import java.util.Set;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Uses MERGE to insert or update the lock record in a single statement in
+ * databases that support it.
+ */
+class MergeSqlStatementsSource extends SqlStatementsSource {
+    private static final Set<DatabaseProduct> SUPPORTED_PRODUCTS =
+            EnumSet.of(DatabaseProduct.SQL_SERVER, DatabaseProduct.ORACLE, DatabaseProduct.H2, DatabaseProduct.DB2);
+
+    private final DatabaseProduct databaseProduct;
+
+    MergeSqlStatementsSource(SqlConfiguration configuration, DatabaseProduct databaseProduct) {
+        super(configuration);
+        this.databaseProduct = databaseProduct;
+    }
+
+    static boolean supports(@Nullable DatabaseProduct databaseProduct) {
+        return databaseProduct != null && SUPPORTED_PRODUCTS.contains(databaseProduct);
+    }
+
+    @Override
+    public String getUpsertStatement() {
+        return switch (databaseProduct) {
+            case SQL_SERVER -> mergeStatement("(SELECT 1 AS one) source", ":lockUntil", ":now") + ";";
+            case H2 -> mergeStatement("(SELECT 1) source", ":lockUntil", ":now");
+            case DB2 -> mergeStatement("(SELECT 1 FROM SYSIBM.SYSDUMMY1) source", ":lockUntil", ":now");
+            // Oracle does not support WHEN MATCHED AND
+            case ORACLE ->
+                "MERGE INTO " + tableName() + " USING (SELECT 1 FROM dual) ON (" + name()
+                        + " = :name) WHEN MATCHED THEN UPDATE SET " + lockUntil() + " = :lockUntil, " + lockedAt()
+                        + " = :now, " + lockedBy() + " = :lockedBy WHERE " + lockUntil() + " <= :now"
+                        + " WHEN NOT MATCHED THEN INSERT(" + name() + ", " + lockUntil() + ", " + lockedAt() + ", "
+                        + lockedBy() + ") VALUES(:name, :lockUntil, :now, :lockedBy)";
+            default -> throw new IllegalStateException("Unsupported database product " + databaseProduct);
+        };
+    }
+}
@@ -1,6 +1,7 @@
 package net.javacrumbs.shedlock.provider.sql;
 
 import java.util.Map;
+import java.util.function.Function;
 import net.javacrumbs.shedlock.core.LockConfiguration;
 
 class MsSqlServerTimeStatementsSource extends SqlStatementsSource {
@@ -17,6 +18,11 @@ class MsSqlServerTimeStatementsSource extends SqlStatementsSource {
                 + ") VALUES(:name, " + lockAtMostFor + ", " + now + ", :lockedBy)";
     }
 
+    @Override
+    public String getUpsertStatement() {
+        return mergeStatement("(SELECT 1 AS one) source", lockAtMostFor, now) + ";";
+    }
+
     @Override
     public String getUpdateStatement() {
         return "UPDATE " + tableName() + " SET " + lockUntil() + " = " + lockAtMostFor + ", " + lockedAt() + " = " + now
@@ -31,6 +37,11 @@ class MsSqlServerTimeStatementsSource extends SqlStatementsSource {
                 + " = :lockedBy";
     }
 
+    @Override
+    public String getLockUntilStatement() {
+        return lockUntilStatement(now);
+    }
+
     @Override
     public String getExtendStatement() {
         return "UPDATE " + tableName() + " SET " + lockUntil() + " = " + lockAtMostFor + " WHERE " + name()
@@ -49,4 +60,13 @@ class MsSqlServerTimeStatementsSource extends SqlStatementsSource {
                 "lockAtLeastForMillis",
                 lockConfiguration.getLockAtLeastFor().toMillis());
     }
+
+    @Override
+    public Function<LockConfiguration, Object> parameter(String name) {
+        return switch (name) {
+            case "lockAtMostForMillis" -> lockConfiguration -> lockConfiguration.getLockAtMostFor().toMillis();
+            case "lockAtLeastForMillis" -> lockConfiguration -> lockConfiguration.getLockAtLeastFor().toMillis();
+            default -> super.parameter(name);
+        };
+    }
 }
@@ -1,6 +1,7 @@
 package net.javacrumbs.shedlock.provider.sql;
 
 import java.util.Map;
+import java.util.function.Function;
 import net.javacrumbs.shedlock.core.LockConfiguration;
 
 class MySqlServerTimeStatementsSource extends SqlStatementsSource {
@@ -30,6 +31,11 @@ class MySqlServerTimeStatementsSource extends SqlStatementsSource {
                 + lockAtLeastFor + ", " + now + ") WHERE " + name() + " = :name AND " + lockedBy() + " = :lockedBy";
     }
 
+    @Override
+    public String getLockUntilStatement() {
+        return lockUntilStatement(now);
+    }
+
     @Override
     public String getExtendStatement() {
         return "UPDATE " + tableName() + " SET " + lockUntil() + " = " + lockAtMostFor + " WHERE " + name()
@@ -48,4 +54,13 @@ class MySqlServerTimeStatementsSource extends SqlStatementsSource {
                 "lockAtLeastForMicros",
                 lockConfiguration.getLockAtLeastFor().toNanos() / 1_000);
     }
+
+    @Override
+    public Function<LockConfiguration, Object> parameter(String name) {
+        return switch (name) {
+            case "lockAtMostForMicros" -> lockConfiguration -> lockConfiguration.getLockAtMostFor().toNanos() / 1_000;
+            case "lockAtLeastForMicros" -> lockConfiguration -> lockConfiguration.getLockAtLeastFor().toNanos() / 1_000;
+            default -> super.parameter(name);
+        };
+    }
 }
@@ -1,6 +1,8 @@
 package net.javacrumbs.shedlock.provider.sql;
 
+import java.time.Duration;
 import java.util.Map;
+import java.util.function.Function;
 import net.javacrumbs.shedlock.core.LockConfiguration;
 
 class OracleServerTimeStatementsSource extends SqlStatementsSource {
@@ -22,6 +24,11 @@ class OracleServerTimeStatementsSource extends SqlStatementsSource {
                 + ", " + lockedBy() + ") VALUES(:name, " + lockAtMostFor + ", " + now + ", :lockedBy)";
     }
 
+    @Override
+    public String getUpsertStatement() {
+        return getInsertStatement();
+    }
+
     @Override
     public String getUpdateStatement() {
         return "UPDATE " + tableName() + " SET " + lockUntil() + " = " + lockAtMostFor + ", " + lockedAt() + " = " + now
@@ -36,6 +43,11 @@ class OracleServerTimeStatementsSource extends SqlStatementsSource {
                 + " = :lockedBy";
     }
 
+    @Override
+    public String getLockUntilStatement() {
+        return lockUntilStatement(now);
+    }
+
     @Override
     public String getExtendStatement() {
         return "UPDATE " + tableName() + " SET " + lockUntil() + " = " + lockAtMostFor + " WHERE " + name()
@@ -50,8 +62,21 @@ class OracleServerTimeStatementsSource extends SqlStatementsSource {
                 "lockedBy",
                 configuration.getLockedByValue(),
                 "lockAtMostFor",
-                ((double) lockConfiguration.getLockAtMostFor().toMillis()) / millisecondsInDay,
+                toDays(lockConfiguration.getLockAtMostFor()),
                 "lockAtLeastFor",
-                ((double) lockConfiguration.getLockAtLeastFor().toMillis()) / millisecondsInDay);
+                toDays(lockConfiguration.getLockAtLeastFor()));
+    }
+
+    @Override
+    public Function<LockConfiguration, Object> parameter(String name) {
+        return switch (name) {
+            case "lockAtMostFor" -> lockConfiguration -> toDays(lockConfiguration.getLockAtMostFor());
+            case "lockAtLeastFor" -> lockConfiguration -> toDays(lockConfiguration.getLockAtLeastFor());
+            default -> super.parameter(name);
+        };
+    }
+
+    private static double toDays(Duration duration) {
+        return ((double) duration.toMillis()) / millisecondsInDay;
     }
 }
@@ -3,6 +3,7 @@ package net.javacrumbs.shedlock.provider.sql;
 import java.math.BigDecimal;
 import java.time.Duration;
 import java.util.Map;
+import java.util.function.Function;
 import net.javacrumbs.shedlock.core.LockConfiguration;
 
 class PostgresSqlServerTimeStatementsSource extends SqlStatementsSource {
@@ -20,6 +21,11 @@ class PostgresSqlServerTimeStatementsSource extends SqlStatementsSource {
                 + ") DO UPDATE" + updateClause();
     }
 
+    @Override
+    public String getUpsertStatement() {
+        return getInsertStatement();
+    }
+
     protected String updateClause() {
         return " SET " + lockUntil() + " = " + lockAtMostFor() + ", " + lockedAt() + " = " + now + ", " + lockedBy()
                 + " = :lockedBy WHERE " + tableName() + "." + name() + " = :name AND " + tableName() + "." + lockUntil()
@@ -47,6 +53,11 @@ class PostgresSqlServerTimeStatementsSource extends SqlStatementsSource {
         return lockAtMostFor;
     }
 
+    @Override
+    public String getLockUntilStatement() {
+        return lockUntilStatement(now);
+    }
+
     @Override
     public String getExtendStatement() {
         return "UPDATE " + tableName() + " SET " + lockUntil() + " = " + lockAtMostFor() + " WHERE " + name()
@@ -66,6 +77,15 @@ class PostgresSqlServerTimeStatementsSource extends SqlStatementsSource {
                 toSeconds(lockConfiguration.getLockAtLeastFor()));
     }
 
+    @Override
+    public Function<LockConfiguration, Object> parameter(String name) {
+        return switch (name) {
+            case "lockAtMostForInterval" -> lockConfiguration -> toSeconds(lockConfiguration.getLockAtMostFor());
+            case "lockAtLeastForInterval" -> lockConfiguration -> toSeconds(lockConfiguration.getLockAtLeastFor());
+            default -> super.parameter(name);
+        };
+    }
+
     private static BigDecimal toSeconds(Duration duration) {
         return BigDecimal.valueOf(duration.toMillis()).scaleByPowerOfTen(-3);
     }
@@ -11,4 +11,9 @@ class PostgresSqlStatementsSource extends SqlStatementsSource {
                 + " = :lockUntil, " + lockedAt() + " = :now, " + lockedBy() + " = :lockedBy " + "WHERE " + tableName()
                 + "." + lockUntil() + " <= :now";
     }
+
+    @Override
+    public String getUpsertStatement() {
+        return getInsertStatement();
+    }
 }
@@ -23,6 +23,7 @@ public abstract class SqlConfiguration {
     private final ColumnNames columnNames;
     private final String lockedByValue;
     private final boolean useDbTime;
+    private final int partitions;
 
     protected SqlConfiguration(
             @Nullable DatabaseProduct databaseProduct,
@@ -32,6 +33,18 @@ public abstract class SqlConfiguration {
             ColumnNames columnNames,
             String lockedByValue,
             boolean useDbTime) {
+        this(databaseProduct, dbUpperCase, tableName, timeZone, columnNames, lockedByValue, useDbTime, 1);
+    }
+
+    protected SqlConfiguration(
+            @Nullable DatabaseProduct databaseProduct,
+            boolean dbUpperCase,
+            String tableName,
+            @Nullable TimeZone timeZone,
+            ColumnNames columnNames,
+            String lockedByValue,
+            boolean useDbTime,
+            int partitions) {
         this.databaseProduct = databaseProduct;
         requireNonNull(tableName, "tableName can not be null");
         this.tableName = dbUpperCase ? tableName.toUpperCase() : tableName;
@@ -43,6 +56,10 @@ public abstract class SqlConfiguration {
             throw new IllegalArgumentException("Can not set both useDbTime and timeZone");
         }
         this.useDbTime = useDbTime;
+        if (partitions < 1) {
+            throw new IllegalArgumentException("partitions has to be positive");
+        }
+        this.partitions = partitions;
     }
 
     public @Nullable DatabaseProduct getDatabaseProduct() {
@@ -69,6 +86,41 @@ public abstract class SqlConfiguration {
         return useDbTime;
     }
 
+    /** Number of lock tables, 1 if the lock records are not partitioned. */
+    public int getPartitions() {
+        return partitions;
+    }
+
+    /**
+     * Partition of the lock record. String.hashCode() is specified by the JLS, so
+     * all the instances agree on the partition of a given name.
+     */
+    public int getPartition(String lockName) {
+        return partitions == 1 ? 0 : Math.floorMod(lockName.hashCode(), partitions);
+    }
+
+    /**
+     * Table of given partition, the table name with {@code _<partition>} suffix,
+     * or just the table name if the lock records are not partitioned.
+     */
+    public String getTableName(int partition) {
+        if (partition < 0 || partition >= partitions) {
+            throw new IllegalArgumentException("Invalid partition " + partition);
+        }
+        return partitions == 1 ? tableName : tableName + "_" + partition;
+    }
+
+    /**
+     * Configuration of a single partition, so that {@link SqlStatementsSource},
+     * {@link SqlSchemaGenerator} and {@link SqlSchemaValidator} work with its table.
+     */
+    public SqlConfiguration forPartition(int partition) {
+        if (partitions == 1) {
+            return this;
+        }
+        return new PartitionConfiguration(this, getTableName(partition));
+    }
+
     public abstract static class SqlConfigurationBuilder<T extends SqlConfigurationBuilder<T>> {
 
         protected @Nullable DatabaseProduct databaseProduct;
@@ -79,6 +131,7 @@ public abstract class SqlConfiguration {
         protected ColumnNames columnNames = new ColumnNames("name", "lock_until", "locked_at", "locked_by");
         protected boolean dbUpperCase = false;
         protected boolean useDbTime = false;
+        protected int partitions = 1;
 
         public T withTableName(String tableName) {
             this.tableName = tableName;
@@ -120,12 +173,39 @@ public abstract class SqlConfiguration {
             return getThis();
         }
 
+        /**
+         * Spreads the lock records over given number of tables, {@code <tableName>_0}
+         * to {@code <tableName>_<partitions - 1>}, chosen by a stable hash of the lock
+         * name. Useful with thousands of lock names, each statement targets just one
+         * table. The tables can be created using
+         * {@link SqlSchemaGenerator#getCreateTableStatements()}. Supported by the JDBC,
+         * JdbcTemplate and Micronaut JDBC providers.
+         */
+        public T withPartitions(int partitions) {
+            this.partitions = partitions;
+            return getThis();
+        }
+
         @SuppressWarnings("unchecked")
         protected T getThis() {
             return (T) this;
         }
     }
 
+    private static final class PartitionConfiguration extends SqlConfiguration {
+        private PartitionConfiguration(SqlConfiguration configuration, String tableName) {
+            // the names are already in upper case if needed
+            super(
+                    configuration.getDatabaseProduct(),
+                    false,
+                    tableName,
+                    configuration.getTimeZone(),
+                    configuration.getColumnNames(),
+                    configuration.getLockedByValue(),
+                    configuration.getUseDbTime());
+        }
+    }
+
     public static class ColumnNames {
         private final String name;
         private final String lockUntil;
@@ -0,0 +1,179 @@
+package net.javacrumbs.shedlock.provider.sql;
+
+import static java.util.Objects.requireNonNull;
+import static java.util.Objects.requireNonNullElse;
+
+import java.util.List;
+import java.util.stream.IntStream;
+import net.javacrumbs.shedlock.provider.sql.SqlConfiguration.ColumnNames;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Generates DDL of the lock table for given {@link SqlConfiguration}.
+ *
+ * <p>
+ * The lock row is updated on every lock and unlock, so the table is tuned for
+ * updates. Only the name column is indexed (primary key), an index on lock_until
+ * would prevent HOT updates in Postgres. The table leaves free space in each
+ * page (fillfactor in Postgres and SQL Server, PCTFREE in Oracle), so the updated
+ * row fits in the same page.
+ *
+ * <p>
+ * {@link Builder#inMemory()} creates an unlogged or in-memory table where
+ * supported (UNLOGGED in Postgres, MEMORY engine in MySQL and MariaDB, memory
+ * optimized table in SQL Server, MEMORY table in H2 and HSQLDB). Such tables
+ * lose their rows after a crash or restart of the database. ShedLock caches
+ * which lock rows exist, so the applications have to be restarted afterwards.
+ *
+ * <p>
+ * If the lock records are partitioned, use {@link #getCreateTableStatements()}
+ * to create a table for each partition.
+ */
+public class SqlSchemaGenerator {
+    public static final int DEFAULT_FILL_FACTOR = 50;
+
+    private final List<String> tableNames;
+    private final ColumnNames columnNames;
+    private final DatabaseProduct databaseProduct;
+    private final int fillFactor;
+    private final boolean inMemory;
+
+    private SqlSchemaGenerator(
+            List<String> tableNames,
+            ColumnNames columnNames,
+            DatabaseProduct databaseProduct,
+            int fillFactor,
+            boolean inMemory) {
+        this.tableNames = tableNames;
+        this.columnNames = columnNames;
+        this.databaseProduct = databaseProduct;
+        this.fillFactor = fillFactor;
+        this.inMemory = inMemory;
+    }
+
+    public static Builder builder(SqlConfiguration configuration) {
+        return new Builder(configuration);
+    }
+
+    public String getCreateTableStatement() {
+        if (tableNames.size() != 1) {
+            throw new IllegalStateException("Lock records are partitioned, use getCreateTableStatements()");
+        }
+        return createTableStatement(tableNames.get(0));
+    }
+
+    /** Statements that create the tables of all partitions. */
+    public List<String> getCreateTableStatements() {
+        return tableNames.stream().map(this::createTableStatement).toList();
+    }
+
+    private String createTableStatement(String tableName) {
+        return switch (databaseProduct) {
+            case POSTGRES_SQL ->
+                "CREATE " + (inMemory ? "UNLOGGED " : "") + "TABLE " + tableName + "(" + name()
+                        + " VARCHAR(64) NOT NULL, " + lockUntil() + " TIMESTAMP NOT NULL, " + lockedAt()
+                        + " TIMESTAMP NOT NULL, " + lockedBy() + " VARCHAR(255) NOT NULL, PRIMARY KEY (" + name()
+                        + "))" + withFillFactor(" WITH (fillfactor = ", ")");
+            case MY_SQL, MARIA_DB ->
+                "CREATE TABLE " + tableName + "(" + name() + " VARCHAR(64) NOT NULL, " + lockUntil()
+                        + " TIMESTAMP(3) NOT NULL, " + lockedAt()
+                        + " TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3), " + lockedBy()
+                        + " VARCHAR(255) NOT NULL, PRIMARY KEY (" + name() + "))" + (inMemory ? " ENGINE=MEMORY" : "");
+            case ORACLE ->
+                "CREATE TABLE " + tableName + "(" + name() + " VARCHAR(64) NOT NULL, " + lockUntil()
+                        + " TIMESTAMP(3) NOT NULL, " + lockedAt() + " TIMESTAMP(3) NOT NULL, " + lockedBy()
+                        + " VARCHAR(255) NOT NULL, PRIMARY KEY (" + name() + "))"
+                        + (fillFactor < 100 ? " PCTFREE " + (100 - fillFactor) : "");
+            case SQL_SERVER -> sqlServerCreateTableStatement(tableName);
+            case H2, HQL ->
+                "CREATE " + (inMemory ? "MEMORY " : "") + "TABLE " + tableName + "(" + name()
+                        + " VARCHAR(64) NOT NULL, " + lockUntil() + " TIMESTAMP(3) NOT NULL, " + lockedAt()
+                        + " TIMESTAMP(3) NOT NULL, " + lockedBy() + " VARCHAR(255) NOT NULL, PRIMARY KEY (" + name()
+                        + "))";
+            case DB2, COCKROACH_DB, UNKNOWN ->
+                "CREATE TABLE " + tableName + "(" + name() + " VARCHAR(64) NOT NULL PRIMARY KEY, " + lockUntil()
+                        + " TIMESTAMP NOT NULL, " + lockedAt() + " TIMESTAMP NOT NULL, " + lockedBy()
+                        + " VARCHAR(255) NOT NULL)";
+        };
+    }
+
+    private String sqlServerCreateTableStatement(String tableName) {
+        String columns = "(" + name() + " VARCHAR(64) NOT NULL, " + lockUntil() + " datetime2 NOT NULL, " + lockedAt()
+                + " datetime2 NOT NULL, " + lockedBy() + " VARCHAR(255) NOT NULL, ";
+        if (inMemory) {
+            // memory optimized tables do not have pages, fill factor does not apply
+            return "CREATE TABLE " + tableName + columns + "PRIMARY KEY NONCLUSTERED (" + name()
+                    + ")) WITH (MEMORY_OPTIMIZED = ON, DURABILITY = SCHEMA_ONLY)";
+        }
+        return "CREATE TABLE " + tableName + columns + "PRIMARY KEY (" + name() + ")"
+                + withFillFactor(" WITH (FILLFACTOR = ", ")") + ")";
+    }
+
+    private String withFillFactor(String prefix, String suffix) {
+        return fillFactor < 100 ? prefix + fillFactor + suffix : "";
+    }
+
+    private String name() {
+        return columnNames.getName();
+    }
+
+    private String lockUntil() {
+        return columnNames.getLockUntil();
+    }
+
+    private String lockedAt() {
+        return columnNames.getLockedAt();
+    }
+
+    private String lockedBy() {
+        return columnNames.getLockedBy();
+    }
+
+    public static final class Builder {
+        private final SqlConfiguration configuration;
+        private @Nullable DatabaseProduct databaseProduct;
+        private int fillFactor = DEFAULT_FILL_FACTOR;
+        private boolean inMemory;
+
+        private Builder(SqlConfiguration configuration) {
+            this.configuration = requireNonNull(configuration, "configuration can not be null");
+        }
+
+        /** Overrides the database product of the configuration. */
+        public Builder withDatabaseProduct(DatabaseProduct databaseProduct) {
+            this.databaseProduct = requireNonNull(databaseProduct);
+            return this;
+        }
+
+        /**
+         * Percentage of the page filled by inserts, the rest is left for updates. 100
+         * keeps the database default. Default is {@value #DEFAULT_FILL_FACTOR}.
+         */
+        public Builder withFillFactor(int fillFactor) {
+            if (fillFactor < 10 || fillFactor > 100) {
+                throw new IllegalArgumentException("fillFactor has to be between 10 and 100");
+            }
+            this.fillFactor = fillFactor;
+            return this;
+        }
+
+        /**
+         * Creates unlogged or in-memory table where supported. The rows are lost if
+         * the database crashes or restarts.
+         */
+        public Builder inMemory() {
+            this.inMemory = true;
+            return this;
+        }
+
+        public SqlSchemaGenerator build() {
+            DatabaseProduct product = databaseProduct != null
+                    ? databaseProduct
+                    : requireNonNullElse(configuration.getDatabaseProduct(), DatabaseProduct.UNKNOWN);
+            List<String> tableNames = IntStream.range(0, configuration.getPartitions())
+                    .mapToObj(configuration::getTableName)
+                    .toList();
+            return new SqlSchemaGenerator(tableNames, configuration.getColumnNames(), product, fillFactor, inMemory);
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package net.javacrumbs.shedlock.provider.sql;
+
+import static java.util.Objects.requireNonNull;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.function.UnaryOperator;
+import net.javacrumbs.shedlock.provider.sql.SqlConfiguration.ColumnNames;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Checks that the lock table is tuned as described in {@link SqlSchemaGenerator}
+ * and logs a warning for each problem. Meant to be called once on startup, it
+ * never fails, problems with reading the metadata are reported as warnings too.
+ */
+public class SqlSchemaValidator {
+    private static final Logger logger = LoggerFactory.getLogger(SqlSchemaValidator.class);
+    // unquoted identifiers are stored in upper or lower case depending on the database
+    private static final List<UnaryOperator<String>> IDENTIFIER_CASES = List.of(
+            UnaryOperator.identity(),
+            identifier -> identifier.toUpperCase(Locale.ROOT),
+            identifier -> identifier.toLowerCase(Locale.ROOT));
+
+    private final SqlConfiguration configuration;
+
+    public SqlSchemaValidator(SqlConfiguration configuration) {
+        this.configuration = requireNonNull(configuration, "configuration can not be null");
+    }
+
+    /**
+     * Validates the lock table and returns the list of problems found. If the lock
+     * records are partitioned, all the partition tables are validated and the
+     * problems are prefixed by the table name.
+     */
+    public List<String> validate(Connection connection) {
+        List<String> problems = new ArrayList<>();
+        for (int partition = 0; partition < configuration.getPartitions(); partition++) {
+            String tableName = configuration.getTableName(partition);
+            List<String> tableProblems = new ArrayList<>();
+            try {
+                doValidate(connection, tableName, tableProblems);
+            } catch (SQLException e) {
+                logger.debug("Can not validate lock table", e);
+                tableProblems.add("Can not validate lock table: " + e.getMessage());
+            }
+            tableProblems.forEach(problem -> logger.warn("ShedLock table {}: {}", tableName, problem));
+            if (configuration.getPartitions() == 1) {
+                problems.addAll(tableProblems);
+            } else {
+                tableProblems.forEach(problem -> problems.add(tableName + ": " + problem));
+            }
+        }
+        return problems;
+    }
+
+    private void doValidate(Connection connection, String tableName, List<String> problems) throws SQLException {
+        DatabaseMetaData metaData = connection.getMetaData();
+        int dot = tableName.lastIndexOf('.');
+        String schema = dot >= 0 ? tableName.substring(0, dot) : null;
+        String table = dot >= 0 ? tableName.substring(dot + 1) : tableName;
+
+        TableId tableId = findTable(metaData, schema, table);
+        if (tableId == null) {
+            problems.add("table does not exist");
+            return;
+        }
+
+        ColumnNames columnNames = configuration.getColumnNames();
+        Set<String> updatedColumns = Set.of(
+                columnNames.getLockUntil().toLowerCase(Locale.ROOT),
+                columnNames.getLockedAt().toLowerCase(Locale.ROOT),
+                columnNames.getLockedBy().toLowerCase(Locale.ROOT));
+        Set<String> indexesOnUpdatedColumns = new LinkedHashSet<>();
+        boolean nameIsUnique = false;
+        try (ResultSet indexes = metaData.getIndexInfo(tableId.catalog, tableId.schema, tableId.table, false, true)) {
+            while (indexes.next()) {
+                String column = indexes.getString("COLUMN_NAME");
+                if (column == null) {
+                    continue;
+                }
+                if (updatedColumns.contains(column.toLowerCase(Locale.ROOT))) {
+                    indexesOnUpdatedColumns.add(indexes.getString("INDEX_NAME") + " (" + column + ")");
+                }
+                if (column.equalsIgnoreCase(columnNames.getName()) && !indexes.getBoolean("NON_UNIQUE")) {
+                    nameIsUnique = true;
+                }
+            }
+        }
+        if (!nameIsUnique) {
+            problems.add("column " + columnNames.getName() + " has to be the primary key");
+        }
+        for (String index : indexesOnUpdatedColumns) {
+            problems.add("index " + index + " is updated by every lock operation (and prevents HOT updates"
+                    + " in Postgres), only the primary key is needed");
+        }
+
+        if (DatabaseProduct.matchProductName(metaData.getDatabaseProductName()) == DatabaseProduct.POSTGRES_SQL
+                && !hasPostgresFillFactor(connection, tableName)) {
+            problems.add("table uses the default fillfactor, set fillfactor to "
+                    + SqlSchemaGenerator.DEFAULT_FILL_FACTOR + " so that updated rows fit in the same page");
+        }
+    }
+
+    private static @Nullable TableId findTable(DatabaseMetaData metaData, @Nullable String schema, String table)
+            throws SQLException {
+        for (UnaryOperator<String> identifierCase : IDENTIFIER_CASES) {
+            String schemaPattern = schema != null ? identifierCase.apply(schema) : null;
+            try (ResultSet tables = metaData.getTables(null, schemaPattern, identifierCase.apply(table), null)) {
+                if (tables.next()) {
+                    return new TableId(
+                            tables.getString("TABLE_CAT"),
+                            tables.getString("TABLE_SCHEM"),
+                            requireNonNull(tables.getString("TABLE_NAME")));
+                }
+            }
+        }
+        return null;
+    }
+
+    private static boolean hasPostgresFillFactor(Connection connection, String tableName) throws SQLException {
+        try (PreparedStatement statement =
+                connection.prepareStatement("SELECT reloptions::text FROM pg_class WHERE oid = to_regclass(?)")) {
+            statement.setString(1, tableName);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                if (resultSet.next()) {
+                    String options = resultSet.getString(1);
+                    return options != null && options.contains("fillfactor");
+                }
+                return false;
+            }
+        }
+    }
+
+    private record TableId(@Nullable String catalog, @Nullable String schema, String table) {}
+}
@@ -1,12 +1,15 @@
 package net.javacrumbs.shedlock.provider.sql;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.time.ZoneId;
 import java.util.Map;
 import java.util.Objects;
 import java.util.TimeZone;
+import java.util.function.Function;
 import net.javacrumbs.shedlock.core.ClockProvider;
 import net.javacrumbs.shedlock.core.LockConfiguration;
+import org.jspecify.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -33,6 +36,9 @@ public class SqlStatementsSource {
             if (Objects.equals(databaseProduct, DatabaseProduct.POSTGRES_SQL)) {
                 logger.debug("Using PostgresSqlStatementsSource");
                 return new PostgresSqlStatementsSource(configuration);
+            } else if (MergeSqlStatementsSource.supports(databaseProduct)) {
+                logger.debug("Using MergeSqlStatementsSource");
+                return new MergeSqlStatementsSource(configuration, databaseProduct);
             } else {
                 logger.debug("Using SqlStatementsSource");
                 return new SqlStatementsSource(configuration);
@@ -74,6 +80,28 @@ public class SqlStatementsSource {
                 timestamp(lockConfiguration.getUnlockTime()));
     }
 
+    /**
+     * Returns a function that computes the value of a named parameter, so the
+     * parameter can be resolved once per statement and bound without creating the
+     * {@link #params(LockConfiguration)} map. Unlike in the map, timestamps are
+     * returned as {@link Instant}, the caller binds them in the configured time
+     * zone.
+     *
+     * @throws IllegalStateException
+     *             if the parameter is not known
+     */
+    public Function<LockConfiguration, Object> parameter(String name) {
+        String lockedByValue = configuration.getLockedByValue();
+        return switch (name) {
+            case "name" -> LockConfiguration::getName;
+            case "lockedBy" -> lockConfiguration -> lockedByValue;
+            case "lockUntil" -> LockConfiguration::getLockAtMostUntil;
+            case "now" -> lockConfiguration -> ClockProvider.now();
+            case "unlockTime" -> LockConfiguration::getUnlockTime;
+            default -> throw new IllegalStateException("Parameter " + name + " not found");
+        };
+    }
+
     private Object timestamp(Instant time) {
         TimeZone timeZone = configuration.getTimeZone();
         if (timeZone != null) {
@@ -88,6 +116,14 @@ public class SqlStatementsSource {
                 + ") VALUES(:name, :lockUntil, :now, :lockedBy)";
     }
 
+    /**
+     * Statement that inserts the lock record or updates it if the lock is not held,
+     * or null if the database does not support such statement.
+     */
+    public @Nullable String getUpsertStatement() {
+        return null;
+    }
+
     public String getUpdateStatement() {
         return "UPDATE " + tableName() + " SET " + lockUntil() + " = :lockUntil, " + lockedAt() + " = :now, "
                 + lockedBy() + " = :lockedBy WHERE " + name() + " = :name AND " + lockUntil() + " <= :now";
@@ -103,6 +139,65 @@ public class SqlStatementsSource {
                 + lockedBy() + " = :lockedBy";
     }
 
+    /**
+     * Selects lock_until of the lock. With DB time, the current DB time is selected
+     * as the second column, use {@link #toLocalTime(Instant, Instant)} to convert
+     * the values.
+     */
+    public String getLockUntilStatement() {
+        return "SELECT " + lockUntil() + " FROM " + tableName() + " WHERE " + name() + " = :name";
+    }
+
+    /**
+     * Converts lock_until selected with DB time to local time. lock_until is stored
+     * in DB time which may be in a different time zone than the JVM, so only the
+     * difference to the current DB time is used. Both values have to be read the
+     * same way.
+     */
+    public static Instant toLocalTime(Instant lockUntil, Instant dbNow) {
+        return ClockProvider.now().plus(Duration.between(dbNow, lockUntil));
+    }
+
+    /**
+     * DDL of a stored procedure that obtains the lock in a single call, see
+     * {@link #getTryLockProcedureCall()}. Null if not supported for the database
+     * product or with DB time. The procedure is named after the lock table with
+     * {@code _try_lock} suffix and has to be created before it's used.
+     */
+    public @Nullable String getTryLockProcedureDefinition() {
+        DatabaseProduct databaseProduct = configuration.getDatabaseProduct();
+        if (configuration.getUseDbTime() || databaseProduct == null) {
+            return null;
+        }
+        return new TryLockProcedure(this).definition(databaseProduct);
+    }
+
+    /**
+     * JDBC escape call of the procedure from {@link #getTryLockProcedureDefinition()},
+     * or null if not supported. Parameters are (IN name, IN lockUntil, IN now, IN
+     * lockedBy, OUT locked, OUT currentLockUntil), locked is 1 if the lock has
+     * been obtained. currentLockUntil is lock_until after the call.
+     */
+    public @Nullable String getTryLockProcedureCall() {
+        return getTryLockProcedureDefinition() != null ? new TryLockProcedure(this).call() : null;
+    }
+
+    String lockUntilStatement(String now) {
+        return "SELECT " + lockUntil() + ", " + now + " FROM " + tableName() + " WHERE " + name() + " = :name";
+    }
+
+    /**
+     * MERGE statement that updates the record only if the lock is not held, for
+     * databases that support {@code WHEN MATCHED AND}.
+     */
+    String mergeStatement(String source, String lockAtMostFor, String now) {
+        return "MERGE INTO " + tableName() + " USING " + source + " ON (" + name() + " = :name) WHEN MATCHED AND "
+                + lockUntil() + " <= " + now + " THEN UPDATE SET " + lockUntil() + " = " + lockAtMostFor + ", "
+                + lockedAt() + " = " + now + ", " + lockedBy() + " = :lockedBy WHEN NOT MATCHED THEN INSERT(" + name()
+                + ", " + lockUntil() + ", " + lockedAt() + ", " + lockedBy() + ") VALUES(:name, " + lockAtMostFor + ", "
+                + now + ", :lockedBy)";
+    }
+
     String name() {
         return configuration.getColumnNames().getName();
     }
@@ -0,0 +1,140 @@
+package net.javacrumbs.shedlock.provider.sql;
+
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Stored procedure that obtains the lock in one call. It inserts the lock record
+ * or updates it if the lock is not held, and returns whether the lock was
+ * obtained together with the current lock_until.
+ *
+ * <p>
+ * Parameters are (IN name, IN lockUntil, IN now, IN lockedBy, OUT locked,
+ * OUT currentLockUntil), locked is 1 if the lock was obtained, 0 otherwise.
+ */
+class TryLockProcedure {
+    private final SqlStatementsSource source;
+
+    TryLockProcedure(SqlStatementsSource source) {
+        this.source = source;
+    }
+
+    @Nullable
+    String definition(DatabaseProduct databaseProduct) {
+        return switch (databaseProduct) {
+            case POSTGRES_SQL -> postgresDefinition();
+            case MY_SQL, MARIA_DB -> mySqlDefinition();
+            case SQL_SERVER -> sqlServerDefinition();
+            case ORACLE -> oracleDefinition();
+            default -> null;
+        };
+    }
+
+    String call() {
+        return "{call " + procedureName() + "(?, ?, ?, ?, ?, ?)}";
+    }
+
+    private String postgresDefinition() {
+        return "CREATE OR REPLACE FUNCTION " + procedureName()
+                + "(p_name VARCHAR, p_lock_until TIMESTAMP, p_now TIMESTAMP, p_locked_by VARCHAR,"
+                + " OUT p_locked INTEGER, OUT p_current_lock_until TIMESTAMP) AS $$\n"
+                + "BEGIN\n"
+                + "    " + insert("INSERT INTO ") + " ON CONFLICT (" + name() + ") DO UPDATE SET "
+                + assignments("p_") + " WHERE " + tableName() + "." + lockUntil() + " <= p_now;\n"
+                + "    GET DIAGNOSTICS p_locked = ROW_COUNT;\n"
+                + "    " + selectLockUntil("p_current_lock_until") + ";\n"
+                + "END;\n"
+                + "$$ LANGUAGE plpgsql";
+    }
+
+    private String mySqlDefinition() {
+        // INSERT IGNORE and plain UPDATE, ROW_COUNT() of INSERT ... ON DUPLICATE KEY UPDATE depends on
+        // the client flags
+        return "CREATE PROCEDURE " + procedureName()
+                + "(IN p_name VARCHAR(64), IN p_lock_until TIMESTAMP(3), IN p_now TIMESTAMP(3),"
+                + " IN p_locked_by VARCHAR(255), OUT p_locked INT, OUT p_current_lock_until TIMESTAMP(3))\n"
+                + "BEGIN\n"
+                + "    " + insert("INSERT IGNORE INTO ") + ";\n"
+                + "    SET p_locked = ROW_COUNT();\n"
+                + "    IF p_locked = 0 THEN\n"
+                + "        " + conditionalUpdate() + ";\n"
+                + "        SET p_locked = ROW_COUNT();\n"
+                + "    END IF;\n"
+                + "    " + selectLockUntil("p_current_lock_until") + ";\n"
+                + "END";
+    }
+
+    private String sqlServerDefinition() {
+        return "CREATE OR ALTER PROCEDURE " + procedureName()
+                + " @p_name VARCHAR(64), @p_lock_until DATETIME2, @p_now DATETIME2, @p_locked_by VARCHAR(255),"
+                + " @p_locked INT OUTPUT, @p_current_lock_until DATETIME2 OUTPUT AS\n"
+                + "BEGIN\n"
+                + "    SET NOCOUNT ON;\n"
+                // HOLDLOCK prevents concurrent inserts of the same record
+                + "    MERGE INTO " + tableName() + " WITH (HOLDLOCK) USING (SELECT @p_name AS " + name()
+                + ") AS src ON " + tableName() + "." + name() + " = src." + name() + " WHEN MATCHED AND "
+                + tableName() + "." + lockUntil() + " <= @p_now THEN UPDATE SET " + assignments("@p_")
+                + " WHEN NOT MATCHED THEN INSERT(" + columns() + ") VALUES(@p_name, @p_lock_until, @p_now,"
+                + " @p_locked_by);\n"
+                + "    SET @p_locked = @@ROWCOUNT;\n"
+                + "    SELECT @p_current_lock_until = " + lockUntil() + " FROM " + tableName() + " WHERE " + name()
+                + " = @p_name;\n"
+                + "END";
+    }
+
+    private String oracleDefinition() {
+        return "CREATE OR REPLACE PROCEDURE " + procedureName()
+                + "(p_name IN VARCHAR2, p_lock_until IN TIMESTAMP, p_now IN TIMESTAMP, p_locked_by IN VARCHAR2,"
+                + " p_locked OUT NUMBER, p_current_lock_until OUT TIMESTAMP) AS\n"
+                + "BEGIN\n"
+                + "    MERGE INTO " + tableName() + " t USING (SELECT p_name AS " + name() + " FROM dual) s ON (t."
+                + name() + " = s." + name() + ") WHEN MATCHED THEN UPDATE SET " + assignments("p_") + " WHERE t."
+                + lockUntil() + " <= p_now WHEN NOT MATCHED THEN INSERT(" + columns()
+                + ") VALUES(p_name, p_lock_until, p_now, p_locked_by);\n"
+                + "    p_locked := SQL%ROWCOUNT;\n"
+                + "    " + selectLockUntil("p_current_lock_until") + ";\n"
+                + "EXCEPTION WHEN DUP_VAL_ON_INDEX THEN\n"
+                // the record has been inserted concurrently
+                + "    p_locked := 0;\n"
+                + "    " + selectLockUntil("p_current_lock_until") + ";\n"
+                + "END;";
+    }
+
+    private String insert(String insertInto) {
+        return insertInto + tableName() + "(" + columns() + ") VALUES(p_name, p_lock_until, p_now, p_locked_by)";
+    }
+
+    private String conditionalUpdate() {
+        return "UPDATE " + tableName() + " SET " + assignments("p_") + " WHERE " + name() + " = p_name AND "
+                + lockUntil() + " <= p_now";
+    }
+
+    private String assignments(String parameterPrefix) {
+        return lockUntil() + " = " + parameterPrefix + "lock_until, " + source.lockedAt() + " = " + parameterPrefix
+                + "now, " + source.lockedBy() + " = " + parameterPrefix + "locked_by";
+    }
+
+    private String selectLockUntil(String target) {
+        return "SELECT " + lockUntil() + " INTO " + target + " FROM " + tableName() + " WHERE " + name()
+                + " = p_name";
+    }
+
+    private String columns() {
+        return name() + ", " + lockUntil() + ", " + source.lockedAt() + ", " + source.lockedBy();
+    }
+
+    private String procedureName() {
+        return tableName() + "_try_lock";
+    }
+
+    private String tableName() {
+        return source.tableName();
+    }
+
+    private String name() {
+        return source.name();
+    }
+
+    private String lockUntil() {
+        return source.lockUntil();
+    }
+}
@@ -0,0 +1,99 @@
+package net.javacrumbs.shedlock.provider.sql.internal;
+
+import static java.util.regex.Matcher.quoteReplacement;
+import static net.javacrumbs.shedlock.provider.sql.internal.CalendarUtils.toCalendar;
+
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+import net.javacrumbs.shedlock.core.LockConfiguration;
+import net.javacrumbs.shedlock.provider.sql.SqlStatementsSource;
+
+/**
+ * Translates SQL with named parameters ({@code :name}) to the positional
+ * parameters of JDBC, R2DBC drivers or Vert.x templates. Internal class, please
+ * do not use.
+ */
+public class NamedSqlTranslator {
+    private static final Pattern NAMED_PARAMETER_PATTERN = Pattern.compile(":[a-zA-Z]+");
+
+    private NamedSqlTranslator() {}
+
+    /**
+     * Replaces named parameters by JDBC {@code ?} and lists their values. Timestamps
+     * are converted to {@link java.util.Calendar}.
+     */
+    public static SqlStatement translate(String namedSql, Map<String, Object> namedParameters) {
+        List<Object> parameters = new ArrayList<>();
+        String sql = translate(namedSql, (position, name) -> {
+            if (!namedParameters.containsKey(name)) {
+                throw new IllegalStateException("Parameter " + name + " not found");
+            }
+            Object value = namedParameters.get(name);
+            parameters.add(value instanceof ZonedDateTime dateTime ? toCalendar(dateTime) : value);
+            return "?";
+        });
+        return new SqlStatement(sql, Collections.unmodifiableList(parameters));
+    }
+
+    /**
+     * Replaces each named parameter by the placeholder returned for its 1-based
+     * position and its name.
+     */
+    public static String translate(String namedSql, BiFunction<Integer, String, String> placeholder) {
+        int[] position = {0};
+        return NAMED_PARAMETER_PATTERN
+                .matcher(namedSql)
+                .replaceAll(result ->
+                        quoteReplacement(placeholder.apply(++position[0], result.group().substring(1))));
+    }
+
+    /**
+     * Same as {@link #compile(String, SqlStatementsSource, BiFunction)} with JDBC
+     * {@code ?} placeholders.
+     */
+    public static SqlTemplate compile(String namedSql, SqlStatementsSource sqlStatementsSource) {
+        return compile(namedSql, sqlStatementsSource, (position, name) -> "?");
+    }
+
+    /**
+     * Replaces named parameters by placeholders and resolves functions that compute
+     * their values, so it can be done once per statement. Each named parameter is
+     * computed only once even if it is used multiple times.
+     */
+    public static SqlTemplate compile(
+            String namedSql,
+            SqlStatementsSource sqlStatementsSource,
+            BiFunction<Integer, String, String> placeholder) {
+        List<String> names = new ArrayList<>();
+        List<Integer> positions = new ArrayList<>();
+        String sql = translate(namedSql, (position, name) -> {
+            int index = names.indexOf(name);
+            if (index < 0) {
+                index = names.size();
+                names.add(name);
+            }
+            positions.add(index);
+            return placeholder.apply(position, name);
+        });
+        List<Function<LockConfiguration, Object>> parameters =
+                names.stream().map(sqlStatementsSource::parameter).toList();
+        return new SqlTemplate(
+                sql, List.copyOf(names), parameters, positions.stream().mapToInt(Integer::intValue).toArray());
+    }
+
+    public record SqlStatement(String sql, List<Object> parameters) {}
+
+    /**
+     * SQL with positional parameters. The n-th positional parameter has name
+     * {@code names[positions[n]]} and its value is computed by
+     * {@code parameters[positions[n]]}.
+     */
+    public record SqlTemplate(
+            String sql, List<String> names, List<Function<LockConfiguration, Object>> parameters, int[] positions) {}
+}
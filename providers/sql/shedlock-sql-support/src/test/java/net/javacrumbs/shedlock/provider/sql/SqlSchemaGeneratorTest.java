@@ -0,0 +1,101 @@
+package net.javacrumbs.shedlock.provider.sql;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import net.javacrumbs.shedlock.provider.sql.SqlConfiguration.ColumnNames;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+class SqlSchemaGeneratorTest {
+
+    @ParameterizedTest
+    @EnumSource(DatabaseProduct.class)
+    void shouldUseConfiguredNamesAndIndexOnlyName(DatabaseProduct databaseProduct) {
+        String sql = SqlSchemaGenerator.builder(configuration(databaseProduct))
+                .build()
+                .getCreateTableStatement();
+
+        assertThat(sql)
+                .startsWith("CREATE TABLE my_lock(lock_name VARCHAR(64) NOT NULL")
+                .contains("until ", "at ", "by VARCHAR(255) NOT NULL")
+                .doesNotContainIgnoringCase("INDEX");
+    }
+
+    @Test
+    void shouldGeneratePostgresTable() {
+        assertThat(generator(DatabaseProduct.POSTGRES_SQL).build().getCreateTableStatement())
+                .isEqualTo("CREATE TABLE my_lock(lock_name VARCHAR(64) NOT NULL, until TIMESTAMP NOT NULL,"
+                        + " at TIMESTAMP NOT NULL, by VARCHAR(255) NOT NULL, PRIMARY KEY (lock_name))"
+                        + " WITH (fillfactor = 50)");
+        assertThat(generator(DatabaseProduct.POSTGRES_SQL)
+                        .withFillFactor(100)
+                        .inMemory()
+                        .build()
+                        .getCreateTableStatement())
+                .isEqualTo("CREATE UNLOGGED TABLE my_lock(lock_name VARCHAR(64) NOT NULL, until TIMESTAMP NOT NULL,"
+                        + " at TIMESTAMP NOT NULL, by VARCHAR(255) NOT NULL, PRIMARY KEY (lock_name))");
+    }
+
+    @Test
+    void shouldGenerateMySqlMemoryTable() {
+        assertThat(generator(DatabaseProduct.MY_SQL).inMemory().build().getCreateTableStatement())
+                .endsWith("PRIMARY KEY (lock_name)) ENGINE=MEMORY");
+    }
+
+    @Test
+    void shouldGenerateSqlServerTables() {
+        assertThat(generator(DatabaseProduct.SQL_SERVER).build().getCreateTableStatement())
+                .endsWith("PRIMARY KEY (lock_name) WITH (FILLFACTOR = 50))");
+        assertThat(generator(DatabaseProduct.SQL_SERVER).inMemory().build().getCreateTableStatement())
+                .endsWith(
+                        "PRIMARY KEY NONCLUSTERED (lock_name)) WITH (MEMORY_OPTIMIZED = ON, DURABILITY = SCHEMA_ONLY)");
+    }
+
+    @Test
+    void shouldGenerateOracleTable() {
+        assertThat(generator(DatabaseProduct.ORACLE).withFillFactor(70).build().getCreateTableStatement())
+                .endsWith("PRIMARY KEY (lock_name)) PCTFREE 30");
+    }
+
+    @Test
+    void shouldRejectInvalidFillFactor() {
+        assertThatThrownBy(() -> generator(DatabaseProduct.POSTGRES_SQL).withFillFactor(0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void shouldGenerateTablePerPartition() {
+        SqlSchemaGenerator generator = SqlSchemaGenerator.builder(configuration(DatabaseProduct.H2, 3))
+                .build();
+
+        assertThat(generator.getCreateTableStatements())
+                .hasSize(3)
+                .satisfiesExactly(
+                        sql -> assertThat(sql).startsWith("CREATE TABLE my_lock_0("),
+                        sql -> assertThat(sql).startsWith("CREATE TABLE my_lock_1("),
+                        sql -> assertThat(sql).startsWith("CREATE TABLE my_lock_2("));
+        assertThatThrownBy(generator::getCreateTableStatement).isInstanceOf(IllegalStateException.class);
+    }
+
+    private static SqlSchemaGenerator.Builder generator(DatabaseProduct databaseProduct) {
+        return SqlSchemaGenerator.builder(configuration(databaseProduct));
+    }
+
+    private static SqlConfiguration configuration(DatabaseProduct databaseProduct) {
+        return configuration(databaseProduct, 1);
+    }
+
+    private static SqlConfiguration configuration(DatabaseProduct databaseProduct, int partitions) {
+        return new SqlConfiguration(
+                databaseProduct,
+                false,
+                "my_lock",
+                null,
+                new ColumnNames("lock_name", "until", "at", "by"),
+                "me",
+                false,
+                partitions) {};
+    }
+}
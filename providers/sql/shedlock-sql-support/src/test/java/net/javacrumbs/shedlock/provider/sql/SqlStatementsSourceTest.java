@@ -0,0 +1,148 @@
+package net.javacrumbs.shedlock.provider.sql;
+
+import static net.javacrumbs.shedlock.core.ClockProvider.now;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.Map;
+import java.util.Objects;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import net.javacrumbs.shedlock.core.ClockProvider;
+import net.javacrumbs.shedlock.core.LockConfiguration;
+import net.javacrumbs.shedlock.provider.sql.SqlConfiguration.ColumnNames;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+class SqlStatementsSourceTest {
+    private static final Pattern NAMED_PARAMETER = Pattern.compile(":[a-zA-Z]+");
+    // unlockTime is lockAtLeastUntil, so it does not depend on the current time
+    private static final LockConfiguration LOCK_CONFIGURATION =
+            new LockConfiguration(now(), "name", Duration.ofHours(2), Duration.ofMillis(3_600_500));
+
+    @ParameterizedTest
+    @EnumSource(value = DatabaseProduct.class, names = "UNKNOWN", mode = EnumSource.Mode.EXCLUDE)
+    void parametersShouldMatchParamsInDbTime(DatabaseProduct databaseProduct) {
+        assertParametersMatchParams(SqlStatementsSource.create(configuration(databaseProduct, true)));
+    }
+
+    @ParameterizedTest
+    @EnumSource(DatabaseProduct.class)
+    void parametersShouldMatchParamsInClientTime(DatabaseProduct databaseProduct) {
+        assertParametersMatchParams(SqlStatementsSource.create(configuration(databaseProduct, false)));
+    }
+
+    @ParameterizedTest
+    @EnumSource(
+            value = DatabaseProduct.class,
+            names = {"POSTGRES_SQL", "MY_SQL", "MARIA_DB", "SQL_SERVER", "ORACLE"})
+    void shouldProvideTryLockProcedure(DatabaseProduct databaseProduct) {
+        SqlStatementsSource source = SqlStatementsSource.create(configuration(databaseProduct, false));
+
+        assertThat(source.getTryLockProcedureDefinition()).contains("shedlock_try_lock");
+        assertThat(source.getTryLockProcedureCall()).isEqualTo("{call shedlock_try_lock(?, ?, ?, ?, ?, ?)}");
+    }
+
+    @ParameterizedTest
+    @EnumSource(
+            value = DatabaseProduct.class,
+            names = {"POSTGRES_SQL", "MY_SQL", "MARIA_DB", "SQL_SERVER", "ORACLE"},
+            mode = EnumSource.Mode.EXCLUDE)
+    void shouldNotProvideTryLockProcedureForOtherDatabases(DatabaseProduct databaseProduct) {
+        SqlStatementsSource source = SqlStatementsSource.create(configuration(databaseProduct, false));
+
+        assertThat(source.getTryLockProcedureDefinition()).isNull();
+        assertThat(source.getTryLockProcedureCall()).isNull();
+    }
+
+    @ParameterizedTest
+    @EnumSource(value = DatabaseProduct.class, names = "UNKNOWN", mode = EnumSource.Mode.EXCLUDE)
+    void shouldNotProvideTryLockProcedureInDbTime(DatabaseProduct databaseProduct) {
+        SqlStatementsSource source = SqlStatementsSource.create(configuration(databaseProduct, true));
+
+        assertThat(source.getTryLockProcedureDefinition()).isNull();
+        assertThat(source.getTryLockProcedureCall()).isNull();
+    }
+
+    @ParameterizedTest
+    @EnumSource(value = DatabaseProduct.class, names = "UNKNOWN", mode = EnumSource.Mode.EXCLUDE)
+    void shouldSelectDbTimeWithLockUntilInDbTime(DatabaseProduct databaseProduct) {
+        SqlStatementsSource source = SqlStatementsSource.create(configuration(databaseProduct, true));
+
+        assertThat(source.getLockUntilStatement()).startsWith("SELECT lock_until, ").endsWith(" = :name");
+    }
+
+    @Test
+    void shouldConvertLockUntilUsingDbTime() {
+        // DB clock is 3 hours ahead (e.g. UTC vs. local time), the lock is held for 10 more seconds
+        Instant dbNow = now().plus(Duration.ofHours(3));
+
+        assertThat(SqlStatementsSource.toLocalTime(dbNow.plusSeconds(10), dbNow))
+                .isBetween(now().plusSeconds(9), now().plusSeconds(10));
+    }
+
+    @Test
+    void shouldTargetPartitionTable() {
+        SqlConfiguration configuration = new SqlConfiguration(
+                DatabaseProduct.POSTGRES_SQL,
+                true,
+                "shedlock",
+                null,
+                new ColumnNames("name", "lock_until", "locked_at", "locked_by"),
+                "me",
+                false,
+                4) {};
+        int partition = configuration.getPartition("lock-name");
+
+        assertThat(partition).isBetween(0, 3).isEqualTo(Math.floorMod("lock-name".hashCode(), 4));
+        SqlStatementsSource source = SqlStatementsSource.create(configuration.forPartition(partition));
+        assertThat(source.getUpdateStatement()).startsWith("UPDATE SHEDLOCK_" + partition + " SET LOCK_UNTIL");
+        assertThat(source.getLockUntilStatement()).contains("FROM SHEDLOCK_" + partition + " WHERE NAME");
+    }
+
+    private static void assertParametersMatchParams(SqlStatementsSource source) {
+        // fixed clock, so "now" is the same in params() and in the parameter function
+        ClockProvider.setClock(Clock.fixed(LOCK_CONFIGURATION.getLockAtMostUntil(), ZoneOffset.UTC));
+        try {
+            Map<String, Object> params = source.params(LOCK_CONFIGURATION);
+            params.forEach((name, param) -> {
+                Object expected = param instanceof ZonedDateTime dateTime ? dateTime.toInstant() : param;
+                assertThat(source.parameter(name).apply(LOCK_CONFIGURATION))
+                        .as(name)
+                        .isEqualTo(expected);
+            });
+            Stream.of(
+                            source.getInsertStatement(),
+                            source.getUpsertStatement(),
+                            source.getUpdateStatement(),
+                            source.getExtendStatement(),
+                            source.getUnlockStatement())
+                    .filter(Objects::nonNull)
+                    .forEach(sql -> {
+                        Matcher matcher = NAMED_PARAMETER.matcher(sql);
+                        while (matcher.find()) {
+                            assertThat(params).containsKey(matcher.group().substring(1));
+                        }
+                    });
+        } finally {
+            ClockProvider.setClock(Clock.systemUTC());
+        }
+    }
+
+    private static SqlConfiguration configuration(DatabaseProduct databaseProduct, boolean useDbTime) {
+        return new SqlConfiguration(
+                databaseProduct,
+                false,
+                "shedlock",
+                null,
+                new ColumnNames("name", "lock_until", "locked_at", "locked_by"),
+                "me",
+                useDbTime) {};
+    }
+}
@@ -0,0 +1,70 @@
+package net.javacrumbs.shedlock.provider.sql.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import net.javacrumbs.shedlock.core.LockConfiguration;
+import net.javacrumbs.shedlock.provider.sql.DatabaseProduct;
+import net.javacrumbs.shedlock.provider.sql.SqlConfiguration;
+import net.javacrumbs.shedlock.provider.sql.SqlConfiguration.ColumnNames;
+import net.javacrumbs.shedlock.provider.sql.SqlStatementsSource;
+import net.javacrumbs.shedlock.provider.sql.internal.NamedSqlTranslator.SqlTemplate;
+import org.junit.jupiter.api.Test;
+
+class NamedSqlTranslatorTest {
+    private static final String SQL =
+            "UPDATE shedlock SET lock_until = :lockUntil WHERE name = :name AND lock_until > :lockUntil";
+    private static final LockConfiguration LOCK_CONFIGURATION =
+            new LockConfiguration(Instant.parse("2024-01-01T10:00:00Z"), "lock", Duration.ofMinutes(1), Duration.ZERO);
+
+    private final SqlStatementsSource sqlStatementsSource = SqlStatementsSource.create(new SqlConfiguration(
+            DatabaseProduct.UNKNOWN,
+            false,
+            "shedlock",
+            null,
+            new ColumnNames("name", "lock_until", "locked_at", "locked_by"),
+            "me",
+            false) {});
+
+    @Test
+    void shouldCompileToJdbcParameters() {
+        SqlTemplate template = NamedSqlTranslator.compile(SQL, sqlStatementsSource);
+
+        assertThat(template.sql())
+                .isEqualTo("UPDATE shedlock SET lock_until = ? WHERE name = ? AND lock_until > ?");
+        assertThat(template.names()).containsExactly("lockUntil", "name");
+        assertThat(template.positions()).containsExactly(0, 1, 0);
+        assertThat(template.parameters().get(0).apply(LOCK_CONFIGURATION))
+                .isEqualTo(Instant.parse("2024-01-01T10:01:00Z"));
+        assertThat(template.parameters().get(1).apply(LOCK_CONFIGURATION)).isEqualTo("lock");
+    }
+
+    @Test
+    void shouldCompileToDriverSpecificParameters() {
+        SqlTemplate template =
+                NamedSqlTranslator.compile(SQL, sqlStatementsSource, (position, name) -> "$" + position);
+
+        assertThat(template.sql())
+                .isEqualTo("UPDATE shedlock SET lock_until = $1 WHERE name = $2 AND lock_until > $3");
+    }
+
+    @Test
+    void shouldRejectUnknownParameter() {
+        assertThatThrownBy(() -> NamedSqlTranslator.compile("SELECT * FROM t WHERE x = :unknown", sqlStatementsSource))
+                .isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> NamedSqlTranslator.translate("SELECT * FROM t WHERE x = :unknown", Map.of()))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void shouldTranslateWithValues() {
+        NamedSqlTranslator.SqlStatement statement =
+                NamedSqlTranslator.translate("SELECT lock_until FROM shedlock WHERE name = :name", Map.of("name", "a"));
+
+        assertThat(statement.sql()).isEqualTo("SELECT lock_until FROM shedlock WHERE name = ?");
+        assertThat(statement.parameters()).containsExactly("a");
+    }
+}
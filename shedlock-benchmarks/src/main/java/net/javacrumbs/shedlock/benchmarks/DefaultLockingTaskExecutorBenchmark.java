@@ -0,0 +1,37 @@
+/**
+ * Copyright 2009 the original author or authors.
+ *
+ * <p>Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * <p>http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * <p>Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.javacrumbs.shedlock.benchmarks;
+
+import net.javacrumbs.shedlock.core.DefaultLockingTaskExecutor;
+import net.javacrumbs.shedlock.core.LockingTaskExecutor;
+import net.javacrumbs.shedlock.core.LockingTaskExecutor.TaskResult;
+import net.javacrumbs.shedlock.provider.inmemory.InMemoryLockProvider;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Measures the overhead {@link DefaultLockingTaskExecutor} adds around a task
+ * (LockAssert, LockExtender, listener, logging), using the cheapest available
+ * LockProvider.
+ */
+@State(Scope.Benchmark)
+public class DefaultLockingTaskExecutorBenchmark {
+    private final LockingTaskExecutor executor = new DefaultLockingTaskExecutor(new InMemoryLockProvider());
+
+    @Benchmark
+    public TaskResult<String> executeWithLock(LockNames lockNames) throws Throwable {
+        return executor.executeWithLock(() -> lockNames.lockName, lockNames.lockConfiguration());
+    }
+}
@@ -0,0 +1,34 @@
+/**
+ * Copyright 2009 the original author or authors.
+ *
+ * <p>Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * <p>http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * <p>Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.javacrumbs.shedlock.benchmarks;
+
+import java.util.Optional;
+import net.javacrumbs.shedlock.core.SimpleLock;
+import net.javacrumbs.shedlock.provider.inmemory.InMemoryLockProvider;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+/** Lock and unlock round-trip of {@link InMemoryLockProvider}. */
+@State(Scope.Benchmark)
+public class InMemoryLockProviderBenchmark {
+    private final InMemoryLockProvider lockProvider = new InMemoryLockProvider();
+
+    @Benchmark
+    public boolean lockAndUnlock(LockNames lockNames) {
+        Optional<SimpleLock> lock = lockProvider.lock(lockNames.lockConfiguration());
+        lock.ifPresent(SimpleLock::unlock);
+        return lock.isPresent();
+    }
+}
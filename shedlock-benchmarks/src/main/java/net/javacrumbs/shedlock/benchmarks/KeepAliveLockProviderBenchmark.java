@@ -0,0 +1,55 @@
+/**
+ * Copyright 2009 the original author or authors.
+ *
+ * <p>Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * <p>http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * <p>Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.javacrumbs.shedlock.benchmarks;
+
+import java.util.Optional;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import net.javacrumbs.shedlock.core.SimpleLock;
+import net.javacrumbs.shedlock.provider.inmemory.InMemoryLockProvider;
+import net.javacrumbs.shedlock.support.KeepAliveLockProvider;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Measures the cost of {@link KeepAliveLockProvider} scheduling and cancelling
+ * the renewal task around each lock.
+ */
+@State(Scope.Benchmark)
+public class KeepAliveLockProviderBenchmark {
+    private ScheduledThreadPoolExecutor executorService;
+    private KeepAliveLockProvider lockProvider;
+
+    @Setup
+    public void setUp() {
+        executorService = new ScheduledThreadPoolExecutor(1);
+        // cancelled renewal tasks would otherwise pile up in the queue for lockAtMostFor/2
+        executorService.setRemoveOnCancelPolicy(true);
+        lockProvider = new KeepAliveLockProvider(new InMemoryLockProvider(), executorService);
+    }
+
+    @TearDown
+    public void tearDown() {
+        executorService.shutdownNow();
+    }
+
+    @Benchmark
+    public boolean lockAndUnlock(LockNames lockNames) {
+        Optional<SimpleLock> lock = lockProvider.lock(lockNames.lockConfiguration());
+        lock.ifPresent(SimpleLock::unlock);
+        return lock.isPresent();
+    }
+}
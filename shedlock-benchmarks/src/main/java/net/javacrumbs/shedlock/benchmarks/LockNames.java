@@ -0,0 +1,50 @@
+/**
+ * Copyright 2009 the original author or authors.
+ *
+ * <p>Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * <p>http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * <p>Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.javacrumbs.shedlock.benchmarks;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import net.javacrumbs.shedlock.core.ClockProvider;
+import net.javacrumbs.shedlock.core.LockConfiguration;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Per-thread lock name. In the contended case all benchmark threads compete for
+ * the same lock, in the uncontended case every thread has its own lock.
+ */
+@State(Scope.Thread)
+public class LockNames {
+    private static final AtomicInteger threadCounter = new AtomicInteger();
+
+    static final Duration LOCK_AT_MOST_FOR = Duration.ofMinutes(1);
+
+    @Param({"uncontended", "contended"})
+    public String contention;
+
+    String lockName;
+
+    @Setup
+    public void setUp() {
+        lockName = "contended".equals(contention)
+                ? "benchmark-lock"
+                : "benchmark-lock-" + threadCounter.incrementAndGet();
+    }
+
+    LockConfiguration lockConfiguration() {
+        return new LockConfiguration(ClockProvider.now(), lockName, LOCK_AT_MOST_FOR, Duration.ZERO);
+    }
+}
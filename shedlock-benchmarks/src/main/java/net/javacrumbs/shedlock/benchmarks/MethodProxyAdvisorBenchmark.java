@@ -0,0 +1,77 @@
+/**
+ * Copyright 2009 the original author or authors.
+ *
+ * <p>Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * <p>http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * <p>Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.javacrumbs.shedlock.benchmarks;
+
+import static net.javacrumbs.shedlock.spring.annotation.EnableSchedulerLock.InterceptMode.PROXY_METHOD;
+
+import net.javacrumbs.shedlock.core.LockProvider;
+import net.javacrumbs.shedlock.provider.inmemory.InMemoryLockProvider;
+import net.javacrumbs.shedlock.spring.annotation.EnableSchedulerLock;
+import net.javacrumbs.shedlock.spring.annotation.SchedulerLock;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Calls a {@link SchedulerLock} annotated method through the Spring method proxy,
+ * so the measurement includes the interceptor, SpEL lock name evaluation and
+ * lock configuration extraction.
+ */
+@State(Scope.Benchmark)
+public class MethodProxyAdvisorBenchmark {
+    private AnnotationConfigApplicationContext context;
+    private LockedService lockedService;
+
+    @Setup
+    public void setUp() {
+        context = new AnnotationConfigApplicationContext(BenchmarkConfig.class);
+        lockedService = context.getBean(LockedService.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public String lockedMethod(LockNames lockNames) {
+        return lockedService.lockedMethod(lockNames.lockName);
+    }
+
+    @Configuration
+    @EnableSchedulerLock(interceptMode = PROXY_METHOD, defaultLockAtMostFor = "PT1M")
+    static class BenchmarkConfig {
+        @Bean
+        LockProvider lockProvider() {
+            return new InMemoryLockProvider();
+        }
+
+        @Bean
+        LockedService lockedService() {
+            return new LockedService();
+        }
+    }
+
+    public static class LockedService {
+        @SchedulerLock(name = "#{#arg0}")
+        public String lockedMethod(String lockName) {
+            return lockName;
+        }
+    }
+}
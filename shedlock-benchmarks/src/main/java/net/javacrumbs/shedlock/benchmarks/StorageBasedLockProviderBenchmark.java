@@ -0,0 +1,79 @@
+/**
+ * Copyright 2009 the original author or authors.
+ *
+ * <p>Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * <p>http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * <p>Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.javacrumbs.shedlock.benchmarks;
+
+import static net.javacrumbs.shedlock.core.ClockProvider.now;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import net.javacrumbs.shedlock.core.LockConfiguration;
+import net.javacrumbs.shedlock.core.SimpleLock;
+import net.javacrumbs.shedlock.support.StorageAccessor;
+import net.javacrumbs.shedlock.support.StorageBasedLockProvider;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Measures {@link StorageBasedLockProvider} on top of an in-memory
+ * {@link StorageAccessor}, so only the provider's own overhead (record registry,
+ * lock objects) is measured, not the storage round-trip.
+ */
+@State(Scope.Benchmark)
+public class StorageBasedLockProviderBenchmark {
+    private final StorageBasedLockProvider lockProvider = new MapStorageBasedLockProvider();
+
+    @Benchmark
+    public boolean lockAndUnlock(LockNames lockNames) {
+        Optional<SimpleLock> lock = lockProvider.lock(lockNames.lockConfiguration());
+        lock.ifPresent(SimpleLock::unlock);
+        return lock.isPresent();
+    }
+
+    private static class MapStorageBasedLockProvider extends StorageBasedLockProvider {
+        MapStorageBasedLockProvider() {
+            super(new MapStorageAccessor());
+        }
+    }
+
+    private static class MapStorageAccessor implements StorageAccessor {
+        private final ConcurrentMap<String, Instant> lockUntil = new ConcurrentHashMap<>();
+
+        @Override
+        public boolean insertRecord(LockConfiguration lockConfiguration) {
+            return lockUntil.putIfAbsent(lockConfiguration.getName(), lockConfiguration.getLockAtMostUntil()) == null;
+        }
+
+        @Override
+        public boolean updateRecord(LockConfiguration lockConfiguration) {
+            AtomicBoolean updated = new AtomicBoolean();
+            lockUntil.computeIfPresent(lockConfiguration.getName(), (name, current) -> {
+                if (!current.isAfter(now())) {
+                    updated.set(true);
+                    return lockConfiguration.getLockAtMostUntil();
+                }
+                return current;
+            });
+            return updated.get();
+        }
+
+        @Override
+        public void unlock(LockConfiguration lockConfiguration) {
+            lockUntil.put(lockConfiguration.getName(), lockConfiguration.getUnlockTime());
+        }
+    }
+}
@@ -0,0 +1,56 @@
+/**
+ * Copyright 2009 the original author or authors.
+ *
+ * <p>Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * <p>http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * <p>Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.javacrumbs.shedlock.core;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+public abstract class AbstractAsyncSimpleLock implements AsyncSimpleLock {
+    // unlock/extend can be called from a different thread than the one that obtained the lock
+    private boolean valid = true;
+    protected final LockConfiguration lockConfiguration;
+
+    protected AbstractAsyncSimpleLock(LockConfiguration lockConfiguration) {
+        this.lockConfiguration = lockConfiguration;
+    }
+
+    @Override
+    public final CompletionStage<Void> unlockAsync() {
+        invalidate();
+        return doUnlockAsync();
+    }
+
+    protected abstract CompletionStage<Void> doUnlockAsync();
+
+    @Override
+    public CompletionStage<Optional<AsyncSimpleLock>> extendAsync(Duration lockAtMostFor, Duration lockAtLeastFor) {
+        invalidate();
+        return doExtendAsync(
+                new LockConfiguration(ClockProvider.now(), lockConfiguration.getName(), lockAtMostFor, lockAtLeastFor));
+    }
+
+    protected CompletionStage<Optional<AsyncSimpleLock>> doExtendAsync(LockConfiguration newConfiguration) {
+        return CompletableFuture.failedFuture(new UnsupportedOperationException());
+    }
+
+    private synchronized void invalidate() {
+        if (!valid) {
+            throw new IllegalStateException(
+                    "Lock " + lockConfiguration.getName() + " is not valid, it has already been unlocked or extended");
+        }
+        valid = false;
+    }
+}
@@ -0,0 +1,32 @@
+/**
+ * Copyright 2009 the original author or authors.
+ *
+ * <p>Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * <p>http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * <p>Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.javacrumbs.shedlock.core;
+
+import java.util.Optional;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * Non-blocking variant of {@link LockProvider}. Implemented by providers that
+ * are able to communicate with the storage without blocking the calling thread.
+ */
+public interface AsyncLockProvider {
+
+    /**
+     * Attempts to acquire a lock for the given configuration without blocking.
+     *
+     * @return Stage completed with empty optional if the lock could not be
+     *         acquired. The lock has to be released by the callee.
+     */
+    CompletionStage<Optional<AsyncSimpleLock>> lockAsync(LockConfiguration lockConfiguration);
+}
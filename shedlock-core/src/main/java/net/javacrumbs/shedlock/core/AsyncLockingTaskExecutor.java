@@ -0,0 +1,174 @@
+/**
+ * Copyright 2009 the original author or authors.
+ *
+ * <p>Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * <p>http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * <p>Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.javacrumbs.shedlock.core;
+
+import static java.util.Objects.requireNonNull;
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static java.util.concurrent.CompletableFuture.failedFuture;
+import static net.javacrumbs.shedlock.core.LockAssert.alreadyLockedBy;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Function;
+import net.javacrumbs.shedlock.core.LockingTaskExecutor.TaskResult;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Executes tasks that return {@link CompletionStage}. Unlike
+ * {@link DefaultLockingTaskExecutor}, the lock is held until the returned stage
+ * completes, not only until the task method returns. The lock is released in a
+ * completion callback.
+ *
+ * <p>
+ * If the LockProvider implements {@link AsyncLockProvider}, the lock is
+ * obtained and released without blocking. Otherwise, the lock is obtained on the
+ * calling thread and released on the thread that completes the stage.
+ *
+ * <p>
+ * {@link LockAssert} works only in the synchronous part of the task (until the
+ * task returns the stage). {@link LockExtender} is not supported, it throws
+ * {@link LockExtender.NoActiveLockException} even if the task is executed
+ * within another lock.
+ */
+public class AsyncLockingTaskExecutor {
+    private static final Logger logger = LoggerFactory.getLogger(AsyncLockingTaskExecutor.class);
+    private final LockProvider lockProvider;
+    private final LockingTaskExecutorListener lockingTaskExecutorListener;
+
+    public AsyncLockingTaskExecutor(LockProvider lockProvider) {
+        this(lockProvider, LockingTaskExecutorListener.NO_OP);
+    }
+
+    public AsyncLockingTaskExecutor(
+            LockProvider lockProvider, LockingTaskExecutorListener lockingTaskExecutorListener) {
+        this.lockProvider = requireNonNull(lockProvider);
+        this.lockingTaskExecutorListener = requireNonNull(lockingTaskExecutorListener);
+    }
+
+    /**
+     * Executes the task if the lock can be obtained. The returned stage is
+     * completed after the stage returned by the task completes and the lock is
+     * released.
+     */
+    public <T> CompletionStage<TaskResult<T>> executeWithLock(AsyncTask<T> task, LockConfiguration lockConfig) {
+        String lockName = lockConfig.getName();
+        if (alreadyLockedBy(lockName)) {
+            logger.debug("Already locked '{}'", lockName);
+            return executeTask(task, lockConfig);
+        }
+
+        safeEmit("onLockAttempt", () -> lockingTaskExecutorListener.onLockAttempt(lockConfig));
+        return lock(lockConfig).thenCompose(lock -> {
+            if (lock.isPresent()) {
+                safeEmit("onLockAcquired", () -> lockingTaskExecutorListener.onLockAcquired(lockConfig));
+                logger.debug(
+                        "Locked '{}', lock will be held at most until {}", lockName, lockConfig.getLockAtMostUntil());
+                // LockAssert only covers the synchronous part of the task, no lock can be extended
+                CompletionStage<TaskResult<T>> result;
+                try {
+                    result = LockContext.createAsync(lockName).call(() -> executeTask(task, lockConfig));
+                } catch (Throwable e) {
+                    result = failedFuture(e);
+                }
+                return result.handle((taskResult, taskError) -> lock.get()
+                                .unlockAsync()
+                                .handle((ignored, unlockError) -> {
+                                    logger.debug("Task finished, lock '{}' released", lockName);
+                                    Throwable error = taskError != null ? taskError : unlockError;
+                                    if (error != null) {
+                                        throw asCompletionException(error);
+                                    }
+                                    return taskResult;
+                                }))
+                        .thenCompose(Function.identity());
+            } else {
+                safeEmit("onLockNotAcquired", () -> lockingTaskExecutorListener.onLockNotAcquired(lockConfig));
+                logger.debug("Not executing '{}'. It's locked.", lockName);
+                return completedFuture(TaskResult.notExecuted());
+            }
+        });
+    }
+
+    private CompletionStage<Optional<AsyncSimpleLock>> lock(LockConfiguration lockConfig) {
+        try {
+            if (lockProvider instanceof AsyncLockProvider asyncLockProvider) {
+                return asyncLockProvider.lockAsync(lockConfig);
+            } else {
+                return completedFuture(lockProvider.lock(lockConfig).map(SimpleLockAdapter::new));
+            }
+        } catch (RuntimeException e) {
+            return failedFuture(e);
+        }
+    }
+
+    private <T> CompletionStage<TaskResult<T>> executeTask(AsyncTask<T> task, LockConfiguration lockConfig) {
+        safeEmit("onTaskStarted", () -> lockingTaskExecutorListener.onTaskStarted(lockConfig));
+        long taskStartTime = System.nanoTime();
+        CompletionStage<@Nullable T> stage;
+        try {
+            stage = requireNonNull(task.call(), "Task returned null instead of CompletionStage");
+        } catch (Throwable e) {
+            stage = failedFuture(e);
+        }
+        return stage.whenComplete((result, e) -> {
+                    Duration taskDuration = Duration.ofNanos(System.nanoTime() - taskStartTime);
+                    safeEmit(
+                            "onTaskFinished",
+                            () -> lockingTaskExecutorListener.onTaskFinished(lockConfig, taskDuration));
+                })
+                .thenApply(TaskResult::result);
+    }
+
+    private static CompletionException asCompletionException(Throwable e) {
+        return e instanceof CompletionException completionException
+                ? completionException
+                : new CompletionException(e);
+    }
+
+    private void safeEmit(String eventName, Runnable emitter) {
+        try {
+            emitter.run();
+        } catch (Exception e) {
+            logger.debug("LockingTaskExecutorListener threw exception during {}", eventName, e);
+        }
+    }
+
+    @FunctionalInterface
+    public interface AsyncTask<T> {
+        CompletionStage<@Nullable T> call() throws Throwable;
+    }
+
+    /** Releases blocking lock in the completion callback */
+    private static class SimpleLockAdapter implements AsyncSimpleLock {
+        private final SimpleLock lock;
+
+        private SimpleLockAdapter(SimpleLock lock) {
+            this.lock = lock;
+        }
+
+        @Override
+        public CompletionStage<Void> unlockAsync() {
+            try {
+                lock.unlock();
+                return completedFuture(null);
+            } catch (RuntimeException e) {
+                return failedFuture(e);
+            }
+        }
+    }
+}
@@ -71,16 +71,15 @@ public class DefaultLockingTaskExecutor implements LockingTaskExecutor {
         safeEmit("onLockAttempt", () -> lockingTaskExecutorListener.onLockAttempt(lockConfig));
         Optional<SimpleLock> lock = lockProvider.lock(lockConfig);
         if (lock.isPresent()) {
+            LockContext context = LockContext.create(lockName, lock.get());
             try {
-                LockAssert.startLock(lockName);
-                LockExtender.startLock(lock.get());
                 safeEmit("onLockAcquired", () -> lockingTaskExecutorListener.onLockAcquired(lockConfig));
                 logger.debug(
                         "Locked '{}', lock will be held at most until {}", lockName, lockConfig.getLockAtMostUntil());
-                return executeTask(task, lockConfig);
+                return context.call(() -> executeTask(task, lockConfig));
             } finally {
-                LockAssert.endLock();
-                SimpleLock activeLock = LockExtender.endLock();
+                // the lock might have been replaced by LockExtender
+                SimpleLock activeLock = context.lock();
                 if (activeLock != null) {
                     activeLock.unlock();
                 } else {
@@ -13,9 +13,6 @@
  */
 package net.javacrumbs.shedlock.core;
 
-import java.util.ArrayDeque;
-import java.util.Deque;
-
 /**
  * Asserts lock presence. The Spring ecosystem is so complicated, so one can not
  * be sure that the lock is applied. This class makes sure that the task is
@@ -26,40 +23,24 @@ import java.util.Deque;
  * you use TaskExecutor wrapper, it can be broken by Sleuth,.
  */
 public final class LockAssert {
-    // using null initial value so new LinkedList is not created every time we call
-    // alreadyLockedBy
-    private static final ThreadLocal<Deque<String>> activeLocksTL = ThreadLocal.withInitial(() -> null);
-
     private LockAssert() {}
 
     static void startLock(String name) {
-        activeLocks().add(name);
+        LockContextHolder.enter(LockContext.create(name, null));
     }
 
     static boolean alreadyLockedBy(String name) {
-        Deque<String> activeLocks = activeLocksTL.get();
-        return activeLocks != null && activeLocks.contains(name);
+        LockContext context = LockContext.current();
+        return context != null && context.isLockedBy(name);
     }
 
     static void endLock() {
-        Deque<String> activeLocks = activeLocks();
-        activeLocks.removeLast();
-        if (activeLocks.isEmpty()) {
-            activeLocksTL.remove();
-        }
-    }
-
-    private static Deque<String> activeLocks() {
-        if (activeLocksTL.get() == null) {
-            activeLocksTL.set(new ArrayDeque<>());
-        }
-        return activeLocksTL.get();
+        LockContextHolder.exit();
     }
 
     /** Throws an exception if the lock is not present. */
     public static void assertLocked() {
-        Deque<String> activeLocks = activeLocksTL.get();
-        if (activeLocks == null || activeLocks.isEmpty()) {
+        if (LockContext.current() == null) {
             throw new IllegalStateException("The task is not locked.");
         }
     }
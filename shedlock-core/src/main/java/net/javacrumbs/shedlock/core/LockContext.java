@@ -0,0 +1,113 @@
+/**
+ * Copyright 2009 the original author or authors.
+ *
+ * <p>Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * <p>http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * <p>Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.javacrumbs.shedlock.core;
+
+import static java.util.Objects.requireNonNull;
+
+import java.time.Duration;
+import java.util.Optional;
+import net.javacrumbs.shedlock.core.LockingTaskExecutor.TaskWithResult;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Lock held by the current thread, shared by {@link LockAssert} and
+ * {@link LockExtender}. Nested locks are linked through the parent, so each
+ * lock acquisition allocates a single node instead of updating two deques.
+ * Where the innermost node is stored depends on the JDK, see
+ * {@link LockContextHolder}.
+ */
+final class LockContext {
+    private final String lockName;
+    private final @Nullable LockContext parent;
+    // null if the lock can not be extended (LockAssert only)
+    private @Nullable SimpleLock lock;
+    // true if locks of the enclosing contexts must not be extended from this one
+    private final boolean extensionBarrier;
+
+    private LockContext(
+            String lockName, @Nullable SimpleLock lock, @Nullable LockContext parent, boolean extensionBarrier) {
+        this.lockName = lockName;
+        this.lock = lock;
+        this.parent = parent;
+        this.extensionBarrier = extensionBarrier;
+    }
+
+    /** Creates context nested in the current one. */
+    static LockContext create(String lockName, @Nullable SimpleLock lock) {
+        return new LockContext(lockName, lock, LockContextHolder.current(), false);
+    }
+
+    /**
+     * Creates context of an async task nested in the current one. The lock of
+     * an async task can not be extended and extending an enclosing lock instead
+     * would be wrong, so {@link #extensibleContext()} stops here.
+     */
+    static LockContext createAsync(String lockName) {
+        return new LockContext(lockName, null, LockContextHolder.current(), true);
+    }
+
+    @Nullable
+    static LockContext current() {
+        return LockContextHolder.current();
+    }
+
+    /** Executes the task with this context active. */
+    <T> @Nullable T call(TaskWithResult<T> task) throws Throwable {
+        return LockContextHolder.call(this, task);
+    }
+
+    @Nullable
+    LockContext parent() {
+        return parent;
+    }
+
+    boolean isLockedBy(String name) {
+        for (LockContext context = this; context != null; context = context.parent) {
+            if (context.lockName.equals(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** Returns the innermost context holding a lock that can be extended. */
+    @Nullable
+    LockContext extensibleContext() {
+        for (LockContext context = this; context != null; context = context.parent) {
+            if (context.lock() != null) {
+                return context;
+            }
+            if (context.extensionBarrier) {
+                return null;
+            }
+        }
+        return null;
+    }
+
+    synchronized @Nullable SimpleLock lock() {
+        return lock;
+    }
+
+    /**
+     * Extends the lock. Synchronized as the context may be visible to child
+     * threads (ScopedValue is inherited by StructuredTaskScope forks).
+     *
+     * @return false if the lock can not be extended
+     */
+    synchronized boolean extend(Duration lockAtMostFor, Duration lockAtLeastFor) {
+        Optional<SimpleLock> newLock = requireNonNull(lock).extend(lockAtMostFor, lockAtLeastFor);
+        newLock.ifPresent(extendedLock -> lock = extendedLock);
+        return newLock.isPresent();
+    }
+}
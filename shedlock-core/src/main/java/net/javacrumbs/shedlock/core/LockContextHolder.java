@@ -0,0 +1,58 @@
+/**
+ * Copyright 2009 the original author or authors.
+ *
+ * <p>Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * <p>http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * <p>Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.javacrumbs.shedlock.core;
+
+import net.javacrumbs.shedlock.core.LockingTaskExecutor.TaskWithResult;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Holds the innermost {@link LockContext} of the current thread in a
+ * ThreadLocal. On JDK 25+ this class is replaced by a ScopedValue based version
+ * from META-INF/versions/25.
+ */
+final class LockContextHolder {
+    private static final ThreadLocal<@Nullable LockContext> current = new ThreadLocal<>();
+
+    private LockContextHolder() {}
+
+    @Nullable
+    static LockContext current() {
+        return current.get();
+    }
+
+    static <T> @Nullable T call(LockContext context, TaskWithResult<T> task) throws Throwable {
+        enter(context);
+        try {
+            return task.call();
+        } finally {
+            exit();
+        }
+    }
+
+    /** Activates the context until {@link #exit()} is called. */
+    static void enter(LockContext context) {
+        current.set(context);
+    }
+
+    /** Deactivates the innermost context activated by {@link #enter(LockContext)}. */
+    static void exit() {
+        LockContext context = current.get();
+        LockContext parent = context != null ? context.parent() : null;
+        if (parent == null) {
+            current.remove();
+        } else {
+            current.set(parent);
+        }
+    }
+}
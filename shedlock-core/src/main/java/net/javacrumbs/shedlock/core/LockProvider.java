@@ -13,6 +13,9 @@
  */
 package net.javacrumbs.shedlock.core;
 
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Optional;
 
 /** Provides lock implementation. */
@@ -25,4 +28,34 @@ public interface LockProvider {
      *         lock has to be released by the callee.
      */
     Optional<SimpleLock> lock(LockConfiguration lockConfiguration);
+
+    /**
+     * Attempts to acquire locks for all the configurations. Lock providers that
+     * support it acquire the locks in a single round-trip, the default
+     * implementation calls {@link #lock(LockConfiguration)} for each
+     * configuration. Lock names have to be unique.
+     *
+     * @return locks that have been acquired, keyed by lock name. Locks missing in
+     *         the map could not be acquired. All returned locks have to be released
+     *         by the callee.
+     */
+    default Map<String, SimpleLock> lockAll(Collection<LockConfiguration> lockConfigurations) {
+        Map<String, SimpleLock> locks = new LinkedHashMap<>();
+        try {
+            for (LockConfiguration lockConfiguration : lockConfigurations) {
+                lock(lockConfiguration).ifPresent(lock -> locks.put(lockConfiguration.getName(), lock));
+            }
+            return locks;
+        } catch (RuntimeException e) {
+            // do not leak locks we already have
+            for (SimpleLock lock : locks.values()) {
+                try {
+                    lock.unlock();
+                } catch (RuntimeException unlockException) {
+                    e.addSuppressed(unlockException);
+                }
+            }
+            throw e;
+        }
+    }
 }
@@ -0,0 +1,44 @@
+/**
+ * Copyright 2009 the original author or authors.
+ *
+ * <p>Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * <p>http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * <p>Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.javacrumbs.shedlock.support;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import net.javacrumbs.shedlock.core.LockConfiguration;
+
+/**
+ * {@link StorageAccessor} that is able to access the storage without blocking.
+ * Semantics of the methods is the same as of their blocking counterparts.
+ */
+public interface AsyncStorageAccessor extends StorageAccessor {
+    /**
+     * Inserts a record, if it does not already exists.
+     *
+     * @return stage completed with true if inserted
+     */
+    CompletionStage<Boolean> insertRecordAsync(LockConfiguration lockConfiguration);
+
+    /**
+     * Tries to update the lock record.
+     *
+     * @return stage completed with true if updated
+     */
+    CompletionStage<Boolean> updateRecordAsync(LockConfiguration lockConfiguration);
+
+    CompletionStage<Void> unlockAsync(LockConfiguration lockConfiguration);
+
+    default CompletionStage<Boolean> extendAsync(LockConfiguration lockConfiguration) {
+        return CompletableFuture.failedFuture(new UnsupportedOperationException());
+    }
+}
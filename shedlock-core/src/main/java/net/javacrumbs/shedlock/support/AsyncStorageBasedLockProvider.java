@@ -0,0 +1,98 @@
+/**
+ * Copyright 2009 the original author or authors.
+ *
+ * <p>Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * <p>http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * <p>Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.javacrumbs.shedlock.support;
+
+import static java.util.concurrent.CompletableFuture.completedFuture;
+
+import java.util.Optional;
+import java.util.concurrent.CompletionStage;
+import net.javacrumbs.shedlock.core.AbstractAsyncSimpleLock;
+import net.javacrumbs.shedlock.core.AsyncLockProvider;
+import net.javacrumbs.shedlock.core.AsyncSimpleLock;
+import net.javacrumbs.shedlock.core.LockConfiguration;
+
+/**
+ * {@link StorageBasedLockProvider} that also provides non-blocking
+ * {@link AsyncLockProvider} API. Uses the same algorithm and shares the lock
+ * record cache with the blocking API.
+ */
+public class AsyncStorageBasedLockProvider extends StorageBasedLockProvider implements AsyncLockProvider {
+    private final AsyncStorageAccessor storageAccessor;
+
+    protected AsyncStorageBasedLockProvider(AsyncStorageAccessor storageAccessor) {
+        super(storageAccessor);
+        this.storageAccessor = storageAccessor;
+    }
+
+    @Override
+    public CompletionStage<Optional<AsyncSimpleLock>> lockAsync(LockConfiguration lockConfiguration) {
+        return doLockAsync(lockConfiguration)
+                .thenApply(lockObtained -> lockObtained
+                        ? Optional.of(new AsyncStorageLock(lockConfiguration, storageAccessor))
+                        : Optional.empty());
+    }
+
+    /** Non-blocking variant of {@link #doLock(LockConfiguration)} */
+    protected CompletionStage<Boolean> doLockAsync(LockConfiguration lockConfiguration) {
+        String name = lockConfiguration.getName();
+        LockRecordRegistry lockRecordRegistry = lockRecordRegistry();
+
+        boolean tryToCreateLockRecord = !lockRecordRegistry.lockRecordRecentlyCreated(name);
+        CompletionStage<Boolean> inserted;
+        if (tryToCreateLockRecord) {
+            inserted = storageAccessor.insertRecordAsync(lockConfiguration).thenApply(result -> {
+                // either we have created the record, or it already exists
+                lockRecordRegistry.addLockRecord(name);
+                return result;
+            });
+        } else {
+            inserted = completedFuture(false);
+        }
+
+        return inserted.thenCompose(result -> {
+            if (result) {
+                return completedFuture(true);
+            }
+            return storageAccessor.updateRecordAsync(lockConfiguration).whenComplete((updated, e) -> {
+                // see doLock for the explanation
+                if (e != null && tryToCreateLockRecord) {
+                    lockRecordRegistry.removeLockRecord(name);
+                }
+            });
+        });
+    }
+
+    private static class AsyncStorageLock extends AbstractAsyncSimpleLock {
+        private final AsyncStorageAccessor storageAccessor;
+
+        AsyncStorageLock(LockConfiguration lockConfiguration, AsyncStorageAccessor storageAccessor) {
+            super(lockConfiguration);
+            this.storageAccessor = storageAccessor;
+        }
+
+        @Override
+        protected CompletionStage<Void> doUnlockAsync() {
+            return storageAccessor.unlockAsync(lockConfiguration);
+        }
+
+        @Override
+        protected CompletionStage<Optional<AsyncSimpleLock>> doExtendAsync(LockConfiguration newConfig) {
+            return storageAccessor
+                    .extendAsync(newConfig)
+                    .thenApply(extended -> extended
+                            ? Optional.of(new AsyncStorageLock(newConfig, storageAccessor))
+                            : Optional.empty());
+        }
+    }
+}
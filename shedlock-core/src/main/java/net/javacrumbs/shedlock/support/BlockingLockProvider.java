@@ -0,0 +1,108 @@
+/**
+ * Copyright 2009 the original author or authors.
+ *
+ * <p>Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * <p>http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * <p>Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.javacrumbs.shedlock.support;
+
+import static java.util.Objects.requireNonNull;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import net.javacrumbs.shedlock.core.AbstractSimpleLock;
+import net.javacrumbs.shedlock.core.AsyncLockProvider;
+import net.javacrumbs.shedlock.core.AsyncSimpleLock;
+import net.javacrumbs.shedlock.core.LockConfiguration;
+import net.javacrumbs.shedlock.core.LockProvider;
+import net.javacrumbs.shedlock.core.SimpleLock;
+
+/**
+ * Adapts {@link AsyncLockProvider} to the blocking {@link LockProvider} API. The
+ * calling thread waits for the result at most for the configured timeout.
+ */
+public class BlockingLockProvider implements LockProvider {
+    private final AsyncLockProvider wrapped;
+    private final Duration timeout;
+
+    public BlockingLockProvider(AsyncLockProvider wrapped) {
+        this(wrapped, Duration.ofSeconds(30));
+    }
+
+    public BlockingLockProvider(AsyncLockProvider wrapped, Duration timeout) {
+        this.wrapped = requireNonNull(wrapped);
+        this.timeout = requireNonNull(timeout);
+    }
+
+    @Override
+    public Optional<SimpleLock> lock(LockConfiguration lockConfiguration) {
+        CompletionStage<Optional<AsyncSimpleLock>> result = wrapped.lockAsync(lockConfiguration);
+        Optional<AsyncSimpleLock> lock;
+        try {
+            lock = await(result);
+        } catch (RuntimeException e) {
+            // nobody will get the lock if it's acquired after the timeout, release it
+            result.thenAccept(acquired -> acquired.ifPresent(AsyncSimpleLock::unlockAsync));
+            throw e;
+        }
+        return lock.map(asyncLock -> new BlockingLock(lockConfiguration, asyncLock));
+    }
+
+    private <T> T await(CompletionStage<T> stage) {
+        try {
+            return stage.toCompletableFuture().get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            throw unwrap(e.getCause() != null ? e.getCause() : e);
+        } catch (TimeoutException e) {
+            throw new LockException("Operation timed out", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new LockException("Operation interrupted", e);
+        }
+    }
+
+    private static RuntimeException unwrap(Throwable e) {
+        Throwable cause = e;
+        while (cause instanceof CompletionException && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        if (cause instanceof RuntimeException runtimeException) {
+            return runtimeException;
+        } else {
+            return new LockException(cause);
+        }
+    }
+
+    private class BlockingLock extends AbstractSimpleLock {
+        private final AsyncSimpleLock lock;
+
+        private BlockingLock(LockConfiguration lockConfiguration, AsyncSimpleLock lock) {
+            super(lockConfiguration);
+            this.lock = lock;
+        }
+
+        @Override
+        protected void doUnlock() {
+            await(lock.unlockAsync());
+        }
+
+        @Override
+        protected Optional<SimpleLock> doExtend(LockConfiguration newConfiguration) {
+            Optional<AsyncSimpleLock> extended = await(
+                    lock.extendAsync(newConfiguration.getLockAtMostFor(), newConfiguration.getLockAtLeastFor()));
+            return extended.map(asyncLock -> new BlockingLock(newConfiguration, asyncLock));
+        }
+    }
+}
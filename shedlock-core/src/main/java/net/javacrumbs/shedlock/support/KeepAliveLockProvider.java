@@ -5,7 +5,16 @@ import static net.javacrumbs.shedlock.core.ClockProvider.now;
 
 import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import net.javacrumbs.shedlock.core.AbstractSimpleLock;
@@ -13,6 +22,7 @@ import net.javacrumbs.shedlock.core.ExtensibleLockProvider;
 import net.javacrumbs.shedlock.core.LockConfiguration;
 import net.javacrumbs.shedlock.core.LockProvider;
 import net.javacrumbs.shedlock.core.SimpleLock;
+import org.jspecify.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -24,6 +34,14 @@ import org.slf4j.LoggerFactory;
  * automatically released after lockAtMostFor period as usual.
  *
  * <p>
+ * All locks share one periodic task. Each run of the task submits extensions of
+ * all the locks that are due to the executor service, so the number of timers
+ * does not grow with the number of locks and the extensions run in parallel if
+ * the executor service has more than one thread. The extension is rounded down
+ * to the tick of the task (one second by default), so the lock is extended a
+ * bit sooner rather than later.
+ *
+ * <p>
  * <b>Does not support lockAtMostFor shorter than 30s.</b> The reason is that
  * with short (subsecond) lockAtMostFor time the time when we attmpt to extend
  * the lock is too close to the expiration time and the lock can expire before
@@ -36,6 +54,13 @@ public class KeepAliveLockProvider implements LockProvider {
     private final ExtensibleLockProvider wrapped;
     private final ScheduledExecutorService executorService;
     private final Duration minimalLockAtMostFor;
+    private final long tickMs;
+
+    // locks to be extended, keyed by the tick in which the extension is due
+    private final NavigableMap<Long, Set<KeepAliveLock>> renewals = new TreeMap<>();
+    private long currentTick;
+    private @Nullable ScheduledFuture<?> ticker;
+    private volatile Duration renewalLag = Duration.ZERO;
 
     private static final Logger logger = LoggerFactory.getLogger(KeepAliveLockProvider.class);
 
@@ -48,46 +73,137 @@ public class KeepAliveLockProvider implements LockProvider {
         this.wrapped = wrapped;
         this.executorService = executorService;
         this.minimalLockAtMostFor = minimalLockAtMostFor;
+        this.tickMs = Math.max(1, Math.min(1_000, minimalLockAtMostFor.dividedBy(4).toMillis()));
     }
 
     @Override
     public Optional<SimpleLock> lock(LockConfiguration lockConfiguration) {
+        checkLockAtMostFor(lockConfiguration);
+        Optional<SimpleLock> lock = wrapped.lock(lockConfiguration);
+        return lock.map(simpleLock -> {
+            KeepAliveLock keepAliveLock = new KeepAliveLock(lockConfiguration, simpleLock);
+            scheduleRenewal(keepAliveLock);
+            return keepAliveLock;
+        });
+    }
+
+    private void checkLockAtMostFor(LockConfiguration lockConfiguration) {
         if (lockConfiguration.getLockAtMostFor().compareTo(minimalLockAtMostFor) < 0) {
             throw new IllegalArgumentException(
                     "Can not use KeepAliveLockProvider with lockAtMostFor shorter than " + minimalLockAtMostFor);
         }
-        Optional<SimpleLock> lock = wrapped.lock(lockConfiguration);
-        return lock.map(simpleLock -> new KeepAliveLock(lockConfiguration, simpleLock, executorService));
     }
 
-    private static class KeepAliveLock extends AbstractSimpleLock {
+    /**
+     * Returns how late the last extension of the locks was compared to the
+     * planned time. Growing lag means that the scheduler can not keep up with the
+     * number of the locks.
+     */
+    public Duration getRenewalLag() {
+        return renewalLag;
+    }
+
+    private synchronized void scheduleRenewal(KeepAliveLock lock) {
+        if (!lock.active) {
+            return;
+        }
+        long ticks = Math.max(1, lock.lockExtensionPeriod.toMillis() / tickMs);
+        lock.renewalTick = currentTick + ticks;
+        lock.renewalDueAt = now().plus(lock.lockExtensionPeriod);
+        renewals.computeIfAbsent(lock.renewalTick, tick -> new HashSet<>()).add(lock);
+        if (ticker == null) {
+            ticker = executorService.scheduleAtFixedRate(this::tick, tickMs, tickMs, MILLISECONDS);
+        }
+    }
+
+    private synchronized void cancelRenewal(KeepAliveLock lock) {
+        Set<KeepAliveLock> locks = renewals.get(lock.renewalTick);
+        if (locks != null && locks.remove(lock) && locks.isEmpty()) {
+            renewals.remove(lock.renewalTick);
+        }
+    }
+
+    private void tick() {
+        List<KeepAliveLock> dueLocks = takeDueLocks();
+        if (dueLocks.isEmpty()) {
+            return;
+        }
+        Instant now = now();
+        Duration lag = Duration.ZERO;
+        for (KeepAliveLock lock : dueLocks) {
+            Duration lockLag = Duration.between(lock.renewalDueAt, now);
+            if (lockLag.compareTo(lag) > 0) {
+                lag = lockLag;
+            }
+            // one slow extension does not delay the others if the executor has more threads
+            try {
+                executorService.execute(() -> extend(lock));
+            } catch (RejectedExecutionException e) {
+                extend(lock);
+            }
+        }
+        renewalLag = lag;
+    }
+
+    private void extend(KeepAliveLock lock) {
+        try {
+            if (lock.extendForNextPeriod()) {
+                scheduleRenewal(lock);
+            }
+        } catch (RuntimeException e) {
+            // the executor is shared by all the locks, the exception would be lost
+            logger.warn("Can't extend lock {}", lock.getName(), e);
+            lock.stop();
+        }
+    }
+
+    private synchronized List<KeepAliveLock> takeDueLocks() {
+        currentTick++;
+        List<KeepAliveLock> dueLocks = new ArrayList<>();
+        Iterator<Map.Entry<Long, Set<KeepAliveLock>>> iterator =
+                renewals.headMap(currentTick, true).entrySet().iterator();
+        while (iterator.hasNext()) {
+            dueLocks.addAll(iterator.next().getValue());
+            iterator.remove();
+        }
+        if (dueLocks.isEmpty() && renewals.isEmpty() && ticker != null) {
+            ticker.cancel(false);
+            ticker = null;
+        }
+        return dueLocks;
+    }
+
+    private class KeepAliveLock extends AbstractSimpleLock {
         private final Duration lockExtensionPeriod;
         private SimpleLock lock;
         private Duration remainingLockAtLeastFor;
-        private final ScheduledFuture<?> future;
-        private boolean active = true;
+        private volatile boolean active = true;
         private Instant currentLockAtMostUntil;
+        // guarded by the provider
+        private long renewalTick;
+        private Instant renewalDueAt;
 
-        private KeepAliveLock(
-                LockConfiguration lockConfiguration, SimpleLock lock, ScheduledExecutorService executorService) {
+        private KeepAliveLock(LockConfiguration lockConfiguration, SimpleLock lock) {
             super(lockConfiguration);
             this.lock = lock;
             this.lockExtensionPeriod = lockConfiguration.getLockAtMostFor().dividedBy(2);
             this.remainingLockAtLeastFor = lockConfiguration.getLockAtLeastFor();
             this.currentLockAtMostUntil = lockConfiguration.getLockAtMostUntil();
+            this.renewalDueAt = now().plus(lockExtensionPeriod);
+        }
 
-            long extensionPeriodMs = lockExtensionPeriod.toMillis();
-            this.future = executorService.scheduleAtFixedRate(
-                    this::extendForNextPeriod, extensionPeriodMs, extensionPeriodMs, MILLISECONDS);
+        private String getName() {
+            return lockConfiguration.getName();
         }
 
-        private void extendForNextPeriod() {
+        /** Returns true if the lock should be extended again. */
+        private boolean extendForNextPeriod() {
             // We can have a race-condition when we extend the lock but the `lock` field is
             // accessed
             // before we update it.
             synchronized (this) {
                 if (!active) {
-                    return;
+                    return false;
                 }
                 if (currentLockAtMostUntil.isBefore(now())) {
                     // Failsafe for cases when we are not able to extend the lock and it expires
@@ -96,7 +212,7 @@ public class KeepAliveLockProvider implements LockProvider {
                     // In such case someone else might have already obtained the lock so we can't
                     // extend it.
                     stop();
-                    return;
+                    return false;
                 }
                 remainingLockAtLeastFor = remainingLockAtLeastFor.minus(lockExtensionPeriod);
                 if (remainingLockAtLeastFor.isNegative()) {
@@ -111,16 +227,17 @@ public class KeepAliveLockProvider implements LockProvider {
                             "Lock {} extended for {}",
                             lockConfiguration.getName(),
                             lockConfiguration.getLockAtMostFor());
+                    return true;
                 } else {
                     logger.warn("Can't extend lock {}", lockConfiguration.getName());
                     stop();
+                    return false;
                 }
             }
         }
 
         private void stop() {
             active = false;
-            future.cancel(false);
         }
 
         @Override
@@ -130,11 +247,37 @@ public class KeepAliveLockProvider implements LockProvider {
                 stop();
                 lock.unlock();
             }
+            cancelRenewal(this);
         }
 
+        /**
+         * Extends the wrapped lock and returns a new KeepAliveLock that keeps the lock
+         * alive with the new lockAtMostFor and lockAtLeastFor. This lock is no longer
+         * extended in the background.
+         */
         @Override
         protected Optional<SimpleLock> doExtend(LockConfiguration newConfiguration) {
-            throw new UnsupportedOperationException("Manual extension of KeepAliveLock is not supported (yet)");
+            checkLockAtMostFor(newConfiguration);
+            @Nullable KeepAliveLock extendedKeepAliveLock;
+            // synchronized with the background extension, so we do not extend a lock that has
+            // just been replaced
+            synchronized (this) {
+                if (!active) {
+                    return Optional.empty();
+                }
+                Optional<SimpleLock> extendedLock =
+                        lock.extend(newConfiguration.getLockAtMostFor(), newConfiguration.getLockAtLeastFor());
+                stop();
+                extendedKeepAliveLock =
+                        extendedLock.map(l -> new KeepAliveLock(newConfiguration, l)).orElse(null);
+            }
+            cancelRenewal(this);
+            if (extendedKeepAliveLock == null) {
+                logger.warn("Can't extend lock {}", lockConfiguration.getName());
+                return Optional.empty();
+            }
+            scheduleRenewal(extendedKeepAliveLock);
+            return Optional.of(extendedKeepAliveLock);
         }
     }
 }
@@ -0,0 +1,147 @@
+/**
+ * Copyright 2009 the original author or authors.
+ *
+ * <p>Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * <p>http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * <p>Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.javacrumbs.shedlock.support;
+
+import static java.util.Objects.requireNonNull;
+import static net.javacrumbs.shedlock.core.ClockProvider.now;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import net.javacrumbs.shedlock.core.AbstractSimpleLock;
+import net.javacrumbs.shedlock.core.ExtensibleLockProvider;
+import net.javacrumbs.shedlock.core.LockConfiguration;
+import net.javacrumbs.shedlock.core.LockProvider;
+import net.javacrumbs.shedlock.core.SimpleLock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * LockProvider that lets only one thread per JVM try to acquire a lock with
+ * given name. Other threads that attempt to get the same lock while the remote
+ * attempt is in progress or while the lock is held by this JVM fail
+ * immediately, without calling the wrapped provider.
+ *
+ * <p>
+ * After the lock is released, the gate stays closed until lockAtLeastUntil,
+ * since the lock record is held until that time anyway. As a failsafe, the gate
+ * opens after lockAtMostUntil even if the lock has not been released.
+ *
+ * <p>
+ * Useful when multiple schedulers in the same JVM execute the same tasks. Wraps
+ * any LockProvider, the lock can be extended if the wrapped provider supports
+ * it.
+ */
+public class LocalGateLockProvider implements ExtensibleLockProvider {
+    private static final Logger logger = LoggerFactory.getLogger(LocalGateLockProvider.class);
+
+    private final LockProvider wrapped;
+    private final ConcurrentMap<String, Gate> gates = new ConcurrentHashMap<>();
+
+    public LocalGateLockProvider(LockProvider wrapped) {
+        this.wrapped = requireNonNull(wrapped);
+    }
+
+    @Override
+    public Optional<SimpleLock> lock(LockConfiguration lockConfiguration) {
+        String name = lockConfiguration.getName();
+        Gate gate = new Gate(lockConfiguration.getLockAtMostUntil());
+        if (!close(name, gate)) {
+            logger.debug("Lock '{}' is being acquired or is held by this JVM, not trying", name);
+            return Optional.empty();
+        }
+
+        Optional<SimpleLock> lock;
+        try {
+            lock = wrapped.lock(lockConfiguration);
+        } catch (RuntimeException e) {
+            gates.remove(name, gate);
+            throw e;
+        }
+        if (lock.isEmpty()) {
+            gates.remove(name, gate);
+            return Optional.empty();
+        }
+        return Optional.of(new GatedLock(lockConfiguration, lock.get(), gate));
+    }
+
+    private boolean close(String name, Gate gate) {
+        Gate existing = gates.putIfAbsent(name, gate);
+        if (existing == null) {
+            return true;
+        }
+        return !existing.isClosed() && gates.replace(name, existing, gate);
+    }
+
+    /** Returns true if the gate for given lock name is closed. */
+    boolean isClosed(String name) {
+        Gate gate = gates.get(name);
+        return gate != null && gate.isClosed();
+    }
+
+    private void release(String name, Gate gate, Instant closedUntil) {
+        if (closedUntil.isAfter(now())) {
+            gates.replace(name, gate, new Gate(closedUntil));
+        } else {
+            gates.remove(name, gate);
+        }
+    }
+
+    private static final class Gate {
+        private final Instant closedUntil;
+
+        private Gate(Instant closedUntil) {
+            this.closedUntil = closedUntil;
+        }
+
+        private boolean isClosed() {
+            return now().isBefore(closedUntil);
+        }
+    }
+
+    private final class GatedLock extends AbstractSimpleLock {
+        private final SimpleLock delegate;
+        private final Gate gate;
+
+        private GatedLock(LockConfiguration lockConfiguration, SimpleLock delegate, Gate gate) {
+            super(lockConfiguration);
+            this.delegate = delegate;
+            this.gate = gate;
+        }
+
+        @Override
+        protected void doUnlock() {
+            try {
+                delegate.unlock();
+            } finally {
+                release(lockConfiguration.getName(), gate, lockConfiguration.getLockAtLeastUntil());
+            }
+        }
+
+        @Override
+        protected Optional<SimpleLock> doExtend(LockConfiguration newConfiguration) {
+            String name = newConfiguration.getName();
+            Optional<SimpleLock> extended =
+                    delegate.extend(newConfiguration.getLockAtMostFor(), newConfiguration.getLockAtLeastFor());
+            if (extended.isEmpty()) {
+                gates.remove(name, gate);
+                return Optional.empty();
+            }
+            Gate newGate = new Gate(newConfiguration.getLockAtMostUntil());
+            gates.replace(name, gate, newGate);
+            return Optional.of(new GatedLock(newConfiguration, extended.get(), newGate));
+        }
+    }
+}
@@ -0,0 +1,140 @@
+/**
+ * Copyright 2009 the original author or authors.
+ *
+ * <p>Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * <p>http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * <p>Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.javacrumbs.shedlock.support;
+
+import static java.util.Objects.requireNonNull;
+import static net.javacrumbs.shedlock.core.ClockProvider.now;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import net.javacrumbs.shedlock.core.ExtensibleLockProvider;
+import net.javacrumbs.shedlock.core.LockConfiguration;
+import net.javacrumbs.shedlock.core.SimpleLock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * LockProvider that remembers until when a lock is held by somebody else. When
+ * a lock attempt fails, reads lock_until of the lock record and does not hit
+ * the storage for the same lock until that time (minus clock skew margin) has
+ * passed.
+ *
+ * <p>
+ * <b>Use with care.</b> The lock record is typically locked until
+ * lockAtMostUntil, even if the task finishes and releases the lock sooner. Other
+ * nodes will not try to acquire the lock until that time so the task is
+ * effectively executed only by the node that holds the lock. If that node
+ * stops, the task is picked up by others after lockAtMostFor, as if the node
+ * died.
+ *
+ * <p>
+ * Wraps StorageBasedLockProvider, the storage has to support
+ * {@link StorageAccessor#getLockUntil(String)}, otherwise nothing is cached.
+ */
+public class LockUntilCachingLockProvider implements ExtensibleLockProvider {
+    private static final Logger logger = LoggerFactory.getLogger(LockUntilCachingLockProvider.class);
+
+    private final StorageBasedLockProvider wrapped;
+    private final Duration clockSkewMargin;
+    private final ConcurrentMap<String, Instant> lockedUntil = new ConcurrentHashMap<>();
+
+    public LockUntilCachingLockProvider(StorageBasedLockProvider wrapped) {
+        this(wrapped, Duration.ofSeconds(1));
+    }
+
+    /**
+     * @param clockSkewMargin
+     *            the storage is queried again this long before lock_until, to
+     *            compensate for clock differences between the nodes (or the DB
+     *            if it uses DB time)
+     */
+    public LockUntilCachingLockProvider(StorageBasedLockProvider wrapped, Duration clockSkewMargin) {
+        this.wrapped = requireNonNull(wrapped);
+        this.clockSkewMargin = requireNonNull(clockSkewMargin);
+        if (clockSkewMargin.isNegative()) {
+            throw new IllegalArgumentException("clockSkewMargin can not be negative");
+        }
+    }
+
+    @Override
+    public Optional<SimpleLock> lock(LockConfiguration lockConfiguration) {
+        String name = lockConfiguration.getName();
+        if (isLockedBySomebodyElse(name)) {
+            return Optional.empty();
+        }
+
+        Optional<SimpleLock> lock = wrapped.lock(lockConfiguration);
+        if (lock.isEmpty()) {
+            rememberLockUntil(name);
+        }
+        return lock;
+    }
+
+    /**
+     * Passes only the locks not held by somebody else according to the cache to
+     * the wrapped provider, caches lock_until of the locks it refuses.
+     */
+    @Override
+    public Map<String, SimpleLock> lockAll(Collection<LockConfiguration> lockConfigurations) {
+        List<LockConfiguration> toLock = lockConfigurations.stream()
+                .filter(lockConfiguration -> !isLockedBySomebodyElse(lockConfiguration.getName()))
+                .toList();
+        if (toLock.isEmpty()) {
+            return Map.of();
+        }
+
+        Map<String, SimpleLock> locks = wrapped.lockAll(toLock);
+        for (LockConfiguration lockConfiguration : toLock) {
+            if (!locks.containsKey(lockConfiguration.getName())) {
+                rememberLockUntil(lockConfiguration.getName());
+            }
+        }
+        return locks;
+    }
+
+    private boolean isLockedBySomebodyElse(String name) {
+        Instant cachedLockUntil = lockedUntil.get(name);
+        if (cachedLockUntil != null) {
+            if (now().isBefore(cachedLockUntil)) {
+                logger.debug("Lock '{}' is held by somebody else until {}, not trying", name, cachedLockUntil);
+                return true;
+            }
+            lockedUntil.remove(name, cachedLockUntil);
+        }
+        return false;
+    }
+
+    private void rememberLockUntil(String name) {
+        try {
+            wrapped.getLockUntil(name)
+                    .map(lockUntil -> lockUntil.minus(clockSkewMargin))
+                    .filter(lockUntil -> lockUntil.isAfter(now()))
+                    .ifPresent(lockUntil -> lockedUntil.put(name, lockUntil));
+        } catch (RuntimeException e) {
+            // it's just an optimization, the next attempt will go to the storage
+            logger.debug("Can not read lock_until of '{}'", name, e);
+        }
+    }
+
+    /** Forgets all cached lock_until values. */
+    public void clearCache() {
+        lockedUntil.clear();
+    }
+}
@@ -13,6 +13,9 @@
  */
 package net.javacrumbs.shedlock.support;
 
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
 import net.javacrumbs.shedlock.core.LockConfiguration;
 
 public interface StorageAccessor {
@@ -36,9 +39,68 @@ public interface StorageAccessor {
      */
     boolean updateRecord(LockConfiguration lockConfiguration);
 
+    /**
+     * Returns true if the storage can insert or update the lock record in a single
+     * operation using {@link #upsertRecord(LockConfiguration)}.
+     */
+    default boolean supportsUpsert() {
+        return false;
+    }
+
+    /**
+     * Inserts the lock record or updates it if it exists and the lock is not held
+     * by someone else, in a single operation. Used instead of
+     * {@link #insertRecord(LockConfiguration)} followed by
+     * {@link #updateRecord(LockConfiguration)} if {@link #supportsUpsert()}
+     * returns true.
+     *
+     * @param lockConfiguration
+     *            LockConfiguration
+     * @return true if inserted or updated
+     */
+    default boolean upsertRecord(LockConfiguration lockConfiguration) {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Tries to update multiple lock records, see
+     * {@link #updateRecord(LockConfiguration)}. Implementations should send all
+     * the updates in a single round-trip.
+     *
+     * <p>
+     * If the method throws, no lock may stay obtained. Implementations either
+     * execute the updates in one transaction (JdbcTemplate) or release the locks
+     * updated before the failure (JDBC and Micronaut, which commit each batch or
+     * statement separately).
+     *
+     * @param lockConfigurations
+     *            LockConfigurations
+     * @return for each LockConfiguration, true if updated
+     */
+    default boolean[] updateRecords(List<LockConfiguration> lockConfigurations) {
+        boolean[] updated = new boolean[lockConfigurations.size()];
+        for (int i = 0; i < updated.length; i++) {
+            updated[i] = updateRecord(lockConfigurations.get(i));
+        }
+        return updated;
+    }
+
     void unlock(LockConfiguration lockConfiguration);
 
     default boolean extend(LockConfiguration lockConfiguration) {
         throw new UnsupportedOperationException();
     }
+
+    /**
+     * Returns lock_until of the lock record. Called after an unsuccessful lock
+     * attempt, so {@link LockUntilCachingLockProvider} can skip attempts that are
+     * guaranteed to fail.
+     *
+     * @param lockName
+     *            name of the lock
+     * @return lock_until or empty if not supported or not known
+     */
+    default Optional<Instant> getLockUntil(String lockName) {
+        return Optional.empty();
+    }
 }
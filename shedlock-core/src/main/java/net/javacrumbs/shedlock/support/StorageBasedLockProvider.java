@@ -13,7 +13,15 @@
  */
 package net.javacrumbs.shedlock.support;
 
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import net.javacrumbs.shedlock.core.AbstractSimpleLock;
 import net.javacrumbs.shedlock.core.ExtensibleLockProvider;
 import net.javacrumbs.shedlock.core.LockConfiguration;
@@ -50,6 +58,20 @@ public class StorageBasedLockProvider implements ExtensibleLockProvider {
         lockRecordRegistry.clear();
     }
 
+    /**
+     * Returns lock_until of the lock record as stored in the storage, empty if the
+     * storage does not support it.
+     *
+     * @see LockUntilCachingLockProvider
+     */
+    public Optional<Instant> getLockUntil(String lockName) {
+        return storageAccessor.getLockUntil(lockName);
+    }
+
+    LockRecordRegistry lockRecordRegistry() {
+        return lockRecordRegistry;
+    }
+
     @Override
     public Optional<SimpleLock> lock(LockConfiguration lockConfiguration) {
         boolean lockObtained = doLock(lockConfiguration);
@@ -60,6 +82,66 @@ public class StorageBasedLockProvider implements ExtensibleLockProvider {
         }
     }
 
+    /**
+     * Inserts (or upserts) missing lock records one by one (happens only once per
+     * lock name), the existing ones are updated using
+     * {@link StorageAccessor#updateRecords(List)}.
+     */
+    @Override
+    public Map<String, SimpleLock> lockAll(Collection<LockConfiguration> lockConfigurations) {
+        Map<String, SimpleLock> locks = new LinkedHashMap<>();
+        Set<String> names = new HashSet<>();
+        List<String> tryingToCreateLockRecord = new ArrayList<>();
+        List<LockConfiguration> toUpdate = new ArrayList<>();
+        try {
+            for (LockConfiguration lockConfiguration : lockConfigurations) {
+                String name = lockConfiguration.getName();
+                if (!names.add(name)) {
+                    throw new IllegalArgumentException("Duplicate lock name '" + name + "'");
+                }
+                if (!lockRecordRegistry.lockRecordRecentlyCreated(name)) {
+                    if (storageAccessor.supportsUpsert()) {
+                        if (storageAccessor.upsertRecord(lockConfiguration)) {
+                            locks.put(name, new StorageLock(lockConfiguration, storageAccessor));
+                        }
+                        lockRecordRegistry.addLockRecord(name);
+                        continue;
+                    }
+                    if (storageAccessor.insertRecord(lockConfiguration)) {
+                        lockRecordRegistry.addLockRecord(name);
+                        locks.put(name, new StorageLock(lockConfiguration, storageAccessor));
+                        continue;
+                    }
+                    lockRecordRegistry.addLockRecord(name);
+                    tryingToCreateLockRecord.add(name);
+                }
+                toUpdate.add(lockConfiguration);
+            }
+
+            if (!toUpdate.isEmpty()) {
+                boolean[] updated = storageAccessor.updateRecords(toUpdate);
+                for (int i = 0; i < updated.length; i++) {
+                    if (updated[i]) {
+                        LockConfiguration lockConfiguration = toUpdate.get(i);
+                        locks.put(lockConfiguration.getName(), new StorageLock(lockConfiguration, storageAccessor));
+                    }
+                }
+            }
+            return locks;
+        } catch (RuntimeException e) {
+            // the same as in doLock, the DB might not be ready yet
+            tryingToCreateLockRecord.forEach(lockRecordRegistry::removeLockRecord);
+            for (SimpleLock lock : locks.values()) {
+                try {
+                    lock.unlock();
+                } catch (RuntimeException unlockException) {
+                    e.addSuppressed(unlockException);
+                }
+            }
+            throw e;
+        }
+    }
+
     /**
      * Sets lockUntil according to LockConfiguration if current lockUntil &lt;= now
      */
@@ -67,6 +149,12 @@ public class StorageBasedLockProvider implements ExtensibleLockProvider {
         String name = lockConfiguration.getName();
 
         boolean tryToCreateLockRecord = !lockRecordRegistry.lockRecordRecentlyCreated(name);
+        if (tryToCreateLockRecord && storageAccessor.supportsUpsert()) {
+            // insert or update in one statement, no need to handle duplicate key errors
+            boolean locked = storageAccessor.upsertRecord(lockConfiguration);
+            lockRecordRegistry.addLockRecord(name);
+            return locked;
+        }
         if (tryToCreateLockRecord) {
             // create record in case it does not exist yet
             if (storageAccessor.insertRecord(lockConfiguration)) {
@@ -0,0 +1,170 @@
+/**
+ * Copyright 2009 the original author or authors.
+ *
+ * <p>Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * <p>http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * <p>Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.javacrumbs.shedlock.util;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+import net.javacrumbs.shedlock.core.AsyncLockingTaskExecutor;
+import net.javacrumbs.shedlock.core.LockConfiguration;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+/**
+ * Reactive Streams {@link Publisher} that obtains the lock when subscribed to,
+ * and holds it until the source publisher terminates or the subscription is
+ * cancelled. If the lock can not be obtained, completes without emitting any
+ * items.
+ *
+ * <p>
+ * Use {@link #defer(Supplier, LockConfiguration, AsyncLockingTaskExecutor)} if
+ * the source publisher has to be created only after the lock is obtained, for
+ * example when the method creating it already performs the locked work.
+ *
+ * <p>
+ * Requires org.reactivestreams:reactive-streams on the classpath.
+ */
+public final class LockingPublisher<T> implements Publisher<T> {
+    private final Supplier<? extends Publisher<? extends T>> source;
+    private final LockConfiguration lockConfiguration;
+    private final AsyncLockingTaskExecutor lockingTaskExecutor;
+
+    public LockingPublisher(
+            Publisher<T> source, LockConfiguration lockConfiguration, AsyncLockingTaskExecutor lockingTaskExecutor) {
+        this(constant(requireNonNull(source)), lockConfiguration, lockingTaskExecutor);
+    }
+
+    private LockingPublisher(
+            Supplier<? extends Publisher<? extends T>> source,
+            LockConfiguration lockConfiguration,
+            AsyncLockingTaskExecutor lockingTaskExecutor) {
+        this.source = requireNonNull(source);
+        this.lockConfiguration = requireNonNull(lockConfiguration);
+        this.lockingTaskExecutor = requireNonNull(lockingTaskExecutor);
+    }
+
+    /**
+     * Creates publisher that calls the supplier on each subscription, after the
+     * lock is obtained. If the supplier throws, the error is signalled to the
+     * subscriber and the lock is released.
+     */
+    public static <T> LockingPublisher<T> defer(
+            Supplier<? extends Publisher<? extends T>> source,
+            LockConfiguration lockConfiguration,
+            AsyncLockingTaskExecutor lockingTaskExecutor) {
+        return new LockingPublisher<>(source, lockConfiguration, lockingTaskExecutor);
+    }
+
+    private static <T> Supplier<Publisher<T>> constant(Publisher<T> source) {
+        return () -> source;
+    }
+
+    @Override
+    public void subscribe(Subscriber<? super T> subscriber) {
+        requireNonNull(subscriber);
+        UnlockingSubscriber<T> unlockingSubscriber = new UnlockingSubscriber<>(subscriber);
+        lockingTaskExecutor
+                .executeWithLock(
+                        () -> {
+                            Publisher<? extends T> publisher = requireNonNull(source.get(), "Source publisher is null");
+                            publisher.subscribe(unlockingSubscriber);
+                            return unlockingSubscriber.terminated;
+                        },
+                        lockConfiguration)
+                .whenComplete((result, e) -> {
+                    if (e != null) {
+                        // lock or unlock failed
+                        unlockingSubscriber.failIfNotStarted(unwrap(e));
+                    } else if (!result.wasExecuted()) {
+                        unlockingSubscriber.completeEmpty();
+                    }
+                });
+    }
+
+    private static Throwable unwrap(Throwable e) {
+        return e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+    }
+
+    private static final class UnlockingSubscriber<T> implements Subscriber<T> {
+        private final Subscriber<? super T> downstream;
+        private final CompletableFuture<Void> terminated = new CompletableFuture<>();
+        private final AtomicBoolean started = new AtomicBoolean();
+
+        private UnlockingSubscriber(Subscriber<? super T> downstream) {
+            this.downstream = downstream;
+        }
+
+        @Override
+        public void onSubscribe(Subscription subscription) {
+            started.set(true);
+            downstream.onSubscribe(new Subscription() {
+                @Override
+                public void request(long n) {
+                    subscription.request(n);
+                }
+
+                @Override
+                public void cancel() {
+                    subscription.cancel();
+                    terminated.complete(null);
+                }
+            });
+        }
+
+        @Override
+        public void onNext(T item) {
+            downstream.onNext(item);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            terminated.complete(null);
+            downstream.onError(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            terminated.complete(null);
+            downstream.onComplete();
+        }
+
+        private void completeEmpty() {
+            if (started.compareAndSet(false, true)) {
+                downstream.onSubscribe(EmptySubscription.INSTANCE);
+                downstream.onComplete();
+            }
+        }
+
+        private void failIfNotStarted(Throwable e) {
+            if (started.compareAndSet(false, true)) {
+                downstream.onSubscribe(EmptySubscription.INSTANCE);
+                downstream.onError(e);
+            }
+        }
+    }
+
+    private enum EmptySubscription implements Subscription {
+        INSTANCE;
+
+        @Override
+        public void request(long n) {}
+
+        @Override
+        public void cancel() {}
+    }
+}
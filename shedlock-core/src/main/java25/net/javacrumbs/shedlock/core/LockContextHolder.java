@@ -0,0 +1,57 @@
+/**
+ * Copyright 2009 the original author or authors.
+ *
+ * <p>Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * <p>http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * <p>Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.javacrumbs.shedlock.core;
+
+import net.javacrumbs.shedlock.core.LockingTaskExecutor.TaskWithResult;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Holds the innermost {@link LockContext} in a ScopedValue. The binding is
+ * released together with the scope, so there is no ThreadLocal to clean up and
+ * the context is inherited by StructuredTaskScope forks.
+ *
+ * <p>
+ * {@link #enter(LockContext)} and {@link #exit()} can not be expressed as a
+ * scope, they are only used by {@link LockAssert.TestHelper} and fall back to a
+ * ThreadLocal.
+ */
+final class LockContextHolder {
+    private static final ScopedValue<LockContext> scoped = ScopedValue.newInstance();
+    private static final ThreadLocal<@Nullable LockContext> manual = new ThreadLocal<>();
+
+    private LockContextHolder() {}
+
+    @Nullable
+    static LockContext current() {
+        return scoped.isBound() ? scoped.get() : manual.get();
+    }
+
+    static <T> @Nullable T call(LockContext context, TaskWithResult<T> task) throws Throwable {
+        return ScopedValue.where(scoped, context).call(task::call);
+    }
+
+    static void enter(LockContext context) {
+        manual.set(context);
+    }
+
+    static void exit() {
+        LockContext context = manual.get();
+        LockContext parent = context != null ? context.parent() : null;
+        if (parent == null) {
+            manual.remove();
+        } else {
+            manual.set(parent);
+        }
+    }
+}
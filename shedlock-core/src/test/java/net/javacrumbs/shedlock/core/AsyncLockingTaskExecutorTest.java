@@ -0,0 +1,127 @@
+/**
+ * Copyright 2009 the original author or authors.
+ *
+ * <p>Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * <p>http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * <p>Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.javacrumbs.shedlock.core;
+
+import static net.javacrumbs.shedlock.core.ClockProvider.now;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import net.javacrumbs.shedlock.core.LockingTaskExecutor.TaskResult;
+import org.junit.jupiter.api.Test;
+
+class AsyncLockingTaskExecutorTest {
+    private final LockProvider lockProvider = mock(LockProvider.class);
+    private final SimpleLock lock = mock(SimpleLock.class);
+    private final AsyncLockingTaskExecutor executor = new AsyncLockingTaskExecutor(lockProvider);
+    private final LockConfiguration lockConfig =
+            new LockConfiguration(now(), "test", Duration.ofSeconds(100), Duration.ZERO);
+
+    @Test
+    void shouldHoldLockUntilStageCompletes() {
+        when(lockProvider.lock(lockConfig)).thenReturn(Optional.of(lock));
+        CompletableFuture<String> future = new CompletableFuture<>();
+
+        CompletableFuture<TaskResult<String>> result =
+                executor.executeWithLock(() -> future, lockConfig).toCompletableFuture();
+
+        assertThat(result).isNotDone();
+        verify(lock, never()).unlock();
+
+        future.complete("done");
+
+        assertThat(result.join().getResult()).isEqualTo("done");
+        verify(lock).unlock();
+    }
+
+    @Test
+    void shouldNotExecuteIfLocked() {
+        when(lockProvider.lock(lockConfig)).thenReturn(Optional.empty());
+
+        TaskResult<String> result = executor.<String>executeWithLock(
+                        () -> {
+                            throw new AssertionError("Should not be called");
+                        },
+                        lockConfig)
+                .toCompletableFuture()
+                .join();
+
+        assertThat(result.wasExecuted()).isFalse();
+    }
+
+    @Test
+    void shouldUnlockWhenStageFails() {
+        when(lockProvider.lock(lockConfig)).thenReturn(Optional.of(lock));
+        IllegalStateException exception = new IllegalStateException("failed");
+
+        CompletableFuture<TaskResult<String>> result = executor.<String>executeWithLock(
+                        () -> CompletableFuture.failedFuture(exception), lockConfig)
+                .toCompletableFuture();
+
+        assertThatThrownBy(result::join).isInstanceOf(CompletionException.class).hasCause(exception);
+        verify(lock).unlock();
+    }
+
+    @Test
+    void shouldUnlockWhenTaskThrows() {
+        when(lockProvider.lock(lockConfig)).thenReturn(Optional.of(lock));
+        IllegalStateException exception = new IllegalStateException("failed");
+
+        CompletableFuture<TaskResult<String>> result = executor.<String>executeWithLock(
+                        () -> {
+                            throw exception;
+                        },
+                        lockConfig)
+                .toCompletableFuture();
+
+        assertThatThrownBy(result::join).isInstanceOf(CompletionException.class).hasCause(exception);
+        verify(lock).unlock();
+    }
+
+    @Test
+    void shouldNotExtendEnclosingLock() {
+        SimpleLock outerLock = mock(SimpleLock.class);
+        LockConfiguration outerLockConfig =
+                new LockConfiguration(now(), "outer", Duration.ofSeconds(100), Duration.ZERO);
+        when(lockProvider.lock(outerLockConfig)).thenReturn(Optional.of(outerLock));
+        when(lockProvider.lock(lockConfig)).thenReturn(Optional.of(lock));
+
+        new DefaultLockingTaskExecutor(lockProvider).executeWithLock(
+                (Runnable) () -> {
+                    CompletableFuture<TaskResult<String>> result = executor.<String>executeWithLock(
+                                    () -> {
+                                        LockExtender.extendActiveLock(Duration.ofSeconds(10), Duration.ZERO);
+                                        return CompletableFuture.completedFuture("done");
+                                    },
+                                    lockConfig)
+                            .toCompletableFuture();
+
+                    assertThatThrownBy(result::join)
+                            .isInstanceOf(CompletionException.class)
+                            .hasCauseInstanceOf(LockExtender.NoActiveLockException.class);
+                },
+                outerLockConfig);
+
+        verify(outerLock, never()).extend(any(), any());
+        verify(lock).unlock();
+    }
+}
@@ -0,0 +1,128 @@
+/**
+ * Copyright 2009 the original author or authors.
+ *
+ * <p>Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * <p>http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * <p>Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.javacrumbs.shedlock.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assumptions.assumeThat;
+import static org.mockito.Mockito.mock;
+
+import java.util.concurrent.CompletableFuture;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Runs against the ThreadLocal holder on JDK 17-24. On JDK 25+ the java25
+ * profile runs it against the packaged multi-release jar as well, so the
+ * ScopedValue holder is covered.
+ */
+class LockContextTest {
+    private final SimpleLock outerLock = mock(SimpleLock.class);
+
+    @Test
+    void shouldHaveNoContextOutsideOfCall() throws Throwable {
+        assertThat(LockContext.current()).isNull();
+        LockContext context = LockContext.create("outer", outerLock);
+        assertThat(context.parent()).isNull();
+
+        context.call(() -> {
+            assertThat(LockContext.current()).isSameAs(context);
+            return null;
+        });
+        assertThat(LockContext.current()).isNull();
+    }
+
+    @Test
+    void shouldNestContexts() throws Throwable {
+        LockContext outer = LockContext.create("outer", outerLock);
+        outer.call(() -> {
+            LockContext inner = LockContext.create("inner", null);
+            assertThat(inner.parent()).isSameAs(outer);
+
+            inner.call(() -> {
+                assertThat(LockContext.current()).isSameAs(inner);
+                assertThat(inner.isLockedBy("inner")).isTrue();
+                assertThat(inner.isLockedBy("outer")).isTrue();
+                assertThat(inner.isLockedBy("other")).isFalse();
+                // inner lock can not be extended, the outer one is used
+                assertThat(inner.extensibleContext()).isSameAs(outer);
+                return null;
+            });
+
+            assertThat(LockContext.current()).isSameAs(outer);
+            assertThat(outer.isLockedBy("inner")).isFalse();
+            return null;
+        });
+        assertThat(LockContext.current()).isNull();
+    }
+
+    @Test
+    void shouldNotExtendLocksEnclosingAsyncContext() throws Throwable {
+        LockContext outer = LockContext.create("outer", outerLock);
+        outer.call(() -> {
+            LockContext inner = LockContext.createAsync("inner");
+            inner.call(() -> {
+                assertThat(inner.isLockedBy("outer")).isTrue();
+                assertThat(inner.extensibleContext()).isNull();
+                return null;
+            });
+            return null;
+        });
+    }
+
+    @Test
+    void shouldPreferInnermostExtensibleContext() throws Throwable {
+        LockContext outer = LockContext.create("outer", outerLock);
+        outer.call(() -> {
+            LockContext inner = LockContext.create("inner", mock(SimpleLock.class));
+            inner.call(() -> {
+                assertThat(inner.extensibleContext()).isSameAs(inner);
+                return null;
+            });
+            return null;
+        });
+    }
+
+    @Test
+    void shouldRestoreParentContextOnException() throws Throwable {
+        LockContext outer = LockContext.create("outer", outerLock);
+        outer.call(() -> {
+            LockContext inner = LockContext.create("inner", null);
+            assertThatThrownBy(() -> inner.call(() -> {
+                        throw new IllegalStateException("test");
+                    }))
+                    .isInstanceOf(IllegalStateException.class);
+            assertThat(LockContext.current()).isSameAs(outer);
+            return null;
+        });
+        assertThat(LockContext.current()).isNull();
+    }
+
+    @Test
+    void shouldNotBeInheritedByUnrelatedThreads() throws Throwable {
+        LockContext.create("outer", outerLock).call(() -> {
+            assertThat(CompletableFuture.supplyAsync(LockContext::current).join()).isNull();
+            return null;
+        });
+    }
+
+    @Test
+    void shouldUseScopedValueHolderFromMultiReleaseJar() {
+        assumeThat(Runtime.version().feature()).isGreaterThanOrEqualTo(25);
+        String location = String.valueOf(LockContextHolder.class.getResource("LockContextHolder.class"));
+        // classes directory is not multi-release, only the packaged jar can be checked
+        assumeThat(location).startsWith("jar:");
+
+        assertThat(location).contains("/META-INF/versions/25/");
+    }
+}
@@ -0,0 +1,106 @@
+/**
+ * Copyright 2009 the original author or authors.
+ *
+ * <p>Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * <p>http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * <p>Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.javacrumbs.shedlock.support;
+
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static java.util.concurrent.CompletableFuture.failedFuture;
+import static net.javacrumbs.shedlock.core.ClockProvider.now;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
+import java.util.Optional;
+import net.javacrumbs.shedlock.core.AsyncSimpleLock;
+import net.javacrumbs.shedlock.core.LockConfiguration;
+import net.javacrumbs.shedlock.core.SimpleLock;
+import org.junit.jupiter.api.Test;
+
+class AsyncStorageBasedLockProviderTest {
+    private static final LockConfiguration LOCK_CONFIGURATION =
+            new LockConfiguration(now(), "name", Duration.of(5, ChronoUnit.MINUTES), Duration.ZERO);
+
+    private final AsyncStorageAccessor storageAccessor = mock(AsyncStorageAccessor.class);
+
+    private final AsyncStorageBasedLockProvider lockProvider = new AsyncStorageBasedLockProvider(storageAccessor);
+
+    @Test
+    void newRecordShouldOnlyBeInserted() {
+        when(storageAccessor.insertRecordAsync(LOCK_CONFIGURATION)).thenReturn(completedFuture(true));
+        assertThat(lockAsync()).isNotEmpty();
+        verify(storageAccessor, never()).updateRecordAsync(LOCK_CONFIGURATION);
+
+        // Should update directly without insert
+        when(storageAccessor.updateRecordAsync(LOCK_CONFIGURATION)).thenReturn(completedFuture(true));
+        assertThat(lockAsync()).isNotEmpty();
+        verify(storageAccessor, times(1)).insertRecordAsync(LOCK_CONFIGURATION);
+        verify(storageAccessor).updateRecordAsync(LOCK_CONFIGURATION);
+    }
+
+    @Test
+    void doNotReturnLockIfUpdatedZeroRows() {
+        when(storageAccessor.insertRecordAsync(LOCK_CONFIGURATION)).thenReturn(completedFuture(false));
+        when(storageAccessor.updateRecordAsync(LOCK_CONFIGURATION)).thenReturn(completedFuture(false));
+        assertThat(lockAsync()).isEmpty();
+    }
+
+    @Test
+    void shouldNotCacheRecordIfUpdateFailed() {
+        when(storageAccessor.insertRecordAsync(LOCK_CONFIGURATION)).thenReturn(completedFuture(false));
+        when(storageAccessor.updateRecordAsync(LOCK_CONFIGURATION)).thenReturn(failedFuture(new LockException("Test")));
+        assertThatThrownBy(this::lockAsync).hasRootCauseInstanceOf(LockException.class);
+        assertThatThrownBy(this::lockAsync).hasRootCauseInstanceOf(LockException.class);
+        verify(storageAccessor, times(2)).insertRecordAsync(LOCK_CONFIGURATION);
+    }
+
+    @Test
+    void shouldUnlockAsync() {
+        when(storageAccessor.insertRecordAsync(LOCK_CONFIGURATION)).thenReturn(completedFuture(true));
+        when(storageAccessor.unlockAsync(LOCK_CONFIGURATION)).thenReturn(completedFuture(null));
+        AsyncSimpleLock lock = lockAsync().orElseThrow();
+        lock.unlockAsync().toCompletableFuture().join();
+        verify(storageAccessor).unlockAsync(LOCK_CONFIGURATION);
+        assertThatThrownBy(lock::unlockAsync).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void blockingAdapterShouldDelegate() {
+        when(storageAccessor.insertRecordAsync(LOCK_CONFIGURATION)).thenReturn(completedFuture(true));
+        when(storageAccessor.unlockAsync(LOCK_CONFIGURATION)).thenReturn(completedFuture(null));
+        BlockingLockProvider blockingLockProvider = new BlockingLockProvider(lockProvider);
+
+        Optional<SimpleLock> lock = blockingLockProvider.lock(LOCK_CONFIGURATION);
+        assertThat(lock).isNotEmpty();
+        lock.get().unlock();
+        verify(storageAccessor).unlockAsync(LOCK_CONFIGURATION);
+    }
+
+    @Test
+    void blockingAdapterShouldUnwrapException() {
+        LockException ex = new LockException("Test");
+        when(storageAccessor.insertRecordAsync(LOCK_CONFIGURATION)).thenReturn(failedFuture(ex));
+        BlockingLockProvider blockingLockProvider = new BlockingLockProvider(lockProvider);
+
+        assertThatThrownBy(() -> blockingLockProvider.lock(LOCK_CONFIGURATION)).isSameAs(ex);
+    }
+
+    private Optional<AsyncSimpleLock> lockAsync() {
+        return lockProvider.lockAsync(LOCK_CONFIGURATION).toCompletableFuture().join();
+    }
+}
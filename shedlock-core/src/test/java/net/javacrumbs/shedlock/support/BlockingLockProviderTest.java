@@ -0,0 +1,62 @@
+/**
+ * Copyright 2009 the original author or authors.
+ *
+ * <p>Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * <p>http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * <p>Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.javacrumbs.shedlock.support;
+
+import static net.javacrumbs.shedlock.core.ClockProvider.now;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import net.javacrumbs.shedlock.core.AsyncLockProvider;
+import net.javacrumbs.shedlock.core.AsyncSimpleLock;
+import net.javacrumbs.shedlock.core.LockConfiguration;
+import org.junit.jupiter.api.Test;
+
+class BlockingLockProviderTest {
+    private static final LockConfiguration LOCK_CONFIGURATION =
+            new LockConfiguration(now(), "name", Duration.ofMinutes(5), Duration.ZERO);
+
+    private final AsyncLockProvider asyncLockProvider = mock(AsyncLockProvider.class);
+    private final AsyncSimpleLock asyncLock = mock(AsyncSimpleLock.class);
+    private final BlockingLockProvider lockProvider =
+            new BlockingLockProvider(asyncLockProvider, Duration.ofMillis(10));
+
+    @Test
+    void shouldReleaseLockAcquiredAfterTimeout() {
+        CompletableFuture<Optional<AsyncSimpleLock>> result = new CompletableFuture<>();
+        when(asyncLockProvider.lockAsync(LOCK_CONFIGURATION)).thenReturn(result);
+
+        assertThatThrownBy(() -> lockProvider.lock(LOCK_CONFIGURATION)).isInstanceOf(LockException.class);
+        verify(asyncLock, never()).unlockAsync();
+
+        result.complete(Optional.of(asyncLock));
+        verify(asyncLock).unlockAsync();
+    }
+
+    @Test
+    void shouldNotReleaseLockReturnedInTime() {
+        when(asyncLockProvider.lockAsync(LOCK_CONFIGURATION))
+                .thenReturn(CompletableFuture.completedFuture(Optional.of(asyncLock)));
+        when(asyncLock.unlockAsync()).thenReturn(CompletableFuture.completedFuture(null));
+
+        assertThat(lockProvider.lock(LOCK_CONFIGURATION)).isPresent();
+        verify(asyncLock, never()).unlockAsync();
+    }
+}
@@ -5,6 +5,7 @@ import static java.time.Duration.ofMillis;
 import static java.time.Duration.ofSeconds;
 import static java.time.Instant.now;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
@@ -15,12 +16,16 @@ import static org.mockito.Mockito.when;
 
 import java.time.Duration;
 import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
 import net.javacrumbs.shedlock.core.ExtensibleLockProvider;
 import net.javacrumbs.shedlock.core.LockConfiguration;
 import net.javacrumbs.shedlock.core.SimpleLock;
 import org.jmock.lib.concurrent.DeterministicScheduler;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.stubbing.Answer;
 
 class KeepAliveLockProviderTest {
     private final ExtensibleLockProvider wrappedProvider = mock(ExtensibleLockProvider.class);
@@ -78,6 +83,95 @@ class KeepAliveLockProviderTest {
         verifyNoMoreInteractions(originalLock);
     }
 
+    @Test
+    void shouldKeepExtendingOtherLocksIfExtensionFails() {
+        LockConfiguration otherConfiguration = new LockConfiguration(now(), "other", ofSeconds(3), ofSeconds(2));
+        SimpleLock otherLock = mock(SimpleLock.class);
+        when(wrappedProvider.lock(otherConfiguration)).thenReturn(Optional.of(otherLock));
+        when(originalLock.extend(any(Duration.class), any())).thenThrow(new LockException("Test"));
+        mockExtension(otherLock, Optional.of(otherLock));
+
+        Optional<SimpleLock> lock = provider.lock(lockConfiguration);
+        Optional<SimpleLock> other = provider.lock(otherConfiguration);
+        tickMs(1_500);
+        verify(originalLock).extend(lockConfiguration.getLockAtMostFor(), ofMillis(500));
+        verify(otherLock).extend(otherConfiguration.getLockAtMostFor(), ofMillis(500));
+        tickMs(1_500);
+        verify(otherLock).extend(otherConfiguration.getLockAtMostFor(), ZERO);
+        verifyNoMoreInteractions(originalLock);
+
+        other.get().unlock();
+        lock.get().unlock();
+        tickMs(10_000);
+        verify(otherLock).unlock();
+        verifyNoMoreInteractions(otherLock);
+        assertThat(provider.getRenewalLag()).isGreaterThanOrEqualTo(ZERO);
+    }
+
+    @Test
+    void shouldExtendDueLocksInParallel() throws InterruptedException {
+        ScheduledExecutorService executorService = Executors.newScheduledThreadPool(2);
+        try {
+            KeepAliveLockProvider parallelProvider =
+                    new KeepAliveLockProvider(wrappedProvider, executorService, ofSeconds(1));
+            LockConfiguration otherConfiguration = new LockConfiguration(now(), "other", ofSeconds(3), ofSeconds(2));
+            SimpleLock otherLock = mock(SimpleLock.class);
+            when(wrappedProvider.lock(otherConfiguration)).thenReturn(Optional.of(otherLock));
+            // each extension waits for the other one, they would block each other if executed one by one
+            CountDownLatch bothExtending = new CountDownLatch(2);
+            Answer<Optional<SimpleLock>> waitForTheOther = invocation -> {
+                bothExtending.countDown();
+                bothExtending.await(5, SECONDS);
+                return Optional.empty();
+            };
+            when(originalLock.extend(any(Duration.class), any())).thenAnswer(waitForTheOther);
+            when(otherLock.extend(any(Duration.class), any())).thenAnswer(waitForTheOther);
+
+            parallelProvider.lock(lockConfiguration);
+            parallelProvider.lock(otherConfiguration);
+
+            assertThat(bothExtending.await(5, SECONDS)).isTrue();
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    @Test
+    void shouldExtendManually() {
+        SimpleLock manuallyExtendedLock = mock(SimpleLock.class);
+        SimpleLock extendedLock = mock(SimpleLock.class);
+        when(originalLock.extend(ofSeconds(10), ofSeconds(6))).thenReturn(Optional.of(manuallyExtendedLock));
+        mockExtension(manuallyExtendedLock, Optional.of(extendedLock));
+
+        Optional<SimpleLock> lock = provider.lock(lockConfiguration);
+        tickMs(1_000);
+        Optional<SimpleLock> extended = lock.get().extend(ofSeconds(10), ofSeconds(6));
+        assertThat(extended).isNotEmpty();
+
+        // original schedule is cancelled, the new one uses the new lockAtMostFor
+        tickMs(4_500);
+        verify(originalLock).extend(ofSeconds(10), ofSeconds(6));
+        verifyNoMoreInteractions(originalLock);
+        verifyNoMoreInteractions(manuallyExtendedLock);
+        tickMs(500);
+        verify(manuallyExtendedLock).extend(ofSeconds(10), ofSeconds(1));
+
+        extended.get().unlock();
+        verify(extendedLock).unlock();
+        assertThatThrownBy(() -> lock.get().unlock()).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void shouldStopIfManualExtensionFails() {
+        mockExtension(originalLock, Optional.empty());
+
+        Optional<SimpleLock> lock = provider.lock(lockConfiguration);
+        assertThat(lock.get().extend(ofSeconds(10), ZERO)).isEmpty();
+        tickMs(10_000);
+        verify(originalLock).extend(ofSeconds(10), ZERO);
+        verifyNoMoreInteractions(originalLock);
+    }
+
     @Test
     void shouldFailForShortLockAtMostFor() {
         assertThatThrownBy(() -> provider.lock(new LockConfiguration(now(), "short", ofMillis(100), ZERO)))
@@ -0,0 +1,122 @@
+/**
+ * Copyright 2009 the original author or authors.
+ *
+ * <p>Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * <p>http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * <p>Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.javacrumbs.shedlock.support;
+
+import static net.javacrumbs.shedlock.core.ClockProvider.now;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.Optional;
+import net.javacrumbs.shedlock.core.LockConfiguration;
+import net.javacrumbs.shedlock.core.LockProvider;
+import net.javacrumbs.shedlock.core.SimpleLock;
+import org.junit.jupiter.api.Test;
+
+class LocalGateLockProviderTest {
+    private static final LockConfiguration LOCK_CONFIGURATION =
+            new LockConfiguration(now(), "name", Duration.ofMinutes(5), Duration.ZERO);
+
+    private final LockProvider wrapped = mock(LockProvider.class);
+    private final SimpleLock wrappedLock = mock(SimpleLock.class);
+    private final LocalGateLockProvider lockProvider = new LocalGateLockProvider(wrapped);
+
+    @Test
+    void shouldNotCallWrappedProviderWhileLockIsHeldLocally() {
+        when(wrapped.lock(LOCK_CONFIGURATION)).thenReturn(Optional.of(wrappedLock));
+
+        Optional<SimpleLock> lock = lockProvider.lock(LOCK_CONFIGURATION);
+        assertThat(lock).isNotEmpty();
+        assertThat(lockProvider.lock(LOCK_CONFIGURATION)).isEmpty();
+        verify(wrapped, times(1)).lock(LOCK_CONFIGURATION);
+
+        lock.get().unlock();
+        verify(wrappedLock).unlock();
+        assertThat(lockProvider.isClosed("name")).isFalse();
+        assertThat(lockProvider.lock(LOCK_CONFIGURATION)).isNotEmpty();
+        verify(wrapped, times(2)).lock(LOCK_CONFIGURATION);
+    }
+
+    @Test
+    void shouldOpenGateIfLockNotAcquired() {
+        when(wrapped.lock(LOCK_CONFIGURATION)).thenReturn(Optional.empty());
+
+        assertThat(lockProvider.lock(LOCK_CONFIGURATION)).isEmpty();
+        assertThat(lockProvider.lock(LOCK_CONFIGURATION)).isEmpty();
+
+        verify(wrapped, times(2)).lock(LOCK_CONFIGURATION);
+    }
+
+    @Test
+    void shouldOpenGateIfWrappedProviderFails() {
+        when(wrapped.lock(LOCK_CONFIGURATION)).thenThrow(new LockException("Test"));
+
+        assertThatThrownBy(() -> lockProvider.lock(LOCK_CONFIGURATION)).isInstanceOf(LockException.class);
+
+        assertThat(lockProvider.isClosed("name")).isFalse();
+    }
+
+    @Test
+    void shouldKeepGateClosedUntilLockAtLeastUntil() {
+        LockConfiguration configuration =
+                new LockConfiguration(now(), "name", Duration.ofMinutes(5), Duration.ofMinutes(1));
+        when(wrapped.lock(configuration)).thenReturn(Optional.of(wrappedLock));
+
+        lockProvider.lock(configuration).orElseThrow().unlock();
+
+        assertThat(lockProvider.isClosed("name")).isTrue();
+        assertThat(lockProvider.lock(configuration)).isEmpty();
+        verify(wrapped, times(1)).lock(configuration);
+    }
+
+    @Test
+    void shouldOpenGateAfterLockAtMostUntil() {
+        LockConfiguration configuration = new LockConfiguration(now(), "name", Duration.ofMillis(1), Duration.ZERO);
+        when(wrapped.lock(configuration)).thenReturn(Optional.of(wrappedLock));
+
+        assertThat(lockProvider.lock(configuration)).isNotEmpty();
+        sleep(5);
+
+        assertThat(lockProvider.lock(configuration)).isNotEmpty();
+        verify(wrapped, times(2)).lock(configuration);
+    }
+
+    @Test
+    void shouldExtendLock() {
+        SimpleLock extendedLock = mock(SimpleLock.class);
+        when(wrapped.lock(LOCK_CONFIGURATION)).thenReturn(Optional.of(wrappedLock));
+        when(wrappedLock.extend(Duration.ofMinutes(10), Duration.ZERO)).thenReturn(Optional.of(extendedLock));
+
+        Optional<SimpleLock> extended =
+                lockProvider.lock(LOCK_CONFIGURATION).orElseThrow().extend(Duration.ofMinutes(10), Duration.ZERO);
+        assertThat(extended).isNotEmpty();
+        assertThat(lockProvider.isClosed("name")).isTrue();
+
+        extended.get().unlock();
+        verify(extendedLock).unlock();
+        assertThat(lockProvider.isClosed("name")).isFalse();
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
@@ -0,0 +1,125 @@
+/**
+ * Copyright 2009 the original author or authors.
+ *
+ * <p>Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * <p>http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * <p>Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.javacrumbs.shedlock.support;
+
+import static net.javacrumbs.shedlock.core.ClockProvider.now;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import net.javacrumbs.shedlock.core.LockConfiguration;
+import net.javacrumbs.shedlock.core.SimpleLock;
+import org.junit.jupiter.api.Test;
+
+class LockUntilCachingLockProviderTest {
+    private static final LockConfiguration LOCK_CONFIGURATION =
+            new LockConfiguration(now(), "name", Duration.ofMinutes(5), Duration.ZERO);
+
+    private final StorageBasedLockProvider wrapped = mock(StorageBasedLockProvider.class);
+    private final LockUntilCachingLockProvider lockProvider =
+            new LockUntilCachingLockProvider(wrapped, Duration.ofSeconds(1));
+
+    @Test
+    void shouldNotTryToLockUntilLockUntil() {
+        when(wrapped.lock(LOCK_CONFIGURATION)).thenReturn(Optional.empty());
+        when(wrapped.getLockUntil("name")).thenReturn(Optional.of(now().plusSeconds(60)));
+
+        assertThat(lockProvider.lock(LOCK_CONFIGURATION)).isEmpty();
+        assertThat(lockProvider.lock(LOCK_CONFIGURATION)).isEmpty();
+        assertThat(lockProvider.lock(LOCK_CONFIGURATION)).isEmpty();
+
+        verify(wrapped, times(1)).lock(LOCK_CONFIGURATION);
+    }
+
+    @Test
+    void shouldTryToLockAfterLockUntilMinusClockSkew() {
+        when(wrapped.lock(LOCK_CONFIGURATION)).thenReturn(Optional.empty());
+        // within clock skew margin
+        when(wrapped.getLockUntil("name")).thenReturn(Optional.of(now().plusMillis(500)));
+
+        assertThat(lockProvider.lock(LOCK_CONFIGURATION)).isEmpty();
+        assertThat(lockProvider.lock(LOCK_CONFIGURATION)).isEmpty();
+
+        verify(wrapped, times(2)).lock(LOCK_CONFIGURATION);
+    }
+
+    @Test
+    void shouldTryToLockIfLockUntilNotKnown() {
+        when(wrapped.lock(LOCK_CONFIGURATION)).thenReturn(Optional.empty());
+        when(wrapped.getLockUntil("name")).thenReturn(Optional.empty());
+
+        assertThat(lockProvider.lock(LOCK_CONFIGURATION)).isEmpty();
+        assertThat(lockProvider.lock(LOCK_CONFIGURATION)).isEmpty();
+
+        verify(wrapped, times(2)).lock(LOCK_CONFIGURATION);
+    }
+
+    @Test
+    void shouldIgnoreExceptionWhenReadingLockUntil() {
+        when(wrapped.lock(LOCK_CONFIGURATION)).thenReturn(Optional.empty());
+        when(wrapped.getLockUntil("name")).thenThrow(new LockException("Test"));
+
+        assertThat(lockProvider.lock(LOCK_CONFIGURATION)).isEmpty();
+        assertThat(lockProvider.lock(LOCK_CONFIGURATION)).isEmpty();
+
+        verify(wrapped, times(2)).lock(LOCK_CONFIGURATION);
+    }
+
+    @Test
+    void shouldNotPassCachedLocksToLockAll() {
+        LockConfiguration other = new LockConfiguration(now(), "other", Duration.ofMinutes(5), Duration.ZERO);
+        SimpleLock lock = mock(SimpleLock.class);
+        when(wrapped.lock(LOCK_CONFIGURATION)).thenReturn(Optional.empty());
+        when(wrapped.getLockUntil("name")).thenReturn(Optional.of(now().plusSeconds(60)));
+        when(wrapped.lockAll(List.of(other))).thenReturn(Map.of("other", lock));
+
+        assertThat(lockProvider.lock(LOCK_CONFIGURATION)).isEmpty();
+        assertThat(lockProvider.lockAll(List.of(LOCK_CONFIGURATION, other))).containsOnlyKeys("other");
+
+        verify(wrapped).lockAll(List.of(other));
+    }
+
+    @Test
+    void shouldCacheLockUntilOfLocksRefusedByLockAll() {
+        LockConfiguration other = new LockConfiguration(now(), "other", Duration.ofMinutes(5), Duration.ZERO);
+        SimpleLock lock = mock(SimpleLock.class);
+        when(wrapped.lockAll(List.of(LOCK_CONFIGURATION, other))).thenReturn(Map.of("other", lock));
+        when(wrapped.getLockUntil("name")).thenReturn(Optional.of(now().plusSeconds(60)));
+
+        assertThat(lockProvider.lockAll(List.of(LOCK_CONFIGURATION, other))).containsOnlyKeys("other");
+        assertThat(lockProvider.lock(LOCK_CONFIGURATION)).isEmpty();
+        assertThat(lockProvider.lockAll(List.of(LOCK_CONFIGURATION))).isEmpty();
+
+        verify(wrapped, never()).lock(LOCK_CONFIGURATION);
+        verify(wrapped, never()).getLockUntil("other");
+        verify(wrapped, times(1)).lockAll(any());
+    }
+
+    @Test
+    void shouldReturnLockIfObtained() {
+        SimpleLock lock = mock(SimpleLock.class);
+        when(wrapped.lock(LOCK_CONFIGURATION)).thenReturn(Optional.of(lock));
+
+        assertThat(lockProvider.lock(LOCK_CONFIGURATION)).contains(lock);
+        verify(wrapped, times(0)).getLockUntil("name");
+    }
+}
@@ -25,6 +25,7 @@ import static org.mockito.Mockito.when;
 
 import java.time.Duration;
 import java.time.temporal.ChronoUnit;
+import java.util.List;
 import net.javacrumbs.shedlock.core.LockConfiguration;
 import org.junit.jupiter.api.Test;
 
@@ -69,6 +70,44 @@ class StorageBasedLockProviderTest {
         verify(storageAccessor).updateRecord(LOCK_CONFIGURATION);
     }
 
+    @Test
+    void shouldUpsertNewRecordIfSupported() {
+        when(storageAccessor.supportsUpsert()).thenReturn(true);
+        when(storageAccessor.upsertRecord(LOCK_CONFIGURATION)).thenReturn(false);
+        assertThat(lockProvider.lock(LOCK_CONFIGURATION)).isEmpty();
+        verify(storageAccessor, never()).insertRecord(LOCK_CONFIGURATION);
+        verify(storageAccessor, never()).updateRecord(LOCK_CONFIGURATION);
+
+        // Should update directly without upsert
+        when(storageAccessor.updateRecord(LOCK_CONFIGURATION)).thenReturn(true);
+        assertThat(lockProvider.lock(LOCK_CONFIGURATION)).isNotEmpty();
+        verify(storageAccessor, times(1)).upsertRecord(LOCK_CONFIGURATION);
+        verify(storageAccessor).updateRecord(LOCK_CONFIGURATION);
+    }
+
+    @Test
+    void lockAllShouldUpdateExistingRecordsInOneCall() {
+        LockConfiguration lockConfiguration2 =
+                new LockConfiguration(now(), "name2", Duration.of(5, ChronoUnit.MINUTES), Duration.ZERO);
+        LockConfiguration lockConfiguration3 =
+                new LockConfiguration(now(), "name3", Duration.of(5, ChronoUnit.MINUTES), Duration.ZERO);
+        when(storageAccessor.insertRecord(LOCK_CONFIGURATION)).thenReturn(true);
+        when(storageAccessor.insertRecord(lockConfiguration2)).thenReturn(false);
+        when(storageAccessor.insertRecord(lockConfiguration3)).thenReturn(false);
+        when(storageAccessor.updateRecords(List.of(lockConfiguration2, lockConfiguration3)))
+                .thenReturn(new boolean[] {false, true});
+
+        assertThat(lockProvider.lockAll(List.of(LOCK_CONFIGURATION, lockConfiguration2, lockConfiguration3)))
+                .containsOnlyKeys("name", "name3");
+        verify(storageAccessor, never()).updateRecord(lockConfiguration2);
+    }
+
+    @Test
+    void lockAllShouldFailOnDuplicateNames() {
+        assertThatThrownBy(() -> lockProvider.lockAll(List.of(LOCK_CONFIGURATION, LOCK_CONFIGURATION)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
     @Test
     void doNotReturnLockIfUpdatedZeroRows() {
         when(storageAccessor.insertRecord(LOCK_CONFIGURATION)).thenReturn(false);
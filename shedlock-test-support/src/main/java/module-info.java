@@ -8,6 +8,8 @@ module net.javacrumbs.shedlock.test.support {
     requires net.javacrumbs.shedlock.core;
     requires org.assertj.core;
     requires org.junit.jupiter.api;
+    requires org.mockito;
+    requires org.reactivestreams;
     requires org.slf4j;
     requires com.github.dockerjava.api;
     requires testcontainers;
@@ -0,0 +1,104 @@
+/**
+ * Copyright 2009 the original author or authors.
+ *
+ * <p>Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * <p>http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * <p>Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.javacrumbs.shedlock.test.support;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import net.javacrumbs.shedlock.core.LockConfiguration;
+import net.javacrumbs.shedlock.core.LockProvider;
+import net.javacrumbs.shedlock.core.SimpleLock;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+/**
+ * Tests of locked methods returning CompletableFuture or Publisher, shared by
+ * the Spring and Micronaut integrations. The lock provider and the lock are
+ * Mockito mocks, the lock has to be held until the result completes.
+ */
+public abstract class AbstractAsyncLockingAopTest {
+
+    protected abstract LockProvider getLockProvider();
+
+    protected abstract SimpleLock getSimpleLock();
+
+    /** Mockito matcher of the configuration the method is locked with. */
+    protected abstract LockConfiguration hasParams(String name, long lockAtMostFor, long lockAtLeastFor);
+
+    /** Calls method locked as "returnsCompletableFuture" returning the pending result. */
+    protected abstract CompletableFuture<String> returnsCompletableFuture();
+
+    /** Calls method locked as "returnsPublisher" publishing the pending result. */
+    protected abstract Publisher<String> returnsPublisher();
+
+    protected abstract boolean wasMethodCalled();
+
+    protected abstract void completePendingResult(String result);
+
+    @Test
+    public void shouldHoldLockUntilCompletableFutureCompletes() {
+        CompletableFuture<String> result = returnsCompletableFuture();
+        verify(getLockProvider()).lock(hasParams("returnsCompletableFuture", 30_000, 100));
+        assertThat(wasMethodCalled()).isTrue();
+        verify(getSimpleLock(), never()).unlock();
+
+        completePendingResult("result");
+        assertThat(result).isCompletedWithValue("result");
+        verify(getSimpleLock()).unlock();
+    }
+
+    @Test
+    public void shouldInvokePublisherMethodOnlyAfterSubscription() {
+        Publisher<String> publisher = returnsPublisher();
+        assertThat(wasMethodCalled()).isFalse();
+        verifyNoInteractions(getLockProvider());
+
+        List<String> received = new CopyOnWriteArrayList<>();
+        publisher.subscribe(new Subscriber<>() {
+            @Override
+            public void onSubscribe(Subscription subscription) {
+                subscription.request(Long.MAX_VALUE);
+            }
+
+            @Override
+            public void onNext(String item) {
+                received.add(item);
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                received.add("error");
+            }
+
+            @Override
+            public void onComplete() {
+                received.add("complete");
+            }
+        });
+        verify(getLockProvider()).lock(hasParams("returnsPublisher", 30_000, 100));
+        assertThat(wasMethodCalled()).isTrue();
+        verify(getSimpleLock(), never()).unlock();
+
+        completePendingResult("result");
+        assertThat(received).containsExactly("result", "complete");
+        verify(getSimpleLock()).unlock();
+    }
+}
@@ -19,6 +19,8 @@ import static java.time.temporal.ChronoUnit.SECONDS;
 import static org.assertj.core.api.Assertions.assertThat;
 
 import java.time.Duration;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.concurrent.ExecutionException;
@@ -73,6 +75,25 @@ public abstract class AbstractLockProviderIntegrationTest {
         lock2.get().unlock();
     }
 
+    @Test
+    public void shouldLockAll() {
+        Optional<SimpleLock> heldLock = getLockProvider().lock(lockConfig(LOCK_NAME1));
+        assertThat(heldLock).isNotEmpty();
+
+        String lockName2 = UUID.randomUUID().toString();
+        String lockName3 = UUID.randomUUID().toString();
+        Map<String, SimpleLock> locks = getLockProvider()
+                .lockAll(List.of(lockConfig(LOCK_NAME1), lockConfig(lockName2), lockConfig(lockName3)));
+        assertThat(locks).containsOnlyKeys(lockName2, lockName3);
+        assertLocked(lockName2);
+        assertLocked(lockName3);
+
+        locks.values().forEach(SimpleLock::unlock);
+        heldLock.get().unlock();
+        assertUnlocked(lockName2);
+        assertUnlocked(lockName3);
+    }
+
     @Test
     public void shouldLockTwiceInARow() {
         LockProvider lockProvider = getLockProvider();
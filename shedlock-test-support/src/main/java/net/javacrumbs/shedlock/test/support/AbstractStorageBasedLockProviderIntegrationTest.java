@@ -14,10 +14,16 @@
 package net.javacrumbs.shedlock.test.support;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assumptions.assumeThat;
 
+import java.time.Duration;
 import java.util.Optional;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeUnit;
+import net.javacrumbs.shedlock.core.AsyncSimpleLock;
 import net.javacrumbs.shedlock.core.LockConfiguration;
 import net.javacrumbs.shedlock.core.SimpleLock;
+import net.javacrumbs.shedlock.support.AsyncStorageBasedLockProvider;
 import net.javacrumbs.shedlock.support.StorageBasedLockProvider;
 import org.junit.jupiter.api.Test;
 
@@ -60,4 +66,34 @@ public abstract class AbstractStorageBasedLockProviderIntegrationTest
         assertThat(lock2).isNotEmpty();
         lock2.get().unlock();
     }
+
+    @Test
+    public void shouldLockAsyncUsingAsyncStorageAccessor() {
+        StorageBasedLockProvider provider = getLockProvider();
+        assumeThat(provider).isInstanceOf(AsyncStorageBasedLockProvider.class);
+        AsyncStorageBasedLockProvider asyncProvider = (AsyncStorageBasedLockProvider) provider;
+
+        AsyncSimpleLock lock = await(asyncProvider.lockAsync(lockConfig(LOCK_NAME1))).orElseThrow();
+        assertLocked(LOCK_NAME1);
+        assertThat(await(asyncProvider.lockAsync(lockConfig(LOCK_NAME1)))).isEmpty();
+        // the blocking API sees the lock too
+        assertThat(provider.lock(lockConfig(LOCK_NAME1))).isEmpty();
+
+        AsyncSimpleLock extended = await(lock.extendAsync(Duration.ofMinutes(5), Duration.ZERO)).orElseThrow();
+        assertLocked(LOCK_NAME1);
+
+        await(extended.unlockAsync());
+        assertUnlocked(LOCK_NAME1);
+
+        AsyncSimpleLock relocked = await(asyncProvider.lockAsync(lockConfig(LOCK_NAME1))).orElseThrow();
+        await(relocked.unlockAsync());
+    }
+
+    private static <T> T await(CompletionStage<T> stage) {
+        try {
+            return stage.toCompletableFuture().get(10, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
 }
@@ -12,6 +12,7 @@ module net.javacrumbs.shedlock.spring {
     requires spring.aop;
     requires spring.expression;
     requires static spring.tx;
+    requires static org.reactivestreams;
 
     exports net.javacrumbs.shedlock.spring;
     exports net.javacrumbs.shedlock.spring.annotation;
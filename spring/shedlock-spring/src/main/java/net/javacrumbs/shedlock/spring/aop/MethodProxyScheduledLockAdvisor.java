@@ -15,6 +15,9 @@ package net.javacrumbs.shedlock.spring.aop;
 
 import java.lang.annotation.Annotation;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import net.javacrumbs.shedlock.core.AsyncLockingTaskExecutor;
 import net.javacrumbs.shedlock.core.DefaultLockingTaskExecutor;
 import net.javacrumbs.shedlock.core.LockConfiguration;
 import net.javacrumbs.shedlock.core.LockProvider;
@@ -31,6 +34,7 @@ import org.springframework.aop.support.AbstractPointcutAdvisor;
 import org.springframework.aop.support.ComposablePointcut;
 import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
 import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.util.ClassUtils;
 
 class MethodProxyScheduledLockAdvisor extends AbstractPointcutAdvisor {
     private final Pointcut pointcut = new ComposablePointcut(methodPointcutFor(SchedulerLock.class));
@@ -60,6 +64,9 @@ class MethodProxyScheduledLockAdvisor extends AbstractPointcutAdvisor {
     }
 
     private static class LockingInterceptor implements MethodInterceptor {
+        private static final boolean reactiveStreamsPresent = ClassUtils.isPresent(
+                "org.reactivestreams.Publisher", LockingInterceptor.class.getClassLoader());
+
         private final ExtendedLockConfigurationExtractor lockConfigurationExtractor;
         private final LockProviderSupplier lockProviderSupplier;
         private final ObjectProvider<LockingTaskExecutorListener> listenerProvider;
@@ -88,6 +95,18 @@ class MethodProxyScheduledLockAdvisor extends AbstractPointcutAdvisor {
                     invocation.getThis(), invocation.getMethod(), invocation.getArguments());
             LockingTaskExecutorListener listener =
                     listenerProvider.getIfAvailable(() -> LockingTaskExecutorListener.NO_OP);
+
+            if (CompletionStage.class.isAssignableFrom(returnType)) {
+                return executeAsync(invocation, returnType, lockConfiguration, lockProvider, listener);
+            }
+            if (reactiveStreamsPresent && ReactiveLockingSupport.isReactiveType(returnType)) {
+                return ReactiveLockingSupport.lock(
+                        invocation,
+                        returnType,
+                        lockConfiguration,
+                        new AsyncLockingTaskExecutor(lockProvider, listener));
+            }
+
             DefaultLockingTaskExecutor lockingTaskExecutor = new DefaultLockingTaskExecutor(lockProvider, listener);
             TaskResult<Object> result = lockingTaskExecutor.executeWithLock(invocation::proceed, lockConfiguration);
 
@@ -98,6 +117,25 @@ class MethodProxyScheduledLockAdvisor extends AbstractPointcutAdvisor {
             }
         }
 
+        /** The lock is held until the returned CompletionStage completes */
+        @SuppressWarnings("unchecked")
+        private static CompletableFuture<@Nullable Object> executeAsync(
+                MethodInvocation invocation,
+                Class<?> returnType,
+                LockConfiguration lockConfiguration,
+                LockProvider lockProvider,
+                LockingTaskExecutorListener listener) {
+            if (!returnType.isAssignableFrom(CompletableFuture.class)) {
+                throw new LockingNotSupportedException(
+                        "Can not lock method returning " + returnType.getName() + ", use CompletableFuture");
+            }
+            AsyncLockingTaskExecutor lockingTaskExecutor = new AsyncLockingTaskExecutor(lockProvider, listener);
+            return lockingTaskExecutor
+                    .executeWithLock(() -> (CompletionStage<@Nullable Object>) invocation.proceed(), lockConfiguration)
+                    .thenApply(TaskResult::getResult)
+                    .toCompletableFuture();
+        }
+
         private static @Nullable Object toOptional(TaskResult<Object> result) {
             if (result.wasExecuted()) {
                 return result.getResult();
@@ -0,0 +1,74 @@
+/**
+ * Copyright 2009 the original author or authors.
+ *
+ * <p>Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * <p>http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * <p>Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.javacrumbs.shedlock.spring.aop;
+
+import java.lang.reflect.UndeclaredThrowableException;
+import net.javacrumbs.shedlock.core.AsyncLockingTaskExecutor;
+import net.javacrumbs.shedlock.core.LockConfiguration;
+import net.javacrumbs.shedlock.util.LockingPublisher;
+import org.aopalliance.intercept.MethodInvocation;
+import org.jspecify.annotations.Nullable;
+import org.reactivestreams.Publisher;
+import org.springframework.aop.ProxyMethodInvocation;
+import org.springframework.core.ReactiveAdapter;
+import org.springframework.core.ReactiveAdapterRegistry;
+
+/**
+ * Locks methods returning reactive types (Mono, Flux, ...). The lock is
+ * obtained when the returned publisher is subscribed to and released when it
+ * terminates. Separate class so Reactive Streams classes are loaded only if
+ * available.
+ */
+final class ReactiveLockingSupport {
+    private ReactiveLockingSupport() {}
+
+    static boolean isReactiveType(Class<?> returnType) {
+        return ReactiveAdapterRegistry.getSharedInstance().getAdapter(returnType) != null
+                || Publisher.class.isAssignableFrom(returnType);
+    }
+
+    /**
+     * The method is invoked only after the returned publisher is subscribed to
+     * and the lock is obtained, so the work done in the method body is covered by
+     * the lock as well. Each subscription invokes the method again.
+     */
+    static Object lock(
+            MethodInvocation invocation,
+            Class<?> returnType,
+            LockConfiguration lockConfiguration,
+            AsyncLockingTaskExecutor lockingTaskExecutor) {
+        ReactiveAdapter adapter = ReactiveAdapterRegistry.getSharedInstance().getAdapter(returnType);
+        if (adapter == null) {
+            // plain Publisher
+            return LockingPublisher.<Object>defer(
+                    () -> (Publisher<?>) proceed(invocation), lockConfiguration, lockingTaskExecutor);
+        }
+        return adapter.fromPublisher(LockingPublisher.<Object>defer(
+                () -> adapter.toPublisher(proceed(invocation)), lockConfiguration, lockingTaskExecutor));
+    }
+
+    private static @Nullable Object proceed(MethodInvocation invocation) {
+        // the original invocation can be proceeded only once
+        MethodInvocation clone = invocation instanceof ProxyMethodInvocation proxyMethodInvocation
+                ? proxyMethodInvocation.invocableClone()
+                : invocation;
+        try {
+            return clone.proceed();
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new UndeclaredThrowableException(e);
+        }
+    }
+}
@@ -18,10 +18,13 @@ import static org.mockito.Mockito.mock;
 
 import java.io.IOException;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.atomic.AtomicBoolean;
 import net.javacrumbs.shedlock.core.LockProvider;
 import net.javacrumbs.shedlock.spring.annotation.EnableSchedulerLock;
 import net.javacrumbs.shedlock.spring.annotation.SchedulerLock;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscription;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.PropertySource;
@@ -57,9 +60,15 @@ public class MethodProxyAopConfig {
 
     static class TestBean {
         private final AtomicBoolean called = new AtomicBoolean(false);
+        private volatile CompletableFuture<String> pendingResult = new CompletableFuture<>();
 
         void reset() {
             called.set(false);
+            pendingResult = new CompletableFuture<>();
+        }
+
+        void completePendingResult(String result) {
+            pendingResult.complete(result);
         }
 
         boolean wasMethodCalled() {
@@ -115,6 +124,33 @@ public class MethodProxyAopConfig {
             return Optional.of("result");
         }
 
+        @SchedulerLock(name = "returnsCompletableFuture")
+        public CompletableFuture<String> returnsCompletableFuture() {
+            called.set(true);
+            assertLocked();
+            return pendingResult;
+        }
+
+        @SchedulerLock(name = "returnsPublisher")
+        public Publisher<String> returnsPublisher() {
+            called.set(true);
+            assertLocked();
+            CompletableFuture<String> result = pendingResult;
+            return subscriber -> {
+                subscriber.onSubscribe(new Subscription() {
+                    @Override
+                    public void request(long n) {}
+
+                    @Override
+                    public void cancel() {}
+                });
+                result.thenAccept(value -> {
+                    subscriber.onNext(value);
+                    subscriber.onComplete();
+                });
+            };
+        }
+
         @SchedulerLock(name = "${property.value}", lockAtLeastFor = "1s")
         public void spel() {
             called.set(true);
@@ -13,7 +13,6 @@
  */
 package net.javacrumbs.shedlock.spring.aop;
 
-import static net.javacrumbs.shedlock.spring.TestUtils.hasParams;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
@@ -24,22 +23,27 @@ import static org.mockito.Mockito.when;
 
 import java.io.IOException;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import net.javacrumbs.shedlock.core.LockConfiguration;
 import net.javacrumbs.shedlock.core.LockProvider;
 import net.javacrumbs.shedlock.core.SimpleLock;
 import net.javacrumbs.shedlock.spring.ExtendedLockConfigurationExtractor;
+import net.javacrumbs.shedlock.spring.TestUtils;
 import net.javacrumbs.shedlock.spring.aop.MethodProxyAopConfig.AnotherTestBean;
 import net.javacrumbs.shedlock.spring.aop.MethodProxyAopConfig.TestBean;
+import net.javacrumbs.shedlock.test.support.AbstractAsyncLockingAopTest;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mockito;
+import org.reactivestreams.Publisher;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
 @ExtendWith(SpringExtension.class)
 @ContextConfiguration(classes = MethodProxyAopConfig.class)
-public class MethodProxyAopTest {
+public class MethodProxyAopTest extends AbstractAsyncLockingAopTest {
     @Autowired
     private LockProvider lockProvider;
 
@@ -61,6 +65,41 @@ public class MethodProxyAopTest {
         testBean.reset();
     }
 
+    @Override
+    protected LockProvider getLockProvider() {
+        return lockProvider;
+    }
+
+    @Override
+    protected SimpleLock getSimpleLock() {
+        return simpleLock;
+    }
+
+    @Override
+    protected LockConfiguration hasParams(String name, long lockAtMostFor, long lockAtLeastFor) {
+        return TestUtils.hasParams(name, lockAtMostFor, lockAtLeastFor);
+    }
+
+    @Override
+    protected CompletableFuture<String> returnsCompletableFuture() {
+        return testBean.returnsCompletableFuture();
+    }
+
+    @Override
+    protected Publisher<String> returnsPublisher() {
+        return testBean.returnsPublisher();
+    }
+
+    @Override
+    protected boolean wasMethodCalled() {
+        return testBean.wasMethodCalled();
+    }
+
+    @Override
+    protected void completePendingResult(String result) {
+        testBean.completePendingResult(result);
+    }
+
     @Test
     public void shouldNotCollLockProviderWithNoAnnotation() {
         testBean.noAnnotation();